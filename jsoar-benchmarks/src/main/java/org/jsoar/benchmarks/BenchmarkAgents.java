@@ -0,0 +1,54 @@
+package org.jsoar.benchmarks;
+
+import java.net.URL;
+import org.jsoar.kernel.Agent;
+import org.jsoar.kernel.SoarException;
+import org.jsoar.util.NullWriter;
+
+/** Creates the agents used by the benchmarks. */
+final class BenchmarkAgents {
+  private BenchmarkAgents() {}
+
+  /**
+   * Create an initialized agent with tracing disabled and its output discarded, so that printing
+   * doesn't show up in the measurements.
+   *
+   * @param name the name of the agent
+   * @return the new agent
+   */
+  static Agent create(String name) {
+    final Agent agent = new Agent(name);
+    agent.getTrace().setEnabled(false);
+    agent.getPrinter().pushWriter(new NullWriter());
+    return agent;
+  }
+
+  /**
+   * Source one of the agents in the {@code performance/} directory, which is packaged with the
+   * benchmarks.
+   *
+   * @param agent the agent
+   * @param file the name of the file, e.g. {@code count-test-single.soar}
+   * @throws SoarException if the file can't be found or sourced
+   */
+  static void source(Agent agent, String file) throws SoarException {
+    final URL url = BenchmarkAgents.class.getResource(file);
+    if (url == null) {
+      throw new SoarException("Could not find benchmark agent " + file);
+    }
+    agent.getInterpreter().source(url);
+  }
+
+  /**
+   * Evaluate each of the commands, e.g. productions, in order.
+   *
+   * @param agent the agent
+   * @param commands the commands
+   * @throws SoarException if a command fails
+   */
+  static void eval(Agent agent, String... commands) throws SoarException {
+    for (String command : commands) {
+      agent.getInterpreter().eval(command);
+    }
+  }
+}
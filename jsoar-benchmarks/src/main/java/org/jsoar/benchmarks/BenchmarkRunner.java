@@ -0,0 +1,194 @@
+package org.jsoar.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs the benchmarks with the GC profiler, writes the results as CSV and compares them with a
+ * baseline written by an earlier run.
+ *
+ * <pre>
+ * java -jar jsoar-benchmarks.jar [--baseline file] [--result file] [--threshold fraction] [--quick] [regexp...]
+ * </pre>
+ *
+ * <ul>
+ *   <li>{@code --baseline} compares the time and the allocations per operation with the given
+ *       results. The exit code is 1 if any of them grew by more than the threshold.
+ *   <li>{@code --result} where to write the results, {@code benchmarks.csv} by default. Pass the
+ *       baseline file to record a new baseline.
+ *   <li>{@code --threshold} the allowed growth, 0.1 (10%) by default.
+ *   <li>{@code --quick} one short warmup and measurement iteration per benchmark, for checking that
+ *       the benchmarks run rather than for measuring.
+ *   <li>the remaining arguments select benchmarks, all of {@code org.jsoar.benchmarks} by default.
+ * </ul>
+ */
+public class BenchmarkRunner {
+  /** The secondary result of the GC profiler with the bytes allocated per operation */
+  static final String ALLOCATION = "·gc.alloc.rate.norm";
+
+  public static void main(String[] args) throws RunnerException, IOException {
+    Path baseline = null;
+    Path result = Paths.get("benchmarks.csv");
+    double threshold = 0.1;
+    boolean quick = false;
+    final List<String> includes = new ArrayList<>();
+    for (int i = 0; i < args.length; i++) {
+      if ("--baseline".equals(args[i])) {
+        baseline = Paths.get(args[++i]);
+      } else if ("--result".equals(args[i])) {
+        result = Paths.get(args[++i]);
+      } else if ("--threshold".equals(args[i])) {
+        threshold = Double.parseDouble(args[++i]);
+      } else if ("--quick".equals(args[i])) {
+        quick = true;
+      } else {
+        includes.add(args[i]);
+      }
+    }
+    if (includes.isEmpty()) {
+      includes.add(BenchmarkRunner.class.getPackage().getName() + ".");
+    }
+
+    // read the baseline first, it may be the file the results are written to
+    final Map<String, Double> expected = baseline != null ? readResults(baseline) : null;
+
+    final ChainedOptionsBuilder options =
+        new OptionsBuilder()
+            .addProfiler(GCProfiler.class)
+            .shouldFailOnError(true)
+            .resultFormat(ResultFormatType.CSV)
+            .result(result.toString());
+    for (String include : includes) {
+      options.include(include);
+    }
+    if (quick) {
+      options
+          .warmupIterations(1)
+          .warmupTime(TimeValue.milliseconds(500))
+          .measurementIterations(1)
+          .measurementTime(TimeValue.seconds(1));
+    }
+    final Collection<RunResult> results = new Runner(options.build()).run();
+
+    if (expected != null && !compare(expected, results, threshold)) {
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Print the change of each result relative to the baseline.
+   *
+   * @return false if any result grew by more than the threshold
+   */
+  static boolean compare(
+      Map<String, Double> expected, Collection<RunResult> results, double threshold) {
+    boolean passed = true;
+    System.out.printf("%n%-90s %14s %14s %8s%n", "Benchmark", "Baseline", "Score", "Change");
+    for (RunResult run : results) {
+      final String key = key(run.getParams());
+      final Map<String, Result<?>> scores = new LinkedHashMap<>();
+      scores.put(key, run.getPrimaryResult());
+      final Result<?> allocated = run.getSecondaryResults().get(ALLOCATION);
+      if (allocated != null) {
+        scores.put(key + ":" + ALLOCATION, allocated);
+      }
+      for (Map.Entry<String, Result<?>> e : scores.entrySet()) {
+        final Double before = expected.get(e.getKey());
+        final double after = e.getValue().getScore();
+        if (before == null) {
+          System.out.printf("%-90s %14s %14.3f %8s%n", e.getKey(), "-", after, "new");
+          continue;
+        }
+        final double change = before != 0.0 ? after / before - 1.0 : (after != 0.0 ? 1.0 : 0.0);
+        final boolean regressed = change > threshold;
+        passed &= !regressed;
+        System.out.printf(
+            "%-90s %14.3f %14.3f %+7.1f%%%s%n",
+            e.getKey(), before, after, change * 100.0, regressed ? " REGRESSION" : "");
+      }
+    }
+    return passed;
+  }
+
+  /**
+   * Read results written by JMH in CSV format
+   *
+   * @return the score of each benchmark, keyed like {@link #key(BenchmarkParams)}, with secondary
+   *     results keyed by the benchmark followed by {@code :} and the name of the result.
+   */
+  static Map<String, Double> readResults(Path file) throws IOException {
+    final Map<String, Double> results = new LinkedHashMap<>();
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      final List<String> header = splitCsv(reader.readLine());
+      final int score = header.indexOf("Score");
+      String line;
+      while ((line = reader.readLine()) != null) {
+        final List<String> row = splitCsv(line);
+        String name = row.get(0);
+        String secondary = "";
+        final int colon = name.indexOf(':');
+        if (colon >= 0) {
+          secondary = name.substring(colon);
+          name = name.substring(0, colon);
+        }
+        final StringBuilder key = new StringBuilder(name);
+        for (int i = 0; i < header.size(); i++) {
+          if (header.get(i).startsWith("Param: ") && i < row.size() && !row.get(i).isEmpty()) {
+            key.append(' ').append(header.get(i).substring(7)).append('=').append(row.get(i));
+          }
+        }
+        results.put(key + secondary, Double.parseDouble(row.get(score)));
+      }
+    }
+    return results;
+  }
+
+  /**
+   * @return the benchmark method followed by each of its parameters, e.g. {@code X.m backend=heap}
+   */
+  static String key(BenchmarkParams params) {
+    final StringBuilder key = new StringBuilder(params.getBenchmark());
+    for (String param : params.getParamsKeys()) {
+      key.append(' ').append(param).append('=').append(params.getParam(param));
+    }
+    return key.toString();
+  }
+
+  private static List<String> splitCsv(String line) {
+    final List<String> fields = new ArrayList<>();
+    final StringBuilder field = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      final char c = line.charAt(i);
+      if (c == '"') {
+        quoted = !quoted;
+      } else if (c == ',' && !quoted) {
+        fields.add(field.toString());
+        field.setLength(0);
+      } else {
+        field.append(c);
+      }
+    }
+    fields.add(field.toString());
+    return fields;
+  }
+}
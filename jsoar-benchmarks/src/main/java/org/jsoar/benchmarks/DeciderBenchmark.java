@@ -0,0 +1,88 @@
+package org.jsoar.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.jsoar.kernel.Agent;
+import org.jsoar.kernel.Decider;
+import org.jsoar.kernel.Phase;
+import org.jsoar.kernel.RunType;
+import org.jsoar.kernel.SoarException;
+import org.jsoar.kernel.memory.Preference;
+import org.jsoar.kernel.memory.Slot;
+import org.jsoar.util.ByRef;
+import org.jsoar.util.adaptables.Adaptables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks {@link Decider#run_preference_semantics(Slot, ByRef)} on an operator slot with a mix
+ * of acceptable, indifferent, reject and best preferences.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DeciderBenchmark {
+  /** The number of proposed operators */
+  @Param({"5", "50"})
+  public int candidates;
+
+  private Agent agent;
+  private Decider decider;
+  private Slot slot;
+  private final ByRef<Preference> result = ByRef.create(null);
+
+  @Setup(Level.Trial)
+  public void setUp() throws SoarException {
+    agent = BenchmarkAgents.create("decider");
+    decider = Adaptables.adapt(agent, Decider.class);
+
+    final StringBuilder init =
+        new StringBuilder("sp {decider*init (state <s> ^superstate nil) --> (<s>");
+    for (int i = 0; i < candidates; i++) {
+      init.append(" ^candidate ").append(i);
+    }
+    init.append(")}");
+    BenchmarkAgents.eval(
+        agent,
+        init.toString(),
+        "sp {decider*propose (state <s> ^superstate nil ^candidate <c>)"
+            + " --> (<s> ^operator <o> + =) (<o> ^name candidate ^value <c>)}",
+        "sp {decider*reject (state <s> ^operator <o> +) (<o> ^value 1) --> (<s> ^operator <o> -)}",
+        "sp {decider*best (state <s> ^operator <o> +) (<o> ^value 0) --> (<s> ^operator <o> >)}");
+
+    // stop with the proposals in place, just before they are decided
+    agent.setStopPhase(Phase.DECISION);
+    agent.runFor(1, RunType.DECISIONS);
+
+    slot = Slot.find_slot(decider.top_state, agent.getSymbols().createString("operator"));
+    if (slot == null || slot.getAllPreferences() == null) {
+      throw new IllegalStateException("No operator preferences were proposed");
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    agent.dispose();
+  }
+
+  /** Both the impasse type and the winning candidates are consumed so neither can be elided */
+  @Benchmark
+  public void runPreferenceSemantics(Blackhole blackhole) {
+    blackhole.consume(decider.run_preference_semantics(slot, result));
+    blackhole.consume(result.value);
+  }
+}
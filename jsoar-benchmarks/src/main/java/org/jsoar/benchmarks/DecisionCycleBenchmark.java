@@ -0,0 +1,55 @@
+package org.jsoar.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.jsoar.kernel.Agent;
+import org.jsoar.kernel.SoarException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Runs the agents in the {@code performance/} directory until they halt. This is the same workload
+ * as {@code PerformanceTimer}, with a fresh agent for every invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class DecisionCycleBenchmark {
+  @Param({
+    "FunctionalTests_testTowersOfHanoi.soar",
+    "FunctionalTests_testArithmetic.soar",
+    "count-test-single.soar"
+  })
+  public String file;
+
+  private Agent agent;
+
+  @Setup(Level.Invocation)
+  public void setUp() throws SoarException {
+    agent = BenchmarkAgents.create("decision-cycle");
+    BenchmarkAgents.source(agent, file);
+  }
+
+  @TearDown(Level.Invocation)
+  public void tearDown() {
+    agent.dispose();
+  }
+
+  @Benchmark
+  public void runUntilHalt() {
+    agent.runForever();
+  }
+}
@@ -0,0 +1,85 @@
+package org.jsoar.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.jsoar.kernel.Agent;
+import org.jsoar.kernel.RunType;
+import org.jsoar.kernel.SoarException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks recording and retrieving episodes with each of the episodic memory backends. Each
+ * invocation runs a decision, which records an episode and, for {@link #query(QueryState)}, also
+ * retrieves an earlier one. The agents are recreated for every iteration so the number of episodes
+ * stays bounded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EpisodicMemoryBenchmark {
+  @State(Scope.Thread)
+  public static class StoreState {
+    @Param({"jdbc", "columnar"})
+    public String backend;
+
+    Agent agent;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws SoarException {
+      agent = BenchmarkAgents.create("epmem-store");
+      BenchmarkAgents.eval(agent, "epmem --set backend " + backend);
+      BenchmarkAgents.source(agent, "epmem.soar");
+      agent.runFor(2, RunType.DECISIONS);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+      agent.dispose();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class QueryState {
+    @Param({"jdbc", "columnar"})
+    public String backend;
+
+    Agent agent;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws SoarException {
+      agent = BenchmarkAgents.create("epmem-query");
+      BenchmarkAgents.eval(agent, "epmem --set backend " + backend);
+      BenchmarkAgents.source(agent, "epmem.soar");
+      BenchmarkAgents.source(agent, "epmem-query.soar");
+      agent.runFor(12, RunType.DECISIONS);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+      agent.dispose();
+    }
+  }
+
+  @Benchmark
+  public void store(StoreState state) {
+    state.agent.runFor(1, RunType.DECISIONS);
+  }
+
+  @Benchmark
+  public void query(QueryState state) {
+    state.agent.runFor(1, RunType.DECISIONS);
+  }
+}
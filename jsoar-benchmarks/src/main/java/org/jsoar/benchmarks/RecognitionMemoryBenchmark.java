@@ -0,0 +1,50 @@
+package org.jsoar.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.jsoar.kernel.Agent;
+import org.jsoar.kernel.RunType;
+import org.jsoar.kernel.SoarException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks firing and retracting instantiations. {@code RecognitionMemory.create_instantiation}
+ * is private, so each invocation runs a decision of {@code recognition-memory.soar} which creates
+ * and retracts 50 instantiations.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RecognitionMemoryBenchmark {
+  private Agent agent;
+
+  @Setup(Level.Trial)
+  public void setUp() throws SoarException {
+    agent = BenchmarkAgents.create("recognition-memory");
+    BenchmarkAgents.source(agent, "recognition-memory.soar");
+    agent.runFor(2, RunType.DECISIONS);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    agent.dispose();
+  }
+
+  @Benchmark
+  public void fireInstantiations() {
+    agent.runFor(1, RunType.DECISIONS);
+  }
+}
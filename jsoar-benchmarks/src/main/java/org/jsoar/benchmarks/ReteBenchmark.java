@@ -0,0 +1,117 @@
+package org.jsoar.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.jsoar.kernel.Agent;
+import org.jsoar.kernel.Decider;
+import org.jsoar.kernel.Production;
+import org.jsoar.kernel.ProductionManager;
+import org.jsoar.kernel.SoarException;
+import org.jsoar.kernel.memory.WmeImpl;
+import org.jsoar.kernel.memory.WorkingMemory;
+import org.jsoar.kernel.rete.Rete;
+import org.jsoar.kernel.symbols.IdentifierImpl;
+import org.jsoar.kernel.symbols.SymbolFactoryImpl;
+import org.jsoar.kernel.symbols.SymbolImpl;
+import org.jsoar.util.adaptables.Adaptables;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the rete: adding and removing WMEs that are tested by the loaded productions, and
+ * adding productions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReteBenchmark {
+  /** The number of productions that test the WMEs */
+  @Param({"10", "100"})
+  public int productions;
+
+  private Agent agent;
+  private Rete rete;
+  private ProductionManager productionManager;
+  private WmeImpl[] wmes;
+  private String production;
+
+  @Setup(Level.Trial)
+  public void setUp() throws SoarException {
+    agent = BenchmarkAgents.create("rete");
+    rete = Adaptables.adapt(agent, Rete.class);
+    productionManager = agent.getProductions();
+
+    // Each production joins a value on the top state with a second value on the same identifier,
+    // so a WME activates alpha memories, beta joins and the production nodes.
+    for (int i = 0; i < productions; i++) {
+      BenchmarkAgents.eval(
+          agent,
+          "sp {rete*match*"
+              + i
+              + " (state <s> ^superstate nil ^item <i>) (<i> ^value "
+              + i
+              + " ^name <n>) --> (<s> ^matched-"
+              + i
+              + " <n>)}");
+    }
+
+    final Decider decider = Adaptables.adapt(agent, Decider.class);
+    final WorkingMemory wm = Adaptables.adapt(agent, WorkingMemory.class);
+    final SymbolFactoryImpl syms = Adaptables.adapt(agent, SymbolFactoryImpl.class);
+    final IdentifierImpl state = decider.top_state;
+    final IdentifierImpl item = syms.createIdentifier('I', state.getLevel());
+    final SymbolImpl itemAttr = syms.createString("item");
+    final SymbolImpl valueAttr = syms.createString("value");
+    final SymbolImpl nameAttr = syms.createString("name");
+
+    wmes = new WmeImpl[productions + 2];
+    wmes[0] = wm.make_wme(state, itemAttr, item, false);
+    wmes[1] = wm.make_wme(item, nameAttr, syms.createString("benchmark"), false);
+    for (int i = 0; i < productions; i++) {
+      wmes[i + 2] = wm.make_wme(item, valueAttr, syms.createInteger(i), false);
+    }
+
+    production =
+        "rete*added (state <s> ^superstate nil ^item <i>) (<i> ^value <v> ^name <n>)"
+            + " (<i> -^missing <n>) --> (<s> ^added <v>)";
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    agent.dispose();
+  }
+
+  /** Add a structure that matches every production to the rete and remove it again. */
+  @Benchmark
+  public void addAndRemoveWmes() {
+    for (WmeImpl w : wmes) {
+      rete.add_wme_to_rete(w);
+    }
+    for (int i = wmes.length - 1; i >= 0; i--) {
+      rete.remove_wme_from_rete(wmes[i]);
+    }
+  }
+
+  /**
+   * Parse a production, add it to the rete and excise it again so the size of the rete is the same
+   * for every invocation.
+   */
+  @Benchmark
+  public void addAndExciseProduction() throws Exception {
+    final Production p = productionManager.loadProduction(production);
+    productionManager.exciseProduction(p, false);
+  }
+}
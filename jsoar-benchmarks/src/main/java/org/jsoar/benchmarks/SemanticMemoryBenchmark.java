@@ -0,0 +1,98 @@
+package org.jsoar.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.jsoar.kernel.Agent;
+import org.jsoar.kernel.RunType;
+import org.jsoar.kernel.SoarException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks storing to and retrieving from semantic memory with each of its backends. Each
+ * invocation runs a decision that issues one store or query command.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SemanticMemoryBenchmark {
+  /** The number of items in semantic memory before the queries start */
+  private static final int ITEMS = 1000;
+
+  @State(Scope.Thread)
+  public static class StoreState {
+    @Param({"jdbc", "heap"})
+    public String backend;
+
+    Agent agent;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws SoarException {
+      agent = BenchmarkAgents.create("smem-store");
+      BenchmarkAgents.eval(agent, "smem --set backend " + backend);
+      BenchmarkAgents.source(agent, "smem-store.soar");
+      agent.runFor(2, RunType.DECISIONS);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+      agent.dispose();
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class QueryState {
+    @Param({"jdbc", "heap"})
+    public String backend;
+
+    Agent agent;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SoarException {
+      agent = BenchmarkAgents.create("smem-query");
+      BenchmarkAgents.eval(agent, "smem --set backend " + backend);
+      BenchmarkAgents.source(agent, "smem-query.soar");
+
+      final StringBuilder add = new StringBuilder("smem --add {");
+      for (int i = 0; i < ITEMS; i++) {
+        add.append("(<i")
+            .append(i)
+            .append("> ^name item ^index ")
+            .append(i)
+            .append(" ^group ")
+            .append(i % 10)
+            .append(")\n");
+      }
+      add.append("}");
+      BenchmarkAgents.eval(agent, add.toString());
+      agent.runFor(2, RunType.DECISIONS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      agent.dispose();
+    }
+  }
+
+  @Benchmark
+  public void store(StoreState state) {
+    state.agent.runFor(1, RunType.DECISIONS);
+  }
+
+  @Benchmark
+  public void query(QueryState state) {
+    state.agent.runFor(1, RunType.DECISIONS);
+  }
+}
@@ -8,6 +8,7 @@
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import lombok.Getter;
@@ -25,7 +26,9 @@
 import org.jsoar.kernel.lhs.MultiAttributes;
 import org.jsoar.kernel.memory.*;
 import org.jsoar.kernel.rete.Rete;
+import org.jsoar.kernel.rete.ReteSerializer;
 import org.jsoar.kernel.rete.SoarReteListener;
+import org.jsoar.kernel.rhs.functions.RhsFunctionHandler;
 import org.jsoar.kernel.rhs.functions.RhsFunctionManager;
 import org.jsoar.kernel.rhs.functions.StandardFunctions;
 import org.jsoar.kernel.smem.DefaultSemanticMemory;
@@ -33,6 +36,7 @@
 import org.jsoar.kernel.symbols.Symbol;
 import org.jsoar.kernel.symbols.SymbolFactory;
 import org.jsoar.kernel.symbols.SymbolFactoryImpl;
+import org.jsoar.kernel.symbols.SymbolTableType;
 import org.jsoar.kernel.tracing.*;
 import org.jsoar.kernel.tracing.Trace.Category;
 import org.jsoar.kernel.tracing.Trace.MatchSetTraceType;
@@ -138,6 +142,7 @@ public class Agent extends AbstractAdaptable implements AgentRunController {
   private final DecisionCycle decisionCycle = new DecisionCycle(this);
   private final SoarEventManager eventManager = new SoarEventManager();
   private final DefaultProductionManager productions = new DefaultProductionManager(this);
+  private final ProductionProfiler profiler = new ProductionProfiler(this);
 
   private final LogManager logManager = new LogManager(this);
 
@@ -192,7 +197,8 @@ public class Agent extends AbstractAdaptable implements AgentRunController {
           rl,
           smem,
           wma,
-          epmem);
+          epmem,
+          profiler);
 
   /**
    * Construct a new agent with a generated name. Also initializes the agent.
@@ -230,6 +236,19 @@ public Agent(String name) {
    * @param initializeAgent lets you explicitly choose whether to initialize the agent.
    */
   public Agent(String name, boolean initializeAgent) {
+    this(name, SymbolTableType.WEAK, initializeAgent);
+  }
+
+  /**
+   * Construct a new agent with the given name and symbol table type.
+   *
+   * @param name the name. If {@code null}, a new name is generated.
+   * @param symbolTableType how the agent caches symbols
+   * @param initializeAgent lets you explicitly choose whether to initialize the agent.
+   * @see SymbolTableType
+   */
+  public Agent(String name, @NonNull SymbolTableType symbolTableType, boolean initializeAgent) {
+    syms.setSymbolTableType(symbolTableType);
     setName(name != null ? name : "JSoar Agent " + nextName.incrementAndGet());
 
     this.printer.addPersistentWriter(new PrintEventWriter(getEvents()));
@@ -250,6 +269,7 @@ public Agent(String name, boolean initializeAgent) {
     smem.initialize();
     epmem.initialize();
     wma.initialize();
+    profiler.initialize();
 
     // Set up standard RHS functions
     new StandardFunctions(this);
@@ -329,6 +349,60 @@ public void initialize() {
     initialized = true;
   }
 
+  /**
+   * Create a new, initialized agent with the same productions as this one.
+   *
+   * <p>The productions are saved as a rete net and the fork's rete is built from it. Working
+   * memory, smem, epmem and statistics are not copied. The fork also gets this agent's
+   * multi-attribute costs, the properties saved with a rete net (see {@link ReteSerializer}), and
+   * any RHS function handlers it doesn't already have. Those handlers are shared with this agent,
+   * not copied.
+   *
+   * <p>Productions and symbols can't be shared between agents because the rete, and the symbols
+   * themselves, keep per-agent match state.
+   *
+   * @return the new agent
+   * @throws SoarException if the productions can't be saved, e.g. because there are justifications
+   * @see #fork(int)
+   */
+  public Agent fork() throws SoarException {
+    return fork(ReteSerializer.snapshot(this));
+  }
+
+  /**
+   * Create several agents with the same productions as this one, as with {@link #fork()}. The
+   * productions are saved once and every fork is built from the same rete net, so stamping out many
+   * agents from one template only pays for building each agent's own rete.
+   *
+   * @param count the number of agents to create
+   * @return the new agents
+   * @throws SoarException if the productions can't be saved, e.g. because there are justifications
+   */
+  public List<Agent> fork(int count) throws SoarException {
+    final ByteBuffer snapshot = ReteSerializer.snapshot(this);
+    final List<Agent> forks = new ArrayList<>(count);
+    for (int i = 0; i < count; ++i) {
+      forks.add(fork(snapshot));
+    }
+    return forks;
+  }
+
+  private Agent fork(ByteBuffer snapshot) throws SoarException {
+    final Agent fork = new Agent(null, syms.getSymbolTableType(), false);
+    for (RhsFunctionHandler handler : rhsFunctions.getHandlers()) {
+      if (fork.rhsFunctions.getHandler(handler.getName()) == null) {
+        fork.rhsFunctions.registerHandler(handler);
+      }
+    }
+    multiAttrs.copyInto(fork.syms, fork.multiAttrs);
+    try {
+      ReteSerializer.replaceRete(fork, snapshot);
+    } catch (IOException e) {
+      throw new SoarException("Failed to fork agent: " + e.getMessage(), e);
+    }
+    return fork;
+  }
+
   /**
    * Returns the agent's current command interpreter.
    *
@@ -526,10 +600,10 @@ public void printStackTrace(boolean states, boolean operators) {
           traceFormats.print_stack_trace(writer, g, g, TraceFormatRestriction.FOR_STATES_TF, false);
           writer.append('\n');
         }
-        if (operators && !g.goalInfo.operator_slot.getWmes().isEmpty()) {
+        if (operators && g.goalInfo.operator_slot.hasWmes()) {
           traceFormats.print_stack_trace(
               writer,
-              g.goalInfo.operator_slot.getWmes().get(0).value,
+              g.goalInfo.operator_slot.getFirstWme().value,
               g,
               TraceFormatRestriction.FOR_OPERATORS_TF,
               false);
@@ -77,9 +77,9 @@ private boolean decisionConsistentWithCurrentPreferences(IdentifierImpl goal, Sl
     /* Determine the current operator/impasse in the slot*/
     WmeImpl current_operator;
     boolean operator_in_slot;
-    if (!goal.goalInfo.operator_slot.getWmes().isEmpty()) {
+    if (goal.goalInfo.operator_slot.hasWmes()) {
       /* There is an operator in the slot */
-      current_operator = goal.goalInfo.operator_slot.getWmes().get(0);
+      current_operator = goal.goalInfo.operator_slot.getFirstWme();
       operator_in_slot = true;
     } else {
       /* There is not an operator in the slot */
@@ -231,7 +231,7 @@ routine in this case (this condition is checked before
   /** consistency.cpp:299:remove_current_decision */
   private void removeCurrentDecision(final Slot s) {
     final var trace = context.getTrace();
-    if (s.getWmes().isEmpty()) {
+    if (!s.hasWmes()) {
       trace.print(
           Category.OPERAND2_REMOVALS,
           "\n       REMOVING CONTEXT SLOT: Slot IdentifierImpl [%s] and attribute [%s]\n",
@@ -277,7 +277,7 @@ private boolean checkContextSlotDecisions(int level) {
 
       Slot s = goal.goalInfo.operator_slot;
 
-      if ((goal.goalInfo.lower_goal != null) || !s.getWmes().isEmpty()) {
+      if ((goal.goalInfo.lower_goal != null) || s.hasWmes()) {
         /* If we are not at the bottom goal or if there is an operator in the
         bottom goal's operator slot */
         printDebugMessage(
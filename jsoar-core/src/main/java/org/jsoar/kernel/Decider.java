@@ -299,7 +299,7 @@ public void mark_context_slot_as_acceptable_preference_changed(Slot s) {
   /** This updates the acceptable preference wmes for a single slot. */
   private void do_acceptable_preference_wme_changes_for_slot(Slot s) {
     // first, reset marks to "NOTHING"
-    for (WmeImpl w : s.getAcceptablePreferenceWmes()) {
+    for (WmeImpl w = s.getFirstAcceptablePreferenceWme(); w != null; w = w.next) {
       w.value.decider_flag = DeciderFlag.NOTHING;
     }
 
@@ -314,7 +314,9 @@ private void do_acceptable_preference_wme_changes_for_slot(Slot s) {
     // remove any existing wme's that aren't CANDIDATEs; mark the rest as
     // ALREADY_EXISTING
 
-    for (WmeImpl w : s.getAcceptablePreferenceWmes()) {
+    WmeImpl next_w;
+    for (WmeImpl w = s.getFirstAcceptablePreferenceWme(); w != null; w = next_w) {
+      next_w = w.next;
       if (w.value.decider_flag == DeciderFlag.CANDIDATE) {
         w.value.decider_flag = DeciderFlag.ALREADY_EXISTING_WME;
         w.value.decider_wme = w;
@@ -385,9 +387,9 @@ private void remove_operator_if_necessary(Slot s, WmeImpl w) {
 
     // Note: Deleted about 40 lines of commented printf debugging code here from CSoar
 
-    if (!s.getWmes().isEmpty()) {
+    if (s.hasWmes()) {
       // If there is something in the context slot
-      if (s.getWmes().get(0).value == w.value) {
+      if (s.getFirstWme().value == w.value) {
         // The WME in the context slot is WME whose pref changed
         context
             .getTrace()
@@ -512,7 +514,7 @@ private void promote_id_and_tc(IdentifierImpl id, /* goal_stack_level */ int new
           promote_if_needed(pref.referent, new_level);
         }
       }
-      for (WmeImpl w : s.getWmes()) {
+      for (WmeImpl w = s.getFirstWme(); w != null; w = w.next) {
         promote_if_needed(w.value, new_level);
       }
     }
@@ -599,7 +601,7 @@ private void garbage_collect_id(IdentifierImpl id) {
 
     for (Slot s = id.slots; s != null; s = s.next) {
       // remove all wme's from the slot
-      this.workingMemory.remove_wme_list_from_wm(s.getWmes(), false);
+      this.workingMemory.remove_wme_list_from_wm(s.getFirstWme());
       s.removeAllWmes();
 
       // remove all preferences for the slot
@@ -685,7 +687,7 @@ private void mark_id_and_tc_as_unknown_level(IdentifierImpl root) {
         if ((s.impasse_id != null) && mark_level_unknown_needed(s.impasse_id)) {
           ids_to_walk.push(s.impasse_id.asIdentifier());
         }
-        for (WmeImpl w : s.getWmes()) {
+        for (WmeImpl w = s.getFirstWme(); w != null; w = w.next) {
           if (mark_level_unknown_needed(w.value)) {
             ids_to_walk.push(w.value.asIdentifier());
           }
@@ -745,7 +747,7 @@ private void walk_and_update_levels(IdentifierImpl root) {
         if ((s.impasse_id != null) && level_update_needed(s.impasse_id)) {
           ids_to_walk.push(s.impasse_id.asIdentifier());
         }
-        for (WmeImpl w : s.getWmes()) {
+        for (WmeImpl w = s.getFirstWme(); w != null; w = w.next) {
           if (level_update_needed(w.value)) {
             ids_to_walk.push(w.value.asIdentifier());
           }
@@ -1621,7 +1623,7 @@ private Preference make_fake_preference_for_goal_item(IdentifierImpl goal, Prefe
     final Slot s = cand.slot;
 
     WmeImpl ap_wme = null;
-    for (WmeImpl wme : s.getAcceptablePreferenceWmes()) {
+    for (WmeImpl wme = s.getFirstAcceptablePreferenceWme(); wme != null; wme = wme.next) {
       if (wme.value == cand.value) {
         ap_wme = wme;
         break;
@@ -1774,7 +1776,7 @@ private void decide_non_context_slot(Slot s) {
 
     if (impasse_type == ImpasseType.NONE) {
       // reset marks on existing wme values to "NOTHING"
-      for (WmeImpl w : s.getWmes()) {
+      for (WmeImpl w = s.getFirstWme(); w != null; w = w.next) {
         w.value.decider_flag = DeciderFlag.NOTHING;
       }
 
@@ -1785,7 +1787,9 @@ private void decide_non_context_slot(Slot s) {
 
       // for each existing wme, if we want it there, mark it as ALREADY_EXISTING; otherwise remove
       // it
-      for (WmeImpl w : s.getWmes()) {
+      WmeImpl next_w;
+      for (WmeImpl w = s.getFirstWme(); w != null; w = next_w) {
+        next_w = w.next;
         if (w.value.decider_flag == DeciderFlag.CANDIDATE) {
           w.value.decider_flag = DeciderFlag.ALREADY_EXISTING_WME;
           w.value.decider_wme = w; /* so we can set the pref later */
@@ -1973,9 +1977,9 @@ is not in the top_level_goal (where there is no GDS), then
     } /* end of if impasse type == NONE */
 
     // impasse type != NONE
-    if (!s.getWmes().isEmpty()) {
+    if (s.hasWmes()) {
       // remove any existing wmes
-      this.workingMemory.remove_wme_list_from_wm(s.getWmes(), false);
+      this.workingMemory.remove_wme_list_from_wm(s.getFirstWme());
       s.removeAllWmes();
     }
 
@@ -2004,7 +2008,7 @@ private void decide_non_context_slots() {
    * <p>decide.cpp:1791:context_slot_is_decidable
    */
   private boolean context_slot_is_decidable(Slot s) {
-    if (s.getWmes().isEmpty()) {
+    if (!s.hasWmes()) {
       return s.changed != null;
     }
 
@@ -2013,17 +2017,17 @@ private boolean context_slot_is_decidable(Slot s) {
 
   /** This removes the wmes (there can only be 0 or 1 of them) for the given context slot. */
   void remove_wmes_for_context_slot(Slot s) {
-    if (s.getWmes().isEmpty()) {
+    if (!s.hasWmes()) {
       return;
     }
     /*
      * Note that we only need to handle one wme--context slots never have
      * more than one wme in them
      */
-    final List<WmeImpl> WMEs = s.getWmes();
-    assert WMEs.size() == 1;
-    WMEs.get(0).preference.preference_remove_ref(recMemory);
-    this.workingMemory.remove_wme_from_wm(WMEs.get(0));
+    final WmeImpl w = s.getFirstWme();
+    assert s.getWmeCount() == 1;
+    w.preference.preference_remove_ref(recMemory);
+    this.workingMemory.remove_wme_from_wm(w);
     s.removeAllWmes();
   }
 
@@ -2363,7 +2367,7 @@ private boolean decide_context_slot(IdentifierImpl goal, Slot s, boolean predict
     // determine the attribute of the impasse (if there is no impasse, this
     // doesn't matter)
     if (impasse_type == ImpasseType.NO_CHANGE) {
-      if (!s.getWmes().isEmpty()) {
+      if (s.hasWmes()) {
         attribute_of_impasse = s.attr;
       } else {
         attribute_of_impasse = predefinedSyms.state_symbol;
@@ -2483,7 +2487,7 @@ private void decide_context_slots(boolean predict /* = false */) {
           break;
         }
 
-        if ((s == goal.goalInfo.operator_slot) || (s.getWmes().isEmpty())) {
+        if ((s == goal.goalInfo.operator_slot) || (!s.hasWmes())) {
           // no more slots to look at for this goal; have we reached
           // the last slot in whole stack?
           if (goal.goalInfo.lower_goal == null) {
@@ -24,6 +24,7 @@
 import org.jsoar.kernel.learning.rl.ReinforcementLearning;
 import org.jsoar.kernel.memory.RecognitionMemory;
 import org.jsoar.kernel.memory.WorkingMemory;
+import org.jsoar.kernel.rete.Rete;
 import org.jsoar.kernel.rhs.functions.RhsFunctionContext;
 import org.jsoar.kernel.rhs.functions.RhsFunctionException;
 import org.jsoar.kernel.rhs.functions.RhsFunctionHandler;
@@ -69,6 +70,7 @@ public class DecisionCycle {
   private SemanticMemory smem;
   private EpisodicMemory epmem;
   private DefaultWorkingMemoryActivation wma;
+  private Rete rete;
 
   private static enum GoType {
     GO_PHASE,
@@ -157,6 +159,7 @@ public SymbolImpl execute(RhsFunctionContext context, List<Symbol> arguments)
   private final BeforeElaborationEvent beforeElaborationEvent;
   private final AfterElaborationEvent afterElaborationEvent;
   private final BeforeDecisionCycleEvent beforeDecisionCycleEvent;
+  private final AfterDecisionCycleEvent afterDecisionCycleEvent;
   private final RunLoopEvent pollEvent;
   private final Map<Phase, AbstractPhaseEvent> beforePhaseEvents;
   private final Map<Phase, AbstractPhaseEvent> afterPhaseEvents;
@@ -168,6 +171,7 @@ public DecisionCycle(Agent context) {
     this.beforeElaborationEvent = new BeforeElaborationEvent(context);
     this.afterElaborationEvent = new AfterElaborationEvent(context);
     this.beforeDecisionCycleEvent = new BeforeDecisionCycleEvent(context, Phase.INPUT);
+    this.afterDecisionCycleEvent = new AfterDecisionCycleEvent(context, Phase.OUTPUT);
     this.pollEvent = new RunLoopEvent(context);
     this.beforePhaseEvents = PhaseEvents.createBeforeEvents(context);
     this.afterPhaseEvents = PhaseEvents.createAfterEvents(context);
@@ -195,6 +199,7 @@ public void initialize() {
     this.smem = Adaptables.adapt(context, SemanticMemory.class);
     this.epmem = Adaptables.adapt(context, EpisodicMemory.class);
     this.wma = Adaptables.adapt(context, DefaultWorkingMemoryActivation.class);
+    this.rete = Adaptables.adapt(context, Rete.class);
 
     context.getRhsFunctions().registerHandler(haltHandler);
   }
@@ -298,6 +303,9 @@ private void do_one_top_level_phase() {
     // update WM size statistics
     this.workingMemory.updateStats(context.getNumWmesInRete());
 
+    // spread any rete hash table resize over several phases
+    this.rete.incrementalRehash();
+
     checkForSystemHalt();
 
     if (stopped) {
@@ -468,7 +476,7 @@ private void doOutputPhase() {
 
     afterPhase(Phase.OUTPUT);
 
-    context.getEvents().fireEvent(new AfterDecisionCycleEvent(context, Phase.OUTPUT));
+    context.getEvents().fireEvent(afterDecisionCycleEvent);
 
     // #ifndef NO_TIMING_STUFF
     // stop_timer (thisAgent, &thisAgent->start_phase_tv,
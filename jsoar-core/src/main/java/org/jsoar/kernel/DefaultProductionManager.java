@@ -7,13 +7,16 @@
 
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
@@ -35,9 +38,13 @@
 import org.jsoar.util.DefaultSourceLocation;
 import org.jsoar.util.SourceLocation;
 import org.jsoar.util.adaptables.Adaptables;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /** @author ray */
 public class DefaultProductionManager implements ProductionManager {
+  private static final Logger logger = LoggerFactory.getLogger(DefaultProductionManager.class);
+
   private final Agent context;
   private SymbolFactoryImpl syms;
   private Rete rete;
@@ -140,6 +147,42 @@ public void exciseProduction(Production prod, boolean print_sharp_sign) {
     }
   }
 
+  /* (non-Javadoc)
+   * @see org.jsoar.kernel.ProductionManager#exciseProductions(java.util.Collection, boolean)
+   */
+  @Override
+  public int exciseProductions(Collection<Production> prods, boolean print_sharp_sign) {
+    final long start = System.nanoTime();
+    final List<Production> inRete = new ArrayList<>(prods.size());
+    int count = 0;
+    for (Production prod : prods) {
+      if (productionsByName.get(prod.getName()) != prod) {
+        continue;
+      }
+      context.getEvents().fireEvent(new ProductionExcisedEvent(context, prod));
+
+      productionsByType.get(prod.getType()).remove(prod);
+      productionsByName.remove(prod.getName());
+
+      rl.exciseProduction(prod);
+
+      if (print_sharp_sign) {
+        context.getPrinter().print("#").flush();
+      }
+      if (prod.getReteNode() != null) {
+        inRete.add(prod);
+      }
+      count++;
+    }
+    this.rete.excise_productions_from_rete(inRete);
+
+    logger.debug(
+        "Excised {} productions in {} ms",
+        count,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    return count;
+  }
+
   /* (non-Javadoc)
    * @see org.jsoar.kernel.ProductionManager#getProduction(java.lang.String)
    */
@@ -198,21 +241,14 @@ public Production loadProduction(String productionBody, @NonNull SourceLocation
    */
   public ProductionAddResult addProduction(Production p, boolean reorder_nccs)
       throws ReordererException {
-    if (productionsByName.containsValue(p)) {
+    if (productionsByName.get(p.getName()) == p) {
       throw new IllegalArgumentException("Production instance '" + p + " already added.");
     }
     if (p.getType() == ProductionType.CHUNK || p.getType() == ProductionType.JUSTIFICATION) {
       throw new IllegalArgumentException("Chunk or justification passed to addProduction: " + p);
     }
 
-    // If there's already a prod with this name, excise it
-    // Note, in csoar, this test was done in parse_production as soon as the name
-    // of the production was known. We do this here so we can eliminate the
-    // production field of StringSymbolImpl.
-    var existing = getProduction(p.getName());
-    if (existing != null) {
-      exciseProduction(existing, context.getTrace().isEnabled(Category.LOADING));
-    }
+    excisePreviousVersion(p);
 
     // Reorder the production
     p.reorder(
@@ -225,6 +261,21 @@ public ProductionAddResult addProduction(Production p, boolean reorder_nccs)
         new ActionReorderer(context.getPrinter(), p.getName()),
         reorder_nccs);
 
+    return addToRete(p);
+  }
+
+  private void excisePreviousVersion(Production p) {
+    // If there's already a prod with this name, excise it
+    // Note, in csoar, this test was done in parse_production as soon as the name
+    // of the production was known. We do this here so we can eliminate the
+    // production field of StringSymbolImpl.
+    var existing = getProduction(p.getName());
+    if (existing != null) {
+      exciseProduction(existing, context.getTrace().isEnabled(Category.LOADING));
+    }
+  }
+
+  private ProductionAddResult addToRete(Production p) {
     validateLongTermIdentifiersInProduction(p);
 
     // Tell RL about the new production
@@ -279,6 +330,20 @@ public Map<ProductionType, Integer> getProductionCounts() {
     return Collections.unmodifiableMap(counts);
   }
 
+  /* (non-Javadoc)
+   * @see org.jsoar.kernel.ProductionManager#getMatchCounts()
+   */
+  @Override
+  public Map<Production, Integer> getMatchCounts() {
+    final Map<Production, Integer> counts = new LinkedHashMap<>(getProductionCount() * 2);
+    for (Set<Production> ofType : productionsByType.values()) {
+      for (Production p : ofType) {
+        counts.put(p, p.getMatchCount());
+      }
+    }
+    return counts;
+  }
+
   /* (non-Javadoc)
    * @see org.jsoar.kernel.ProductionManager#getTotalProductions()
    */
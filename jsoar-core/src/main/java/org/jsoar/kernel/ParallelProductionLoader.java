@@ -0,0 +1,407 @@
+package org.jsoar.kernel;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jsoar.kernel.lhs.Condition;
+import org.jsoar.kernel.lhs.ConjunctiveNegationCondition;
+import org.jsoar.kernel.lhs.ConjunctiveTest;
+import org.jsoar.kernel.lhs.DisjunctionTest;
+import org.jsoar.kernel.lhs.EqualityTest;
+import org.jsoar.kernel.lhs.RelationalTest;
+import org.jsoar.kernel.lhs.Test;
+import org.jsoar.kernel.lhs.ThreeFieldCondition;
+import org.jsoar.kernel.parser.ParserContext;
+import org.jsoar.kernel.parser.ParserException;
+import org.jsoar.kernel.parser.original.OriginalParser;
+import org.jsoar.kernel.rhs.Action;
+import org.jsoar.kernel.rhs.FunctionAction;
+import org.jsoar.kernel.rhs.MakeAction;
+import org.jsoar.kernel.rhs.ReordererException;
+import org.jsoar.kernel.rhs.RhsFunctionCall;
+import org.jsoar.kernel.rhs.RhsSymbolValue;
+import org.jsoar.kernel.rhs.RhsValue;
+import org.jsoar.kernel.rhs.functions.RhsFunctionManager;
+import org.jsoar.kernel.symbols.IdentifierImpl;
+import org.jsoar.kernel.symbols.StringSymbol;
+import org.jsoar.kernel.symbols.Symbol;
+import org.jsoar.kernel.symbols.SymbolFactoryImpl;
+import org.jsoar.kernel.symbols.SymbolImpl;
+import org.jsoar.kernel.symbols.Variable;
+import org.jsoar.kernel.tracing.Printer;
+import org.jsoar.util.Arguments;
+import org.jsoar.util.SourceLocation;
+import org.jsoar.util.adaptables.Adaptables;
+
+/**
+ * Loads productions with parsing spread over a pool of worker threads. Reordering and adding each
+ * production to the rete happen on the calling thread, in the order the productions were submitted.
+ *
+ * <p>Each production is parsed into a {@link SymbolFactoryImpl} of its own, so no symbols are
+ * shared between threads. Before a production is reordered, its symbols are swapped for the agent's
+ * equivalents, in the order the parser created them. The agent's symbols, and their hash ids, are
+ * then the same as if the production had been parsed by the agent itself, so the reorderer breaks
+ * ties between conditions the same way and the rete is the same as with serial loading. Anything
+ * printed while parsing a production is buffered and printed when the production is added.
+ *
+ * <p>Productions that fail to parse are loaded again on the calling thread with {@link
+ * ProductionManager#loadProduction(String, SourceLocation)}, so errors are reported exactly as they
+ * are without this loader. The same goes for chunks, justifications and anything submitted while
+ * the production manager is using a parser other than {@link OriginalParser}, and productions that
+ * refer to identifiers.
+ *
+ * <p>This class is not thread safe. All methods must be called from the agent thread and, between
+ * {@link #submit(String, SourceLocation, Callback)} and the next {@link #flush()}, nothing else may
+ * change the agent's productions or RHS functions.
+ */
+public class ParallelProductionLoader {
+  /** Told the outcome of a submitted production */
+  public interface Callback {
+    /**
+     * Called on the agent thread after the production has been added
+     *
+     * @param p the new production
+     */
+    void loaded(Production p);
+
+    /**
+     * Called on the agent thread if the production could not be parsed or reordered
+     *
+     * @param e a {@link ParserException} or {@link ReordererException}
+     */
+    void failed(Exception e);
+  }
+
+  private static final AtomicInteger nextId = new AtomicInteger();
+
+  private final Agent agent;
+  private final DefaultProductionManager productions;
+  private final SymbolFactoryImpl syms;
+  private final ExecutorService workers;
+  private final ThreadLocal<Worker> worker = new ThreadLocal<>();
+  private final Deque<Pending> pending = new ArrayDeque<>();
+
+  /**
+   * Create a loader with one worker thread per available processor
+   *
+   * @param agent the agent to load productions into
+   */
+  public ParallelProductionLoader(Agent agent) {
+    this(agent, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Create a loader
+   *
+   * @param agent the agent to load productions into
+   * @param threads the number of worker threads
+   */
+  public ParallelProductionLoader(Agent agent, int threads) {
+    Arguments.check(threads > 0, "threads must be positive");
+    this.agent = agent;
+    this.productions = (DefaultProductionManager) agent.getProductions();
+    this.syms = Adaptables.require(getClass(), agent, SymbolFactoryImpl.class);
+
+    final String prefix = "Production loader " + nextId.incrementAndGet() + " worker ";
+    final AtomicInteger count = new AtomicInteger();
+    this.workers =
+        Executors.newFixedThreadPool(
+            threads,
+            runnable -> {
+              final Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Queue a production for loading. Only parsing happens in the background; the production is
+   * reordered and added on the calling thread. Productions that are ready are added before this
+   * method returns, but the production may not be added until {@link #flush()}.
+   *
+   * @param body the body of the production, without the surrounding {@code sp {...}}
+   * @param location where the production came from
+   * @param callback told when the production has been added, or has failed
+   */
+  public void submit(String body, SourceLocation location, Callback callback) {
+    final Future<Staged> future;
+    if (productions.getParser() instanceof OriginalParser) {
+      future = workers.submit(() -> worker().stage(body, location));
+    } else {
+      future = CompletableFuture.completedFuture(null);
+    }
+    pending.add(new Pending(body, location, callback, future));
+
+    // Add whatever is ready so the rete is built while the workers keep parsing
+    while (!pending.isEmpty() && pending.peek().future.isDone()) {
+      add(pending.poll());
+    }
+  }
+
+  /** Wait for all submitted productions and add them to the agent. */
+  public void flush() {
+    while (!pending.isEmpty()) {
+      add(pending.poll());
+    }
+  }
+
+  /** @return the number of submitted productions that haven't been added yet */
+  public int getPendingCount() {
+    return pending.size();
+  }
+
+  /** Discard any productions that haven't been added yet and stop the worker threads. */
+  public void shutdown() {
+    for (Pending p : pending) {
+      p.future.cancel(false);
+    }
+    pending.clear();
+    workers.shutdownNow();
+  }
+
+  private Worker worker() {
+    Worker w = worker.get();
+    if (w == null) {
+      w = new Worker();
+      worker.set(w);
+    }
+    return w;
+  }
+
+  private void add(Pending next) {
+    final Staged staged = await(next.future);
+    if (staged == null) {
+      loadSerially(next);
+      return;
+    }
+
+    final Printer printer = agent.getPrinter();
+    if (!staged.output.isEmpty()) {
+      printer.print(staged.output);
+    }
+    for (String warning : staged.warnings) {
+      printer.warn(warning);
+    }
+
+    for (SymbolImpl s : staged.symbols) {
+      importSymbol(s);
+    }
+    final Production p = staged.production;
+    importConditions(p.getFirstCondition());
+    importActions(p.getFirstAction());
+    try {
+      productions.addProduction(p, true);
+    } catch (ReordererException e) {
+      next.callback.failed(e);
+      return;
+    }
+    next.callback.loaded(p);
+  }
+
+  private Staged await(Future<Staged> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (ExecutionException e) {
+      return null;
+    }
+  }
+
+  private void loadSerially(Pending next) {
+    try {
+      next.callback.loaded(productions.loadProduction(next.body, next.location));
+    } catch (ParserException | ReordererException e) {
+      next.callback.failed(e);
+    }
+  }
+
+  private SymbolImpl importSymbol(SymbolImpl s) {
+    final Variable v = s.asVariable();
+    if (v != null) {
+      return syms.make_variable(v.name);
+    }
+    return (SymbolImpl) syms.importSymbol(s);
+  }
+
+  private void importConditions(Condition head) {
+    for (Condition c = head; c != null; c = c.next) {
+      final ThreeFieldCondition tfc = c.asThreeFieldCondition();
+      if (tfc != null) {
+        tfc.id_test = importTest(tfc.id_test);
+        tfc.attr_test = importTest(tfc.attr_test);
+        tfc.value_test = importTest(tfc.value_test);
+      } else {
+        final ConjunctiveNegationCondition ncc = c.asConjunctiveNegationCondition();
+        importConditions(ncc.top);
+      }
+    }
+  }
+
+  private Test importTest(Test t) {
+    if (t == null) {
+      return null;
+    }
+    final EqualityTest eq = t.asEqualityTest();
+    if (eq != null) {
+      return importSymbol(eq.getReferent());
+    }
+    final ConjunctiveTest conjunction = t.asConjunctiveTest();
+    if (conjunction != null) {
+      final ListIterator<Test> it = conjunction.conjunct_list.listIterator();
+      while (it.hasNext()) {
+        it.set(importTest(it.next()));
+      }
+      return conjunction;
+    }
+    final DisjunctionTest disjunction = t.asDisjunctionTest();
+    if (disjunction != null) {
+      final List<SymbolImpl> symbols = new ArrayList<>(disjunction.disjunction_list.size());
+      for (SymbolImpl s : disjunction.disjunction_list) {
+        symbols.add(importSymbol(s));
+      }
+      return new DisjunctionTest(Collections.unmodifiableList(symbols));
+    }
+    final RelationalTest relational = t.asRelationalTest();
+    if (relational != null) {
+      relational.referent = importSymbol(relational.referent);
+    }
+    // goal and impasse tests have no symbols
+    return t;
+  }
+
+  private void importActions(Action head) {
+    for (Action a = head; a != null; a = a.next) {
+      final MakeAction make = a.asMakeAction();
+      if (make != null) {
+        make.id = importRhsValue(make.id);
+        make.attr = importRhsValue(make.attr);
+        make.value = importRhsValue(make.value);
+        make.referent = importRhsValue(make.referent);
+      } else {
+        final FunctionAction function = a.asFunctionAction();
+        function.call = importFunctionCall(function.call);
+      }
+    }
+  }
+
+  private RhsValue importRhsValue(RhsValue v) {
+    if (v == null) {
+      return null;
+    }
+    final RhsSymbolValue symbol = v.asSymbolValue();
+    if (symbol != null) {
+      return symbol.setSymbol(importSymbol(symbol.getSym()));
+    }
+    final RhsFunctionCall call = v.asFunctionCall();
+    if (call != null) {
+      return importFunctionCall(call);
+    }
+    return v;
+  }
+
+  private RhsFunctionCall importFunctionCall(RhsFunctionCall call) {
+    final RhsFunctionCall result =
+        new RhsFunctionCall((StringSymbol) syms.importSymbol(call.getName()), call.isStandalone());
+    for (RhsValue arg : call.getArguments()) {
+      result.addArgument(importRhsValue(arg));
+    }
+    return result;
+  }
+
+  private static class Pending {
+    final String body;
+    final SourceLocation location;
+    final Callback callback;
+    final Future<Staged> future;
+
+    Pending(String body, SourceLocation location, Callback callback, Future<Staged> future) {
+      this.body = body;
+      this.location = location;
+      this.callback = callback;
+      this.future = future;
+    }
+  }
+
+  /** A production parsed by a worker, along with what it printed */
+  private static class Staged {
+    final Production production;
+    final List<SymbolImpl> symbols;
+    final String output;
+    final List<String> warnings;
+
+    Staged(Production production, List<SymbolImpl> symbols, String output, List<String> warnings) {
+      this.production = production;
+      this.symbols = symbols;
+      this.output = output;
+      this.warnings = warnings;
+    }
+  }
+
+  /** Thread-confined parser state. */
+  private class Worker {
+    final StringWriter output = new StringWriter();
+    final Printer printer = new Printer(output).setPrintWarnings(false);
+    final OriginalParser parser = new OriginalParser();
+    final RhsFunctionManager rhsFunctions = agent.getRhsFunctions();
+    SymbolFactoryImpl workerSyms;
+    SourceLocation location;
+
+    final ParserContext context =
+        new ParserContext() {
+          @Override
+          public Object getAdapter(Class<?> klass) {
+            if (klass.equals(SourceLocation.class)) {
+              return location;
+            } else if (klass.equals(Printer.class)) {
+              return printer;
+            } else if (klass.equals(SymbolFactoryImpl.class)) {
+              return workerSyms;
+            } else if (klass.equals(RhsFunctionManager.class)) {
+              return rhsFunctions;
+            }
+            return null;
+          }
+        };
+
+    /** @return the parsed production, or null if it should be loaded on the agent thread */
+    Staged stage(String body, SourceLocation location) {
+      this.workerSyms = new SymbolFactoryImpl();
+      this.location = location;
+      try {
+        final Production p = parser.parseProduction(context, new StringReader(body));
+        if (p.getType() == ProductionType.CHUNK
+            || p.getType() == ProductionType.JUSTIFICATION
+            || !workerSyms.getSymbols(IdentifierImpl.class).isEmpty()) {
+          return null;
+        }
+        // hash ids are handed out in creation order
+        final List<SymbolImpl> symbols = new ArrayList<>();
+        for (Symbol s : workerSyms.getAllSymbols()) {
+          symbols.add((SymbolImpl) s);
+        }
+        symbols.addAll(workerSyms.getSymbols(Variable.class));
+        symbols.sort(Comparator.comparingInt(SymbolImpl::getHash));
+        return new Staged(p, symbols, output.toString(), printer.getWarningsAndClear());
+      } catch (ParserException | RuntimeException e) {
+        return null;
+      } finally {
+        output.getBuffer().setLength(0);
+        printer.getWarningsAndClear();
+      }
+    }
+  }
+}
@@ -366,7 +366,8 @@ public PartialMatches getPartialMatches() {
    *   <li>local join result tokens on (real) tokens in negative/NCC nodes
    * </ul>
    *
-   * <p>Note that this method is not fast for large match sets
+   * <p>Token counts are kept up to date as the rete runs, so this only costs a walk up the
+   * production's nodes.
    *
    * @return token count, or 0 if not in rete
    */
@@ -374,6 +375,16 @@ public int getReteTokenCount() {
     return rete != null ? rete.countTokensProduction(reteNode) : 0;
   }
 
+  /**
+   * Returns the number of complete matches for this production, i.e. the number of tokens in its
+   * p-node. This is constant time and safe to poll while the agent runs.
+   *
+   * @return match count, or 0 if not in rete
+   */
+  public int getMatchCount() {
+    return rete != null ? rete.getMatchCount(reteNode) : 0;
+  }
+
   /**
    * Performs reordering of the LHS and RHS of the production using the given reorderer objects.
    * This will modify the conditions and actions of the production.
@@ -5,6 +5,7 @@
  */
 package org.jsoar.kernel;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import org.jsoar.kernel.parser.Parser;
@@ -108,9 +109,31 @@ public ProductionAddResult addProduction(Production p, boolean reorder_nccs)
    */
   public void exciseProduction(Production prod, boolean print_sharp_sign);
 
+  /**
+   * Excise a batch of productions. This has the same effect as calling {@link
+   * #exciseProduction(Production, boolean)} for each of them, but the rete is torn down in a single
+   * pass, which is much cheaper when many productions share subnetworks. Productions that are no
+   * longer loaded are ignored.
+   *
+   * @param prods the productions to excise
+   * @param print_sharp_sign if true, a "#" is printed for each excised production
+   * @return the number of productions excised
+   */
+  public int exciseProductions(Collection<Production> prods, boolean print_sharp_sign);
+
   /** @return an immutable map from production type to count */
   public Map<ProductionType, Integer> getProductionCounts();
 
+  /**
+   * Returns the current number of complete matches for every loaded production. This takes time
+   * proportional to the number of productions, regardless of how many tokens are in the rete.
+   *
+   * @return map from production to match count, in the same order as {@link
+   *     #getProductions(ProductionType)}
+   * @see Production#getMatchCount()
+   */
+  public Map<Production, Integer> getMatchCounts();
+
   /** @return count of all productions currently loaded in the agent */
   public int getProductionCount();
 }
@@ -0,0 +1,115 @@
+package org.jsoar.kernel;
+
+import java.util.Collections;
+import java.util.Map;
+import org.jsoar.kernel.rete.ReteStatistics;
+
+/**
+ * Snapshot of the costs the {@link ProductionProfiler} has attributed to a single production.
+ * Objects of this class are immutable.
+ */
+public class ProductionProfile {
+  /**
+   * Rough size of a left token in bytes, assuming compressed object pointers. Used to estimate
+   * token memory.
+   */
+  public static final int ESTIMATED_TOKEN_BYTES = ReteStatistics.ESTIMATED_TOKEN_BYTES;
+
+  private final Production production;
+  private final long matchNanos;
+  private final long instantiations;
+  private final long instantiationNanos;
+  private final Map<String, Long> rhsFunctionNanos;
+  private final long rhsFunctionTotalNanos;
+  private final int tokens;
+
+  ProductionProfile(
+      Production production,
+      long matchNanos,
+      long instantiations,
+      long instantiationNanos,
+      Map<String, Long> rhsFunctionNanos,
+      int tokens) {
+    this.production = production;
+    this.matchNanos = matchNanos;
+    this.instantiations = instantiations;
+    this.instantiationNanos = instantiationNanos;
+    this.rhsFunctionNanos = Collections.unmodifiableMap(rhsFunctionNanos);
+    this.rhsFunctionTotalNanos = rhsFunctionNanos.values().stream().mapToLong(n -> n).sum();
+    this.tokens = tokens;
+  }
+
+  /** @return the production */
+  public Production getProduction() {
+    return production;
+  }
+
+  /**
+   * @return estimated time spent in the production's rete nodes. Time in nodes shared with other
+   *     productions is split between them.
+   */
+  public long getMatchNanos() {
+    return matchNanos;
+  }
+
+  /** @return number of instantiations created while profiling */
+  public long getInstantiations() {
+    return instantiations;
+  }
+
+  /**
+   * @return time spent creating the production's instantiations, including executing its RHS and
+   *     any chunking that followed
+   */
+  public long getInstantiationNanos() {
+    return instantiationNanos;
+  }
+
+  /** @return time spent in each RHS function called by the production, by function name */
+  public Map<String, Long> getRhsFunctionNanos() {
+    return rhsFunctionNanos;
+  }
+
+  /** @return total time spent in RHS functions called by the production */
+  public long getRhsFunctionTotalNanos() {
+    return rhsFunctionTotalNanos;
+  }
+
+  /** @return match time plus instantiation time */
+  public long getTotalNanos() {
+    return matchNanos + instantiationNanos;
+  }
+
+  /**
+   * @return number of tokens currently held for the production, including complete matches. Tokens
+   *     in shared nodes are counted for every production sharing them.
+   * @see Production#getReteTokenCount()
+   */
+  public int getTokens() {
+    return tokens;
+  }
+
+  /** @return estimate of the memory used by {@link #getTokens()} */
+  public long getEstimatedTokenBytes() {
+    return (long) tokens * ESTIMATED_TOKEN_BYTES;
+  }
+
+  /* (non-Javadoc)
+   * @see java.lang.Object#toString()
+   */
+  @Override
+  public String toString() {
+    return production.getName()
+        + ": match "
+        + matchNanos
+        + "ns, "
+        + instantiations
+        + " instantiations "
+        + instantiationNanos
+        + "ns, rhs "
+        + rhsFunctionTotalNanos
+        + "ns, "
+        + tokens
+        + " tokens";
+  }
+}
@@ -0,0 +1,216 @@
+package org.jsoar.kernel;
+
+import com.github.cliftonlabs.json_simple.JsonArray;
+import com.github.cliftonlabs.json_simple.JsonObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jsoar.kernel.events.ProductionExcisedEvent;
+import org.jsoar.kernel.rete.Rete;
+import org.jsoar.util.adaptables.Adaptables;
+
+/**
+ * Opt-in profiler that attributes the cost of running an agent to its productions:
+ *
+ * <ul>
+ *   <li>rete match time, measured per beta node and split between the productions sharing each
+ *       node, see {@link Rete#setProfiling(int)}
+ *   <li>instantiation time, i.e. creating instantiations and executing their RHS
+ *   <li>RHS function time, broken down by function
+ *   <li>token memory, from the rete's token counts
+ * </ul>
+ *
+ * <p>Match time can be sampled to reduce the overhead, see {@link #setSampleInterval(int)}.
+ * Instantiations are always timed, since each one is expensive next to a call to {@link
+ * System#nanoTime()}. Like the rest of the kernel, this class should only be used from the agent
+ * thread.
+ *
+ * <p>Retrieve it with {@code Adaptables.adapt(agent, ProductionProfiler.class)}.
+ */
+public class ProductionProfiler {
+  private final Agent context;
+  private Rete rete;
+
+  private boolean enabled = false;
+  private int sampleInterval = 1;
+  private final Map<Production, Totals> totals = new HashMap<>();
+
+  /** Running costs of a single production */
+  private static class Totals {
+    long instantiations;
+    long instantiationNanos;
+    final Map<String, Long> rhsFunctionNanos = new HashMap<>();
+  }
+
+  public ProductionProfiler(Agent context) {
+    this.context = context;
+  }
+
+  public void initialize() {
+    this.rete = Adaptables.adapt(context, Rete.class);
+    context
+        .getEvents()
+        .addListener(
+            ProductionExcisedEvent.class,
+            event -> totals.remove(((ProductionExcisedEvent) event).getProduction()));
+  }
+
+  /** @return true if the profiler is collecting */
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Start or stop collecting. Stopping keeps the costs collected so far.
+   *
+   * @param enabled true to start collecting
+   */
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+    rete.setProfiling(enabled ? sampleInterval : 0);
+  }
+
+  /** @return the match time sample interval */
+  public int getSampleInterval() {
+    return sampleInterval;
+  }
+
+  /**
+   * Set how often rete match time is measured. With an interval of n, one in every n WME changes is
+   * timed and the result is scaled up by n.
+   *
+   * @param sampleInterval the interval, 1 to time every WME change
+   */
+  public void setSampleInterval(int sampleInterval) {
+    if (sampleInterval < 1) {
+      throw new IllegalArgumentException("sample interval must be >= 1, got " + sampleInterval);
+    }
+    this.sampleInterval = sampleInterval;
+    if (enabled) {
+      rete.setProfiling(sampleInterval);
+    }
+  }
+
+  /** Forget all of the costs collected so far */
+  public void reset() {
+    totals.clear();
+    rete.resetProfiling();
+  }
+
+  /**
+   * Record the creation of an instantiation. Called by the recognition memory.
+   *
+   * @param p the production that fired
+   * @param nanos time taken to create the instantiation
+   */
+  public void instantiationCreated(Production p, long nanos) {
+    final Totals t = totals.computeIfAbsent(p, k -> new Totals());
+    t.instantiations++;
+    t.instantiationNanos += nanos;
+  }
+
+  /**
+   * Record a call to an RHS function. Called by the recognition memory.
+   *
+   * @param p the production whose RHS called the function
+   * @param function name of the function
+   * @param nanos time taken by the call
+   */
+  public void rhsFunctionCalled(Production p, String function, long nanos) {
+    totals.computeIfAbsent(p, k -> new Totals()).rhsFunctionNanos.merge(function, nanos, Long::sum);
+  }
+
+  /**
+   * Returns the costs collected for each production currently in the agent, whether or not it has
+   * done anything yet.
+   *
+   * @return list of profiles in production manager order
+   */
+  public List<ProductionProfile> getProfiles() {
+    final List<Production> prods = context.getProductions().getProductions(null);
+    final Map<Production, Long> matchNanos = rete.getProfiledMatchNanos(prods);
+    final List<ProductionProfile> result = new ArrayList<>(prods.size());
+    for (Production p : prods) {
+      final Totals t = totals.getOrDefault(p, new Totals());
+      result.add(
+          new ProductionProfile(
+              p,
+              matchNanos.getOrDefault(p, 0L),
+              t.instantiations,
+              t.instantiationNanos,
+              new HashMap<>(t.rhsFunctionNanos),
+              p.getReteTokenCount() + p.getMatchCount()));
+    }
+    return result;
+  }
+
+  /**
+   * Returns the most expensive productions.
+   *
+   * @param n maximum number of productions to return
+   * @param order how to rank the productions, most expensive first
+   * @return up to n profiles
+   */
+  public List<ProductionProfile> getTopProfiles(int n, Comparator<ProductionProfile> order) {
+    final List<ProductionProfile> profiles = getProfiles();
+    profiles.sort(order);
+    return profiles.subList(0, Math.min(n, profiles.size()));
+  }
+
+  /**
+   * Write all profiles as a JSON document.
+   *
+   * @param writer the writer
+   * @throws IOException
+   */
+  public void writeJson(Writer writer) throws IOException {
+    final JsonArray productions = new JsonArray();
+    for (ProductionProfile profile : getProfiles()) {
+      final JsonObject p = new JsonObject();
+      p.put("name", profile.getProduction().getName());
+      p.put("type", profile.getProduction().getType().getDisplayString());
+      p.put("matchNanos", profile.getMatchNanos());
+      p.put("instantiations", profile.getInstantiations());
+      p.put("instantiationNanos", profile.getInstantiationNanos());
+      p.put("rhsFunctionNanos", new JsonObject(profile.getRhsFunctionNanos()));
+      p.put("tokens", profile.getTokens());
+      p.put("estimatedTokenBytes", profile.getEstimatedTokenBytes());
+      productions.add(p);
+    }
+    final JsonObject root = new JsonObject();
+    root.put("agent", context.getName());
+    root.put("sampleInterval", sampleInterval);
+    root.put("productions", productions);
+    writer.write(root.toJson());
+    writer.flush();
+  }
+
+  /**
+   * Write all profiles in the "collapsed stacks" format read by flame graph tools, one {@code
+   * frame;frame;... nanoseconds} line per stack. Match time is under {@code match;<production>} and
+   * instantiation time is under {@code fire;<production>}, with RHS function time below that.
+   *
+   * @param writer the writer
+   * @throws IOException
+   */
+  public void writeCollapsedStacks(Writer writer) throws IOException {
+    for (ProductionProfile profile : getProfiles()) {
+      final String name = profile.getProduction().getName();
+      if (profile.getMatchNanos() > 0) {
+        writer.write("match;" + name + " " + profile.getMatchNanos() + "\n");
+      }
+      final long fireNanos = profile.getInstantiationNanos() - profile.getRhsFunctionTotalNanos();
+      if (fireNanos > 0) {
+        writer.write("fire;" + name + " " + fireNanos + "\n");
+      }
+      for (Map.Entry<String, Long> e : profile.getRhsFunctionNanos().entrySet()) {
+        writer.write("fire;" + name + ";" + e.getKey() + " " + e.getValue() + "\n");
+      }
+    }
+    writer.flush();
+  }
+}
@@ -137,6 +137,36 @@ public class SoarProperties {
   public static final PropertyKey<Integer> O_SUPPORT_MODE =
       PropertyKey.builder("o-support-mode", Integer.class).defaultValue(4).build();
 
+  /**
+   * log2 of the initial, and minimum, number of buckets in the rete's left and right token hash
+   * tables. The tables grow automatically as tokens are added.
+   *
+   * <p>rete.cpp:LOG2_LEFT_HT_SIZE
+   *
+   * @see org.jsoar.kernel.rete.Rete#setHashTableLog2Size(int)
+   */
+  public static final PropertyKey<Integer> RETE_HASH_TABLE_LOG2_SIZE =
+      PropertyKey.builder("rete-hash-table-log2-size", Integer.class).defaultValue(14).build();
+
+  /**
+   * If true, the rete's left and right token hash tables shrink when they become sparse, but never
+   * below {@link #RETE_HASH_TABLE_LOG2_SIZE}.
+   *
+   * @see org.jsoar.kernel.rete.Rete#setHashTableShrinkEnabled(boolean)
+   */
+  public static final PropertyKey<Boolean> RETE_HASH_TABLE_SHRINK =
+      PropertyKey.builder("rete-hash-table-shrink", Boolean.class).defaultValue(false).build();
+
+  /**
+   * If true, the rete maintains a secondary index over working memory by id, attribute and value,
+   * which {@link org.jsoar.kernel.memory.Wmes#search(Agent, String, String, String)} and {@link
+   * org.jsoar.kernel.memory.Wmes.MatcherBuilder#filter(Agent)} use instead of scanning every WME.
+   *
+   * @see org.jsoar.kernel.rete.Rete#setWmeIndexEnabled(boolean)
+   */
+  public static final PropertyKey<Boolean> WME_INDEX =
+      PropertyKey.builder("wme-index", Boolean.class).defaultValue(false).build();
+
   public static final PropertyKey<Phase> CURRENT_PHASE =
       PropertyKey.builder("current-phase", Phase.class).defaultValue(Phase.INPUT).build();
   /**
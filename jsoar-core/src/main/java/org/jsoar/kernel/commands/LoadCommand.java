@@ -7,6 +7,7 @@
 import java.util.Arrays;
 import java.util.zip.GZIPInputStream;
 import org.jsoar.kernel.Agent;
+import org.jsoar.kernel.ParallelProductionLoader;
 import org.jsoar.kernel.SoarException;
 import org.jsoar.kernel.commands.SourceCommand.FileInfo;
 import org.jsoar.kernel.commands.SourceCommand.TopLevelState;
@@ -39,7 +40,7 @@ public LoadCommand(SourceCommand sourceCommand, SpCommand spCommand, Agent agent
       subcommands = {HelpCommand.class, LoadCommand.FileC.class, LoadCommand.ReteNet.class})
   public static class Load implements Runnable {
     private SourceCommand sourceCommand;
-    private PicocliSoarCommand spCommand;
+    private SpCommand spCommand;
     private Agent agent;
 
     public Load(SourceCommand sourceCommand, SpCommand spCommand, Agent agent) {
@@ -79,6 +80,14 @@ public static class FileC implements Runnable {
         description = "Prints all excised production names")
     boolean printExcised;
 
+    @Option(
+        names = {"-p", "--parallel"},
+        defaultValue = "false",
+        description =
+            "Parses productions on all available processors. Reordering and adding them to"
+                + " the rete still happen one at a time on the agent thread")
+    boolean parallel;
+
     @Parameters(arity = "0..*", description = "File names")
     String[] fileNames;
 
@@ -101,6 +110,14 @@ public void run() {
         parent.sourceCommand.events.addListener(ProductionExcisedEvent.class, eventListener);
       }
 
+      // Productions are handed to the loader by the sp command and added to the agent before
+      // the next command or at the end of each file
+      ParallelProductionLoader loader = null;
+      if (parallel && parent.spCommand.getParallelLoader() == null) {
+        loader = new ParallelProductionLoader(parent.agent);
+        parent.spCommand.setParallelLoader(loader);
+      }
+
       try {
         for (String file : fileNames) {
           try {
@@ -163,6 +180,11 @@ public void run() {
 
         parent.agent.getPrinter().startNewLine().print(result.toString());
       } finally {
+        if (loader != null) {
+          parent.spCommand.setParallelLoader(null);
+          loader.shutdown();
+        }
+
         // Clean up top-level state
         if (topLevel) {
           parent.spCommand.autoFlush(true);
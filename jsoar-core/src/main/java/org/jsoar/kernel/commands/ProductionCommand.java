@@ -3,6 +3,9 @@
 import com.google.common.base.Joiner;
 import com.google.common.base.Predicate;
 import com.google.common.collect.Collections2;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -17,6 +20,8 @@
 import org.jsoar.kernel.ProductionFinder;
 import org.jsoar.kernel.ProductionFinder.Options;
 import org.jsoar.kernel.ProductionManager;
+import org.jsoar.kernel.ProductionProfile;
+import org.jsoar.kernel.ProductionProfiler;
 import org.jsoar.kernel.ProductionType;
 import org.jsoar.kernel.learning.rl.ReinforcementLearning;
 import org.jsoar.kernel.parser.ParserException;
@@ -61,6 +66,7 @@ public ProductionC getCommand() {
         ProductionCommand.Matches.class,
         ProductionCommand.MemoryUsage.class,
         ProductionCommand.OptimizeAttribute.class,
+        ProductionCommand.Profile.class,
         ProductionCommand.Watch.class
       })
   public static class ProductionC implements Runnable {
@@ -276,9 +282,7 @@ public void run() {
           toExcise.addAll(pm.getProductions(ProductionType.USER));
         }
 
-        for (Production p : toExcise) {
-          pm.exciseProduction(p, false);
-        }
+        pm.exciseProductions(toExcise, false);
 
         if (exciseRL) {
           // cli_excise.cpp:DoExcise
@@ -799,6 +803,162 @@ public void run() {
     }
   }
 
+  @Command(
+      name = "profile",
+      description = "Profile the match, firing and RHS function cost of productions",
+      subcommands = {HelpCommand.class})
+  public static class Profile implements Runnable {
+    @ParentCommand ProductionC parent; // injected by picocli
+
+    @Option(
+        names = {"-e", "--enable", "--on"},
+        defaultValue = "false",
+        description = "Start profiling")
+    boolean enable;
+
+    @Option(
+        names = {"-d", "--disable", "--off"},
+        defaultValue = "false",
+        description = "Stop profiling, keeping the costs collected so far")
+    boolean disable;
+
+    @Option(
+        names = {"-r", "--reset"},
+        defaultValue = "false",
+        description = "Forget the costs collected so far")
+    boolean reset;
+
+    @Option(
+        names = {"-s", "--sample"},
+        description = "Time one in every n WME changes in the rete")
+    Integer sampleInterval;
+
+    @Option(
+        names = {"-S", "--sort"},
+        defaultValue = "total",
+        description = "Sort by total, match, fire, rhs or tokens")
+    String sort;
+
+    @Option(
+        names = {"-j", "--json"},
+        description = "Write all profiles to a JSON file")
+    String jsonFile;
+
+    @Option(
+        names = {"-f", "--flame"},
+        description = "Write all profiles to a file in collapsed stacks format for flame graphs")
+    String flameFile;
+
+    @Parameters(
+        index = "0",
+        arity = "0..1",
+        defaultValue = "10",
+        description = "Number of productions to list")
+    private int count;
+
+    @Override
+    public void run() {
+      final Printer printer = parent.agent.getPrinter();
+      final ProductionProfiler profiler = Adaptables.adapt(parent.agent, ProductionProfiler.class);
+
+      final Comparator<ProductionProfile> order = getOrder(sort);
+      if (order == null) {
+        printer.startNewLine().print("Unknown sort '" + sort + "'");
+        return;
+      }
+      if (sampleInterval != null) {
+        if (sampleInterval < 1) {
+          printer
+              .startNewLine()
+              .print("Sample interval must be greater than 0, got " + sampleInterval);
+          return;
+        }
+        profiler.setSampleInterval(sampleInterval);
+      }
+      if (reset) {
+        profiler.reset();
+      }
+      if (enable) {
+        profiler.setEnabled(true);
+      } else if (disable) {
+        profiler.setEnabled(false);
+      }
+
+      if (jsonFile != null) {
+        try (Writer w = new FileWriter(jsonFile)) {
+          profiler.writeJson(w);
+        } catch (IOException e) {
+          printer
+              .startNewLine()
+              .print("Failed to write file '" + jsonFile + "': " + e.getMessage());
+        }
+      }
+      if (flameFile != null) {
+        try (Writer w = new FileWriter(flameFile)) {
+          profiler.writeCollapsedStacks(w);
+        } catch (IOException e) {
+          printer
+              .startNewLine()
+              .print("Failed to write file '" + flameFile + "': " + e.getMessage());
+        }
+      }
+
+      if (enable || disable || reset || sampleInterval != null) {
+        printer
+            .startNewLine()
+            .print(
+                "Profiling is "
+                    + (profiler.isEnabled() ? "on" : "off")
+                    + ", sampling 1 in "
+                    + profiler.getSampleInterval()
+                    + " WME changes");
+        return;
+      }
+      if (jsonFile == null && flameFile == null) {
+        printProfiles(printer, profiler.getTopProfiles(count, order));
+        printer.flush();
+      }
+    }
+
+    private static Comparator<ProductionProfile> getOrder(String sort) {
+      switch (sort) {
+        case "total":
+          return Comparator.comparingLong(ProductionProfile::getTotalNanos).reversed();
+        case "match":
+          return Comparator.comparingLong(ProductionProfile::getMatchNanos).reversed();
+        case "fire":
+          return Comparator.comparingLong(ProductionProfile::getInstantiationNanos).reversed();
+        case "rhs":
+          return Comparator.comparingLong(ProductionProfile::getRhsFunctionTotalNanos).reversed();
+        case "tokens":
+          return Comparator.comparingInt(ProductionProfile::getTokens).reversed();
+        default:
+          return null;
+      }
+    }
+
+    private static void printProfiles(Printer printer, List<ProductionProfile> profiles) {
+      printer
+          .startNewLine()
+          .print(
+              "%10s %10s %10s %10s %8s %8s  %s",
+              "total ms", "match ms", "fire ms", "rhs ms", "fired", "tokens", "production");
+      for (ProductionProfile p : profiles) {
+        printer
+            .startNewLine()
+            .print(
+                "%10.3f %10.3f %10.3f %10.3f %8d %8d  %s",
+                p.getTotalNanos() / 1e6,
+                p.getMatchNanos() / 1e6,
+                p.getInstantiationNanos() / 1e6,
+                p.getRhsFunctionTotalNanos() / 1e6,
+                p.getInstantiations(),
+                p.getTokens(),
+                p.getProduction().getName());
+      }
+    }
+  }
+
   @Command(
       name = "watch",
       description = "Alters the set of watched productions",
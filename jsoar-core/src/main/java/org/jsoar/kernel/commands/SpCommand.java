@@ -1,6 +1,8 @@
 package org.jsoar.kernel.commands;
 
 import org.jsoar.kernel.Agent;
+import org.jsoar.kernel.ParallelProductionLoader;
+import org.jsoar.kernel.Production;
 import org.jsoar.kernel.SoarException;
 import org.jsoar.kernel.parser.ParserException;
 import org.jsoar.kernel.rhs.ReordererException;
@@ -35,6 +37,7 @@ public String execute(SoarCommandContext context, String[] args) throws SoarExce
   public static class Sp implements Runnable {
     private final Agent agent;
     private SoarCommandContext context;
+    private ParallelProductionLoader loader;
 
     public Sp(Agent agent) {
       this.agent = agent;
@@ -53,24 +56,79 @@ public Sp(Agent agent, SoarCommandContext context) {
     public void run() {
       if (production == null) {
         agent.getPrinter().startNewLine().print("Use this command to define a Soar production");
+      } else if (loader != null) {
+        final String production = this.production;
+        final SoarCommandContext context = this.context;
+        loader.submit(
+            production,
+            context.getSourceLocation(),
+            new ParallelProductionLoader.Callback() {
+              @Override
+              public void loaded(Production p) {
+                Sp.this.loaded(production, context);
+              }
+
+              @Override
+              public void failed(Exception e) {
+                Sp.this.failed(production, context, e);
+              }
+            });
       } else {
         try {
           agent.getProductions().loadProduction(production, context.getSourceLocation());
-          agent.getPrinter().print("*");
-          SoarExceptionsManager exceptionsManager = agent.getInterpreter().getExceptionsManager();
-          agent
-              .getPrinter()
-              .getWarningsAndClear()
-              .forEach(warning -> exceptionsManager.addException(warning, context, production));
+          loaded(production, context);
         } catch (ReordererException | ParserException e) {
-          agent
-              .getPrinter()
-              .startNewLine()
-              .print(context.getSourceLocation() + ":" + e.getMessage());
-          agent.getInterpreter().getExceptionsManager().addException(e, context, production);
+          failed(production, context, e);
         }
       }
     }
+
+    private void loaded(String production, SoarCommandContext context) {
+      agent.getPrinter().print("*");
+      SoarExceptionsManager exceptionsManager = agent.getInterpreter().getExceptionsManager();
+      agent
+          .getPrinter()
+          .getWarningsAndClear()
+          .forEach(warning -> exceptionsManager.addException(warning, context, production));
+    }
+
+    private void failed(String production, SoarCommandContext context, Exception e) {
+      agent.getPrinter().startNewLine().print(context.getSourceLocation() + ":" + e.getMessage());
+      agent.getInterpreter().getExceptionsManager().addException(e, context, production);
+    }
+  }
+
+  /**
+   * Hand productions to a {@link ParallelProductionLoader} rather than loading each one as soon as
+   * its command is executed. While a loader is set, {@link #flush()} must be called before anything
+   * that depends on the productions loaded so far.
+   *
+   * @param loader the loader, or {@code null} to go back to loading productions immediately
+   */
+  public void setParallelLoader(ParallelProductionLoader loader) {
+    ((Sp) this.picocliCommand).loader = loader;
+  }
+
+  /** @return the current parallel loader, or {@code null} if there isn't one */
+  public ParallelProductionLoader getParallelLoader() {
+    return ((Sp) this.picocliCommand).loader;
+  }
+
+  /**
+   * Add any productions still waiting in the parallel loader. Does nothing if there is no parallel
+   * loader.
+   *
+   * @throws SoarException if adding a production fails
+   */
+  public void flush() throws SoarException {
+    final ParallelProductionLoader loader = getParallelLoader();
+    if (loader != null) {
+      try {
+        loader.flush();
+      } catch (RuntimeException e) {
+        throw new SoarException(e);
+      }
+    }
   }
 
   @Override
@@ -5,7 +5,12 @@
 import org.jsoar.kernel.JSoarVersion;
 import org.jsoar.kernel.ProductionType;
 import org.jsoar.kernel.SoarProperties;
+import org.jsoar.kernel.rete.HashTableStatistics;
+import org.jsoar.kernel.rete.Rete;
+import org.jsoar.kernel.rete.ReteStatistics;
+import org.jsoar.kernel.rete.ReteStatistics.NodeTypeStatistics;
 import org.jsoar.kernel.tracing.Printer;
+import org.jsoar.util.adaptables.Adaptables;
 import org.jsoar.util.commands.PicocliSoarCommand;
 import org.jsoar.util.properties.PropertyManager;
 import picocli.CommandLine.Command;
@@ -40,11 +45,22 @@ public Stats(Agent agent) {
         description = "Prints system statistics")
     boolean printSystemStats;
 
+    @Option(
+        names = {"-r", "--rete"},
+        defaultValue = "false",
+        description = "Prints rete hash table, node sharing and token statistics")
+    boolean printReteStats;
+
     @Override
     public void run() {
       final Printer p = agent.getPrinter();
       p.startNewLine();
 
+      if (printReteStats) {
+        printReteStats(p);
+        return;
+      }
+
       final JSoarVersion version = JSoarVersion.getInstance();
       p.print(
           "JSoar %s on %s at %s%n",
@@ -104,5 +120,58 @@ public void run() {
               : 0.0,
           props.get(SoarProperties.MAX_WM_SIZE));
     }
+
+    private void printReteStats(Printer p) {
+      final Rete rete = Adaptables.adapt(agent, Rete.class);
+      printHashTableStats(p, "Left token hash table", rete.getLeftHashTableStatistics());
+      printHashTableStats(p, "Right memory hash table", rete.getRightHashTableStatistics());
+      printNodeStats(p, rete.getStatistics());
+    }
+
+    private void printNodeStats(Printer p, ReteStatistics stats) {
+      p.print(
+          "Beta network:%n"
+              + " %d nodes, %d tokens, %f sharing factor%n"
+              + " %d alpha memories, %d right memories%n"
+              + " ~%d KB estimated%n",
+          stats.getNodes(),
+          stats.getTokens(),
+          stats.getSharingFactor(),
+          stats.getAlphaMemories(),
+          stats.getRightMemories(),
+          stats.getEstimatedBytes() / 1024);
+      p.print(
+          "%-24s %8s %8s %8s %10s %10s %8s %10s%n",
+          "Node type", "Nodes", "Shared", "Sharing", "Tokens", "Avg tokens", "Max", "~KB");
+      for (NodeTypeStatistics s : stats.getNodeTypes().values()) {
+        p.print(
+            "%-24s %8d %8d %8.2f %10d %10.2f %8d %10d%n",
+            s.getType(),
+            s.getNodes(),
+            s.getSharedNodes(),
+            s.getSharingFactor(),
+            s.getTokens(),
+            s.getAverageTokens(),
+            s.getMaxTokens(),
+            s.getEstimatedBytes() / 1024);
+      }
+    }
+
+    private void printHashTableStats(Printer p, String name, HashTableStatistics stats) {
+      p.print(
+          "%s:%n"
+              + " %d entries in %d buckets (%f load factor)%n"
+              + " %d occupied buckets, %f mean chain length, %d max chain length%n"
+              + " %d resizes%s%n",
+          name,
+          stats.getSize(),
+          stats.getBuckets(),
+          stats.getLoadFactor(),
+          stats.getOccupiedBuckets(),
+          stats.getAverageChainLength(),
+          stats.getMaxChainLength(),
+          stats.getResizes(),
+          stats.isResizing() ? " (resize in progress)" : "");
+    }
   }
 }
@@ -0,0 +1,766 @@
+package org.jsoar.kernel.epmem;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import org.jsoar.kernel.symbols.Symbols;
+import org.jsoar.util.ByRef;
+
+/**
+ * {@link EpisodicMemoryStore} that keeps episodic memory in process, without SQL. Intended for
+ * agents whose episodic memory doesn't have to outlive them, where it replaces an in-memory SQLite
+ * database.
+ *
+ * <p>Tables are stored as columns of primitive longs. The intervals of a wme are chained from its
+ * latest interval backwards, which is the order the graph match consumes them in, so interval
+ * queries walk the chain rather than searching an index. Ranges are additionally chained per RIT
+ * node and points per episode, so reconstructing an episode only visits the RIT nodes computed by
+ * {@code epmem_rit_prep_left_right}. Symbols, wme triples and long-term identifiers are found
+ * through hash tables.
+ *
+ * <p>Rows are returned in the same order as the SQL statements of {@link EpisodicMemoryDatabase}
+ * return them, so retrievals are identical for both stores.
+ */
+final class ColumnarEpisodicMemoryStore implements EpisodicMemoryStore {
+  private static final long NONE = -1;
+
+  private final Map<Integer, Long> variables = new HashMap<>();
+
+  private final LongColumn symbolTypes = new LongColumn();
+  private final Map<Long, Object> symbolValues = new HashMap<>();
+  private final Map<Long, Long> integerSymbols = new HashMap<>();
+  private final Map<Double, Long> floatSymbols = new HashMap<>();
+  private final Map<String, Long> stringSymbols = new HashMap<>();
+
+  private final Wmes constants = new Wmes();
+  private final Wmes identifiers = new Wmes();
+
+  /** n_id -> (letter, number, promotion episode) */
+  private final Map<Long, long[]> ltis = new HashMap<>();
+
+  private final Map<Key, Long> ltiIds = new HashMap<>();
+
+  /** Episode ids, ascending */
+  private final LongColumn episodes = new LongColumn();
+
+  private final LongColumn ritLeft = new LongColumn();
+  private final LongColumn ritRight = new LongColumn();
+
+  ColumnarEpisodicMemoryStore() {
+    // See structures.sql: root and acceptable preference symbols
+    addStringSymbol(addSymbolType(Symbols.SYM_CONSTANT_SYMBOL_TYPE), "root");
+    addStringSymbol(addSymbolType(Symbols.SYM_CONSTANT_SYMBOL_TYPE), "operator*");
+  }
+
+  private Wmes wmes(boolean identifier) {
+    return identifier ? identifiers : constants;
+  }
+
+  @Override
+  public String getVersion() {
+    return "columnar";
+  }
+
+  @Override
+  public void storeEpisode(EpisodeStorage storage) throws SQLException {
+    storage.run();
+  }
+
+  @Override
+  public void flush() {}
+
+  @Override
+  public void close() {}
+
+  @Override
+  public boolean getVariable(int id, ByRef<Long> value) {
+    final Long v = variables.get(id);
+    if (v == null) {
+      return false;
+    }
+    value.value = v;
+    return true;
+  }
+
+  @Override
+  public void setVariable(int id, long value) {
+    variables.put(id, value);
+  }
+
+  @Override
+  public long addSymbolType(int type) {
+    symbolTypes.add(type);
+    return symbolTypes.size() - 1L;
+  }
+
+  @Override
+  public int getSymbolType(long sId) {
+    return sId >= 0 && sId < symbolTypes.size() ? (int) symbolTypes.get(sId) : -1;
+  }
+
+  @Override
+  public long findIntegerSymbol(long value) {
+    return integerSymbols.getOrDefault(value, 0L);
+  }
+
+  @Override
+  public long findFloatSymbol(double value) {
+    return floatSymbols.getOrDefault(value, 0L);
+  }
+
+  @Override
+  public long findStringSymbol(String value) {
+    return stringSymbols.getOrDefault(value, 0L);
+  }
+
+  @Override
+  public void addIntegerSymbol(long sId, long value) {
+    integerSymbols.putIfAbsent(value, sId);
+    symbolValues.put(sId, value);
+  }
+
+  @Override
+  public void addFloatSymbol(long sId, double value) {
+    floatSymbols.putIfAbsent(value, sId);
+    symbolValues.put(sId, value);
+  }
+
+  @Override
+  public void addStringSymbol(long sId, String value) {
+    stringSymbols.putIfAbsent(value, sId);
+    symbolValues.put(sId, value);
+  }
+
+  @Override
+  public Long getIntegerSymbol(long sId) {
+    final Object value = symbolValues.get(sId);
+    return value instanceof Long ? (Long) value : null;
+  }
+
+  @Override
+  public Double getFloatSymbol(long sId) {
+    final Object value = symbolValues.get(sId);
+    return value instanceof Double ? (Double) value : null;
+  }
+
+  @Override
+  public String getStringSymbol(long sId) {
+    final Object value = symbolValues.get(sId);
+    return value instanceof String ? (String) value : null;
+  }
+
+  @Override
+  public void addNode(long nId) {
+    // nodes are implied by the wmes that reference them
+  }
+
+  @Override
+  public long findConstantWme(long parent, long attribute, long value) {
+    return constants.find(parent, attribute, value);
+  }
+
+  @Override
+  public long addConstantWme(long parent, long attribute, long value) {
+    return constants.add(parent, attribute, value, Long.MAX_VALUE);
+  }
+
+  @Override
+  public long findIdentifierWme(long parent, long attribute, long child) {
+    return identifiers.find(parent, attribute, child);
+  }
+
+  @Override
+  public long addIdentifierWme(long parent, long attribute, long child, long lastEpisode) {
+    return identifiers.add(parent, attribute, child, lastEpisode);
+  }
+
+  @Override
+  public void updateIdentifierLastEpisode(long wiId, long lastEpisode) {
+    if (identifiers.exists(wiId)) {
+      identifiers.lastEpisodes.set(wiId - 1, lastEpisode);
+    }
+  }
+
+  @Override
+  public long getMaxWmeId(boolean identifier) {
+    return wmes(identifier).parents.size();
+  }
+
+  @Override
+  public EpisodicMemoryCursor selectIdentifierWmes() {
+    final Wmes w = identifiers;
+    final int count = w.parents.size();
+    final long[] rows = new long[count * 4];
+    for (int i = 0; i < count; i++) {
+      rows[i * 4] = w.parents.get(i);
+      rows[i * 4 + 1] = w.attributes.get(i);
+      rows[i * 4 + 2] = w.values.get(i);
+      rows[i * 4 + 3] = i + 1L;
+    }
+    return new LongArrayCursor(rows, 4, count);
+  }
+
+  @Override
+  public void addConstantNow(long wcId, long start) {
+    constants.addNow(wcId, start);
+  }
+
+  @Override
+  public void deleteConstantNow(long wcId) {
+    constants.deleteNow(wcId);
+  }
+
+  @Override
+  public void addConstantPoint(long wcId, long episode) {
+    constants.addPoint(wcId, episode);
+  }
+
+  @Override
+  public void addConstantRange(long node, long start, long end, long wcId) {
+    constants.addRange(node, start, end, wcId);
+  }
+
+  @Override
+  public void addIdentifierNow(long wiId, long start) {
+    identifiers.addNow(wiId, start);
+  }
+
+  @Override
+  public void deleteIdentifierNow(long wiId) {
+    identifiers.deleteNow(wiId);
+  }
+
+  @Override
+  public void addIdentifierPoint(long wiId, long episode) {
+    identifiers.addPoint(wiId, episode);
+  }
+
+  @Override
+  public void addIdentifierRange(long node, long start, long end, long wiId) {
+    identifiers.addRange(node, start, end, wiId);
+  }
+
+  @Override
+  public EpisodicMemoryCursor selectNow(boolean identifier) {
+    final Wmes w = wmes(identifier);
+    final LongColumn rows = new LongColumn();
+    for (int i = 0; i < w.nowStarts.size(); i++) {
+      if (w.nowStarts.get(i) != 0) {
+        rows.add(i + 1L);
+        rows.add(w.nowStarts.get(i));
+      }
+    }
+    return new LongArrayCursor(rows.data, 2, rows.size() / 2);
+  }
+
+  @Override
+  public void deleteAllNow(boolean identifier) {
+    final Wmes w = wmes(identifier);
+    for (int i = 0; i < w.nowStarts.size(); i++) {
+      w.nowStarts.set(i, 0);
+    }
+  }
+
+  @Override
+  public void promoteId(long nId, long letter, long number, long episode) {
+    final Key name = new Key(letter, number, 0);
+    if (!ltis.containsKey(nId) && !ltiIds.containsKey(name)) {
+      ltis.put(nId, new long[] {letter, number, episode});
+      ltiIds.put(name, nId);
+    }
+  }
+
+  @Override
+  public long findLti(long letter, long number) {
+    return ltiIds.getOrDefault(new Key(letter, number, 0), DefaultEpisodicMemory.EPMEM_NODEID_BAD);
+  }
+
+  @Override
+  public long findLtiPromotionTime(long nId) {
+    final long[] lti = ltis.get(nId);
+    return lti != null ? lti[2] : DefaultEpisodicMemory.EPMEM_MEMID_NONE;
+  }
+
+  @Override
+  public void addEpisode(long time) {
+    final int size = episodes.size();
+    if (size == 0 || episodes.get(size - 1) < time) {
+      episodes.add(time);
+      return;
+    }
+    final int i = episodes.binarySearch(time);
+    if (i < 0) {
+      episodes.insert(-(i + 1), time);
+    }
+  }
+
+  @Override
+  public long getMaxEpisode() {
+    return episodes.size() != 0 ? episodes.get(episodes.size() - 1) : 0;
+  }
+
+  @Override
+  public boolean isValidEpisode(long time) {
+    return episodes.binarySearch(time) >= 0;
+  }
+
+  @Override
+  public long nextEpisode(long time) {
+    final int i = episodes.binarySearch(time);
+    final int next = i >= 0 ? i + 1 : -(i + 1);
+    return next < episodes.size() ? episodes.get(next) : DefaultEpisodicMemory.EPMEM_MEMID_NONE;
+  }
+
+  @Override
+  public long previousEpisode(long time) {
+    final int i = episodes.binarySearch(time);
+    final int previous = (i >= 0 ? i : -(i + 1)) - 1;
+    return previous >= 0 ? episodes.get(previous) : DefaultEpisodicMemory.EPMEM_MEMID_NONE;
+  }
+
+  @Override
+  public EpisodicMemoryCursor findEdges(
+      boolean identifier, long parent, long attribute, long value, long after) {
+    final Wmes w = wmes(identifier);
+    final LongColumn ids;
+    if (value != DefaultEpisodicMemory.EPMEM_NODEID_BAD) {
+      final long id = w.find(parent, attribute, value);
+      if (id == DefaultEpisodicMemory.EPMEM_NODEID_BAD) {
+        return LongArrayCursor.empty(3);
+      }
+      ids = new LongColumn();
+      ids.add(id);
+    } else {
+      ids = w.siblings.get(new Key(parent, attribute, 0));
+      if (ids == null) {
+        return LongArrayCursor.empty(3);
+      }
+    }
+
+    final long[][] rows = new long[ids.size()][];
+    int count = 0;
+    for (int i = 0; i < ids.size(); i++) {
+      final long id = ids.get(i);
+      final long last = identifier ? w.lastEpisodes.get(id - 1) : Long.MAX_VALUE;
+      if (!identifier || after < last) {
+        rows[count++] = new long[] {id, w.values.get(id - 1), last};
+      }
+    }
+    // constants are found in value order, identifiers latest first
+    final Comparator<long[]> order =
+        identifier
+            ? Comparator.<long[]>comparingLong(r -> r[2]).thenComparingLong(r -> r[0]).reversed()
+            : Comparator.comparingLong(r -> r[1]);
+    Arrays.sort(rows, 0, count, order);
+    return flatten(rows, count, 3);
+  }
+
+  @Override
+  public EpisodicMemoryCursor findIntervals(
+      boolean identifier, int pointType, int intervalType, long id, long currentEpisode) {
+    return findIntervals(
+        wmes(identifier),
+        pointType,
+        intervalType,
+        id,
+        pointType == DefaultEpisodicMemory.EPMEM_RANGE_END ? 1 : Long.MIN_VALUE,
+        currentEpisode);
+  }
+
+  @Override
+  public EpisodicMemoryCursor findLtiIntervals(
+      int pointType, int intervalType, long id, long promotionTime, long currentEpisode) {
+    return findIntervals(identifiers, pointType, intervalType, id, promotionTime, currentEpisode);
+  }
+
+  private EpisodicMemoryCursor findIntervals(
+      Wmes w, int pointType, int intervalType, long id, long minEnd, long currentEpisode) {
+    final boolean start = pointType == DefaultEpisodicMemory.EPMEM_RANGE_START;
+    if (!w.exists(id)) {
+      return LongArrayCursor.empty(1);
+    }
+    if (intervalType == DefaultEpisodicMemory.EPMEM_RANGE_EP) {
+      return new IntervalCursor(
+          w.rangeStarts,
+          w.rangeEnds,
+          w.rangePreviousById,
+          w.lastRangeById.get(id - 1),
+          start,
+          minEnd,
+          currentEpisode);
+    } else if (intervalType == DefaultEpisodicMemory.EPMEM_RANGE_POINT) {
+      return new IntervalCursor(
+          w.pointEpisodes,
+          null,
+          w.pointPreviousById,
+          w.lastPointById.get(id - 1),
+          start,
+          Long.MIN_VALUE,
+          currentEpisode);
+    } else {
+      final long nowStart = w.nowStarts.get(id - 1);
+      if (nowStart == 0 || nowStart > currentEpisode) {
+        return LongArrayCursor.empty(1);
+      }
+      return LongArrayCursor.of(start ? nowStart - 1 : currentEpisode);
+    }
+  }
+
+  @Override
+  public void addRitLeft(long min, long max) {
+    ritLeft.add(min);
+  }
+
+  @Override
+  public void addRitRight(long node) {
+    ritRight.add(node);
+  }
+
+  @Override
+  public void clearRitLeftRight() {
+    ritLeft.clear();
+    ritRight.clear();
+  }
+
+  @Override
+  public EpisodicMemoryCursor getIdentifierWmes(long time) {
+    final Wmes w = identifiers;
+    final long[] ids = w.idsAt(time, ritLeft, ritRight);
+    final long[][] rows = new long[ids.length][];
+    for (int i = 0; i < ids.length; i++) {
+      final int index = (int) (ids[i] - 1);
+      final long child = w.values.get(index);
+      final long[] lti = ltis.get(child);
+      final boolean promoted = lti != null && lti[2] <= time;
+      rows[i] =
+          new long[] {
+            w.parents.get(index),
+            w.attributes.get(index),
+            child,
+            promoted ? lti[0] : 0,
+            promoted ? lti[1] : 0,
+            ids[i]
+          };
+    }
+    Arrays.sort(
+        rows,
+        Comparator.<long[]>comparingLong(r -> r[0])
+            .thenComparingLong(r -> r[2])
+            .thenComparingLong(r -> r[5]));
+    return flatten(rows, rows.length, 5);
+  }
+
+  @Override
+  public EpisodicMemoryCursor getConstantWmes(long time) {
+    final Wmes w = constants;
+    final long[] ids = w.idsAt(time, ritLeft, ritRight);
+    final long[] rows = new long[ids.length * 4];
+    for (int i = 0; i < ids.length; i++) {
+      final int index = (int) (ids[i] - 1);
+      rows[i * 4] = ids[i];
+      rows[i * 4 + 1] = w.parents.get(index);
+      rows[i * 4 + 2] = w.attributes.get(index);
+      rows[i * 4 + 3] = w.values.get(index);
+    }
+    return new LongArrayCursor(rows, 4, ids.length);
+  }
+
+  /** Copy the first {@code width} columns of each row into a cursor */
+  private static LongArrayCursor flatten(long[][] rows, int count, int width) {
+    final long[] flat = new long[count * width];
+    for (int i = 0; i < count; i++) {
+      System.arraycopy(rows[i], 0, flat, i * width, width);
+    }
+    return new LongArrayCursor(flat, width, count);
+  }
+
+  /** The wme table of one kind of wme along with its now, point and range tables */
+  private static final class Wmes {
+    // wme table, indexed by id - 1
+    final LongColumn parents = new LongColumn();
+    final LongColumn attributes = new LongColumn();
+    final LongColumn values = new LongColumn();
+    final LongColumn lastEpisodes = new LongColumn();
+
+    final Map<Key, Long> ids = new HashMap<>();
+
+    /** (parent, attribute) -> ids in insertion order */
+    final Map<Key, LongColumn> siblings = new HashMap<>();
+
+    // now table, indexed by id - 1. 0 if the wme isn't in working memory.
+    final LongColumn nowStarts = new LongColumn();
+
+    // point table
+    final LongColumn pointEpisodes = new LongColumn();
+    final LongColumn pointIds = new LongColumn();
+    final LongColumn pointPreviousById = new LongColumn();
+    final LongColumn pointPreviousByEpisode = new LongColumn();
+    final LongColumn lastPointById = new LongColumn();
+    final Map<Long, Long> lastPointByEpisode = new HashMap<>();
+
+    // range table
+    final LongColumn rangeStarts = new LongColumn();
+    final LongColumn rangeEnds = new LongColumn();
+    final LongColumn rangeIds = new LongColumn();
+    final LongColumn rangePreviousById = new LongColumn();
+    final LongColumn rangePreviousByNode = new LongColumn();
+    final LongColumn lastRangeById = new LongColumn();
+    final Map<Long, Long> lastRangeByNode = new HashMap<>();
+
+    boolean exists(long id) {
+      return id >= 1 && id <= parents.size();
+    }
+
+    long find(long parent, long attribute, long value) {
+      return ids.getOrDefault(
+          new Key(parent, attribute, value), DefaultEpisodicMemory.EPMEM_NODEID_BAD);
+    }
+
+    long add(long parent, long attribute, long value, long lastEpisode) {
+      parents.add(parent);
+      attributes.add(attribute);
+      values.add(value);
+      lastEpisodes.add(lastEpisode);
+      nowStarts.add(0);
+      lastPointById.add(NONE);
+      lastRangeById.add(NONE);
+
+      final long id = parents.size();
+      ids.put(new Key(parent, attribute, value), id);
+      siblings.computeIfAbsent(new Key(parent, attribute, 0), k -> new LongColumn()).add(id);
+      return id;
+    }
+
+    void addNow(long id, long start) {
+      if (exists(id) && nowStarts.get(id - 1) == 0) {
+        nowStarts.set(id - 1, start);
+      }
+    }
+
+    void deleteNow(long id) {
+      if (exists(id)) {
+        nowStarts.set(id - 1, 0);
+      }
+    }
+
+    void addPoint(long id, long episode) {
+      if (!exists(id)) {
+        return;
+      }
+      final long row = pointEpisodes.size();
+      pointEpisodes.add(episode);
+      pointIds.add(id);
+      pointPreviousById.add(lastPointById.get(id - 1));
+      pointPreviousByEpisode.add(lastPointByEpisode.getOrDefault(episode, NONE));
+      lastPointById.set(id - 1, row);
+      lastPointByEpisode.put(episode, row);
+    }
+
+    void addRange(long node, long start, long end, long id) {
+      if (!exists(id)) {
+        return;
+      }
+      final long row = rangeStarts.size();
+      rangeStarts.add(start);
+      rangeEnds.add(end);
+      rangeIds.add(id);
+      rangePreviousById.add(lastRangeById.get(id - 1));
+      rangePreviousByNode.add(lastRangeByNode.getOrDefault(node, NONE));
+      lastRangeById.set(id - 1, row);
+      lastRangeByNode.put(node, row);
+    }
+
+    /**
+     * The ids of the wmes in an episode: in working memory since the episode, a point at the
+     * episode, or a range at one of the RIT nodes that covers the episode.
+     *
+     * @return the ids, ascending
+     */
+    long[] idsAt(long time, LongColumn ritLeft, LongColumn ritRight) {
+      final LongColumn found = new LongColumn();
+      for (int i = 0; i < nowStarts.size(); i++) {
+        final long start = nowStarts.get(i);
+        if (start != 0 && start <= time) {
+          found.add(i + 1L);
+        }
+      }
+      for (long row = lastPointByEpisode.getOrDefault(time, NONE);
+          row != NONE;
+          row = pointPreviousByEpisode.get(row)) {
+        found.add(pointIds.get(row));
+      }
+      // ranges at left nodes end at or after the episode, ranges at right nodes start at or before
+      for (int i = 0; i < ritLeft.size(); i++) {
+        for (long row = lastRangeByNode.getOrDefault(ritLeft.get(i), NONE);
+            row != NONE;
+            row = rangePreviousByNode.get(row)) {
+          if (rangeEnds.get(row) >= time) {
+            found.add(rangeIds.get(row));
+          }
+        }
+      }
+      for (int i = 0; i < ritRight.size(); i++) {
+        for (long row = lastRangeByNode.getOrDefault(ritRight.get(i), NONE);
+            row != NONE;
+            row = rangePreviousByNode.get(row)) {
+          if (rangeStarts.get(row) <= time) {
+            found.add(rangeIds.get(row));
+          }
+        }
+      }
+
+      final long[] result = Arrays.copyOf(found.data, found.size());
+      Arrays.sort(result);
+      int unique = 0;
+      for (int i = 0; i < result.length; i++) {
+        if (i == 0 || result[i] != result[i - 1]) {
+          result[unique++] = result[i];
+        }
+      }
+      return Arrays.copyOf(result, unique);
+    }
+  }
+
+  /**
+   * Walks the point or range rows of one wme from its latest row backwards, reporting start points
+   * one episode early.
+   */
+  private static final class IntervalCursor implements EpisodicMemoryCursor {
+    private final LongColumn starts;
+    private final LongColumn ends;
+    private final LongColumn previous;
+    private final boolean start;
+    private final long minEnd;
+    private final long currentEpisode;
+    private long row;
+    private long time;
+
+    /**
+     * @param starts the start episode (range) or episode (point) column
+     * @param ends the end episode column, or {@code null} for points
+     * @param previous the column linking a row to the previous row of the same wme
+     * @param row the latest row of the wme, or {@link #NONE}
+     * @param start true to report start points, false for end points
+     * @param minEnd ranges ending before this are skipped
+     * @param currentEpisode rows starting after this are skipped
+     */
+    IntervalCursor(
+        LongColumn starts,
+        LongColumn ends,
+        LongColumn previous,
+        long row,
+        boolean start,
+        long minEnd,
+        long currentEpisode) {
+      this.starts = starts;
+      this.ends = ends;
+      this.previous = previous;
+      this.row = row;
+      this.start = start;
+      this.minEnd = minEnd;
+      this.currentEpisode = currentEpisode;
+    }
+
+    @Override
+    public boolean next() {
+      while (row != NONE) {
+        final long r = row;
+        row = previous.get(r);
+
+        final long s = starts.get(r);
+        final long e = ends != null ? ends.get(r) : s;
+        if (s <= currentEpisode && e >= minEnd) {
+          time = start ? s - 1 : e;
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public long getLong(int column) {
+      return column == 1 ? time : 0;
+    }
+
+    @Override
+    public int getColumnCount() {
+      return 1;
+    }
+
+    @Override
+    public void close() {
+      row = NONE;
+    }
+  }
+
+  /** A growable column of longs */
+  private static final class LongColumn {
+    long[] data = new long[8];
+    private int size;
+
+    int size() {
+      return size;
+    }
+
+    long get(long index) {
+      return data[(int) index];
+    }
+
+    void set(long index, long value) {
+      data[(int) index] = value;
+    }
+
+    void add(long value) {
+      if (size == data.length) {
+        data = Arrays.copyOf(data, size * 2);
+      }
+      data[size++] = value;
+    }
+
+    void insert(int index, long value) {
+      add(0);
+      System.arraycopy(data, index, data, index + 1, size - index - 1);
+      data[index] = value;
+    }
+
+    int binarySearch(long value) {
+      return Arrays.binarySearch(data, 0, size, value);
+    }
+
+    void clear() {
+      size = 0;
+    }
+  }
+
+  /** A hash key of up to three longs */
+  private static final class Key {
+    private final long a;
+    private final long b;
+    private final long c;
+
+    Key(long a, long b, long c) {
+      this.a = a;
+      this.b = b;
+      this.c = c;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) o;
+      return a == other.a && b == other.b && c == other.c;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(a) * 961 + Long.hashCode(b) * 31 + Long.hashCode(c);
+    }
+  }
+}
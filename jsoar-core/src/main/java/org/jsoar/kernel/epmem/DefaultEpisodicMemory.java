@@ -141,7 +141,6 @@ private static class epmem_rit_state {
     epmem_rit_state_param minstep = new epmem_rit_state_param();
 
     // TODO EPMEM soar_module::timer *timer;
-    PreparedStatement add_query;
   }
 
   private final Adaptable context;
@@ -154,8 +153,12 @@ private static class epmem_rit_state {
 
   private Decider decider;
   SymbolFactoryImpl symbols;
+  /** The database if the jdbc backend is in use, otherwise {@code null} */
   EpisodicMemoryDatabase db;
 
+  /** Where episodes are stored, or {@code null} if epmem hasn't been initialized */
+  EpisodicMemoryStore store;
+
   private RecognitionMemory recognitionMemory;
 
   /** agent.h:epmem_validation */
@@ -237,6 +240,7 @@ public DefaultEpisodicMemory(Adaptable context) {
   public DefaultEpisodicMemory(Adaptable context, EpisodicMemoryDatabase db) {
     this.context = context;
     this.db = db;
+    this.store = db != null ? new JdbcEpisodicMemoryStore(db, false) : null;
   }
 
   /** @return the interface not the implementation */
@@ -368,9 +372,26 @@ public void initialize() {
   }
 
   EpisodicMemoryDatabase getDatabase() {
+    try {
+      flushStore();
+    } catch (SQLException e) {
+      log.error("While flushing epmem: " + e.getMessage(), e);
+    }
     return db;
   }
 
+  /**
+   * Make any episodes buffered by the store visible to queries. Must be called before reading the
+   * now, point, range or episode tables.
+   *
+   * @throws SQLException if writing failed
+   */
+  void flushStore() throws SQLException {
+    if (store != null) {
+      store.flush();
+    }
+  }
+
   DefaultEpisodicMemoryParams getParams() {
     return params;
   }
@@ -403,7 +424,7 @@ private void epmem_init_db_catch() {
    * <p>episodic_memory.cpp:1458:epmem_init_db
    */
   void epmem_init_db(boolean readonly /* = false */) throws SoarException {
-    if (db == null) {
+    if (store == null) {
       try {
         epmem_init_db_ex(readonly);
       } catch (SQLException | IOException e) {
@@ -493,55 +514,37 @@ private void applyDatabasePerformanceOptions() throws SQLException, SoarExceptio
   }
 
   private void initMinMax(
-      long time_max,
-      PreparedStatement minmax_select,
-      List<Boolean> minmax_max,
-      List<Long> minmax_min)
+      long time_max, boolean identifier, List<Boolean> minmax_max, List<Long> minmax_min)
       throws SQLException {
-    try (ResultSet rs = minmax_select.executeQuery()) {
-      while (rs.next()) {
-        /*
-        * The original port from CSoar did this.  In the original version of Xerial this would return
-        * the type of the VALUE retrieved, but in the new version of Xerial it returns the type of the
-        * column.  The column is not nullable and should be a character value, so we are assuming that
-        * any 0s are what used to be nulls. --ACN
-        *
-        if ( temp_q->column_type( 0 ) != soar_module::null_t )
-        */
-        if (rs.getInt(1) != 0) {
-          // std::vector<bool>::size_type num_ids =
-          // temp_q->column_int( 0 );
-          var num_ids = rs.getInt(1);
-
-          // Note that substituting resize for an add loop only works if the incoming lists are
-          // empty. -ACN
-          for (var i = 0; i < num_ids; i++) {
-            // minmax_max[i]->resize( num_ids, true );
-            minmax_max.add(Boolean.TRUE);
-            // minmax_min[i]->resize( num_ids, time_max );
-            minmax_min.add(time_max);
-          }
-        }
-      }
+    /*
+    * The original port from CSoar did this.  In the original version of Xerial this would return
+    * the type of the VALUE retrieved, but in the new version of Xerial it returns the type of the
+    * column.  The column is not nullable and should be a character value, so we are assuming that
+    * any 0s are what used to be nulls. --ACN
+    *
+    if ( temp_q->column_type( 0 ) != soar_module::null_t )
+    */
+    // std::vector<bool>::size_type num_ids =
+    // temp_q->column_int( 0 );
+    final var num_ids = (int) store.getMaxWmeId(identifier);
+
+    // Note that substituting resize for an add loop only works if the incoming lists are
+    // empty. -ACN
+    for (var i = 0; i < num_ids; i++) {
+      // minmax_max[i]->resize( num_ids, true );
+      minmax_max.add(Boolean.TRUE);
+      // minmax_min[i]->resize( num_ids, time_max );
+      minmax_min.add(time_max);
     }
   }
 
   /**
-   * Private method for epmem_init_db that throws SQLException, IOException so it can wrap in
-   * SoarException and throw.
+   * Connect to the database named by the driver, protocol and path parameters, switching to an
+   * in-memory database if the schema version doesn't match.
    *
-   * <p>episodic_memory.cpp:1458:epmem_init_db
+   * @return the store on the new {@link #db}
    */
-  private void epmem_init_db_ex(boolean readonly /* = false */)
-      throws SQLException, IOException, SoarException {
-    if (db != null /* my_agent->epmem_db->get_status() !=soar_module::disconnected */) {
-      return;
-    }
-
-    // //////////////////////////////////////////////////////////////////////////
-    // TODO EPMEM my_agent->epmem_timers->init->start();
-    // //////////////////////////////////////////////////////////////////////////
-
+  private JdbcEpisodicMemoryStore openDatabase() throws SQLException, IOException, SoarException {
     // attempt connection
     // Convert out special URL characters like spaces
     final String jdbcUrl =
@@ -555,9 +558,6 @@ private void epmem_init_db_ex(boolean readonly /* = false */)
 
     applyDatabasePerformanceOptions();
 
-    // update validation count
-    epmem_validation++;
-
     // setup common structures/queries
     // setup graph structures/queries
     db.structure();
@@ -578,7 +578,7 @@ private void epmem_init_db_ex(boolean readonly /* = false */)
             db = null;
             // This will only recurse once, because the path is
             // guaranteed to be memory for the second call
-            epmem_init_db_ex(readonly);
+            return openDatabase();
           }
         } else {
           if (params.append_database.get() == AppendDatabaseChoices.on) {
@@ -602,6 +602,38 @@ private void epmem_init_db_ex(boolean readonly /* = false */)
       db.prepare();
     }
 
+    return new JdbcEpisodicMemoryStore(db, params.lazy_commit.get() == LazyCommitChoices.on);
+  }
+
+  /**
+   * Private method for epmem_init_db that throws SQLException, IOException so it can wrap in
+   * SoarException and throw.
+   *
+   * <p>episodic_memory.cpp:1458:epmem_init_db
+   */
+  private void epmem_init_db_ex(boolean readonly /* = false */)
+      throws SQLException, IOException, SoarException {
+    if (store != null /* my_agent->epmem_db->get_status() !=soar_module::disconnected */) {
+      return;
+    }
+
+    // //////////////////////////////////////////////////////////////////////////
+    // TODO EPMEM my_agent->epmem_timers->init->start();
+    // //////////////////////////////////////////////////////////////////////////
+
+    final JdbcEpisodicMemoryStore jdbcStore;
+    if (params.backend.get() == BackendChoices.columnar) {
+      jdbcStore = null;
+      store = new ColumnarEpisodicMemoryStore();
+      log.info("Opened columnar episodic memory store");
+    } else {
+      jdbcStore = openDatabase();
+      store = jdbcStore;
+    }
+
+    // update validation count
+    epmem_validation++;
+
     // initialize range tracking
     epmem_node_mins.clear();
     epmem_node_maxes.clear();
@@ -640,9 +672,6 @@ private void epmem_init_db_ex(boolean readonly /* = false */)
       epmem_rit_state_graph[i].rightroot.stat = 1;
       epmem_rit_state_graph[i].minstep.stat = Long.MAX_VALUE;
     }
-    epmem_rit_state_graph[EPMEM_RIT_STATE_NODE].add_query = db.add_epmem_wmes_constant_range;
-    epmem_rit_state_graph[EPMEM_RIT_STATE_EDGE].add_query = db.add_epmem_wmes_identifier_range;
-
     // //
 
     // get/set RIT variables
@@ -686,15 +715,7 @@ private void epmem_init_db_ex(boolean readonly /* = false */)
     // //
 
     // get max time
-    {
-      final PreparedStatement temp_q = db.get_max_time;
-
-      try (ResultSet rs = temp_q.executeQuery()) {
-        if (rs.next()) {
-          stats.time.set(rs.getLong(1) + 1);
-        }
-      }
-    }
+    stats.time.set(store.getMaxEpisode() + 1);
 
     long time_max = stats.time.get();
 
@@ -703,19 +724,9 @@ private void epmem_init_db_ex(boolean readonly /* = false */)
     if (!readonly) {
       long time_last = (time_max - 1);
 
-      final var now_select = new PreparedStatement[] {db.now_select_node, db.now_select_edge};
-      final var now_add =
-          new PreparedStatement[] {
-            db.add_epmem_wmes_constant_point, db.add_epmem_wmes_identifier_point
-          };
-      final var now_delete = new PreparedStatement[] {db.now_delete_node, db.now_delete_edge};
-
       for (int i = EPMEM_RIT_STATE_NODE; i <= EPMEM_RIT_STATE_EDGE; i++) {
-        final PreparedStatement temp_q = now_add[i];
-        temp_q.setLong(2, time_last);
-
-        final PreparedStatement temp_q2 = now_select[i];
-        try (ResultSet rs = temp_q2.executeQuery()) {
+        final boolean identifier = (i == EPMEM_RIT_STATE_EDGE);
+        try (EpisodicMemoryCursor rs = store.selectNow(identifier)) {
           // while ( temp_q2->execute() == soar_module::row )
           while (rs.next()) {
             // range_start = temp_q2->column_int( 1 );
@@ -723,8 +734,11 @@ private void epmem_init_db_ex(boolean readonly /* = false */)
 
             // point
             if (range_start == time_last) {
-              temp_q.setLong(1, rs.getLong(1));
-              temp_q.executeUpdate(/* soar_module::op_reinit */ );
+              if (identifier) {
+                store.addIdentifierPoint(rs.getLong(1), time_last);
+              } else {
+                store.addConstantPoint(rs.getLong(1), time_last);
+              }
             } else {
               epmem_rit_insert_interval(
                   range_start, time_last, rs.getLong(1), epmem_rit_state_graph[i]);
@@ -733,7 +747,7 @@ private void epmem_init_db_ex(boolean readonly /* = false */)
         }
 
         // remove all NOW intervals
-        now_delete[i].execute();
+        store.deleteAllNow(identifier);
       }
     }
 
@@ -741,8 +755,8 @@ private void epmem_init_db_ex(boolean readonly /* = false */)
     {
       // Removed two-element iteration because java collections hate that
       // episodic_memory.cpp:1761
-      initMinMax(time_max, db.minmax_select_node, epmem_node_maxes, epmem_node_mins);
-      initMinMax(time_max, db.minmax_select_edge, epmem_edge_maxes, epmem_edge_mins);
+      initMinMax(time_max, false, epmem_node_maxes, epmem_node_mins);
+      initMinMax(time_max, true, epmem_edge_maxes, epmem_edge_mins);
       // episodic_memory.cpp:1780
     }
 
@@ -758,8 +772,7 @@ private void epmem_init_db_ex(boolean readonly /* = false */)
       // epmem_id_pool **ip;
       LinkedList<EpisodicMemoryIdPair> ip;
 
-      PreparedStatement temp_q = db.edge_unique_select;
-      try (ResultSet rs = temp_q.executeQuery()) {
+      try (EpisodicMemoryCursor rs = store.selectIdentifierWmes()) {
         // while ( temp_q->execute() == soar_module::row )
         while (rs.next()) {
           parent_n_id = rs.getLong(1);
@@ -791,15 +804,27 @@ private void epmem_init_db_ex(boolean readonly /* = false */)
     decider.topGoal().epmem_id = EPMEM_NODEID_ROOT;
     decider.topGoal().epmem_valid = epmem_validation;
 
-    try (ResultSet r = db.database_version.executeQuery()) {
-      r.next();
-      stats.db_version.set(r.getString(1));
-    }
+    stats.db_version.set(store.getVersion());
+
+    if (jdbcStore != null) {
+      // if lazy commit, then we encapsulate the entire lifetime of the agent
+      // in a single transaction
+      if (params.lazy_commit.get() == LazyCommitChoices.on) {
+        db.begin.executeUpdate(/* soar_module::op_reinit */ );
+      }
 
-    // if lazy commit, then we encapsulate the entire lifetime of the agent
-    // in a single transaction
-    if (params.lazy_commit.get() == LazyCommitChoices.on) {
-      db.begin.executeUpdate(/* soar_module::op_reinit */ );
+      // buffer episode storage and write it in batches
+      if (params.write_behind.get() != WriteBehindChoices.off) {
+        jdbcStore.setWriteBehind(
+            new EpisodicMemoryWriteBehind(
+                db,
+                params.lazy_commit.get() == LazyCommitChoices.off,
+                (int) Math.min(Integer.MAX_VALUE, params.write_behind_episodes.get()),
+                params.write_behind.get() == WriteBehindChoices.thread
+                    ? (int)
+                        Math.max(1, Math.min(Integer.MAX_VALUE, params.write_behind_queue.get()))
+                    : 0));
+      }
     }
 
     // //////////////////////////////////////////////////////////////////////////
@@ -872,11 +897,11 @@ private void epmem_rit_insert_interval(long lower, long upper, long id, epmem_ri
 
     // perform insert
     // ( node, start, end, id )
-    rit_state.add_query.setLong(1, node);
-    rit_state.add_query.setLong(2, lower);
-    rit_state.add_query.setLong(3, upper);
-    rit_state.add_query.setLong(4, id);
-    rit_state.add_query.executeUpdate(/*soar_module::op_reinit*/ );
+    if (rit_state == epmem_rit_state_graph[EPMEM_RIT_STATE_NODE]) {
+      store.addConstantRange(node, lower, upper, id);
+    } else {
+      store.addIdentifierRange(node, lower, upper, id);
+    }
   }
 
   private static final class EpmemRitForkNodeResult {
@@ -947,17 +972,7 @@ private EpmemRitForkNodeResult epmem_rit_fork_node(
    */
   boolean epmem_get_variable(epmem_variable_key variable_id, ByRef<Long> variable_value)
       throws SQLException {
-    final PreparedStatement var_get = db.var_get;
-
-    var_get.setInt(1, variable_id.ordinal());
-    try (ResultSet rs = var_get.executeQuery()) {
-      if (rs.next()) {
-        variable_value.value = rs.getLong(1);
-        return true;
-      } else {
-        return false;
-      }
-    }
+    return store.getVariable(variable_id.ordinal(), variable_value);
   }
 
   /**
@@ -966,28 +981,21 @@ boolean epmem_get_variable(epmem_variable_key variable_id, ByRef<Long> variable_
    * <p>episodic_memory.cpp:1007:epmem_set_variable
    */
   void epmem_set_variable(epmem_variable_key variable_id, long variable_value) throws SQLException {
-    final PreparedStatement var_set = db.var_set;
-
-    var_set.setInt(1, variable_id.ordinal());
-    var_set.setLong(2, variable_value);
-
-    var_set.execute();
+    store.setVariable(variable_id.ordinal(), variable_value);
   }
 
   @Override
   public void epmem_close() throws SoarException {
-    if (db != null) {
+    if (store != null) {
       try {
         // TODO this is copy-paste from smem right now, there are other
         // things to do here
 
-        if (params.lazy_commit.get() == LazyCommitChoices.on) {
-          db.commit.execute();
-        }
-
         // close the database
-        db.getConnection().close();
+        final EpisodicMemoryStore closing = store;
+        store = null;
         db = null;
+        closing.close();
 
         log.info("EpMem| Closing database {}.", params.path.get());
       } catch (SQLException e) {
@@ -1180,8 +1188,13 @@ private void epmem_new_episode() throws SQLException {
     epmem_init_db_catch();
 
     // add the episode only if db is properly initialized2
-    if (this.db == null) return;
+    if (this.store == null) return;
 
+    store.storeEpisode(this::epmem_new_episode_ex);
+  }
+
+  /** Extracted from epmem_new_episode(). Stores an episode in an initialized database. */
+  private void epmem_new_episode_ex() throws SQLException {
     // //////////////////////////////////////////////////////////////////////////
     // my_agent->epmem_timers->storage->start();
     // //////////////////////////////////////////////////////////////////////////
@@ -1278,17 +1291,7 @@ private void epmem_new_episode() throws SQLException {
 
           // add NOW entry
           // id = ?, start_episode_id = ?
-          db.add_epmem_wmes_constant_now.setLong(
-              1, temp_node); // my_agent->epmem_stmts_graph->add_node_now->bind_int(
-          // 1, (*temp_node) );
-          db.add_epmem_wmes_constant_now.setLong(
-              2, time_counter); // my_agent->epmem_stmts_graph->add_node_now->bind_int(
-          // 2, time_counter
-          // );
-          db.add_epmem_wmes_constant_now.executeUpdate(
-              /* soar_module::op_reinit */ ); // my_agent->epmem_stmts_graph->add_node_now->execute(
-          // soar_module::op_reinit
-          // );
+          store.addConstantNow(temp_node, time_counter);
 
           // update min
           epmem_node_mins.set((int) temp_node - 1, time_counter);
@@ -1302,38 +1305,12 @@ private void epmem_new_episode() throws SQLException {
 
           // add NOW entry
           // id = ?, start_episode_id  = ?
-          db.add_epmem_wmes_identifier_now.setLong(
-              1, temp_node); // my_agent->epmem_stmts_graph->add_edge_now->bind_int(
-          // 1, (*temp_node) );
-          db.add_epmem_wmes_identifier_now.setLong(
-              2, time_counter); // my_agent->epmem_stmts_graph->add_edge_now->bind_int(
-          // 2, time_counter
-          // );
-          db.add_epmem_wmes_identifier_now.executeUpdate(
-              /* soar_module::op_reinit */ ); // my_agent->epmem_stmts_graph->add_edge_now->execute(
-          // soar_module::op_reinit
-          // );
+          store.addIdentifierNow(temp_node, time_counter);
 
           // update min
           epmem_edge_mins.set((int) temp_node - 1, time_counter);
 
-          db.update_epmem_wmes_identifier_last_episode_id.setLong(
-              1, Long.MAX_VALUE); // my_agent->epmem_stmts_graph->update_edge_unique_last->bind_int(
-          // 1,
-          // LLONG_MAX
-          // );
-          db.update_epmem_wmes_identifier_last_episode_id.setLong(
-              2, temp_node); // my_agent->epmem_stmts_graph->update_edge_unique_last->bind_int(
-          // 2,
-          // *temp_node
-          // );
-          db.update_epmem_wmes_identifier_last_episode_id.executeUpdate(
-              /*
-               * soar_module::
-               * op_reinit
-               */ ); // my_agent->epmem_stmts_graph->update_edge_unique_last->execute(
-          // soar_module::op_reinit
-          // );
+          store.updateIdentifierLastEpisode(temp_node, Long.MAX_VALUE);
 
           epmem_edge.poll();
         }
@@ -1349,17 +1326,15 @@ private void epmem_new_episode() throws SQLException {
           if (r.getValue()) {
             // remove NOW entry
             // id = ?
-            db.delete_epmem_wmes_constant_now.setLong(1, r.getKey());
-            db.delete_epmem_wmes_constant_now.executeUpdate(/*soar_module::op_reinit*/ );
+            store.deleteConstantNow(r.getKey());
 
             range_start = epmem_node_mins.get((int) (r.getKey() - 1));
             range_end = (time_counter - 1);
 
             // point (id, start_episode_id)
             if (range_start == range_end) {
-              db.add_epmem_wmes_constant_point.setLong(1, r.getKey());
-              db.add_epmem_wmes_constant_point.setLong(2, range_start);
-              db.add_epmem_wmes_constant_point.executeUpdate(/*soar_module::op_reinit*/ );
+              store.addConstantPoint(r.getKey(), range_start);
+
             }
             // node
             else {
@@ -1376,24 +1351,18 @@ private void epmem_new_episode() throws SQLException {
         // wme's with identifier values
         for (Map.Entry<Long, Boolean> r : epmem_edge_removals.entrySet()) {
           if (r.getValue()) {
-            // remove NOW entry
-            // id = ?
-            db.delete_epmem_wmes_identifier_now.setLong(1, r.getKey());
-            db.delete_epmem_wmes_identifier_now.executeUpdate(/*soar_module::op_reinit*/ );
-
             range_start = epmem_edge_mins.get((int) (r.getKey() - 1));
             range_end = (time_counter - 1);
 
-            db.update_epmem_wmes_identifier_last_episode_id.setLong(1, range_end);
-            db.update_epmem_wmes_identifier_last_episode_id.setLong(2, r.getKey());
-            db.update_epmem_wmes_identifier_last_episode_id.executeUpdate(
-                /*soar_module::op_reinit*/ );
+            // remove NOW entry
+            // id = ?
+            store.deleteIdentifierNow(r.getKey());
+            store.updateIdentifierLastEpisode(r.getKey(), range_end);
 
             // point (id, start_episode_id)
             if (range_start == range_end) {
-              db.add_epmem_wmes_identifier_point.setLong(1, r.getKey());
-              db.add_epmem_wmes_identifier_point.setLong(2, range_start);
-              db.add_epmem_wmes_identifier_point.executeUpdate(/*soar_module::op_reinit*/ );
+              store.addIdentifierPoint(r.getKey(), range_start);
+
             }
             // node
             else {
@@ -1423,8 +1392,7 @@ private void epmem_new_episode() throws SQLException {
       }
 
       // add the time id to the epmem_episodes table
-      db.add_time.setLong(1, time_counter);
-      db.add_time.executeUpdate(/*soar_module::op_reinit*/ );
+      store.addEpisode(time_counter);
 
       stats.setTime(time_counter + 1);
 
@@ -1666,16 +1634,8 @@ void _epmem_store_level(
 
             // try to find
             {
-              final PreparedStatement ps = db.find_lti;
-              ps.setLong(1, wmeValueId.getNameLetter());
-              ps.setLong(2, wmeValueId.getNameNumber());
-              try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                  wmeValueId.epmem_id = rs.getLong(1);
-                }
-              }
-              // CK: no reinitialize for PreparedStatement
-              // my_agent->epmem_stmts_graph->find_lti->reinitialize();
+              wmeValueId.epmem_id =
+                  store.findLti(wmeValueId.getNameLetter(), wmeValueId.getNameNumber());
             }
 
             // add if necessary
@@ -1711,18 +1671,10 @@ void _epmem_store_level(
             }
 
             // parent_n_id, attribute_s_id, child_n_id
-            final PreparedStatement ps = db.find_epmem_wmes_identifier_shared;
-            ps.setLong(1, parent_id);
-            ps.setLong(2, my_hash);
-            ps.setLong(3, wmeValueId.epmem_id);
-
-            try (ResultSet rs = ps.executeQuery()) {
-              if (rs.next()) {
-                wme.epmem_id = rs.getLong(1);
-              }
+            final long shared_id = store.findIdentifierWme(parent_id, my_hash, wmeValueId.epmem_id);
+            if (shared_id != EPMEM_NODEID_BAD) {
+              wme.epmem_id = shared_id;
             }
-            // CK: no reinitialize for PreparedStatement
-            // my_agent->epmem_stmts_graph->find_edge_unique_shared->reinitialize();
           }
         } // End special lti proccessing
         else {
@@ -1859,8 +1811,7 @@ void _epmem_store_level(
                 "   Adding new n_id and setting wme id for VALUE to {} \n", wmeValueId.epmem_id);
 
             // Update the node database with the new n_id
-            db.add_node.setLong(1, wmeValueId.epmem_id);
-            db.add_node.execute();
+            store.addNode(wmeValueId.epmem_id);
 
             // add repository for possible future children
             Map<Long, LinkedList<EpisodicMemoryIdPair>> epmem_hashed_id_pool =
@@ -1879,21 +1830,8 @@ void _epmem_store_level(
               wmeValueId.epmem_id);
           log.debug("   Adding wme to epmem_wmes_identifier table.\n");
 
-          final PreparedStatement ps = db.add_epmem_wmes_identifier;
-          ps.setLong(1, parent_id);
-          ps.setLong(2, my_hash);
-          ps.setLong(3, wmeValueId.epmem_id);
-          ps.setLong(4, Long.MAX_VALUE);
-          ps.execute();
-          // CK: not all database drivers support this
-          try (ResultSet rs = ps.getGeneratedKeys()) {
-            if (rs.next()) {
-              wme.epmem_id = rs.getLong(1);
-            } else {
-              // throw an exception if we were not able to get the row id of the insert
-              throw new SQLException("ps.getGeneratedKeys failed!");
-            }
-          }
+          wme.epmem_id =
+              store.addIdentifierWme(parent_id, my_hash, wmeValueId.epmem_id, Long.MAX_VALUE);
 
           log.debug("   Incrementing and setting wme id to {} \n", wme.epmem_id);
 
@@ -1956,19 +1894,7 @@ void _epmem_store_level(
             // parent_id=? AND attr=? AND value=?
             log.debug("   Looking for id of a duplicate entry in epmem_wmes_constant.\n");
 
-            final PreparedStatement ps = db.find_epmem_wmes_constant;
-            ps.setLong(1, parent_id);
-            ps.setLong(2, my_hash);
-            ps.setLong(3, my_hash2);
-
-            try (ResultSet rs = ps.executeQuery()) {
-              if (rs.next()) {
-                wme.epmem_id = rs.getLong(1);
-              }
-            }
-
-            // CK: no reinitialize for PreparedStatment
-            // my_agent->epmem_stmts_graph->find_node_unique->reinitialize();
+            wme.epmem_id = store.findConstantWme(parent_id, my_hash, my_hash2);
           }
 
           // act depending on new/existing feature
@@ -1979,21 +1905,8 @@ void _epmem_store_level(
             log.debug("   Performing database insertion: {} {} {}\n", parent_id, my_hash, my_hash2);
 
             // insert (parent_id,attr,value)
-            final PreparedStatement ps = db.add_epmem_wmes_constant;
-            ps.setLong(1, parent_id);
-            ps.setLong(2, my_hash);
-            ps.setLong(3, my_hash2);
-            ps.execute();
-            // CK: not all database drivers support this
-            try (ResultSet rs = ps.getGeneratedKeys()) {
-              if (rs.next()) {
-                // (*w_p)->epmem_id = (epmem_node_id) my_agent->epmem_db->last_insert_rowid();
-                wme.epmem_id = rs.getLong(1);
-              } else {
-                // throw an exception if we were not able to get the row id of the insert
-                throw new SQLException("ps.getGeneratedKeys failed!");
-              }
-            }
+            // (*w_p)->epmem_id = (epmem_node_id) my_agent->epmem_db->last_insert_rowid();
+            wme.epmem_id = store.addConstantWme(parent_id, my_hash, my_hash2);
 
             log.debug("   Setting wme id from last row to  {} \n", wme.epmem_id);
 
@@ -2035,12 +1948,7 @@ public void epmem_schedule_promotion(IdentifierImpl id) {
    */
   void _epmem_promote_id(IdentifierImpl id, long /*epmem_time_id*/ t) throws SQLException {
     // n_id,soar_letter,soar_number,promotion_episode_id
-    final PreparedStatement ps = db.promote_id;
-    ps.setLong(1, id.epmem_id);
-    ps.setLong(2, id.getNameLetter());
-    ps.setLong(3, id.getNameNumber());
-    ps.setLong(4, t);
-    ps.executeUpdate();
+    store.promoteId(id.epmem_id, id.getNameLetter(), id.getNameNumber(), t);
   }
 
   //////////////////////////////////////////////////////////
@@ -2069,12 +1977,7 @@ void _epmem_promote_id(IdentifierImpl id, long /*epmem_time_id*/ t) throws SQLEx
   private long /*epmem_hash_id*/ epmem_temporal_hash_add_type(int sym_type) {
     long toReturn = -1;
     try {
-      db.hash_add_type.setInt(1, sym_type);
-      db.hash_add_type.execute();
-      try (ResultSet rs = db.hash_add_type.getGeneratedKeys()) {
-        rs.next();
-        toReturn = rs.getLong(1);
-      }
+      toReturn = store.addSymbolType(sym_type);
     } catch (SQLException e) {
       log.error(e.getMessage());
     }
@@ -2085,12 +1988,7 @@ void _epmem_promote_id(IdentifierImpl id, long /*epmem_time_id*/ t) throws SQLEx
     long /*epmem_hash_id*/ return_val = 0; // NIL;
     try {
       // search first
-      db.hash_get_int.setLong(1, val);
-      try (ResultSet rs = db.hash_get_int.executeQuery()) {
-        if (rs.next()) {
-          return_val = rs.getLong(1);
-        }
-      }
+      return_val = store.findIntegerSymbol(val);
     } catch (SQLException e) {
       log.error(e.getMessage());
     }
@@ -2102,9 +2000,7 @@ void _epmem_promote_id(IdentifierImpl id, long /*epmem_time_id*/ t) throws SQLEx
 
       try {
         // then content
-        db.hash_add_int.setLong(1, return_val);
-        db.hash_add_int.setLong(2, val);
-        db.hash_add_int.execute();
+        store.addIntegerSymbol(return_val, val);
       } catch (SQLException e) {
         log.error(e.getMessage());
       }
@@ -2117,12 +2013,7 @@ void _epmem_promote_id(IdentifierImpl id, long /*epmem_time_id*/ t) throws SQLEx
     long /* epmem_hash_id */ return_val = 0; // NIL;
     try {
       // search first
-      db.hash_get_float.setDouble(1, val);
-      try (ResultSet rs = db.hash_get_float.executeQuery()) {
-        if (rs.next()) {
-          return_val = rs.getLong(1);
-        }
-      }
+      return_val = store.findFloatSymbol(val);
     } catch (SQLException e) {
       log.error(e.getMessage());
     }
@@ -2134,9 +2025,7 @@ void _epmem_promote_id(IdentifierImpl id, long /*epmem_time_id*/ t) throws SQLEx
 
       try {
         // then content
-        db.hash_add_float.setLong(1, return_val);
-        db.hash_add_float.setDouble(2, val);
-        db.hash_add_float.execute();
+        store.addFloatSymbol(return_val, val);
       } catch (SQLException e) {
         log.error(e.getMessage());
       }
@@ -2149,12 +2038,7 @@ void _epmem_promote_id(IdentifierImpl id, long /*epmem_time_id*/ t) throws SQLEx
     long /* epmem_hash_id */ return_val = 0; // NIL;
     try {
       // search first
-      db.hash_get_str.setString(1, val);
-      try (ResultSet rs = db.hash_get_str.executeQuery()) {
-        if (rs.next()) {
-          return_val = rs.getLong(1);
-        }
-      }
+      return_val = store.findStringSymbol(val);
     } catch (SQLException e) {
       log.error(e.getMessage());
     }
@@ -2166,9 +2050,7 @@ void _epmem_promote_id(IdentifierImpl id, long /*epmem_time_id*/ t) throws SQLEx
 
       try {
         // then content
-        db.hash_add_str.setLong(1, return_val);
-        db.hash_add_str.setString(2, val);
-        db.hash_add_str.execute();
+        store.addStringSymbol(return_val, val);
       } catch (SQLException e) {
         log.error(e.getMessage());
       }
@@ -2186,18 +2068,16 @@ void _epmem_promote_id(IdentifierImpl id, long /*epmem_time_id*/ t) throws SQLEx
   long epmem_reverse_hash_int(long /* epmem_hash_id */ s_id_lookup) {
     long return_val = 0; // NIL;
     try {
-      db.hash_rev_int.setLong(1, s_id_lookup);
+      final Long value = store.getIntegerSymbol(s_id_lookup);
       // assert( res == soar_module::row );
       // We don't want this assertion to compile out. If we were to
       // procceed from here
       // on bad data, we could potentially put bad symbols into working
       // memory. -ACN
-      try (ResultSet res = db.hash_rev_int.executeQuery()) {
-        if (!res.next()) {
-          throw new AssertionError("Database query for unknown value");
-        }
-        return_val = res.getLong(1);
+      if (value == null) {
+        throw new AssertionError("Database query for unknown value");
       }
+      return_val = value;
     } catch (SQLException e) {
       log.error(e.getMessage());
     }
@@ -2214,18 +2094,16 @@ long epmem_reverse_hash_int(long /* epmem_hash_id */ s_id_lookup) {
   double epmem_reverse_hash_float(long /* epmem_hash_id */ s_id_lookup) {
     double return_val = 0; // NIL;
     try {
-      db.hash_rev_float.setLong(1, s_id_lookup);
+      final Double value = store.getFloatSymbol(s_id_lookup);
       // assert( res == soar_module::row );
       // We don't want this assertion to compile out. If we were to
       // procceed from here
       // on bad data, we could potentially put bad symbols into working
       // memory. -ACN
-      try (ResultSet res = db.hash_rev_float.executeQuery()) {
-        if (!res.next()) {
-          throw new AssertionError("Database query for unknown value");
-        }
-        return_val = res.getDouble(1);
+      if (value == null) {
+        throw new AssertionError("Database query for unknown value");
       }
+      return_val = value;
     } catch (SQLException e) {
       log.error(e.getMessage());
     }
@@ -2242,18 +2120,16 @@ long epmem_reverse_hash_int(long /* epmem_hash_id */ s_id_lookup) {
   String epmem_reverse_hash_str(long /* epmem_hash_id */ s_id_lookup) {
     String return_val = null; // NIL;
     try {
-      db.hash_rev_str.setLong(1, s_id_lookup);
+      final String value = store.getStringSymbol(s_id_lookup);
       // assert( res == soar_module::row );
       // We don't want this assertion to compile out. If we were to
       // procceed from here
       // on bad data, we could potentially put bad symbols into working
       // memory. -ACN
-      try (ResultSet res = db.hash_rev_str.executeQuery()) {
-        if (!res.next()) {
-          throw new AssertionError("Database query for unknown value");
-        }
-        return_val = res.getString(1);
+      if (value == null) {
+        throw new AssertionError("Database query for unknown value");
       }
+      return_val = value;
     } catch (SQLException e) {
       log.error(e.getMessage());
     }
@@ -2304,18 +2180,16 @@ SymbolImpl epmem_reverse_hash(long /*epmem_hash_id*/ s_id_lookup, int sym_type)
     if (sym_type == 255) {
       try {
 
-        db.hash_get_type.setLong(1, s_id_lookup);
+        final int stored_type = store.getSymbolType(s_id_lookup);
         // assert( res == soar_module::row );
         // We don't want this assertion to compile out. If we were to
         // procceed from here
         // on bad data, we could potentially put bad symbols into working
         // memory. -ACN
-        try (ResultSet res = db.hash_get_type.executeQuery()) {
-          if (!res.next()) {
-            throw new AssertionError("Database query for unknown value");
-          }
-          sym_type = res.getInt(1);
+        if (stored_type == -1) {
+          throw new AssertionError("Database query for unknown value");
         }
+        sym_type = stored_type;
       } catch (SQLException e) {
         log.error(e.getMessage());
       }
@@ -2380,20 +2254,17 @@ String epmem_reverse_hash_print(long /*epmem_hash_id*/ s_id_lookup, int sym_type
 
     if (sym_type == 255) {
       try {
-        db.hash_get_type.setLong(1, s_id_lookup);
+        final int stored_type = store.getSymbolType(s_id_lookup);
         // (void)res; // quells compiler warning
         // assert( res == soar_module::row );
         // We don't want this assertion to compile out. If we were to
         // procceed from here
         // on bad data, we could potentially put bad symbols into working
         // memory. -ACN
-        try (ResultSet res = db.hash_get_type.executeQuery()) {
-          if (!res.next()) {
-            throw new AssertionError("Database query for unknown value");
-          }
-          // check if should be column_int
-          sym_type = res.getInt(1);
+        if (stored_type == -1) {
+          throw new AssertionError("Database query for unknown value");
         }
+        sym_type = stored_type;
       } catch (SQLException e) {
         log.error(e.getMessage());
       }
@@ -2507,7 +2378,7 @@ This function returns an s_id (symbol id) representing a symbol constant
    */
   private void epmem_respond_to_cmd(boolean created_new_memory) throws SoarException, SQLException {
     // if this is before the first episode, initialize db components
-    if (db == null) {
+    if (store == null) {
       epmem_init_db();
     }
 
@@ -2627,6 +2498,11 @@ private void epmem_respond_to_cmd(boolean created_new_memory) throws SoarExcepti
 
         // process command
         if (good_cue.value) {
+          // buffered episodes must be visible to retrievals and queries
+          if (path.value != 4) {
+            flushStore();
+          }
+
           // retrieve
           if (path.value == 1) {
             epmem_install_memory(state, retrieve.value, meta_wmes, retrieval_wmes);
@@ -2971,9 +2847,8 @@ private static class EpmemPEdge {
     int value_is_id;
     boolean has_noncurrent;
     Set<EpmemLiteral> /*epmem_literal_set*/ literals;
-    PreparedStatement /*soar_module::pooled_sqlite_statement**/ sql = null;
     // This needs to be null so that we can be sure the qeury has never been executed. -ACN
-    ResultSet sqlResults = null;
+    EpisodicMemoryCursor /*soar_module::pooled_sqlite_statement**/ cursor = null;
     long /*epmem_time_id*/ time;
   }
 
@@ -2992,8 +2867,7 @@ private static class EpmemUEdge {
   private static class EpmemInterval {
     EpmemUEdge uedge;
     int is_end_point;
-    PreparedStatement sql = null;
-    ResultSet sqlResult = null;
+    EpisodicMemoryCursor cursor = null;
     long /*epmem_time_id*/ time;
   }
 
@@ -3326,10 +3200,8 @@ private void epmem_process_query(
         root_pedge.has_noncurrent = false;
         root_pedge.literals = new ConcurrentSkipListSet<>();
         root_pedge.literals.add(root_literal);
-        root_pedge.sql =
-            db.pool_dummy.getCopy(); // my_agent->epmem_stmts_graph->pool_dummy->request();
-        root_pedge.sql.setLong(1, Long.MAX_VALUE /*LLONG_MAX*/);
-        root_pedge.sqlResults = root_pedge.sql.executeQuery();
+        // my_agent->epmem_stmts_graph->pool_dummy->request();
+        root_pedge.cursor = LongArrayCursor.of(Long.MAX_VALUE /*LLONG_MAX*/);
         root_pedge.time = Long.MAX_VALUE /*LLONG_MAX*/;
         pedge_pq.add(root_pedge);
         pedge_caches[EPMEM_RIT_STATE_EDGE].put(triple, root_pedge);
@@ -3349,11 +3221,8 @@ private void epmem_process_query(
         // allocate_with_pool(my_agent, &(my_agent->epmem_interval_pool), &root_interval);
         root_interval.uedge = root_uedge;
         root_interval.is_end_point = 1; // true;
-        root_interval.sql =
-            db.pool_dummy.getCopy(); // my_agent->epmem_stmts_graph->pool_dummy->request();
-        // root_interval->sql->prepare();
-        root_interval.sql.setLong(1, before);
-        root_interval.sqlResult = root_interval.sql.executeQuery();
+        // my_agent->epmem_stmts_graph->pool_dummy->request();
+        root_interval.cursor = LongArrayCursor.of(before);
         root_interval.time = before;
         interval_pq.add(root_interval);
         interval_cleanup.add(root_interval);
@@ -3377,8 +3246,8 @@ private void epmem_process_query(
             && (pedge_pq.peek().time == next_edge || pedge_pq.peek().time >= current_episode)) {
           final EpmemPEdge pedge = pedge_pq.poll();
           final var triple = pedge.triple.copyEpmemTriple();
-          if (pedge.sqlResults.getMetaData().getColumnCount() > 1) {
-            triple.child_n_id = pedge.sqlResults.getLong(1 + 1);
+          if (pedge.cursor.getColumnCount() > 1) {
+            triple.child_n_id = pedge.cursor.getLong(1 + 1);
           } else {
             // CK: getLong is called on the ResultSet of "SELECT Long.MaxValue as start"
             // which returns 1 column and 1 row with a value of Long.MaxValue in SQL
@@ -3428,7 +3297,7 @@ private void epmem_process_query(
             uedge.activated = false;
             // create interval queries for this partial edge
             var created = false;
-            var /*int64_t*/ edge_id = pedge.sqlResults.getLong(1);
+            var /*int64_t*/ edge_id = pedge.cursor.getLong(1);
             long /*epmem_time_id*/ promo_time = EPMEM_MEMID_NONE;
             boolean is_lti =
                 (pedge.value_is_id != 0
@@ -3436,12 +3305,7 @@ private void epmem_process_query(
                     && pedge.triple.child_n_id != EPMEM_NODEID_ROOT);
             if (is_lti) {
               // find the promotion time of the LTI
-              db.find_lti_promotion_time.setLong(1, triple.child_n_id);
-              ResultSet results = db.find_lti_promotion_time.executeQuery();
-              if (results.next()) {
-                promo_time = results.getLong(1);
-              }
-              results.close();
+              promo_time = store.findLtiPromotionTime(triple.child_n_id);
 
               // my_agent->epmem_stmts_graph->find_lti_promotion_time->reinitialize();
             }
@@ -3480,31 +3344,17 @@ private void epmem_process_query(
                         break;
                 }
                 */
-                // create the SQL query and bind it
-                // try to find an existing query first; if none exist, allocate a new one from the
-                // memory pools
-                PreparedStatement interval_sql;
-                if (is_lti) {
-                  interval_sql =
-                      db.pool_find_lti_queries[point_type][interval_type].getCopy(/*sql_timer*/ );
-                } else {
-                  interval_sql =
-                      db.pool_find_interval_queries[pedge.value_is_id][point_type][interval_type]
-                          .getCopy(/*sql_timer*/ );
-                }
-                // CK: both the JDBC and C drivers have an index of 1 for the leftmost parameter in
-                // a prepared statement
-                // (see: http://www.sqlite.org/c3ref/bind_blob.html)
-                var bind_pos = 1;
-                if (point_type == EPMEM_RANGE_END && interval_type == EPMEM_RANGE_NOW) {
-                  interval_sql.setLong(bind_pos++, current_episode);
-                }
-                interval_sql.setLong(bind_pos++, edge_id);
-                if (is_lti && interval_type == EPMEM_RANGE_EP) {
-                  interval_sql.setLong(bind_pos++, promo_time);
-                }
-                interval_sql.setLong(bind_pos++, current_episode);
-                ResultSet results = interval_sql.executeQuery();
+                // create the query
+                final EpisodicMemoryCursor results =
+                    is_lti
+                        ? store.findLtiIntervals(
+                            point_type, interval_type, edge_id, promo_time, current_episode)
+                        : store.findIntervals(
+                            pedge.value_is_id != 0,
+                            point_type,
+                            interval_type,
+                            edge_id,
+                            current_episode);
                 if (results.next()) {
                   var interval = new EpmemInterval();
                   // allocate_with_pool(my_agent, &(my_agent->epmem_interval_pool), &interval);
@@ -3530,17 +3380,15 @@ private void epmem_process_query(
                     interval.time = promo_time - 1;
                   }
 
-                  interval.sql = interval_sql;
                   // This logic does not allow us to free this result set here.
                   // This means that we need ot close this by hand later on. -ACN
-                  interval.sqlResult = results;
+                  interval.cursor = results;
                   interval_pq.add(interval);
                   interval_cleanup.add(interval);
                   uedge.intervals++;
                   created = true;
                 } else {
                   results.close();
-                  interval_sql.close();
                 }
               }
             }
@@ -3552,7 +3400,7 @@ private void epmem_process_query(
                 start_interval.uedge = uedge;
                 start_interval.is_end_point = EPMEM_RANGE_START;
                 start_interval.time = promo_time - 1;
-                start_interval.sql = null;
+                start_interval.cursor = null;
                 interval_pq.add(start_interval);
                 interval_cleanup.add(start_interval);
               }
@@ -3589,15 +3437,12 @@ private void epmem_process_query(
 
           // put the partial edge query back into the queue if there's more
           // otherwise, reinitialize the query and put it in a pool
-          if (pedge.sql != null) {
+          if (pedge.cursor != null) {
             // Calling execute() on the C driver will advance the row, if the
             // query has already been run.  -ACN
-            if (pedge.sqlResults == null) {
-              pedge.sqlResults = pedge.sql.executeQuery();
-            }
-            if (pedge.sqlResults.next()) {
-              if (pedge.sqlResults.getMetaData().getColumnCount() > 2) {
-                pedge.time = pedge.sqlResults.getLong(2 + 1);
+            if (pedge.cursor.next()) {
+              if (pedge.cursor.getColumnCount() > 2) {
+                pedge.time = pedge.cursor.getLong(2 + 1);
               } else {
                 // CK: getLong is called on the ResultSet of "SELECT Long.MaxValue as start"
                 // which returns 1 column and 1 row with a value of Long.MaxValue in SQL
@@ -3608,10 +3453,8 @@ private void epmem_process_query(
               pedge_pq.add(pedge);
             } else {
               // pedge->sql->get_pool()->release(pedge->sql);
-              pedge.sqlResults.close();
-              pedge.sqlResults = null;
-              pedge.sql.close();
-              pedge.sql = null;
+              pedge.cursor.close();
+              pedge.cursor = null;
             }
           }
         }
@@ -3685,20 +3528,15 @@ private void epmem_process_query(
             // put the interval query back into the queue if there's more and some literal cares
             // otherwise, reinitialize the query and put it in a pool
 
-            if (interval.sql != null) {
-              if (interval.sqlResult == null) {
-                interval.sqlResult = interval.sql.executeQuery();
-              }
-              if (interval.uedge.has_noncurrent && interval.sqlResult.next()) {
-                interval.time = interval.sqlResult.getInt(1);
+            if (interval.cursor != null) {
+              if (interval.uedge.has_noncurrent && interval.cursor.next()) {
+                interval.time = interval.cursor.getLong(1);
                 interval_pq.add(interval);
               } else // if (interval.sql != null)
               {
                 // interval->sql->get_pool()->release(interval->sql);
-                interval.sqlResult.close();
-                interval.sqlResult = null;
-                interval.sql.close();
-                interval.sql = null;
+                interval.cursor.close();
+                interval.cursor = null;
                 uedge.intervals--;
                 if (uedge.intervals != 0) {
                   interval_cleanup.remove(interval);
@@ -3985,12 +3823,10 @@ private void epmem_process_query(
     // my_agent->epmem_timers->query_cleanup->start();
     for (EpmemInterval interval : interval_cleanup) {
       // epmem_interval* interval = *iter;
-      if (interval.sqlResult != null) {
+      if (interval.cursor != null) {
         // interval->sql->get_pool()->release(interval->sql);
-        interval.sqlResult.close();
-        interval.sqlResult = null;
-        interval.sql.close();
-        interval.sql = null;
+        interval.cursor.close();
+        interval.cursor = null;
       }
       // free_with_pool(&(my_agent->epmem_interval_pool), interval);
     }
@@ -3999,12 +3835,10 @@ private void epmem_process_query(
       // pedge_caches[type].end(); iter++) {
       for (EpmemPEdge pedge : pedge_caches[type].values()) {
         // epmem_pedge* pedge = (*iter).second;
-        if (pedge.sqlResults != null) {
+        if (pedge.cursor != null) {
           // pedge->sql->get_pool()->release(pedge->sql);
-          pedge.sqlResults.close();
-          pedge.sqlResults = null;
-          pedge.sql.close();
-          pedge.sql = null;
+          pedge.cursor.close();
+          pedge.cursor = null;
         }
         // In some places, we use clear to "destroy" containers, but this one is about to leave
         // scope so we dont need to bother. -ACN
@@ -4400,21 +4234,13 @@ private boolean epmem_register_pedges(
       // soar_module::pooled_sqlite_statement* pedge_sql =
       // my_agent->epmem_stmts_graph->pool_find_edge_queries[is_edge][has_value]->request(my_agent->epmem_timers->query_sql_edge);
 
-      PreparedStatement pedge_sql = db.pool_find_edge_queries[is_edge][has_value].getCopy();
-      var bind_pos = 1;
-      if (is_edge == 0) {
-        pedge_sql.setLong(bind_pos++, Long.MAX_VALUE);
-      }
-      pedge_sql.setLong(bind_pos++, triple.parent_n_id);
-      pedge_sql.setLong(bind_pos++, triple.attribute_s_id);
-      if (has_value != 0) {
-        pedge_sql.setLong(bind_pos++, triple.child_n_id);
-      }
-      if (is_edge != 0) {
-        pedge_sql.setLong(bind_pos++, after);
-      }
-
-      ResultSet results = pedge_sql.executeQuery();
+      final EpisodicMemoryCursor results =
+          store.findEdges(
+              is_edge != 0,
+              triple.parent_n_id,
+              triple.attribute_s_id,
+              has_value != 0 ? triple.child_n_id : EPMEM_NODEID_BAD,
+              after);
       if (results.next()) {
         // allocate_with_pool(my_agent, &(my_agent->epmem_pedge_pool),
         // &child_pedge);
@@ -4422,11 +4248,10 @@ private boolean epmem_register_pedges(
         child_pedge.triple = triple.copyEpmemTriple();
         child_pedge.value_is_id = (int) literal.value_is_id;
         child_pedge.has_noncurrent = !literal.is_current;
-        child_pedge.sql = pedge_sql;
         // new(&(child_pedge->literals)) epmem_literal_set();
         child_pedge.literals = new ConcurrentSkipListSet<>();
         child_pedge.literals.add(literal);
-        child_pedge.sqlResults = results;
+        child_pedge.cursor = results;
         // child_pedge.time = child_pedge.sql.column_int(2);
         child_pedge.time = results.getLong(2 + 1);
         pedge_pq.add(child_pedge);
@@ -4434,7 +4259,6 @@ private boolean epmem_register_pedges(
         return true;
       } else {
         results.close();
-        pedge_sql.close();
         return false;
       }
     } else {
@@ -4710,24 +4534,20 @@ private EpmemLiteral epmem_build_dnf(
       // if we can find the LTI node id, cache it; otherwise, return failure
       // my_agent->epmem_stmts_graph->find_lti->bind_int(1, identifier.getNameLetter());
       // my_agent->epmem_stmts_graph->find_lti->bind_int(2, identifier.getNameNumber());
-      db.find_lti.setLong(1, identifier.getNameLetter());
-      db.find_lti.setLong(2, identifier.getNameNumber());
-
-      try (ResultSet results = db.find_lti.executeQuery()) {
-        if (results.next()) {
-          literal.value_is_id = EPMEM_RIT_STATE_EDGE;
-          literal.is_leaf = true;
-          literal.child_n_id = results.getLong(1);
-          // my_agent->epmem_stmts_graph->find_lti->reinitialize();
-          leaf_literals.add(literal);
-        } else {
-          // my_agent->epmem_stmts_graph->find_lti->reinitialize();
-          // literal->parents.~epmem_literal_set();
-          // literal->children.~epmem_literal_set();
-          literal.parents = null;
-          literal.children = null;
-          return null;
-        }
+      final long lti_id = store.findLti(identifier.getNameLetter(), identifier.getNameNumber());
+      if (lti_id != EPMEM_NODEID_BAD) {
+        literal.value_is_id = EPMEM_RIT_STATE_EDGE;
+        literal.is_leaf = true;
+        literal.child_n_id = lti_id;
+        // my_agent->epmem_stmts_graph->find_lti->reinitialize();
+        leaf_literals.add(literal);
+      } else {
+        // my_agent->epmem_stmts_graph->find_lti->reinitialize();
+        // literal->parents.~epmem_literal_set();
+        // literal->children.~epmem_literal_set();
+        literal.parents = null;
+        literal.children = null;
+        return null;
       }
 
     } else { // WME is a normal identifier
@@ -4852,14 +4672,8 @@ private long epmem_previous_episode(long memory_id) {
 
     if (memory_id != EPMEM_MEMID_NONE) {
       // soar_module::sqlite_statement *my_q = my_agent->epmem_stmts_graph->prev_episode;
-      final PreparedStatement myQuery = db.prev_episode;
       try {
-        myQuery.setLong(1, memory_id);
-        try (var resultSet = myQuery.executeQuery()) {
-          if (resultSet.next()) {
-            return_val = resultSet.getLong(1);
-          }
-        }
+        return_val = store.previousEpisode(memory_id);
       } catch (SQLException e) {
         e.printStackTrace();
       }
@@ -4887,15 +4701,8 @@ private long epmem_next_episode(long memory_id) {
     long return_val = EPMEM_MEMID_NONE;
 
     if (memory_id != EPMEM_MEMID_NONE) {
-      final PreparedStatement myQuery = db.next_episode;
       try {
-        myQuery.setLong(1, memory_id);
-        try (var resultSet = myQuery.executeQuery()) {
-          if (resultSet.next()) {
-            return_val = resultSet.getLong(1);
-          }
-        }
-
+        return_val = store.nextEpisode(memory_id);
       } catch (SQLException e) {
         e.printStackTrace();
       }
@@ -5067,7 +4874,6 @@ private void epmem_install_memory(
       }
 
       // first identifiers (i.e. reconstruct)
-      PreparedStatement my_q = db.get_wmes_with_identifier_values;
       {
         // relates to finite automata: child_n_id = d(parent_n_id, attribute_s_id)
         long /*epmem_node_id*/ parent_n_id; // id
@@ -5091,12 +4897,7 @@ private void epmem_install_memory(
         epmem_rit_prep_left_right(
             memory_id, memory_id, epmem_rit_state_graph[EPMEM_RIT_STATE_EDGE]);
 
-        my_q.setLong(1, memory_id);
-        my_q.setLong(2, memory_id);
-        my_q.setLong(3, memory_id);
-        my_q.setLong(4, memory_id);
-        my_q.setLong(5, memory_id);
-        var resultSet = my_q.executeQuery();
+        var resultSet = store.getIdentifierWmes(memory_id);
         while (resultSet.next()) {
           // parent_n_id, attribute_s_id, child_n_id, epmem_lti.soar_letter, epmem_lti.soar_number
           // parent_n_id  = my_q->column_int( 0 );
@@ -5109,7 +4910,7 @@ private void epmem_install_memory(
           // short vs. long-term
           // This is how Smem is doing this cast, but I'm not certain how
           char tempValLetter = (char) resultSet.getLong(3 + 1);
-          val_is_short_term = (resultSet.wasNull());
+          val_is_short_term = (tempValLetter == 0);
           if (!val_is_short_term) {
             val_letter = tempValLetter;
             // val_num = static_cast<uint64_t>( my_q->column_int( 4 ) );
@@ -5361,7 +5162,6 @@ private void epmem_install_memory(
 
       // then epmem_wmes_constant
       // f.wc_id, f.parent_n_id, f.attribute_s_id, f.value_s_id
-      my_q = db.get_wmes_with_constant_values;
       {
         long /*epmem_node_id*/ parent_n_id;
 
@@ -5371,12 +5171,7 @@ private void epmem_install_memory(
         epmem_rit_prep_left_right(
             memory_id, memory_id, epmem_rit_state_graph[EPMEM_RIT_STATE_NODE]);
 
-        my_q.setLong(1, memory_id);
-        my_q.setLong(2, memory_id);
-        my_q.setLong(3, memory_id);
-        my_q.setLong(4, memory_id);
-
-        var resultSet = my_q.executeQuery();
+        var resultSet = store.getConstantWmes(memory_id);
         while (resultSet.next()) {
           parent_n_id = resultSet.getLong(1 + 1);
 
@@ -5499,8 +5294,7 @@ private void epmem_install_memory(
    * <p>Clears the left/right relations populated during prep
    */
   private void epmem_rit_clear_left_right() throws SQLException {
-    db.rit_truncate_left.execute();
-    db.rit_truncate_right.execute();
+    store.clearRitLeftRight();
   }
 
   /**
@@ -5676,9 +5470,8 @@ private void epmem_rit_prep_left_right(long lower, long upper, epmem_rit_state r
   /** episodic_memory.cpp: 1144: void epmem_rit_add_right( agent *my_agent, epmem_time_id id ) */
   private void epmem_rit_add_right(long id) throws SQLException {
     // my_agent->epmem_stmts_common->rit_add_right->bind_int( 1, id );
-    db.rit_add_right.setLong(1, id);
     // my_agent->epmem_stmts_common->rit_add_right->execute( soar_module::op_reinit );
-    db.rit_add_right.execute();
+    store.addRitRight(id);
   }
 
   /**
@@ -5689,11 +5482,9 @@ private void epmem_rit_add_right(long id) throws SQLException {
    */
   private void epmem_rit_add_left(long min, long max) throws SQLException {
     // my_agent->epmem_stmts_common->rit_add_left->bind_int( 1, min );
-    db.rit_add_left.setLong(1, min);
     // my_agent->epmem_stmts_common->rit_add_left->bind_int( 2, max );
-    db.rit_add_left.setLong(2, max);
     // my_agent->epmem_stmts_common->rit_add_left->execute( soar_module::op_reinit );
-    db.rit_add_left.execute();
+    store.addRitLeft(min, max);
   }
 
   /**
@@ -5702,20 +5493,8 @@ private void epmem_rit_add_left(long min, long max) throws SQLException {
    * @return Returns true if the temporal id is valid
    */
   private boolean epmem_valid_episode(long /*epmem_time_id*/ memory_id) throws SQLException {
-    var return_val = false;
-
-    {
-      PreparedStatement my_q = db.valid_episode;
-
-      my_q.setLong(1, memory_id);
-      var resultSet = my_q.executeQuery();
-      resultSet.next();
-      // return_val = ( my_q->column_int( 0 ) > 0 );
-      return_val = (resultSet.getLong(1) > 0);
-      resultSet.close();
-    }
-
-    return return_val;
+    // return_val = ( my_q->column_int( 0 ) > 0 );
+    return store.isValidEpisode(memory_id);
   }
 
   /**
@@ -6010,8 +5789,12 @@ public void processIds() {
 
         // removal all regular WMEs
         for (Slot s = id.slots; s != null; s = s.next) {
-          s.getWmes().forEach(this::removeWme);
-          s.getAcceptablePreferenceWmes().forEach(this::removeWme);
+          for (WmeImpl w = s.getFirstWme(); w != null; w = w.next) {
+            removeWme(w);
+          }
+          for (WmeImpl w = s.getFirstAcceptablePreferenceWme(); w != null; w = w.next) {
+            removeWme(w);
+          }
         }
       }
     }
@@ -6024,6 +5807,7 @@ private void logError(String text) {
 
   String epmem_print_episode(long /*epmem_time_id*/ memory_id) {
     try {
+      flushStore();
       return epmem_print_episode_ex(memory_id);
     } catch (SoarException e) {
       log.error("Soar Exception: {}", e.getStackTrace());
@@ -6061,11 +5845,9 @@ String epmem_print_episode_ex(long /*epmem_time_id*/ memory_id)
     // std::map< epmem_node_id, std::map< std::string, std::list< std::string > > > ep;
     Map<Long, Map<String, List<String>>> ep = new TreeMap<>();
     {
-      PreparedStatement my_q;
       String temp_s, temp_s2, temp_s3;
       long temp_i;
 
-      my_q = db.get_wmes_with_identifier_values;
       {
         long /*epmem_node_id*/ parent_n_id;
         long /*epmem_node_id*/ child_n_id;
@@ -6076,13 +5858,7 @@ String epmem_print_episode_ex(long /*epmem_time_id*/ memory_id)
             memory_id, memory_id, epmem_rit_state_graph[EPMEM_RIT_STATE_EDGE]);
 
         // query for edges
-        my_q.setLong(1, memory_id);
-        my_q.setLong(2, memory_id);
-        my_q.setLong(3, memory_id);
-        my_q.setLong(4, memory_id);
-        my_q.setLong(5, memory_id);
-
-        try (ResultSet result = my_q.executeQuery()) {
+        try (EpisodicMemoryCursor result = store.getIdentifierWmes(memory_id)) {
           while (result.next()) {
             // parent_n_id, attribute_s_id, child_n_id, epmem_lti.soar_letter, epmem_lti.soar_number
             parent_n_id = result.getLong(1);
@@ -6132,19 +5908,13 @@ String epmem_print_episode_ex(long /*epmem_time_id*/ memory_id)
         epmem_rit_clear_left_right();
       }
 
-      my_q = db.get_wmes_with_constant_values;
       {
         Long /*epmem_node_id*/ parent_n_id;
 
         epmem_rit_prep_left_right(
             memory_id, memory_id, epmem_rit_state_graph[EPMEM_RIT_STATE_NODE]);
 
-        my_q.setLong(1, memory_id);
-        my_q.setLong(2, memory_id);
-        my_q.setLong(3, memory_id);
-        my_q.setLong(4, memory_id);
-        ResultSet result;
-        result = my_q.executeQuery();
+        final EpisodicMemoryCursor result = store.getConstantWmes(memory_id);
         try {
           while (result.next()) {
             parent_n_id = result.getLong(1 + 1);
@@ -6257,7 +6027,10 @@ boolean epmem_backup_db(String file_name, ByRef<String> err) throws SQLException
     var return_val = false;
 
     if (db != null) {
+      flushStore();
       return db.backupDb(file_name);
+    } else if (store != null) {
+      err.value = "Episodic memory backend '" + params.backend.get() + "' cannot be backed up.";
     } else {
       err.value = "Episodic database is not currently connected.";
     }
@@ -6545,7 +6318,7 @@ private boolean epmem_parse_and_add_string(String chunkString)
 
     // copied primarily from cli_sp
     final var errorWriter = new StringWriter();
-    final var lexer = new Lexer(new Printer(errorWriter), new StringReader(chunkString));
+    final var lexer = new Lexer(new Printer(errorWriter), chunkString);
     // Consume the outermost bracket
     lexer.getNextLexeme();
     lexer.setAllowIds(true);
@@ -108,12 +108,30 @@ static enum LazyCommitChoices {
     off
   };
 
+  /** Whether episode storage is buffered and written in batches, and by which thread */
+  static enum WriteBehindChoices {
+    off,
+    batch,
+    thread
+  };
+
+  /** Where episodes are stored: a JDBC database, or in process without SQL */
+  static enum BackendChoices {
+    jdbc,
+    columnar
+  };
+
   private static final String PREFIX = "epmem.params.";
 
   private static <T> PropertyKey.Builder<T> key(String name, Class<T> type) {
     return PropertyKey.builder(PREFIX + name, type);
   }
 
+  static final PropertyKey<BackendChoices> BACKEND =
+      key("backend", BackendChoices.class).defaultValue(BackendChoices.jdbc).build();
+  final EnumPropertyProvider<BackendChoices> backend =
+      new EnumPropertyProvider<BackendChoices>(BACKEND);
+
   static final PropertyKey<String> DRIVER =
       key("driver", String.class).defaultValue("org.sqlite.JDBC").build();
   final DefaultPropertyProvider<String> driver = new DefaultPropertyProvider<String>(DRIVER);
@@ -127,6 +145,32 @@ private static <T> PropertyKey.Builder<T> key(String name, Class<T> type) {
   final EnumPropertyProvider<LazyCommitChoices> lazy_commit =
       new EnumPropertyProvider<LazyCommitChoices>(LAZY_COMMIT);
 
+  /**
+   * Whether episode storage is buffered. Epmem commands flush the buffer before they read, so
+   * agents that issue a command every decision cycle get one episode per batch and see little
+   * benefit.
+   *
+   * @see EpisodicMemoryWriteBehind
+   */
+  static final PropertyKey<WriteBehindChoices> WRITE_BEHIND =
+      key("write-behind", WriteBehindChoices.class).defaultValue(WriteBehindChoices.off).build();
+
+  final EnumPropertyProvider<WriteBehindChoices> write_behind =
+      new EnumPropertyProvider<WriteBehindChoices>(WRITE_BEHIND);
+
+  /** Number of episodes buffered before they are written */
+  static final PropertyKey<Long> WRITE_BEHIND_EPISODES =
+      key("write-behind-episodes", Long.class).defaultValue(64L).build();
+
+  final LongPropertyProvider write_behind_episodes =
+      new LongPropertyProvider(WRITE_BEHIND_EPISODES);
+
+  /** Number of batches that may wait for the writer thread before storage blocks */
+  static final PropertyKey<Long> WRITE_BEHIND_QUEUE =
+      key("write-behind-queue", Long.class).defaultValue(4L).build();
+
+  final LongPropertyProvider write_behind_queue = new LongPropertyProvider(WRITE_BEHIND_QUEUE);
+
   static final PropertyKey<Double> BALANCE = key("balance", Double.class).defaultValue(1.0).build();
   final DoublePropertyProvider balance = new DoublePropertyProvider(BALANCE);
 
@@ -191,11 +235,15 @@ private static <T> PropertyKey.Builder<T> key(String name, Class<T> type) {
   public DefaultEpisodicMemoryParams(PropertyManager properties, SymbolFactory sf) {
     this.properties = properties;
 
+    properties.setProvider(BACKEND, backend);
     properties.setProvider(DRIVER, driver);
     properties.setProvider(PROTOCOL, protocol);
     properties.setProvider(PATH, path);
 
     properties.setProvider(LAZY_COMMIT, lazy_commit);
+    properties.setProvider(WRITE_BEHIND, write_behind);
+    properties.setProvider(WRITE_BEHIND_EPISODES, write_behind_episodes);
+    properties.setProvider(WRITE_BEHIND_QUEUE, write_behind_queue);
     properties.setProvider(PAGE_SIZE, page_size);
     properties.setProvider(CACHE_SIZE, cache_size);
     properties.setProvider(OPTIMIZATION, optimization);
@@ -0,0 +1,34 @@
+package org.jsoar.kernel.epmem;
+
+import java.sql.SQLException;
+
+/**
+ * A forward-only cursor over rows of integer columns returned by an {@link EpisodicMemoryStore}.
+ * Like a {@link java.sql.ResultSet}, a new cursor is positioned before its first row and columns
+ * are numbered from 1.
+ */
+interface EpisodicMemoryCursor extends AutoCloseable {
+  /**
+   * Move to the next row
+   *
+   * @return true if there is a row, false if the cursor is exhausted
+   * @throws SQLException
+   */
+  boolean next() throws SQLException;
+
+  /**
+   * @param column the column, starting at 1
+   * @return the value of the column in the current row, 0 for a {@code NULL} value
+   * @throws SQLException
+   */
+  long getLong(int column) throws SQLException;
+
+  /**
+   * @return the number of columns in each row
+   * @throws SQLException
+   */
+  int getColumnCount() throws SQLException;
+
+  @Override
+  void close() throws SQLException;
+}
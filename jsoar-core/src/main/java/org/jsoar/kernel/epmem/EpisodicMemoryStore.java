@@ -0,0 +1,225 @@
+package org.jsoar.kernel.epmem;
+
+import java.sql.SQLException;
+import org.jsoar.util.ByRef;
+
+/**
+ * Storage behind episodic memory. The operations mirror the tables of the episodic memory database:
+ * persistent variables, the symbol hash, the wme tables with their now, point and range intervals,
+ * long-term identifiers, episodes and the left/right node relations used to search the relational
+ * interval tree (RIT).
+ *
+ * <p>Ids are 1-based and assigned in increasing order. An id lookup that fails returns {@link
+ * DefaultEpisodicMemory#EPMEM_NODEID_BAD}, a failed symbol hash lookup returns 0 and a failed
+ * episode lookup returns {@link DefaultEpisodicMemory#EPMEM_MEMID_NONE}.
+ *
+ * <p>Implementations that don't use JDBC never throw {@link SQLException}.
+ *
+ * @see JdbcEpisodicMemoryStore
+ * @see ColumnarEpisodicMemoryStore
+ */
+interface EpisodicMemoryStore {
+  /** The storage work for a single episode */
+  interface EpisodeStorage {
+    void run() throws SQLException;
+  }
+
+  /** @return a description of the storage version, for statistics */
+  String getVersion() throws SQLException;
+
+  /**
+   * Run the storage of a single episode. Implementations that buffer writes may write the episode
+   * after this returns.
+   *
+   * @param storage the storage work
+   * @throws SQLException
+   */
+  void storeEpisode(EpisodeStorage storage) throws SQLException;
+
+  /**
+   * Make everything stored so far visible to the query operations. Must be called before querying
+   * the interval or episode tables.
+   *
+   * @throws SQLException
+   */
+  void flush() throws SQLException;
+
+  /**
+   * Flush and release all resources
+   *
+   * @throws SQLException
+   */
+  void close() throws SQLException;
+
+  // persistent variables
+
+  boolean getVariable(int id, ByRef<Long> value) throws SQLException;
+
+  void setVariable(int id, long value) throws SQLException;
+
+  // symbol hash
+
+  /** @return the new s_id */
+  long addSymbolType(int type) throws SQLException;
+
+  /** @return the symbol type, or -1 if the s_id is unknown */
+  int getSymbolType(long sId) throws SQLException;
+
+  long findIntegerSymbol(long value) throws SQLException;
+
+  long findFloatSymbol(double value) throws SQLException;
+
+  long findStringSymbol(String value) throws SQLException;
+
+  void addIntegerSymbol(long sId, long value) throws SQLException;
+
+  void addFloatSymbol(long sId, double value) throws SQLException;
+
+  void addStringSymbol(long sId, String value) throws SQLException;
+
+  /** @return the value, or {@code null} if the s_id is unknown */
+  Long getIntegerSymbol(long sId) throws SQLException;
+
+  /** @return the value, or {@code null} if the s_id is unknown */
+  Double getFloatSymbol(long sId) throws SQLException;
+
+  /** @return the value, or {@code null} if the s_id is unknown */
+  String getStringSymbol(long sId) throws SQLException;
+
+  // wmes
+
+  void addNode(long nId) throws SQLException;
+
+  long findConstantWme(long parent, long attribute, long value) throws SQLException;
+
+  /** @return the new wc_id */
+  long addConstantWme(long parent, long attribute, long value) throws SQLException;
+
+  long findIdentifierWme(long parent, long attribute, long child) throws SQLException;
+
+  /** @return the new wi_id */
+  long addIdentifierWme(long parent, long attribute, long child, long lastEpisode)
+      throws SQLException;
+
+  void updateIdentifierLastEpisode(long wiId, long lastEpisode) throws SQLException;
+
+  /** @return the largest wc_id (constant) or wi_id (identifier), 0 if there are none */
+  long getMaxWmeId(boolean identifier) throws SQLException;
+
+  /** @return rows of (parent, attribute, child, wi_id) for every identifier wme */
+  EpisodicMemoryCursor selectIdentifierWmes() throws SQLException;
+
+  // intervals
+
+  void addConstantNow(long wcId, long start) throws SQLException;
+
+  void deleteConstantNow(long wcId) throws SQLException;
+
+  void addConstantPoint(long wcId, long episode) throws SQLException;
+
+  void addConstantRange(long node, long start, long end, long wcId) throws SQLException;
+
+  void addIdentifierNow(long wiId, long start) throws SQLException;
+
+  void deleteIdentifierNow(long wiId) throws SQLException;
+
+  void addIdentifierPoint(long wiId, long episode) throws SQLException;
+
+  void addIdentifierRange(long node, long start, long end, long wiId) throws SQLException;
+
+  /** @return rows of (id, start) for every now interval */
+  EpisodicMemoryCursor selectNow(boolean identifier) throws SQLException;
+
+  void deleteAllNow(boolean identifier) throws SQLException;
+
+  // long-term identifiers
+
+  /** Records a promotion unless the node or the letter and number are already known */
+  void promoteId(long nId, long letter, long number, long episode) throws SQLException;
+
+  long findLti(long letter, long number) throws SQLException;
+
+  /** @return the promotion episode, or {@link DefaultEpisodicMemory#EPMEM_MEMID_NONE} */
+  long findLtiPromotionTime(long nId) throws SQLException;
+
+  // episodes
+
+  void addEpisode(long time) throws SQLException;
+
+  /** @return the latest episode, or 0 if there are none */
+  long getMaxEpisode() throws SQLException;
+
+  boolean isValidEpisode(long time) throws SQLException;
+
+  long nextEpisode(long time) throws SQLException;
+
+  long previousEpisode(long time) throws SQLException;
+
+  // graph match
+
+  /**
+   * Find the wmes with the given parent and attribute.
+   *
+   * @param identifier true for identifier wmes, false for constant wmes
+   * @param parent the parent n_id
+   * @param attribute the attribute s_id
+   * @param value the child n_id or value s_id, or {@link DefaultEpisodicMemory#EPMEM_NODEID_BAD}
+   *     for any
+   * @param after identifier wmes last seen at or before this episode are skipped
+   * @return rows of (id, value, last episode) in decreasing last episode. Constant wmes have no
+   *     last episode and report {@link Long#MAX_VALUE}.
+   */
+  EpisodicMemoryCursor findEdges(
+      boolean identifier, long parent, long attribute, long value, long after) throws SQLException;
+
+  /**
+   * Find the start or end points of the intervals of a wme, latest first. Start points are reported
+   * one episode early.
+   *
+   * @param identifier true for identifier wmes, false for constant wmes
+   * @param pointType {@link DefaultEpisodicMemory#EPMEM_RANGE_START} or {@link
+   *     DefaultEpisodicMemory#EPMEM_RANGE_END}
+   * @param intervalType {@link DefaultEpisodicMemory#EPMEM_RANGE_EP}, {@link
+   *     DefaultEpisodicMemory#EPMEM_RANGE_NOW} or {@link DefaultEpisodicMemory#EPMEM_RANGE_POINT}
+   * @param id the wme id
+   * @param currentEpisode intervals starting after this episode are skipped. The end of a now
+   *     interval is reported as this episode.
+   * @return rows of a single time column
+   */
+  EpisodicMemoryCursor findIntervals(
+      boolean identifier, int pointType, int intervalType, long id, long currentEpisode)
+      throws SQLException;
+
+  /**
+   * Like {@link #findIntervals(boolean, int, int, long, long)} for an identifier wme whose value is
+   * a long-term identifier. Ranges that end before the promotion are skipped.
+   */
+  EpisodicMemoryCursor findLtiIntervals(
+      int pointType, int intervalType, long id, long promotionTime, long currentEpisode)
+      throws SQLException;
+
+  // reconstruction
+
+  void addRitLeft(long min, long max) throws SQLException;
+
+  void addRitRight(long node) throws SQLException;
+
+  void clearRitLeftRight() throws SQLException;
+
+  /**
+   * Uses the RIT nodes added since the last {@link #clearRitLeftRight()}.
+   *
+   * @return rows of (parent, attribute, child, lti letter, lti number) for the identifier wmes in
+   *     an episode, ordered by parent and child. The letter and number are 0 unless the child was a
+   *     long-term identifier at the time.
+   */
+  EpisodicMemoryCursor getIdentifierWmes(long time) throws SQLException;
+
+  /**
+   * Uses the RIT nodes added since the last {@link #clearRitLeftRight()}.
+   *
+   * @return rows of (wc_id, parent, attribute, value) for the constant wmes in an episode, ordered
+   *     by wc_id
+   */
+  EpisodicMemoryCursor getConstantWmes(long time) throws SQLException;
+}
@@ -0,0 +1,420 @@
+package org.jsoar.kernel.epmem;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Buffers the rows that are written when an episode is stored and writes them to the database in
+ * JDBC batches, one transaction per batch.
+ *
+ * <p>Only the fire-and-forget writes of episode storage are buffered: the now, point and range
+ * tables, the last episode of identifier wmes and the episode table. None of these are read while
+ * storing an episode, so storage can run ahead of the database. Anything that reads them (queries,
+ * retrievals, printing, backups) must call {@link #flush()} first.
+ *
+ * <p>Reads are not served from the buffer, so batching only pays off between reads. An agent that
+ * issues an epmem command every decision cycle flushes every cycle, and each batch then holds a
+ * single episode. That costs about the same as storing without write-behind: the rows still go out
+ * as JDBC batches, and {@link #flush()} writes the last batch on the calling thread instead of
+ * handing it to the writer and waiting. {@link #getBatchesWritten()} and {@link
+ * #getEpisodesWritten()} show how much batching a workload actually gets.
+ *
+ * <p>Within a batch, now table rows are kept as net changes. A wme that is added and removed again
+ * before its batch is written never touches the now tables, and only the final last episode of an
+ * identifier wme is written.
+ *
+ * <p>If a writer thread is used, it shares the agent's connection. Storage must hold {@link
+ * #getLock()} while it uses the database so that it doesn't interleave with a batch being written.
+ * At most {@code queueCapacity} batches may be waiting for the writer; when the queue is full,
+ * storage blocks until the writer catches up.
+ */
+@Slf4j
+class EpisodicMemoryWriteBehind {
+  private static final Batch STOP = new Batch();
+
+  private final EpisodicMemoryDatabase db;
+  private final boolean transactional;
+  private final int episodesPerBatch;
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final BlockingQueue<Batch> queue;
+  private final Thread writer;
+  private int pendingBatches;
+  private volatile SQLException failure;
+  private volatile long batchesWritten;
+  private volatile long episodesWritten;
+
+  private Batch current = new Batch();
+
+  /**
+   * @param db the database to write to
+   * @param transactional true if each batch should be wrapped in its own transaction, false if a
+   *     transaction is already open (lazy commit)
+   * @param episodesPerBatch the number of episodes buffered before a batch is written
+   * @param queueCapacity the maximum number of batches waiting for the writer thread, or 0 to write
+   *     batches on the calling thread
+   */
+  EpisodicMemoryWriteBehind(
+      EpisodicMemoryDatabase db, boolean transactional, int episodesPerBatch, int queueCapacity) {
+    this.db = db;
+    this.transactional = transactional;
+    this.episodesPerBatch = Math.max(1, episodesPerBatch);
+    if (queueCapacity > 0) {
+      this.queue = new ArrayBlockingQueue<>(queueCapacity);
+      this.writer = new Thread(this::runWriter, "epmem-writer");
+      this.writer.setDaemon(true);
+      this.writer.start();
+    } else {
+      this.queue = null;
+      this.writer = null;
+    }
+  }
+
+  /** @return the lock that storage must hold while it uses the database */
+  ReentrantLock getLock() {
+    return lock;
+  }
+
+  /** @return the number of episodes stored but not yet handed to the writer */
+  int getBufferedEpisodes() {
+    return current.episodes;
+  }
+
+  /** @return the number of batches written to the database so far */
+  long getBatchesWritten() {
+    return batchesWritten;
+  }
+
+  /** @return the number of episodes written to the database so far */
+  long getEpisodesWritten() {
+    return episodesWritten;
+  }
+
+  void addConstantNow(long id, long start) {
+    current.constantNow.add(id, start);
+  }
+
+  void deleteConstantNow(long id) {
+    current.constantNow.delete(id);
+  }
+
+  void addConstantPoint(long id, long episode) {
+    current.constantPoints.add(id, episode);
+  }
+
+  void addConstantRange(long node, long start, long end, long id) {
+    current.constantRanges.add(node, start, end, id);
+  }
+
+  void addIdentifierNow(long id, long start) {
+    current.identifierNow.add(id, start);
+  }
+
+  void deleteIdentifierNow(long id) {
+    current.identifierNow.delete(id);
+  }
+
+  void addIdentifierPoint(long id, long episode) {
+    current.identifierPoints.add(id, episode);
+  }
+
+  void addIdentifierRange(long node, long start, long end, long id) {
+    current.identifierRanges.add(node, start, end, id);
+  }
+
+  void updateIdentifierLastEpisode(long id, long lastEpisode) {
+    current.lastEpisodes.put(id, lastEpisode);
+  }
+
+  /**
+   * Record the episode itself. This completes the episode.
+   *
+   * @param time the episode id
+   */
+  void addEpisode(long time) {
+    current.times.add(time);
+    current.episodes++;
+  }
+
+  /**
+   * Hand the current batch to the writer if it holds enough episodes. This may block if the writer
+   * has fallen behind, so it must not be called while holding {@link #getLock()}.
+   *
+   * @throws SQLException if writing a previous batch failed
+   */
+  void submitIfFull() throws SQLException {
+    if (current.episodes >= episodesPerBatch) {
+      submit();
+    }
+  }
+
+  /**
+   * Write everything buffered so far. Batches already handed to the writer thread are waited for,
+   * then the current batch, even if it isn't full, is written on the calling thread. Must not be
+   * called while holding {@link #getLock()}.
+   *
+   * @throws SQLException if writing failed
+   */
+  void flush() throws SQLException {
+    if (writer != null) {
+      synchronized (this) {
+        while (pendingBatches != 0) {
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for epmem writes", e);
+          }
+        }
+      }
+    }
+    checkFailure();
+    if (current.episodes != 0) {
+      final Batch batch = current;
+      current = new Batch();
+      lock.lock();
+      try {
+        write(batch);
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
+  /**
+   * Flush and stop the writer thread
+   *
+   * @throws SQLException if writing failed
+   */
+  void close() throws SQLException {
+    try {
+      flush();
+    } finally {
+      if (writer != null) {
+        enqueue(STOP);
+        try {
+          writer.join();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+
+  private void submit() throws SQLException {
+    checkFailure();
+    final Batch batch = current;
+    current = new Batch();
+    if (writer == null) {
+      write(batch);
+      return;
+    }
+    synchronized (this) {
+      pendingBatches++;
+    }
+    try {
+      enqueue(batch);
+    } catch (SQLException e) {
+      synchronized (this) {
+        pendingBatches--;
+      }
+      throw e;
+    }
+  }
+
+  private void enqueue(Batch batch) throws SQLException {
+    try {
+      queue.put(batch);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while queueing epmem writes", e);
+    }
+  }
+
+  private void checkFailure() throws SQLException {
+    final SQLException e = failure;
+    if (e != null) {
+      throw new SQLException("Epmem write-behind failed: " + e.getMessage(), e);
+    }
+  }
+
+  private void runWriter() {
+    while (true) {
+      final Batch batch;
+      try {
+        batch = queue.take();
+      } catch (InterruptedException e) {
+        return;
+      }
+      if (batch == STOP) {
+        return;
+      }
+      // Once a batch fails, later batches would leave the database inconsistent, so they're dropped
+      if (failure == null) {
+        lock.lock();
+        try {
+          write(batch);
+        } catch (SQLException e) {
+          log.error("While writing epmem episodes: " + e.getMessage(), e);
+          failure = e;
+        } finally {
+          lock.unlock();
+        }
+      }
+      synchronized (this) {
+        pendingBatches--;
+        notifyAll();
+      }
+    }
+  }
+
+  private void write(Batch batch) throws SQLException {
+    if (transactional) {
+      db.begin.execute();
+    }
+    try {
+      // now rows are net changes, so an id may be both deleted and (re-)added. Deletes go first.
+      executeBatch(db.delete_epmem_wmes_constant_now, batch.constantNow.deletes);
+      executeBatch(db.add_epmem_wmes_constant_now, batch.constantNow.adds);
+      executeBatch(db.delete_epmem_wmes_identifier_now, batch.identifierNow.deletes);
+      executeBatch(db.add_epmem_wmes_identifier_now, batch.identifierNow.adds);
+
+      final PreparedStatement update = db.update_epmem_wmes_identifier_last_episode_id;
+      for (Map.Entry<Long, Long> e : batch.lastEpisodes.entrySet()) {
+        update.setLong(1, e.getValue());
+        update.setLong(2, e.getKey());
+        update.addBatch();
+      }
+      executeBatch(update, !batch.lastEpisodes.isEmpty());
+
+      executeBatch(db.add_epmem_wmes_constant_point, batch.constantPoints);
+      executeBatch(db.add_epmem_wmes_identifier_point, batch.identifierPoints);
+      executeBatch(db.add_epmem_wmes_constant_range, batch.constantRanges);
+      executeBatch(db.add_epmem_wmes_identifier_range, batch.identifierRanges);
+      executeBatch(db.add_time, batch.times);
+
+      if (transactional) {
+        db.commit.execute();
+      }
+      // only one thread writes at a time
+      batchesWritten++;
+      episodesWritten += batch.episodes;
+    } catch (SQLException e) {
+      if (transactional) {
+        db.rollback.execute();
+      }
+      throw e;
+    }
+  }
+
+  private static void executeBatch(PreparedStatement ps, Set<Long> ids) throws SQLException {
+    for (long id : ids) {
+      ps.setLong(1, id);
+      ps.addBatch();
+    }
+    executeBatch(ps, !ids.isEmpty());
+  }
+
+  private static void executeBatch(PreparedStatement ps, Map<Long, Long> rows) throws SQLException {
+    for (Map.Entry<Long, Long> e : rows.entrySet()) {
+      ps.setLong(1, e.getKey());
+      ps.setLong(2, e.getValue());
+      ps.addBatch();
+    }
+    executeBatch(ps, !rows.isEmpty());
+  }
+
+  private static void executeBatch(PreparedStatement ps, Rows rows) throws SQLException {
+    final long[] data = rows.data;
+    for (int i = 0; i < rows.size; i += rows.width) {
+      for (int c = 0; c < rows.width; c++) {
+        ps.setLong(c + 1, data[i + c]);
+      }
+      ps.addBatch();
+    }
+    executeBatch(ps, rows.size != 0);
+  }
+
+  private static void executeBatch(PreparedStatement ps, boolean nonEmpty) throws SQLException {
+    if (nonEmpty) {
+      ps.executeBatch();
+      ps.clearBatch();
+    }
+  }
+
+  /** The rows of one batch of episodes */
+  private static class Batch {
+    final NowRows constantNow = new NowRows();
+    final NowRows identifierNow = new NowRows();
+    final Map<Long, Long> lastEpisodes = new LinkedHashMap<>();
+    final Rows constantPoints = new Rows(2);
+    final Rows identifierPoints = new Rows(2);
+    final Rows constantRanges = new Rows(4);
+    final Rows identifierRanges = new Rows(4);
+    final Rows times = new Rows(1);
+    int episodes;
+  }
+
+  /** Net changes to a now table */
+  private static class NowRows {
+    final Map<Long, Long> adds = new LinkedHashMap<>();
+    final Set<Long> deletes = new LinkedHashSet<>();
+
+    void add(long id, long start) {
+      adds.put(id, start);
+    }
+
+    void delete(long id) {
+      // If the row was added in this batch, it never reaches the database
+      if (adds.remove(id) == null) {
+        deletes.add(id);
+      }
+    }
+  }
+
+  /** Insert-only rows of {@code width} longs, stored flat */
+  private static class Rows {
+    final int width;
+    long[] data;
+    int size;
+
+    Rows(int width) {
+      this.width = width;
+      this.data = new long[width * 16];
+    }
+
+    private void ensureCapacity() {
+      if (size + width > data.length) {
+        data = Arrays.copyOf(data, data.length * 2);
+      }
+    }
+
+    void add(long a) {
+      ensureCapacity();
+      data[size++] = a;
+    }
+
+    void add(long a, long b) {
+      ensureCapacity();
+      data[size++] = a;
+      data[size++] = b;
+    }
+
+    void add(long a, long b, long c, long d) {
+      ensureCapacity();
+      data[size++] = a;
+      data[size++] = b;
+      data[size++] = c;
+      data[size++] = d;
+    }
+  }
+}
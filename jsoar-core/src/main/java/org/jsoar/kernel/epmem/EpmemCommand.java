@@ -10,6 +10,7 @@
 import org.jsoar.kernel.Agent;
 import org.jsoar.kernel.SoarException;
 import org.jsoar.kernel.epmem.DefaultEpisodicMemoryParams.AppendDatabaseChoices;
+import org.jsoar.kernel.epmem.DefaultEpisodicMemoryParams.BackendChoices;
 import org.jsoar.kernel.epmem.DefaultEpisodicMemoryParams.Force;
 import org.jsoar.kernel.epmem.DefaultEpisodicMemoryParams.GmOrderingChoices;
 import org.jsoar.kernel.epmem.DefaultEpisodicMemoryParams.GraphMatchChoices;
@@ -19,6 +20,7 @@
 import org.jsoar.kernel.epmem.DefaultEpisodicMemoryParams.PageChoices;
 import org.jsoar.kernel.epmem.DefaultEpisodicMemoryParams.Phase;
 import org.jsoar.kernel.epmem.DefaultEpisodicMemoryParams.Trigger;
+import org.jsoar.kernel.epmem.DefaultEpisodicMemoryParams.WriteBehindChoices;
 import org.jsoar.kernel.symbols.SymbolFactoryImpl;
 import org.jsoar.kernel.symbols.SymbolImpl;
 import org.jsoar.util.ByRef;
@@ -180,12 +182,36 @@ private String doSet(String paramToSet, String value) {
           case "cache-size":
             props.set(DefaultEpisodicMemoryParams.CACHE_SIZE, Long.valueOf(value));
             return "Set cache size to " + Long.valueOf(value);
+          case "backend":
+            if (epmem.store != null) {
+              return "Backend is protected while the database is open.";
+            }
+            props.set(DefaultEpisodicMemoryParams.BACKEND, BackendChoices.valueOf(value));
+            return "Set backend to " + BackendChoices.valueOf(value);
           case "lazy-commit":
-            if (epmem.db != null) {
+            if (epmem.store != null) {
               return "Lazy commit is protected while the database is open.";
             }
             props.set(DefaultEpisodicMemoryParams.LAZY_COMMIT, LazyCommitChoices.valueOf(value));
             return "Set lazy-commit to " + LazyCommitChoices.valueOf(value);
+          case "write-behind":
+            if (epmem.store != null) {
+              return "Write-behind is protected while the database is open.";
+            }
+            props.set(DefaultEpisodicMemoryParams.WRITE_BEHIND, WriteBehindChoices.valueOf(value));
+            return "Set write-behind to " + WriteBehindChoices.valueOf(value);
+          case "write-behind-episodes":
+            if (epmem.store != null) {
+              return "Write-behind-episodes is protected while the database is open.";
+            }
+            props.set(DefaultEpisodicMemoryParams.WRITE_BEHIND_EPISODES, Long.valueOf(value));
+            return "Set write-behind-episodes to " + Long.valueOf(value);
+          case "write-behind-queue":
+            if (epmem.store != null) {
+              return "Write-behind-queue is protected while the database is open.";
+            }
+            props.set(DefaultEpisodicMemoryParams.WRITE_BEHIND_QUEUE, Long.valueOf(value));
+            return "Set write-behind-queue to " + Long.valueOf(value);
           case "exclusions":
             {
               DefaultEpisodicMemoryParams params = epmem.getParams();
@@ -285,6 +311,7 @@ private String doEpmem() {
       pw.printf(PrintHelper.generateItem("exclusions:", p.exclusions, 40));
       pw.printf(PrintHelper.generateItem("inclusions:", p.inclusions, 40));
       pw.printf(PrintHelper.generateSection("Storage", 40));
+      pw.printf(PrintHelper.generateItem("backend:", p.backend.get(), 40));
       pw.printf(PrintHelper.generateItem("driver:", p.driver, 40));
 
       String nativeOrPure = null;
@@ -295,6 +322,8 @@ private String doEpmem() {
               ((SQLiteJDBCLoader.isNativeMode()) ? "Native" : "Pure Java")
                   + " - "
                   + db.getConnection().getMetaData().getDriverVersion();
+        } else if (epmem.store != null) {
+          nativeOrPure = "Not using a database";
         } else {
           nativeOrPure = "Not connected to database";
         }
@@ -327,6 +356,10 @@ private String doEpmem() {
       pw.printf(PrintHelper.generateItem("page-size:", p.page_size.get(), 40));
       pw.printf(PrintHelper.generateItem("cache-size:", p.cache_size.get(), 40));
       pw.printf(PrintHelper.generateItem("optimization:", p.optimization.get(), 40));
+      pw.printf(PrintHelper.generateItem("write-behind:", p.write_behind.get(), 40));
+      pw.printf(
+          PrintHelper.generateItem("write-behind-episodes:", p.write_behind_episodes.get(), 40));
+      pw.printf(PrintHelper.generateItem("write-behind-queue:", p.write_behind_queue.get(), 40));
       pw.printf(PrintHelper.generateItem("timers:", "off", 40));
       pw.printf(PrintHelper.generateSection("Experimental", 40));
       pw.printf(PrintHelper.generateItem("merge:", p.merge.get(), 40));
@@ -339,7 +372,7 @@ private String doStats(String statToPrint) {
       final var sw = new StringWriter();
       final var pw = new PrintWriter(sw);
 
-      if (epmem.getDatabase() == null) {
+      if (epmem.store == null) {
         try {
           epmem.epmem_init_db();
         } catch (SoarException e) {
@@ -352,36 +385,40 @@ private String doStats(String statToPrint) {
       if (statToPrint == null) {
         pw.printf(PrintHelper.generateHeader("Episodic Memory Statistics", 40));
         pw.printf(PrintHelper.generateItem("Time:", stats.time.get(), 40));
-        try {
-          String database =
-              epmem.getDatabase().getConnection().getMetaData().getDatabaseProductName();
-          String version =
-              epmem.getDatabase().getConnection().getMetaData().getDatabaseProductVersion();
-          pw.printf(PrintHelper.generateItem(database + " Version:", version, 40));
-        } catch (SQLException e) {
-          agent.getPrinter().startNewLine().print(e.getMessage());
-          return "";
-        }
+        if (epmem.db != null) {
+          try {
+            String database =
+                epmem.getDatabase().getConnection().getMetaData().getDatabaseProductName();
+            String version =
+                epmem.getDatabase().getConnection().getMetaData().getDatabaseProductVersion();
+            pw.printf(PrintHelper.generateItem(database + " Version:", version, 40));
+          } catch (SQLException e) {
+            agent.getPrinter().startNewLine().print(e.getMessage());
+            return "";
+          }
 
-        long pageCount;
-        long pageSize;
-        try (var s = epmem.getDatabase().getConnection().createStatement()) {
+          long pageCount;
+          long pageSize;
+          try (var s = epmem.getDatabase().getConnection().createStatement()) {
 
-          try (ResultSet rs = s.executeQuery("PRAGMA page_count")) {
-            pageCount = rs.getLong(1);
-          }
+            try (ResultSet rs = s.executeQuery("PRAGMA page_count")) {
+              pageCount = rs.getLong(1);
+            }
 
-          try (ResultSet rs = s.executeQuery("PRAGMA page_size")) {
-            pageSize = rs.getLong(1);
+            try (ResultSet rs = s.executeQuery("PRAGMA page_size")) {
+              pageSize = rs.getLong(1);
+            }
+
+          } catch (SQLException e) {
+            agent.getPrinter().startNewLine().print(e.getMessage());
+            return "";
           }
 
-        } catch (SQLException e) {
-          agent.getPrinter().startNewLine().print(e.getMessage());
-          return "";
+          stats.mem_usage.set(pageCount * pageSize);
+        } else {
+          pw.printf(PrintHelper.generateItem("Store Version:", stats.db_version.get(), 40));
         }
 
-        stats.mem_usage.set(pageCount * pageSize);
-
         pw.printf(
             PrintHelper.generateItem(
                 "Memory Usage:", (stats.mem_usage.get() / 1024.0) + " KB", 40));
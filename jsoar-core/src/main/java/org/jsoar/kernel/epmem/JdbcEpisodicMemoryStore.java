@@ -0,0 +1,573 @@
+package org.jsoar.kernel.epmem;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
+import org.jsoar.util.ByRef;
+
+/**
+ * {@link EpisodicMemoryStore} backed by the prepared statements of an {@link
+ * EpisodicMemoryDatabase}. Episode storage may optionally be buffered by an {@link
+ * EpisodicMemoryWriteBehind}.
+ */
+final class JdbcEpisodicMemoryStore implements EpisodicMemoryStore {
+  private final EpisodicMemoryDatabase db;
+  private final boolean lazyCommit;
+
+  /** Buffers episode storage if write-behind is enabled, otherwise {@code null} */
+  private EpisodicMemoryWriteBehind writeBehind;
+
+  /**
+   * @param db the database, with its statements prepared
+   * @param lazyCommit true if a single transaction is held open until the store is closed
+   */
+  JdbcEpisodicMemoryStore(EpisodicMemoryDatabase db, boolean lazyCommit) {
+    this.db = db;
+    this.lazyCommit = lazyCommit;
+  }
+
+  EpisodicMemoryDatabase getDatabase() {
+    return db;
+  }
+
+  /**
+   * Start buffering episode storage. The lazy commit transaction, if any, must already be open.
+   *
+   * @param writeBehind the write-behind buffer
+   */
+  void setWriteBehind(EpisodicMemoryWriteBehind writeBehind) {
+    this.writeBehind = writeBehind;
+  }
+
+  @Override
+  public String getVersion() throws SQLException {
+    try (ResultSet r = db.database_version.executeQuery()) {
+      r.next();
+      return r.getString(1);
+    }
+  }
+
+  @Override
+  public void storeEpisode(EpisodeStorage storage) throws SQLException {
+    if (writeBehind == null) {
+      storage.run();
+      return;
+    }
+
+    // keep the writer thread off the connection while storing
+    final ReentrantLock lock = writeBehind.getLock();
+    lock.lock();
+    try {
+      storage.run();
+    } finally {
+      lock.unlock();
+    }
+    writeBehind.submitIfFull();
+  }
+
+  @Override
+  public void flush() throws SQLException {
+    if (writeBehind != null) {
+      writeBehind.flush();
+    }
+  }
+
+  @Override
+  public void close() throws SQLException {
+    if (writeBehind != null) {
+      final EpisodicMemoryWriteBehind wb = writeBehind;
+      writeBehind = null;
+      wb.close();
+    }
+
+    if (lazyCommit) {
+      db.commit.execute();
+    }
+
+    db.getConnection().close();
+  }
+
+  @Override
+  public boolean getVariable(int id, ByRef<Long> value) throws SQLException {
+    db.var_get.setInt(1, id);
+    try (ResultSet rs = db.var_get.executeQuery()) {
+      if (rs.next()) {
+        value.value = rs.getLong(1);
+        return true;
+      } else {
+        return false;
+      }
+    }
+  }
+
+  @Override
+  public void setVariable(int id, long value) throws SQLException {
+    db.var_set.setInt(1, id);
+    db.var_set.setLong(2, value);
+    db.var_set.execute();
+  }
+
+  @Override
+  public long addSymbolType(int type) throws SQLException {
+    db.hash_add_type.setInt(1, type);
+    db.hash_add_type.execute();
+    try (ResultSet rs = db.hash_add_type.getGeneratedKeys()) {
+      rs.next();
+      return rs.getLong(1);
+    }
+  }
+
+  @Override
+  public int getSymbolType(long sId) throws SQLException {
+    db.hash_get_type.setLong(1, sId);
+    try (ResultSet rs = db.hash_get_type.executeQuery()) {
+      return rs.next() ? rs.getInt(1) : -1;
+    }
+  }
+
+  @Override
+  public long findIntegerSymbol(long value) throws SQLException {
+    db.hash_get_int.setLong(1, value);
+    return findSymbol(db.hash_get_int);
+  }
+
+  @Override
+  public long findFloatSymbol(double value) throws SQLException {
+    db.hash_get_float.setDouble(1, value);
+    return findSymbol(db.hash_get_float);
+  }
+
+  @Override
+  public long findStringSymbol(String value) throws SQLException {
+    db.hash_get_str.setString(1, value);
+    return findSymbol(db.hash_get_str);
+  }
+
+  private static long findSymbol(PreparedStatement ps) throws SQLException {
+    try (ResultSet rs = ps.executeQuery()) {
+      return rs.next() ? rs.getLong(1) : 0;
+    }
+  }
+
+  @Override
+  public void addIntegerSymbol(long sId, long value) throws SQLException {
+    db.hash_add_int.setLong(1, sId);
+    db.hash_add_int.setLong(2, value);
+    db.hash_add_int.execute();
+  }
+
+  @Override
+  public void addFloatSymbol(long sId, double value) throws SQLException {
+    db.hash_add_float.setLong(1, sId);
+    db.hash_add_float.setDouble(2, value);
+    db.hash_add_float.execute();
+  }
+
+  @Override
+  public void addStringSymbol(long sId, String value) throws SQLException {
+    db.hash_add_str.setLong(1, sId);
+    db.hash_add_str.setString(2, value);
+    db.hash_add_str.execute();
+  }
+
+  @Override
+  public Long getIntegerSymbol(long sId) throws SQLException {
+    db.hash_rev_int.setLong(1, sId);
+    try (ResultSet rs = db.hash_rev_int.executeQuery()) {
+      return rs.next() ? rs.getLong(1) : null;
+    }
+  }
+
+  @Override
+  public Double getFloatSymbol(long sId) throws SQLException {
+    db.hash_rev_float.setLong(1, sId);
+    try (ResultSet rs = db.hash_rev_float.executeQuery()) {
+      return rs.next() ? rs.getDouble(1) : null;
+    }
+  }
+
+  @Override
+  public String getStringSymbol(long sId) throws SQLException {
+    db.hash_rev_str.setLong(1, sId);
+    try (ResultSet rs = db.hash_rev_str.executeQuery()) {
+      return rs.next() ? rs.getString(1) : null;
+    }
+  }
+
+  @Override
+  public void addNode(long nId) throws SQLException {
+    db.add_node.setLong(1, nId);
+    db.add_node.execute();
+  }
+
+  @Override
+  public long findConstantWme(long parent, long attribute, long value) throws SQLException {
+    final PreparedStatement ps = db.find_epmem_wmes_constant;
+    ps.setLong(1, parent);
+    ps.setLong(2, attribute);
+    ps.setLong(3, value);
+    return findId(ps);
+  }
+
+  @Override
+  public long addConstantWme(long parent, long attribute, long value) throws SQLException {
+    final PreparedStatement ps = db.add_epmem_wmes_constant;
+    ps.setLong(1, parent);
+    ps.setLong(2, attribute);
+    ps.setLong(3, value);
+    ps.execute();
+    return generatedKey(ps);
+  }
+
+  @Override
+  public long findIdentifierWme(long parent, long attribute, long child) throws SQLException {
+    final PreparedStatement ps = db.find_epmem_wmes_identifier_shared;
+    ps.setLong(1, parent);
+    ps.setLong(2, attribute);
+    ps.setLong(3, child);
+    return findId(ps);
+  }
+
+  @Override
+  public long addIdentifierWme(long parent, long attribute, long child, long lastEpisode)
+      throws SQLException {
+    final PreparedStatement ps = db.add_epmem_wmes_identifier;
+    ps.setLong(1, parent);
+    ps.setLong(2, attribute);
+    ps.setLong(3, child);
+    ps.setLong(4, lastEpisode);
+    ps.execute();
+    return generatedKey(ps);
+  }
+
+  private static long findId(PreparedStatement ps) throws SQLException {
+    try (ResultSet rs = ps.executeQuery()) {
+      return rs.next() ? rs.getLong(1) : DefaultEpisodicMemory.EPMEM_NODEID_BAD;
+    }
+  }
+
+  private static long generatedKey(PreparedStatement ps) throws SQLException {
+    // CK: not all database drivers support this
+    try (ResultSet rs = ps.getGeneratedKeys()) {
+      if (rs.next()) {
+        return rs.getLong(1);
+      }
+      // throw an exception if we were not able to get the row id of the insert
+      throw new SQLException("ps.getGeneratedKeys failed!");
+    }
+  }
+
+  @Override
+  public void updateIdentifierLastEpisode(long wiId, long lastEpisode) throws SQLException {
+    if (writeBehind != null) {
+      writeBehind.updateIdentifierLastEpisode(wiId, lastEpisode);
+      return;
+    }
+    db.update_epmem_wmes_identifier_last_episode_id.setLong(1, lastEpisode);
+    db.update_epmem_wmes_identifier_last_episode_id.setLong(2, wiId);
+    db.update_epmem_wmes_identifier_last_episode_id.executeUpdate();
+  }
+
+  @Override
+  public long getMaxWmeId(boolean identifier) throws SQLException {
+    final PreparedStatement ps = identifier ? db.minmax_select_edge : db.minmax_select_node;
+    try (ResultSet rs = ps.executeQuery()) {
+      return rs.next() ? rs.getLong(1) : 0;
+    }
+  }
+
+  @Override
+  public EpisodicMemoryCursor selectIdentifierWmes() throws SQLException {
+    return new ResultSetCursor(null, db.edge_unique_select.executeQuery());
+  }
+
+  @Override
+  public void addConstantNow(long wcId, long start) throws SQLException {
+    if (writeBehind != null) {
+      writeBehind.addConstantNow(wcId, start);
+      return;
+    }
+    execute(db.add_epmem_wmes_constant_now, wcId, start);
+  }
+
+  @Override
+  public void deleteConstantNow(long wcId) throws SQLException {
+    if (writeBehind != null) {
+      writeBehind.deleteConstantNow(wcId);
+      return;
+    }
+    execute(db.delete_epmem_wmes_constant_now, wcId);
+  }
+
+  @Override
+  public void addConstantPoint(long wcId, long episode) throws SQLException {
+    if (writeBehind != null) {
+      writeBehind.addConstantPoint(wcId, episode);
+      return;
+    }
+    execute(db.add_epmem_wmes_constant_point, wcId, episode);
+  }
+
+  @Override
+  public void addConstantRange(long node, long start, long end, long wcId) throws SQLException {
+    if (writeBehind != null) {
+      writeBehind.addConstantRange(node, start, end, wcId);
+      return;
+    }
+    execute(db.add_epmem_wmes_constant_range, node, start, end, wcId);
+  }
+
+  @Override
+  public void addIdentifierNow(long wiId, long start) throws SQLException {
+    if (writeBehind != null) {
+      writeBehind.addIdentifierNow(wiId, start);
+      return;
+    }
+    execute(db.add_epmem_wmes_identifier_now, wiId, start);
+  }
+
+  @Override
+  public void deleteIdentifierNow(long wiId) throws SQLException {
+    if (writeBehind != null) {
+      writeBehind.deleteIdentifierNow(wiId);
+      return;
+    }
+    execute(db.delete_epmem_wmes_identifier_now, wiId);
+  }
+
+  @Override
+  public void addIdentifierPoint(long wiId, long episode) throws SQLException {
+    if (writeBehind != null) {
+      writeBehind.addIdentifierPoint(wiId, episode);
+      return;
+    }
+    execute(db.add_epmem_wmes_identifier_point, wiId, episode);
+  }
+
+  @Override
+  public void addIdentifierRange(long node, long start, long end, long wiId) throws SQLException {
+    if (writeBehind != null) {
+      writeBehind.addIdentifierRange(node, start, end, wiId);
+      return;
+    }
+    execute(db.add_epmem_wmes_identifier_range, node, start, end, wiId);
+  }
+
+  @Override
+  public EpisodicMemoryCursor selectNow(boolean identifier) throws SQLException {
+    final PreparedStatement ps = identifier ? db.now_select_edge : db.now_select_node;
+    return new ResultSetCursor(null, ps.executeQuery());
+  }
+
+  @Override
+  public void deleteAllNow(boolean identifier) throws SQLException {
+    (identifier ? db.now_delete_edge : db.now_delete_node).execute();
+  }
+
+  @Override
+  public void promoteId(long nId, long letter, long number, long episode) throws SQLException {
+    // n_id,soar_letter,soar_number,promotion_episode_id
+    execute(db.promote_id, nId, letter, number, episode);
+  }
+
+  @Override
+  public long findLti(long letter, long number) throws SQLException {
+    db.find_lti.setLong(1, letter);
+    db.find_lti.setLong(2, number);
+    return findId(db.find_lti);
+  }
+
+  @Override
+  public long findLtiPromotionTime(long nId) throws SQLException {
+    db.find_lti_promotion_time.setLong(1, nId);
+    try (ResultSet rs = db.find_lti_promotion_time.executeQuery()) {
+      return rs.next() ? rs.getLong(1) : DefaultEpisodicMemory.EPMEM_MEMID_NONE;
+    }
+  }
+
+  @Override
+  public void addEpisode(long time) throws SQLException {
+    if (writeBehind != null) {
+      writeBehind.addEpisode(time);
+      return;
+    }
+    execute(db.add_time, time);
+  }
+
+  @Override
+  public long getMaxEpisode() throws SQLException {
+    try (ResultSet rs = db.get_max_time.executeQuery()) {
+      return rs.next() ? rs.getLong(1) : 0;
+    }
+  }
+
+  @Override
+  public boolean isValidEpisode(long time) throws SQLException {
+    db.valid_episode.setLong(1, time);
+    try (ResultSet rs = db.valid_episode.executeQuery()) {
+      rs.next();
+      return rs.getLong(1) > 0;
+    }
+  }
+
+  @Override
+  public long nextEpisode(long time) throws SQLException {
+    return findEpisode(db.next_episode, time);
+  }
+
+  @Override
+  public long previousEpisode(long time) throws SQLException {
+    return findEpisode(db.prev_episode, time);
+  }
+
+  private static long findEpisode(PreparedStatement ps, long time) throws SQLException {
+    ps.setLong(1, time);
+    try (ResultSet rs = ps.executeQuery()) {
+      return rs.next() ? rs.getLong(1) : DefaultEpisodicMemory.EPMEM_MEMID_NONE;
+    }
+  }
+
+  @Override
+  public EpisodicMemoryCursor findEdges(
+      boolean identifier, long parent, long attribute, long value, long after) throws SQLException {
+    final boolean hasValue = value != DefaultEpisodicMemory.EPMEM_NODEID_BAD;
+    final PreparedStatement ps =
+        db.pool_find_edge_queries[identifier ? 1 : 0][hasValue ? 1 : 0].getCopy();
+    var bind_pos = 1;
+    if (!identifier) {
+      ps.setLong(bind_pos++, Long.MAX_VALUE);
+    }
+    ps.setLong(bind_pos++, parent);
+    ps.setLong(bind_pos++, attribute);
+    if (hasValue) {
+      ps.setLong(bind_pos++, value);
+    }
+    if (identifier) {
+      ps.setLong(bind_pos++, after);
+    }
+    return new ResultSetCursor(ps, ps.executeQuery());
+  }
+
+  @Override
+  public EpisodicMemoryCursor findIntervals(
+      boolean identifier, int pointType, int intervalType, long id, long currentEpisode)
+      throws SQLException {
+    final PreparedStatement ps =
+        db.pool_find_interval_queries[identifier ? 1 : 0][pointType][intervalType].getCopy();
+    return findIntervals(ps, pointType, intervalType, id, null, currentEpisode);
+  }
+
+  @Override
+  public EpisodicMemoryCursor findLtiIntervals(
+      int pointType, int intervalType, long id, long promotionTime, long currentEpisode)
+      throws SQLException {
+    final PreparedStatement ps = db.pool_find_lti_queries[pointType][intervalType].getCopy();
+    return findIntervals(
+        ps,
+        pointType,
+        intervalType,
+        id,
+        intervalType == DefaultEpisodicMemory.EPMEM_RANGE_EP ? promotionTime : null,
+        currentEpisode);
+  }
+
+  private static EpisodicMemoryCursor findIntervals(
+      PreparedStatement ps,
+      int pointType,
+      int intervalType,
+      long id,
+      Long promotionTime,
+      long currentEpisode)
+      throws SQLException {
+    // CK: both the JDBC and C drivers have an index of 1 for the leftmost parameter in
+    // a prepared statement
+    // (see: http://www.sqlite.org/c3ref/bind_blob.html)
+    var bind_pos = 1;
+    if (pointType == DefaultEpisodicMemory.EPMEM_RANGE_END
+        && intervalType == DefaultEpisodicMemory.EPMEM_RANGE_NOW) {
+      ps.setLong(bind_pos++, currentEpisode);
+    }
+    ps.setLong(bind_pos++, id);
+    if (promotionTime != null) {
+      ps.setLong(bind_pos++, promotionTime);
+    }
+    ps.setLong(bind_pos++, currentEpisode);
+    return new ResultSetCursor(ps, ps.executeQuery());
+  }
+
+  @Override
+  public void addRitLeft(long min, long max) throws SQLException {
+    execute(db.rit_add_left, min, max);
+  }
+
+  @Override
+  public void addRitRight(long node) throws SQLException {
+    execute(db.rit_add_right, node);
+  }
+
+  @Override
+  public void clearRitLeftRight() throws SQLException {
+    db.rit_truncate_left.execute();
+    db.rit_truncate_right.execute();
+  }
+
+  @Override
+  public EpisodicMemoryCursor getIdentifierWmes(long time) throws SQLException {
+    final PreparedStatement ps = db.get_wmes_with_identifier_values;
+    for (int i = 1; i <= 5; i++) {
+      ps.setLong(i, time);
+    }
+    return new ResultSetCursor(null, ps.executeQuery());
+  }
+
+  @Override
+  public EpisodicMemoryCursor getConstantWmes(long time) throws SQLException {
+    final PreparedStatement ps = db.get_wmes_with_constant_values;
+    for (int i = 1; i <= 4; i++) {
+      ps.setLong(i, time);
+    }
+    return new ResultSetCursor(null, ps.executeQuery());
+  }
+
+  private static void execute(PreparedStatement ps, long... values) throws SQLException {
+    for (int i = 0; i < values.length; i++) {
+      ps.setLong(i + 1, values[i]);
+    }
+    ps.executeUpdate();
+  }
+
+  /** A cursor over a result set, optionally owning the statement that produced it */
+  private static final class ResultSetCursor implements EpisodicMemoryCursor {
+    private final PreparedStatement statement;
+    private final ResultSet results;
+
+    ResultSetCursor(PreparedStatement statement, ResultSet results) {
+      this.statement = statement;
+      this.results = results;
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+      return results.next();
+    }
+
+    @Override
+    public long getLong(int column) throws SQLException {
+      return results.getLong(column);
+    }
+
+    @Override
+    public int getColumnCount() throws SQLException {
+      return results.getMetaData().getColumnCount();
+    }
+
+    @Override
+    public void close() throws SQLException {
+      results.close();
+      if (statement != null) {
+        statement.close();
+      }
+    }
+  }
+}
@@ -0,0 +1,65 @@
+package org.jsoar.kernel.epmem;
+
+/** An {@link EpisodicMemoryCursor} over rows that are already in memory, stored flat. */
+final class LongArrayCursor implements EpisodicMemoryCursor {
+  private static final long[] NO_ROWS = new long[0];
+
+  private final long[] rows;
+  private final int width;
+  private final int end;
+  private int position;
+
+  /**
+   * @param rows the rows, {@code width} values per row
+   * @param width the number of columns
+   * @param count the number of rows
+   */
+  LongArrayCursor(long[] rows, int width, int count) {
+    this.rows = rows;
+    this.width = width;
+    this.end = count * width;
+    this.position = -width;
+  }
+
+  /**
+   * @param width the number of columns
+   * @return a cursor without any rows
+   */
+  static LongArrayCursor empty(int width) {
+    return new LongArrayCursor(NO_ROWS, width, 0);
+  }
+
+  /**
+   * @param values the columns of the row
+   * @return a cursor with a single row
+   */
+  static LongArrayCursor of(long... values) {
+    return new LongArrayCursor(values, values.length, 1);
+  }
+
+  @Override
+  public boolean next() {
+    if (position < end) {
+      position += width;
+    }
+    return position < end;
+  }
+
+  @Override
+  public long getLong(int column) {
+    if (column < 1 || column > width || position < 0 || position >= end) {
+      return 0L;
+    }
+    return rows[position + column - 1];
+  }
+
+  @Override
+  public int getColumnCount() {
+    return width;
+  }
+
+  @Override
+  public void close() {
+    position = end;
+  }
+}
@@ -492,10 +492,11 @@ private void addIdToOutputLinkTc(final IdentifierImpl id) {
         .map(wme -> wme.value.asIdentifier())
         .forEach(this::addIdToOutputLinkTc);
     for (Slot s = id.slots; s != null; s = s.next) {
-      s.getWmes().stream()
-          .filter(wme -> wme.value.asIdentifier() != null)
-          .map(wme -> wme.value.asIdentifier())
-          .forEach(this::addIdToOutputLinkTc);
+      for (WmeImpl wme = s.getFirstWme(); wme != null; wme = wme.next) {
+        if (wme.value.asIdentifier() != null) {
+          addIdToOutputLinkTc(wme.value.asIdentifier());
+        }
+      }
     }
     // don't need to check impasse_wmes, because we couldn't have a pointer
     // to a goal or impasse identifier
@@ -0,0 +1,38 @@
+package org.jsoar.kernel.io.quick;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * A journal of the paths changed in a {@link DefaultQMemory} since it was last drained. Each {@link
+ * SoarQMemoryAdapter} in change journal mode has its own journal, so several adapters can share a
+ * source. Repeated changes to a path are coalesced until the journal is drained.
+ *
+ * <p>A journal isn't thread safe. It must only be used while holding the lock of the {@link
+ * DefaultQMemory} it belongs to, which its setters already do.
+ *
+ * @see DefaultQMemory#openJournal()
+ */
+class ChangeJournal {
+  private Set<String> dirty = new LinkedHashSet<>();
+
+  /**
+   * Record a change to a path
+   *
+   * @param path the path that was set, cleared or removed
+   */
+  void add(String path) {
+    dirty.add(path);
+  }
+
+  /**
+   * Remove and return all the recorded paths
+   *
+   * @return the changed paths in the order they were first changed
+   */
+  Set<String> drain() {
+    final Set<String> result = dirty;
+    dirty = new LinkedHashSet<>();
+    return result;
+  }
+}
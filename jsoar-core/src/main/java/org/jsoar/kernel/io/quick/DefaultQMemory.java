@@ -27,6 +27,7 @@ public class DefaultQMemory implements QMemory {
 
   private Map<String, MemoryNode> memory = new HashMap<String, MemoryNode>();
   private List<QMemoryListener> listeners = new CopyOnWriteArrayList<QMemoryListener>();
+  private final List<ChangeJournal> journals = new CopyOnWriteArrayList<>();
 
   /** @return A new empty QMemory */
   public static QMemory create() {
@@ -148,6 +149,7 @@ public QMemory subMemory(String prefix) {
    */
   public synchronized void setDouble(String path, double doubleVal) {
     if (getNode(path).setDoubleValue(doubleVal)) {
+      journal(path);
       fireChangeEvent();
     }
   }
@@ -164,6 +166,7 @@ public synchronized void setInteger(String path, int intVal) {
    */
   public synchronized void setInteger(String path, long longVal) {
     if (getNode(path).setIntValue(longVal)) {
+      journal(path);
       fireChangeEvent();
     }
   }
@@ -173,6 +176,7 @@ public synchronized void setInteger(String path, long longVal) {
    */
   public synchronized void setString(String path, String strVal) {
     if (getNode(path).setStringValue(strVal)) {
+      journal(path);
       fireChangeEvent();
     }
   }
@@ -182,6 +186,7 @@ public synchronized void setString(String path, String strVal) {
    */
   public synchronized void clear(String path) {
     getNode(path).clearValue();
+    journal(path);
     fireChangeEvent();
   }
 
@@ -190,6 +195,7 @@ public synchronized void clear(String path) {
    */
   public synchronized void remove(String path) {
     removeNode(path);
+    journal(path);
     fireChangeEvent();
   }
 
@@ -209,6 +215,50 @@ public void removeListener(QMemoryListener listener) {
     listeners.remove(listener);
   }
 
+  /**
+   * Start recording changed paths in a new journal. Every set, clear and remove from now on adds
+   * its path to the journal until it's closed.
+   *
+   * @return the new journal
+   * @see #closeJournal(ChangeJournal)
+   */
+  ChangeJournal openJournal() {
+    final ChangeJournal journal = new ChangeJournal();
+    journals.add(journal);
+    return journal;
+  }
+
+  /**
+   * Stop recording changes in a journal
+   *
+   * @param journal a journal returned by {@link #openJournal()}
+   */
+  void closeJournal(ChangeJournal journal) {
+    journals.remove(journal);
+  }
+
+  /**
+   * Copy the value at a path, without creating the path like {@link #getNode(String)} does
+   *
+   * @param path the path
+   * @return a copy of the node at the path, or {@code null} if there's no such path
+   */
+  synchronized MemoryNode copyNode(String path) {
+    final MemoryNode node = memory.get(path);
+    if (node == null) {
+      return null;
+    }
+    final MemoryNode copy = new MemoryNode();
+    copy.setValue(node);
+    return copy;
+  }
+
+  private void journal(String path) {
+    for (ChangeJournal journal : journals) {
+      journal.add(path);
+    }
+  }
+
   private void fireChangeEvent() {
     for (QMemoryListener listener : listeners) {
       listener.onQMemoryChanged();
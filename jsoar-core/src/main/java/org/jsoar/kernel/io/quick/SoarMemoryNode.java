@@ -43,6 +43,11 @@ public SoarMemoryNode(String name) {
     this.memoryNode = new MemoryNode();
   }
 
+  /** @return true if this node has a value rather than an identifier for child nodes */
+  public boolean isLeaf() {
+    return memoryNode.isLeaf();
+  }
+
   public void setParentNode(SoarMemoryNode parentNode) {
     this.parentNode = parentNode;
   }
@@ -46,6 +46,12 @@
  * <p>In the event of an init-soar, this object will automatically reconstruct its last working
  * memory state.
  *
+ * <p>By default, every input cycle in which the source has changed walks every path in the source.
+ * In change journal mode (see {@link #setChangeJournalEnabled(boolean)}) the source instead records
+ * the paths that change, and only those are updated. This is much cheaper for large sources that
+ * change a little at a time, and the source is only locked while the changed paths are copied
+ * rather than while working memory is updated.
+ *
  * <p>When you're done with an adapter, call {@link #detach()} to remove it. Any WMEs it has created
  * will be removed from the agent during the next input phase.
  *
@@ -88,6 +94,14 @@ public int compare(String s1, String s2) {
 
   private Map<String, SoarMemoryNode> memory = new HashMap<String, SoarMemoryNode>();
 
+  private boolean changeJournalEnabled = false;
+  /** Journal of changed paths in the source, null unless in change journal mode */
+  private ChangeJournal journal;
+  /** True if the journal can't be used until the next full synchronization */
+  private boolean journalStale = true;
+  /** Child paths of each path in {@link #memory}, maintained only in change journal mode */
+  private final Map<String, Set<String>> children = new HashMap<>();
+
   /**
    * Attach the given source to the given agent. Each input cycle, the current contents of the
    * memory source will be put on the input-link.
@@ -160,6 +174,7 @@ public void detach() {
         this.io.getEvents().removeListener(null, this);
         removeAllWmes(io, memory);
       }
+      closeJournal();
       this.io = null;
       this.memory = null;
     }
@@ -183,11 +198,13 @@ public void setSource(QMemory source) {
       if (this.source != null) {
         this.source.removeListener(this);
       }
+      closeJournal();
       this.sourceChanged = this.sourceChanged | (this.source != source);
       this.source = source;
       if (this.source != null) {
         this.source.addListener(this);
       }
+      openJournal();
 
       if (sourceChanged && io != null) {
         io.asynchronousInputReady();
@@ -195,6 +212,47 @@ public void setSource(QMemory source) {
     }
   }
 
+  /** @return true if this adapter is in change journal mode */
+  public boolean isChangeJournalEnabled() {
+    synchronized (lock) {
+      return changeJournalEnabled;
+    }
+  }
+
+  /**
+   * Enable or disable change journal mode. In this mode the source records each path that's set,
+   * cleared or removed, and the next input cycle only updates working memory for those paths rather
+   * than comparing every path in the source with working memory. Repeated changes to a path between
+   * input cycles are only applied once.
+   *
+   * <p>This only has an effect if the source is a {@link DefaultQMemory}. Otherwise every path is
+   * still compared.
+   *
+   * @param enabled true to enable change journal mode
+   */
+  public void setChangeJournalEnabled(boolean enabled) {
+    synchronized (lock) {
+      changeJournalEnabled = enabled;
+      closeJournal();
+      openJournal();
+    }
+  }
+
+  private void openJournal() {
+    if (changeJournalEnabled && source instanceof DefaultQMemory) {
+      journal = ((DefaultQMemory) source).openJournal();
+      journalStale = true;
+    }
+  }
+
+  private void closeJournal() {
+    if (journal != null) {
+      ((DefaultQMemory) source).closeJournal(journal);
+      journal = null;
+      children.clear();
+    }
+  }
+
   /**
    * Retrieve the {@link Symbol} value for the given path, or {@code null} if no value exists for
    * that path.
@@ -313,6 +371,168 @@ private void synchronize() {
     }
   }
 
+  /**
+   * Copy every source node that {@link #synchronizeJournal(Set, Map)} may look at: the changed
+   * paths, their ancestors, and the descendants they have in working memory. The caller must hold
+   * the source's lock, so that a compound update made while synchronized on the source is either
+   * seen whole or not at all.
+   *
+   * @param dirty the paths drained from the journal
+   * @return copies of the nodes by path, with {@code null} for paths that aren't in the source
+   */
+  private Map<String, MemoryNode> copyJournalNodes(Set<String> dirty) {
+    final DefaultQMemory source = (DefaultQMemory) this.source;
+    final Map<String, MemoryNode> nodes = new HashMap<String, MemoryNode>();
+    for (String path : dirty) {
+      nodes.put(path, source.copyNode(path));
+    }
+    for (String path : dirty) {
+      for (String parent = getParentPath(path);
+          !parent.isEmpty() && !nodes.containsKey(parent);
+          parent = getParentPath(parent)) {
+        nodes.put(parent, source.copyNode(parent));
+      }
+      copyDescendantNodes(source, path, nodes);
+    }
+    return nodes;
+  }
+
+  private void copyDescendantNodes(
+      DefaultQMemory source, String path, Map<String, MemoryNode> nodes) {
+    final Set<String> childPaths = children.get(path);
+    if (childPaths != null) {
+      for (String child : childPaths) {
+        if (!nodes.containsKey(child)) {
+          nodes.put(child, source.copyNode(child));
+        }
+        copyDescendantNodes(source, child, nodes);
+      }
+    }
+  }
+
+  /**
+   * Update working memory for just the paths recorded in the journal since the last input cycle.
+   * This must leave working memory the way {@link #synchronize()} would, except that nodes which
+   * {@link #synchronize()} would keep are never recreated.
+   *
+   * <p>This works from the copies made by {@link #copyJournalNodes(Set)}, so the source doesn't
+   * have to be locked while working memory is updated.
+   *
+   * @param dirty the paths drained from the journal
+   * @param nodes the copied source nodes
+   */
+  private void synchronizeJournal(Set<String> dirty, Map<String, MemoryNode> nodes) {
+    if (dirty.isEmpty()) {
+      return;
+    }
+
+    // First remove nodes whose paths are no longer in the source, children before parents. A
+    // removed path may still have children in the source that were set again since, so only the
+    // nodes that are really gone are removed.
+    for (String path : dirty) {
+      if (memory.containsKey(path) && !prune(nodes, path)) {
+        pruneAncestors(nodes, getParentPath(path));
+      }
+    }
+
+    // Then create or update the nodes for paths that were set, parents before children
+    final List<String> dirtyByLength = new ArrayList<String>(dirty);
+    Collections.sort(dirtyByLength, increasingLengthComparator);
+    for (String path : dirtyByLength) {
+      final MemoryNode newNode = nodes.get(path);
+      if (newNode == null) {
+        continue;
+      }
+
+      // Like synchronize(), any ancestors are internal nodes even if they have a value
+      final int ix = path.lastIndexOf('.');
+      if (ix >= 0) {
+        final String[] pathElements = path.substring(0, ix).split("\\.");
+        String tmp = "";
+        for (int i = 0; i < pathElements.length; ++i) {
+          tmp = i == 0 ? pathElements[i] : tmp + "." + pathElements[i];
+          final SoarMemoryNode node = memory.get(tmp);
+          if (node == null || node.isLeaf()) {
+            synchronizeJournalNode(tmp, new MemoryNode());
+          }
+        }
+      }
+      final Set<String> childPaths = children.get(path);
+      synchronizeJournalNode(
+          path, childPaths != null && !childPaths.isEmpty() ? new MemoryNode() : newNode);
+    }
+  }
+
+  private void synchronizeJournalNode(String path, MemoryNode newNode) {
+    SoarMemoryNode node = memory.get(path);
+    if (node == null) {
+      node = new SoarMemoryNode(getNameFromPath(path));
+      memory.put(path, node);
+      children.computeIfAbsent(getParentPath(path), k -> new HashSet<String>()).add(path);
+      final SoarMemoryNode parentNode = memory.get(getParentPath(path));
+      node.setParentNode(parentNode != null ? parentNode : rootNode);
+    }
+    node.synchronizeToMemoryNode(io, newNode);
+  }
+
+  /**
+   * Remove a node and its descendants if their paths are no longer in the source
+   *
+   * @return true if the node is still needed
+   */
+  private boolean prune(Map<String, MemoryNode> nodes, String path) {
+    final Set<String> childPaths = children.get(path);
+    if (childPaths != null) {
+      for (String child : new ArrayList<String>(childPaths)) {
+        prune(nodes, child);
+      }
+      if (!childPaths.isEmpty()) {
+        return true;
+      }
+    }
+    if (nodes.get(path) != null) {
+      return true;
+    }
+    removeJournalNode(path);
+    return false;
+  }
+
+  /**
+   * After a node is removed, remove any ancestors that were only there for it. An ancestor that's
+   * also a path in the source becomes a leaf again.
+   */
+  private void pruneAncestors(Map<String, MemoryNode> nodes, String path) {
+    for (; memory.containsKey(path); path = getParentPath(path)) {
+      final Set<String> childPaths = children.get(path);
+      if (childPaths != null && !childPaths.isEmpty()) {
+        return;
+      }
+      final MemoryNode newNode = nodes.get(path);
+      if (newNode != null) {
+        synchronizeJournalNode(path, newNode);
+        return;
+      }
+      removeJournalNode(path);
+    }
+  }
+
+  private void removeJournalNode(String path) {
+    memory.remove(path).remove(io);
+    children.remove(path);
+    final Set<String> siblings = children.get(getParentPath(path));
+    if (siblings != null) {
+      siblings.remove(path);
+    }
+  }
+
+  /** Rebuild {@link #children} after a full {@link #synchronize()} */
+  private void indexChildren() {
+    children.clear();
+    for (String path : memory.keySet()) {
+      children.computeIfAbsent(getParentPath(path), k -> new HashSet<String>()).add(path);
+    }
+  }
+
   /** */
   private static void removeAllWmes(InputOutput io, Map<String, SoarMemoryNode> memory) {
     for (SoarMemoryNode node : memory.values()) {
@@ -329,9 +549,28 @@ public void onEvent(SoarEvent event) {
     synchronized (lock) // Lock this object
     {
       if (event instanceof InputEvent) {
-        synchronized (source) // Lock the source
-        {
-          synchronize();
+        if (journal != null && !journalStale && !sourceChanged) {
+          final Set<String> dirty;
+          final Map<String, MemoryNode> nodes;
+          synchronized (source) // Lock the source just long enough to copy the changed paths
+          {
+            dirty = journal.drain();
+            nodes = copyJournalNodes(dirty);
+          }
+          synchronizeJournal(dirty, nodes);
+        } else {
+          synchronized (source) // Lock the source
+          {
+            if (journal != null) {
+              // anything changed from here on is applied next time
+              journal.drain();
+            }
+            synchronize();
+          }
+          if (journal != null) {
+            indexChildren();
+            journalStale = false;
+          }
         }
       } else if (event instanceof AfterInitSoarEvent) {
         resetAfterInitSoar();
@@ -351,6 +590,7 @@ private void resetAfterInitSoar() {
     logger.info("Repopulating after init-soar");
 
     memory.clear();
+    children.clear();
     sourceChanged = true;
 
     if (rootId != null) {
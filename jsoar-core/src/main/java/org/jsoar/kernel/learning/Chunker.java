@@ -227,7 +227,9 @@ private void addResultsForId(IdentifierImpl id) {
           preference != null;
           preference = preference.nextOfSlot) add_pref_to_results(preference);
 
-      s.getWmes().forEach(wme -> add_results_if_needed(wme.value));
+      for (WmeImpl wme = s.getFirstWme(); wme != null; wme = wme.next) {
+        add_results_if_needed(wme.value);
+      }
     }
 
     // now scan through extra prefs and look for any with this id
@@ -526,11 +526,11 @@ public void rl_tabulate_reward_value_for_goal(IdentifierImpl goal) {
       var discount_rate = params.discount_rate.get();
 
       if (s != null) {
-        for (WmeImpl w : s.getWmes()) {
+        for (WmeImpl w = s.getFirstWme(); w != null; w = w.next) {
           if (w.value.asIdentifier() != null) {
             final var t = Slot.find_slot(w.value.asIdentifier(), preSyms.rl_sym_value);
             if (t != null) {
-              for (WmeImpl x : t.getWmes()) {
+              for (WmeImpl x = t.getFirstWme(); x != null; x = x.next) {
                 if (x.value.asDouble() != null) {
                   reward += x.value.asDouble().getValue();
                 } else if (x.value.asInteger() != null) {
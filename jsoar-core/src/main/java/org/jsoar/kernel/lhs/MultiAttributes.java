@@ -8,6 +8,7 @@
 import java.util.HashMap;
 import java.util.Map;
 import org.jsoar.kernel.symbols.Symbol;
+import org.jsoar.kernel.symbols.SymbolFactory;
 import org.jsoar.util.Arguments;
 
 /** @author ray */
@@ -34,4 +35,30 @@ public int getCost(Symbol referent, int defValue) {
     Integer cost = costMap.get(referent);
     return cost != null ? cost.intValue() : defValue;
   }
+
+  /**
+   * Copy these costs into a new instance keyed by the equivalent symbols from another symbol
+   * factory. This lets a production built from that factory be reordered with the same costs.
+   *
+   * @param syms the symbol factory the copy's symbols come from
+   * @return a new instance with the same costs
+   */
+  public MultiAttributes copyInto(SymbolFactory syms) {
+    return copyInto(syms, new MultiAttributes());
+  }
+
+  /**
+   * Copy these costs into an existing instance, keyed by the equivalent symbols from another symbol
+   * factory.
+   *
+   * @param syms the symbol factory the copy's symbols come from
+   * @param target the instance to copy into
+   * @return target
+   */
+  public MultiAttributes copyInto(SymbolFactory syms, MultiAttributes target) {
+    for (Map.Entry<Symbol, Integer> e : costMap.entrySet()) {
+      target.costMap.put(syms.importSymbol(e.getKey()), e.getValue());
+    }
+    return target;
+  }
 }
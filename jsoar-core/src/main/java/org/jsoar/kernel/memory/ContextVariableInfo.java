@@ -5,7 +5,6 @@
  */
 package org.jsoar.kernel.memory;
 
-import java.util.List;
 import org.jsoar.kernel.Agent;
 import org.jsoar.kernel.PredefinedSymbols;
 import org.jsoar.kernel.symbols.Identifier;
@@ -83,8 +82,8 @@ public static ContextVariableInfo get(
     if (attribute == predefinedSyms.state_symbol) {
       value = g;
     } else {
-      List<WmeImpl> wmes = g.goalInfo.operator_slot.getWmes();
-      value = wmes.isEmpty() ? null : wmes.get(0).getValue();
+      final WmeImpl w = g.goalInfo.operator_slot.getFirstWme();
+      value = w != null ? w.getValue() : null;
     }
     return new ContextVariableInfo(g, attribute, value);
   }
@@ -67,7 +67,9 @@ private void addToOperatorSlotTransitiveClosure(final IdentifierImpl id, final b
           add_to_os_tc_if_needed(pref.value);
           if (pref.type.isBinary()) add_to_os_tc_if_needed(pref.referent);
         }
-        s.getWmes().forEach(wme -> add_to_os_tc_if_needed(wme.value));
+        for (WmeImpl wme = s.getFirstWme(); wme != null; wme = wme.next) {
+          add_to_os_tc_if_needed(wme.value);
+        }
       }
     } /* end of for slots loop */
     // now scan through RHS prefs and look for any with this id
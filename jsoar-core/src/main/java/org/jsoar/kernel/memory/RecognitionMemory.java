@@ -20,6 +20,7 @@
 import org.jsoar.kernel.PredefinedSymbols;
 import org.jsoar.kernel.Production;
 import org.jsoar.kernel.Production.Support;
+import org.jsoar.kernel.ProductionProfiler;
 import org.jsoar.kernel.ProductionType;
 import org.jsoar.kernel.SavedFiringType;
 import org.jsoar.kernel.SoarConstants;
@@ -89,6 +90,7 @@ public class RecognitionMemory {
   private Consistency consistency;
   private ReinforcementLearning rl;
   private DefaultWorkingMemoryActivation wma;
+  private ProductionProfiler profiler;
 
   /** agent.h:174:firer_highest_rhs_unboundvar_index */
   private int firer_highest_rhs_unboundvar_index;
@@ -126,6 +128,17 @@ public class RecognitionMemory {
    */
   private PreferenceType rhsFunctionPreferenceType;
 
+  /**
+   * Argument lists for RHS function calls, one per level of nesting, reused from firing to firing
+   * rather than allocated for every call. Handlers only see them if they're a {@link
+   * org.jsoar.kernel.rhs.functions.ReusableArgumentsRhsFunctionHandler}. See {@link
+   * #instantiate_rhs_value(RhsValue, int, char, Token, WmeImpl)}
+   */
+  private final List<ArrayList<Symbol>> rhsArgumentBuffers = new ArrayList<>();
+
+  /** Number of RHS function calls currently being instantiated, i.e. buffers in use */
+  private int rhsArgumentDepth = 0;
+
   public RecognitionMemory(Agent context) {
     this.context = context;
   }
@@ -152,6 +165,7 @@ public void initialize() {
     this.consistency = Adaptables.adapt(context, Consistency.class);
     this.rl = Adaptables.adapt(context, ReinforcementLearning.class);
     this.wma = Adaptables.adapt(context, DefaultWorkingMemoryActivation.class);
+    this.profiler = Adaptables.adapt(context, ProductionProfiler.class);
 
     context
         .getProperties()
@@ -336,46 +350,60 @@ public SymbolImpl instantiate_rhs_value(
       throw new IllegalStateException("Unknow RhsValue type: " + rv);
     }
 
-    // build up list of argument values
-    final List<Symbol> arguments = new ArrayList<>(fc.getArguments().size());
-    var nil_arg_found = false;
-    for (RhsValue arg : fc.getArguments()) {
-      SymbolImpl instArg = instantiate_rhs_value(arg, new_id_level, new_id_letter, tok, w);
-      if (instArg == null) {
-        nil_arg_found = true;
-      }
-      arguments.add(instArg);
+    // build up list of argument values, in a buffer for this level of nesting
+    if (rhsArgumentDepth == rhsArgumentBuffers.size()) {
+      rhsArgumentBuffers.add(new ArrayList<>());
     }
+    final ArrayList<Symbol> arguments = rhsArgumentBuffers.get(rhsArgumentDepth++);
+    try {
+      var nil_arg_found = false;
+      for (RhsValue arg : fc.getArguments()) {
+        SymbolImpl instArg = instantiate_rhs_value(arg, new_id_level, new_id_letter, tok, w);
+        if (instArg == null) {
+          nil_arg_found = true;
+        }
+        arguments.add(instArg);
+      }
 
-    // if all args were ok, call the function
-
-    if (!nil_arg_found) {
-      // stop the kernel timer while doing RHS funcalls KJC 11/04
-      // the total_cpu timer needs to be updated in case RHS fun is
-      // statsCmd
-      ExecutionTimers.pause(context.getTotalKernelTimer());
-      ExecutionTimers.update(context.getTotalCpuTimer());
-
-      try {
-        // we provide the RhsFunctionContext so we know this will return SymbolImpl
-        return (SymbolImpl) context.getRhsFunctions().execute(fc.getName().getValue(), arguments);
-      } catch (RhsFunctionException e) {
-        logger.error(
-            "Error executing RHS function '"
-                + fc.getName()
-                + "' with args "
-                + arguments
-                + ": "
-                + e.getMessage(),
-            e);
-        context
-            .getPrinter()
-            .error(
-                "Error executing RHS function '%s' with args %s: %s\n",
-                fc.getName(), arguments, e.getMessage());
-      } finally {
-        ExecutionTimers.start(context.getTotalKernelTimer());
+      // if all args were ok, call the function
+
+      if (!nil_arg_found) {
+        // stop the kernel timer while doing RHS funcalls KJC 11/04
+        // the total_cpu timer needs to be updated in case RHS fun is
+        // statsCmd
+        ExecutionTimers.pause(context.getTotalKernelTimer());
+        ExecutionTimers.update(context.getTotalCpuTimer());
+
+        final boolean profiling = profiler.isEnabled() && production_being_fired != null;
+        final long start = profiling ? System.nanoTime() : 0;
+        try {
+          // we provide the RhsFunctionContext so we know this will return SymbolImpl
+          return (SymbolImpl) context.getRhsFunctions().execute(fc, arguments);
+        } catch (RhsFunctionException e) {
+          logger.error(
+              "Error executing RHS function '"
+                  + fc.getName()
+                  + "' with args "
+                  + arguments
+                  + ": "
+                  + e.getMessage(),
+              e);
+          context
+              .getPrinter()
+              .error(
+                  "Error executing RHS function '%s' with args %s: %s\n",
+                  fc.getName(), arguments, e.getMessage());
+        } finally {
+          if (profiling) {
+            profiler.rhsFunctionCalled(
+                production_being_fired, fc.getName().getValue(), System.nanoTime() - start);
+          }
+          ExecutionTimers.start(context.getTotalKernelTimer());
+        }
       }
+    } finally {
+      arguments.clear();
+      rhsArgumentDepth--;
     }
 
     return null;
@@ -1189,7 +1217,10 @@ public void add_preference_to_tm(Preference pref) {
     tempMemory.mark_slot_as_changed(s);
 
     if (wma.wma_enabled() && !s.isContextSlot()) {
-      var exists = pref.slot.getWmes().stream().anyMatch(wme -> wme.getValue() == pref.value);
+      var exists = false;
+      for (WmeImpl wme = pref.slot.getFirstWme(); wme != null && !exists; wme = wme.next) {
+        exists = wme.getValue() == pref.value;
+      }
 
       // if wme exists, it should already have been updated
       // during assertion of new preferences
@@ -1352,7 +1383,13 @@ public void do_preference_phase(IdentifierImpl top_goal) {
 
         if (shouldCreateInstantiation(assertion.production, assertion.token, assertion.wme)) {
           this.soarReteListener.consume_last_postponed_assertion();
-          create_instantiation(assertion.production, assertion.token, assertion.wme);
+          if (profiler.isEnabled()) {
+            final long start = System.nanoTime();
+            create_instantiation(assertion.production, assertion.token, assertion.wme);
+            profiler.instantiationCreated(assertion.production, System.nanoTime() - start);
+          } else {
+            create_instantiation(assertion.production, assertion.token, assertion.wme);
+          }
         }
       }
 
@@ -5,13 +5,14 @@
  */
 package org.jsoar.kernel.memory;
 
-import com.google.common.collect.Iterators;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import lombok.Getter;
 import lombok.NonNull;
 import org.jsoar.kernel.ImpasseType;
@@ -44,12 +45,15 @@ public class Slot {
   /** Attributes of slot */
   @Getter public final SymbolImpl attr;
 
-  private final List<WmeImpl> wmes = new ArrayList<>(); // dll of wmes in the slot
+  /** header of a doubly-linked list of wmes in the slot, linked with {@link WmeImpl#next} */
+  private WmeImpl wmes; // dll of wmes in the slot
+
+  private int wmeCount;
 
   /*
    * List of all acceptable preference wmes in the slot. (This is only used for context slots.)
    */
-  private final List<WmeImpl> acceptablePreferenceWMEs = new ArrayList<>();
+  private WmeImpl acceptablePreferenceWMEs;
 
   /** header of a doubly-linked list of all preferences currently in the slot */
   private Preference all_preferences; // dll of all pref's in the slot
@@ -142,8 +146,6 @@ public static Slot make_slot(
    *     know that {@code attr} is not "operator". TODO get rid of this param
    */
   private Slot(IdentifierImpl id, SymbolImpl attr, StringSymbolImpl operator_symbol) {
-    id.addSlot(this);
-
     /*
      * Context slots are goals and operators; operator slots get created
      * with a goal (see create_new_context).
@@ -152,6 +154,9 @@ private Slot(IdentifierImpl id, SymbolImpl attr, StringSymbolImpl operator_symbo
 
     this.id = id;
     this.attr = attr;
+
+    // jsoar: add to the id last, it may index the slot by attribute
+    id.addSlot(this);
   }
 
   /**
@@ -166,6 +171,12 @@ private Slot(IdentifierImpl id, SymbolImpl attr, StringSymbolImpl operator_symbo
    */
   public static Slot find_slot(final IdentifierImpl id, final Symbol attr) {
     if (id != null) {
+      // jsoar: identifiers with many slots keep them indexed by attribute
+      final SlotTable table = id.getSlotTable();
+      if (table != null) {
+        return table.find(attr);
+      }
+
       for (Slot s = id.slots; s != null; s = s.next) {
         if (s.getAttr() == attr) {
           return s;
@@ -189,10 +200,33 @@ public Preference getPreferencesByType(PreferenceType type) {
     return preferencesByType.get(type);
   }
 
-  /** @return the head of the list of WMEs in this slot */
+  /**
+   * Returns a copy of the WMEs in this slot, most recently added first. Kernel code should iterate
+   * from {@link #getFirstWme()} instead, which doesn't allocate.
+   *
+   * @return a copy of the list of WMEs in this slot
+   */
   @NonNull
   public List<WmeImpl> getWmes() {
-    return List.copyOf(this.wmes);
+    return copyList(wmes, wmeCount);
+  }
+
+  /**
+   * @return the head of the list of WMEs in this slot, or null if it's empty. Iterate with {@link
+   *     WmeImpl#next}.
+   */
+  public WmeImpl getFirstWme() {
+    return wmes;
+  }
+
+  /** @return true if there are any WMEs in this slot */
+  public boolean hasWmes() {
+    return wmes != null;
+  }
+
+  /** @return the number of WMEs in this slot */
+  public int getWmeCount() {
+    return wmeCount;
   }
 
   /**
@@ -201,43 +235,140 @@ public List<WmeImpl> getWmes() {
    * @param w the WME to add
    */
   public void addWme(WmeImpl w) {
-    wmes.add(0, w);
+    wmes = insertAtHead(wmes, w);
+    wmeCount++;
   }
 
   /**
-   * Remove a WME from the list of WMEs in this slot.
+   * Remove a WME from the list of WMEs in this slot. Does nothing if the WME isn't in the list.
    *
    * @param w the WME to remove
    */
   public void removeWme(WmeImpl w) {
-    wmes.remove(w);
+    if (isLinked(wmes, w)) {
+      wmes = remove(wmes, w);
+      wmeCount--;
+    }
   }
 
   /** Remove all WMEs from this slot */
   public void removeAllWmes() {
-    wmes.clear();
+    wmes = removeAll(wmes);
+    wmeCount = 0;
   }
 
   /**
-   * Returns an iterator over all the WMEs in this slot. Note that this should not be used for
-   * performance critical code.
+   * Returns an iterator over all the WMEs in this slot, acceptable preference WMEs first. The
+   * iterator doesn't copy the slot, but it's safe to remove the WME it last returned.
    *
    * @return An iterator over the wmes in this slot
    */
   public Iterator<Wme> getWmeIterator() {
-    return Iterators.concat(acceptablePreferenceWMEs.iterator(), wmes.iterator());
+    return new WmeIterator(acceptablePreferenceWMEs, wmes);
   }
 
+  /**
+   * Returns a copy of the acceptable preference WMEs in this slot. Kernel code should iterate from
+   * {@link #getFirstAcceptablePreferenceWme()} instead, which doesn't allocate.
+   *
+   * @return a copy of the list of acceptable preference WMEs in this slot
+   */
   public List<WmeImpl> getAcceptablePreferenceWmes() {
-    return List.copyOf(acceptablePreferenceWMEs);
+    return copyList(acceptablePreferenceWMEs, -1);
+  }
+
+  /**
+   * @return the head of the list of acceptable preference WMEs in this slot, or null if there are
+   *     none. Iterate with {@link WmeImpl#next}.
+   */
+  public WmeImpl getFirstAcceptablePreferenceWme() {
+    return acceptablePreferenceWMEs;
   }
 
   public void addAcceptablePreferenceWme(WmeImpl wme) {
-    acceptablePreferenceWMEs.add(0, wme);
+    acceptablePreferenceWMEs = insertAtHead(acceptablePreferenceWMEs, wme);
   }
 
   public void removeAcceptablePreferenceWme(WmeImpl w) {
-    acceptablePreferenceWMEs.remove(w);
+    if (isLinked(acceptablePreferenceWMEs, w)) {
+      acceptablePreferenceWMEs = remove(acceptablePreferenceWMEs, w);
+    }
+  }
+
+  private static List<WmeImpl> copyList(WmeImpl head, int size) {
+    final List<WmeImpl> result = new ArrayList<>(size >= 0 ? size : 4);
+    for (WmeImpl w = head; w != null; w = w.next) {
+      result.add(w);
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  private static boolean isLinked(WmeImpl head, WmeImpl w) {
+    return w.prev != null || head == w;
+  }
+
+  private static WmeImpl insertAtHead(WmeImpl head, WmeImpl w) {
+    assert !isLinked(head, w);
+    w.prev = null;
+    w.next = head;
+    if (head != null) {
+      head.prev = w;
+    }
+    return w;
+  }
+
+  private static WmeImpl remove(WmeImpl head, WmeImpl w) {
+    if (w.next != null) {
+      w.next.prev = w.prev;
+    }
+    if (w.prev != null) {
+      w.prev.next = w.next;
+    } else {
+      head = w.next;
+    }
+    w.next = null;
+    w.prev = null;
+    return head;
+  }
+
+  private static WmeImpl removeAll(WmeImpl head) {
+    for (WmeImpl w = head; w != null; ) {
+      final WmeImpl next = w.next;
+      w.next = null;
+      w.prev = null;
+      w = next;
+    }
+    return null;
+  }
+
+  /** Walks one or two slot lists, reading ahead so the current WME may be removed */
+  private static class WmeIterator implements Iterator<Wme> {
+    private WmeImpl next;
+    private WmeImpl second;
+
+    WmeIterator(WmeImpl first, WmeImpl second) {
+      this.next = first != null ? first : second;
+      this.second = first != null ? second : null;
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Wme next() {
+      final WmeImpl w = next;
+      if (w == null) {
+        throw new NoSuchElementException();
+      }
+      next = w.next;
+      if (next == null) {
+        next = second;
+        second = null;
+      }
+      return w;
+    }
   }
 
   /** @return Head of list of all preferences. Iterate with {@link Preference#nextOfSlot}. */
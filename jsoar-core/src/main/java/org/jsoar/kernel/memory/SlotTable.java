@@ -0,0 +1,130 @@
+package org.jsoar.kernel.memory;
+
+import org.jsoar.kernel.symbols.IdentifierImpl;
+import org.jsoar.kernel.symbols.Symbol;
+import org.jsoar.kernel.symbols.SymbolImpl;
+
+/**
+ * WARNING: This is an internal interface. Don't use it unless you know what you're doing.
+ *
+ * <p>An open-addressed attribute to slot table, used by {@link Slot#find_slot(IdentifierImpl,
+ * Symbol)} for identifiers with so many slots that walking {@link IdentifierImpl#slots} gets
+ * expensive. The identifier builds the table when its slot count reaches {@link #BUILD_THRESHOLD}
+ * and drops it again when the count falls to {@link #DROP_THRESHOLD}, so small identifiers never
+ * pay for it. The slot list is still maintained either way and remains the order slots are visited
+ * in.
+ *
+ * <p>Attributes are compared by identity like {@code find_slot} does, and probed linearly from the
+ * symbol's hash.
+ */
+public class SlotTable {
+  /** Slot count at which an identifier starts using a table */
+  public static final int BUILD_THRESHOLD = 16;
+  /** Slot count at which an identifier goes back to walking its slot list */
+  public static final int DROP_THRESHOLD = 8;
+
+  private Slot[] table;
+  private int size;
+
+  /**
+   * Construct a table holding every slot in a list
+   *
+   * @param slots head of the list of slots, linked with {@link Slot#next}
+   */
+  public SlotTable(Slot slots) {
+    table = new Slot[BUILD_THRESHOLD * 4];
+    for (Slot s = slots; s != null; s = s.next) {
+      add(s);
+    }
+  }
+
+  /** @return the number of slots in the table */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @param attr the attribute
+   * @return the slot with the given attribute, or null if there isn't one
+   */
+  public Slot find(Symbol attr) {
+    if (!(attr instanceof SymbolImpl)) {
+      return null;
+    }
+    final int mask = table.length - 1;
+    for (int i = indexOf((SymbolImpl) attr, mask); ; i = (i + 1) & mask) {
+      final Slot s = table[i];
+      if (s == null || s.attr == attr) {
+        return s;
+      }
+    }
+  }
+
+  /**
+   * Add a slot. There must not already be a slot with the same attribute.
+   *
+   * @param slot the slot
+   */
+  public void add(Slot slot) {
+    if ((size + 1) * 2 > table.length) {
+      resize(table.length * 2);
+    }
+    insert(table, slot);
+    size++;
+  }
+
+  /**
+   * Remove a slot. Does nothing if it isn't in the table.
+   *
+   * @param slot the slot
+   */
+  public void remove(Slot slot) {
+    final int mask = table.length - 1;
+    int i = indexOf(slot.attr, mask);
+    while (table[i] != slot) {
+      if (table[i] == null) {
+        return;
+      }
+      i = (i + 1) & mask;
+    }
+    table[i] = null;
+    size--;
+
+    // shift back any entries in the same run that would no longer be reachable
+    for (int j = (i + 1) & mask; table[j] != null; j = (j + 1) & mask) {
+      final Slot s = table[j];
+      final int home = indexOf(s.attr, mask);
+      // s can fill the hole at i unless its home lies cyclically in (i, j]
+      if (((j - home) & mask) >= ((j - i) & mask)) {
+        table[i] = s;
+        table[j] = null;
+        i = j;
+      }
+    }
+  }
+
+  private void resize(int capacity) {
+    final Slot[] newTable = new Slot[capacity];
+    for (Slot s : table) {
+      if (s != null) {
+        insert(newTable, s);
+      }
+    }
+    table = newTable;
+  }
+
+  private static void insert(Slot[] table, Slot slot) {
+    final int mask = table.length - 1;
+    int i = indexOf(slot.attr, mask);
+    while (table[i] != null) {
+      i = (i + 1) & mask;
+    }
+    table[i] = slot;
+  }
+
+  private static int indexOf(SymbolImpl attr, int mask) {
+    // symbol hashes are small sequential ids, so spread them out
+    final int h = attr.getHash() * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & mask;
+  }
+}
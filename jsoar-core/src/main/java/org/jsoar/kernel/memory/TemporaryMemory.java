@@ -89,7 +89,7 @@ public void remove_garbage_slots(final Adaptable context) {
     while (!slotsForPossibleRemoval.isEmpty()) {
       final var s = slotsForPossibleRemoval.pop();
 
-      if (!s.getWmes().isEmpty() || s.getAllPreferences() != null) {
+      if (s.hasWmes() || s.getAllPreferences() != null) {
         // don't deallocate it if it still has any wmes or preferences
         s.marked_for_possible_removal = false;
         continue;
@@ -21,6 +21,7 @@
 import org.jsoar.kernel.symbols.Symbol;
 import org.jsoar.kernel.symbols.SymbolImpl;
 import org.jsoar.kernel.wma.WorkingMemoryActivation;
+import org.jsoar.kernel.wma.wma_decay_element;
 import org.jsoar.util.adaptables.AbstractAdaptable;
 
 /**
@@ -98,6 +99,8 @@ public class WmeImpl extends AbstractAdaptable implements Wme {
 
   private InputWme outerInputWme;
 
+  public WmeImpl rete_next, rete_prev; // dll of all wmes in the rete
+  public WmeImpl next, prev; // dll of wmes in a slot, see Slot#getFirstWme()
   private RightMemory right_mems; // used for dll of rm's it's in
   public Token tokens = null; // dll of tokens in rete
 
@@ -117,6 +120,8 @@ public class WmeImpl extends AbstractAdaptable implements Wme {
   public WmeImpl gds_prev; // part of dll of wmes in gds
 
   public WorkingMemoryActivation wma;
+  public wma_decay_element wma_decay_el; // decay info, null if the wme isn't activated
+  WmeIndex.Entry index_entry; // see WmeIndex, null if the index is disabled
 
   public WmeImpl(
       IdentifierImpl id, SymbolImpl attr, SymbolImpl value, boolean acceptable, int timetag) {
@@ -0,0 +1,312 @@
+package org.jsoar.kernel.memory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jsoar.kernel.SoarProperties;
+import org.jsoar.kernel.rete.Rete;
+import org.jsoar.kernel.symbols.Symbol;
+import org.jsoar.kernel.symbols.SymbolFactory;
+
+/**
+ * A secondary index over the WMEs in the rete, by id, by attribute and by value. It's maintained
+ * incrementally by {@link Rete#add_wme_to_rete(WmeImpl)} and {@link
+ * Rete#remove_wme_from_rete(WmeImpl)} when {@link SoarProperties#WME_INDEX} is enabled, so queries
+ * only visit the WMEs sharing the most selective symbol of a pattern instead of all of working
+ * memory.
+ *
+ * <p>Each symbol's WMEs are kept in the order they were added to the rete, so queries return WMEs
+ * in the same order as a scan of {@link Rete#getAllWmes()} would.
+ *
+ * <p><em>This class should only be used from the agent thread</em>
+ *
+ * @see Wmes#search(org.jsoar.kernel.Agent, String, String, String)
+ * @see Wmes.MatcherBuilder#filter(org.jsoar.kernel.Agent)
+ */
+public class WmeIndex {
+  private static final int ID = 0;
+  private static final int ATTR = 1;
+  private static final int VALUE = 2;
+
+  /** A WME's links in the three lists it's in, see {@link WmeImpl#index_entry} */
+  static final class Entry {
+    private final WmeImpl wme;
+    private final long sequence;
+    private final Entry[] next = new Entry[3];
+    private final Entry[] prev = new Entry[3];
+
+    private Entry(WmeImpl wme, long sequence) {
+      this.wme = wme;
+      this.sequence = sequence;
+    }
+  }
+
+  /** The WMEs sharing a symbol in one position */
+  private static final class Bucket {
+    private Entry first;
+    private Entry last;
+    private int size;
+  }
+
+  @SuppressWarnings("unchecked")
+  private final Map<Symbol, Bucket>[] buckets =
+      new Map[] {new HashMap<>(), new HashMap<>(), new HashMap<>()};
+
+  private long nextSequence;
+  private int size;
+  private int javaSymbolWmes;
+
+  /**
+   * Construct an index containing the given WMEs
+   *
+   * @param wmes the WMEs currently in the rete, in rete order
+   */
+  public WmeIndex(Iterable<WmeImpl> wmes) {
+    for (WmeImpl w : wmes) {
+      add(w);
+    }
+  }
+
+  /** @return the number of WMEs in the index */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Add a WME to the index. Called when the WME is added to the rete.
+   *
+   * @param w the WME
+   */
+  public void add(WmeImpl w) {
+    final Entry e = new Entry(w, nextSequence++);
+    w.index_entry = e;
+    link(e, ID, w.id);
+    link(e, ATTR, w.attr);
+    link(e, VALUE, w.value);
+    size++;
+    if (w.attr.asJava() != null || w.value.asJava() != null) {
+      javaSymbolWmes++;
+    }
+  }
+
+  /**
+   * Remove a WME from the index. Called when the WME is removed from the rete. Does nothing if the
+   * WME isn't in the index.
+   *
+   * @param w the WME
+   */
+  public void remove(WmeImpl w) {
+    final Entry e = w.index_entry;
+    if (e == null) {
+      return;
+    }
+    unlink(e, ID, w.id);
+    unlink(e, ATTR, w.attr);
+    unlink(e, VALUE, w.value);
+    w.index_entry = null;
+    size--;
+    if (w.attr.asJava() != null || w.value.asJava() != null) {
+      javaSymbolWmes--;
+    }
+  }
+
+  /**
+   * Detach the index from its WMEs. Called when the index is disabled.
+   *
+   * @param wmes the WMEs currently in the rete
+   */
+  public void clear(Iterable<WmeImpl> wmes) {
+    for (WmeImpl w : wmes) {
+      w.index_entry = null;
+    }
+    for (Map<Symbol, Bucket> map : buckets) {
+      map.clear();
+    }
+    size = 0;
+    javaSymbolWmes = 0;
+  }
+
+  /**
+   * Find all WMEs matching a pattern. Only the WMEs sharing the least common of the given symbols
+   * are visited.
+   *
+   * @param id the desired id, or {@code null} for any id
+   * @param attr the desired attribute, or {@code null} for any attribute
+   * @param value the desired value, or {@code null} for any value
+   * @return the matching WMEs in rete order
+   */
+  public List<Wme> query(Symbol id, Symbol attr, Symbol value) {
+    final List<Wme> result = new ArrayList<>();
+    if (id == null && attr == null && value == null) {
+      // no index to use. Rete order is sequence order across all buckets.
+      for (Bucket b : buckets[ID].values()) {
+        for (Entry e = b.first; e != null; e = e.next[ID]) {
+          result.add(e.wme);
+        }
+      }
+      result.sort(Comparator.comparingLong(w -> ((WmeImpl) w).index_entry.sequence));
+      return result;
+    }
+
+    int position = -1;
+    Bucket smallest = null;
+    final Symbol[] pattern = {id, attr, value};
+    for (int i = 0; i < pattern.length; ++i) {
+      if (pattern[i] != null) {
+        final Bucket b = buckets[i].get(pattern[i]);
+        if (b == null) {
+          return result;
+        }
+        if (smallest == null || b.size < smallest.size) {
+          smallest = b;
+          position = i;
+        }
+      }
+    }
+    for (Entry e = smallest.first; e != null; e = e.next[position]) {
+      final WmeImpl w = e.wme;
+      if ((id == null || id == w.id)
+          && (attr == null || attr == w.attr)
+          && (value == null || value == w.value)) {
+        result.add(w);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Find the WMEs that could match a set of glob expressions as used by {@link
+   * Wmes#search(java.util.Iterator, String, String, String)}. Globs without wildcards are resolved
+   * to the symbols whose string form they could be, and the WMEs with any of those symbols are
+   * returned. The caller must still apply the globs to the result.
+   *
+   * @param syms the agent's symbol factory
+   * @param id glob expression, or {@code null} for any id
+   * @param attr glob expression, or {@code null} for any attr
+   * @param value glob expression, or {@code null} for any value
+   * @return candidate WMEs in rete order, or {@code null} if none of the globs can use the index
+   */
+  public List<WmeImpl> candidates(SymbolFactory syms, String id, String attr, String value) {
+    List<Bucket> best = null;
+    int bestPosition = -1;
+    int bestSize = Integer.MAX_VALUE;
+    final String[] globs = {id, attr, value};
+    for (int i = 0; i < globs.length; ++i) {
+      if (!isLiteral(globs[i]) || (i != ID && javaSymbolWmes > 0)) {
+        // a Java symbol's string form could be anything, so only a scan finds them all
+        continue;
+      }
+      final List<Bucket> found = new ArrayList<>();
+      int total = 0;
+      for (Symbol s : symbolsNamed(syms, i == ID ? globs[i].toUpperCase() : globs[i], i == ID)) {
+        final Bucket b = buckets[i].get(s);
+        if (b != null) {
+          found.add(b);
+          total += b.size;
+        }
+      }
+      if (total < bestSize) {
+        best = found;
+        bestPosition = i;
+        bestSize = total;
+      }
+    }
+    if (best == null) {
+      return null;
+    }
+
+    final List<WmeImpl> result = new ArrayList<>(bestSize);
+    for (Bucket b : best) {
+      for (Entry e = b.first; e != null; e = e.next[bestPosition]) {
+        result.add(e.wme);
+      }
+    }
+    if (best.size() > 1) {
+      result.sort(Comparator.comparingLong(w -> w.index_entry.sequence));
+    }
+    return result;
+  }
+
+  private static boolean isLiteral(String glob) {
+    if (glob == null) {
+      return false;
+    }
+    for (int i = 0; i < glob.length(); ++i) {
+      // '.' and '\' are escaped by StringTools.createRegexFromGlob, everything else is passed to
+      // the regex as is
+      if ("*?[](){}+|^$".indexOf(glob.charAt(i)) >= 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return every existing symbol whose {@code toString()} could be {@code name}, ignoring Java
+   *     symbols
+   */
+  private static List<Symbol> symbolsNamed(SymbolFactory syms, String name, boolean idsOnly) {
+    final List<Symbol> result = new ArrayList<>(3);
+    final String idName = name.startsWith("@") ? name.substring(1) : name;
+    if (idName.length() > 1 && Character.isLetter(idName.charAt(0))) {
+      try {
+        addIfNotNull(
+            result, syms.findIdentifier(idName.charAt(0), Long.parseLong(idName.substring(1))));
+      } catch (NumberFormatException e) {
+        // not an identifier
+      }
+    }
+    if (idsOnly) {
+      return result;
+    }
+    addIfNotNull(result, syms.findString(name));
+    try {
+      addIfNotNull(result, syms.findInteger(Long.parseLong(name)));
+    } catch (NumberFormatException e) {
+      // not an integer
+    }
+    try {
+      addIfNotNull(result, syms.findDouble(Double.parseDouble(name)));
+    } catch (NumberFormatException e) {
+      // not a double
+    }
+    return result;
+  }
+
+  private static void addIfNotNull(List<Symbol> list, Symbol s) {
+    if (s != null) {
+      list.add(s);
+    }
+  }
+
+  private void link(Entry e, int position, Symbol key) {
+    final Bucket b = buckets[position].computeIfAbsent(key, k -> new Bucket());
+    e.prev[position] = b.last;
+    if (b.last != null) {
+      b.last.next[position] = e;
+    } else {
+      b.first = e;
+    }
+    b.last = e;
+    b.size++;
+  }
+
+  private void unlink(Entry e, int position, Symbol key) {
+    final Bucket b = buckets[position].get(key);
+    if (e.prev[position] != null) {
+      e.prev[position].next[position] = e.next[position];
+    } else {
+      b.first = e.next[position];
+    }
+    if (e.next[position] != null) {
+      e.next[position].prev[position] = e.prev[position];
+    } else {
+      b.last = e.prev[position];
+    }
+    if (--b.size == 0) {
+      buckets[position].remove(key);
+    }
+  }
+}
@@ -15,11 +15,13 @@
 import java.util.regex.Pattern;
 import lombok.NonNull;
 import org.jsoar.kernel.Agent;
+import org.jsoar.kernel.rete.Rete;
 import org.jsoar.kernel.symbols.Identifier;
 import org.jsoar.kernel.symbols.Symbol;
 import org.jsoar.kernel.symbols.SymbolFactory;
 import org.jsoar.kernel.symbols.Symbols;
 import org.jsoar.util.StringTools;
+import org.jsoar.util.adaptables.Adaptables;
 
 /**
  * {@link Wme} utility routines
@@ -109,6 +111,10 @@ public static Symbol createLinkedList(
    * @return iterator over wmes matching all three globs
    */
   public static Iterator<Wme> search(Iterator<Wme> wmes, String id, String attr, String value) {
+    return Iterators.filter(wmes, createSearchPredicate(id, attr, value));
+  }
+
+  private static Predicate<Wme> createSearchPredicate(String id, String attr, String value) {
     final Pattern idPattern = Pattern.compile(StringTools.createRegexFromGlob(id).toUpperCase());
     final Pattern attrPattern = Pattern.compile(StringTools.createRegexFromGlob(attr));
     final Pattern valuePattern = Pattern.compile(StringTools.createRegexFromGlob(value));
@@ -123,13 +129,16 @@ public boolean apply(Wme w) {
                 && valuePattern.matcher(w.getValue().toString()).matches();
           }
         };
-    return Iterators.filter(wmes, predicate);
+    return predicate;
   }
 
   /**
    * Convenience version of {@link Wmes#search(Iterator, String, String, String)} which searches all
    * WMEs in working memory and returns a list.
    *
+   * <p>If {@link org.jsoar.kernel.SoarProperties#WME_INDEX} is enabled and any of the globs has no
+   * wildcards, only the WMEs with a matching symbol in that position are searched.
+   *
    * @param agent the agent
    * @param id glob expression, or {@code null} for any id
    * @param attr glob expression, or {@code null} for any attr
@@ -137,7 +146,14 @@ public boolean apply(Wme w) {
    * @return List of matching WMEs
    */
   public static List<Wme> search(Agent agent, String id, String attr, String value) {
-    return Lists.newArrayList(search(agent.getAllWmesInRete().iterator(), id, attr, value));
+    final WmeIndex index = Adaptables.adapt(agent, Rete.class).getWmeIndex();
+    final List<WmeImpl> candidates =
+        index != null ? index.candidates(agent.getSymbols(), id, attr, value) : null;
+    if (candidates == null) {
+      return Lists.newArrayList(search(agent.getAllWmesInRete().iterator(), id, attr, value));
+    }
+    return Lists.newArrayList(
+        Iterators.filter(candidates.iterator(), createSearchPredicate(id, attr, value)));
   }
 
   /**
@@ -386,6 +402,45 @@ public List<Wme> filter(Collection<Wme> wmes) {
       return filter(wmes.iterator());
     }
 
+    /**
+     * Find a WME anywhere in working memory
+     *
+     * @param agent the agent
+     * @return the WME, or <code>null</code> if not found
+     * @see #filter(Agent)
+     */
+    public Wme find(Agent agent) {
+      final List<Wme> result = filter(agent);
+      return result.isEmpty() ? null : result.get(0);
+    }
+
+    /**
+     * Find all WMEs in working memory that match. If {@link
+     * org.jsoar.kernel.SoarProperties#WME_INDEX} is enabled and an id, attribute or value is given,
+     * only the WMEs sharing the least common of them are visited. Otherwise all of working memory
+     * is scanned.
+     *
+     * <p><em>This method should only be called from the agent thread</em>
+     *
+     * @param agent the agent
+     * @return the matching WMEs, in the order they were added to working memory
+     */
+    public List<Wme> filter(Agent agent) {
+      final WmeIndex index = Adaptables.adapt(agent, Rete.class).getWmeIndex();
+      if (index == null || (id == null && attr == null && value == null)) {
+        return filter(agent.getAllWmesInRete());
+      }
+      final List<Wme> result =
+          index.query(
+              id,
+              attr != null ? Symbols.create(syms, attr) : null,
+              value != null ? Symbols.create(syms, value) : null);
+      if (timetag >= 0) {
+        result.removeIf(w -> w.getTimetag() != timetag);
+      }
+      return result;
+    }
+
     /** @return a predicate for the current state of this builder */
     public Predicate<Wme> createPredicate() {
       return newMatcher(syms, id, attr, value, timetag);
@@ -184,6 +184,19 @@ public void remove_wme_list_from_wm(List<WmeImpl> WMEs, boolean updateWmeMap /*=
     }
   }
 
+  /**
+   * Remove every wme in a slot's list of wmes from working memory. The list itself is left alone.
+   *
+   * <p>wmem.cpp:169:remove_wme_list_from_wm
+   *
+   * @param w the head of the list, see {@link Slot#getFirstWme()}
+   */
+  public void remove_wme_list_from_wm(WmeImpl w) {
+    for (; w != null; w = w.next) {
+      remove_wme_from_wm(w);
+    }
+  }
+
   /** wmem.cpp:186:do_buffered_wm_changes */
   public void do_buffered_wm_changes(InputOutputImpl io) {
     // #ifndef NO_TIMING_STUFF
@@ -200,7 +213,9 @@ public void do_buffered_wm_changes(InputOutputImpl io) {
     // call output module in case any changes are output link changes
     io.inform_output_module_of_wm_changes(wmes_to_add, wmes_to_remove);
 
-    eventManager.fireEvent(new WorkingMemoryChangedEvent(wmes_to_add, wmes_to_remove));
+    if (eventManager.hasListeners(WorkingMemoryChangedEvent.class)) {
+      eventManager.fireEvent(new WorkingMemoryChangedEvent(wmes_to_add, wmes_to_remove));
+    }
 
     // stuff wme changes through the rete net
     // #ifndef NO_TIMING_STUFF
@@ -257,6 +272,8 @@ public void do_buffered_wm_changes(InputOutputImpl io) {
 
     wmes_to_add.clear();
     wmes_to_remove.clear();
+
+    symbols.releaseUnreferencedSymbols();
   }
 
   public long getWmeRemovalCount() {
@@ -15,6 +15,20 @@ public class WorkingMemoryPatternReader {
 
   public static Predicate<Wme> getPredicate(Agent context, String pattern)
       throws IllegalArgumentException {
+    return getMatcher(context, pattern).createPredicate();
+  }
+
+  /**
+   * Parse an id/attribute/value pattern like {@code (* ^name *)} into a matcher, so that {@link
+   * Wmes.MatcherBuilder#filter(Agent)} can use the WME index when it's enabled.
+   *
+   * @param context the agent
+   * @param pattern the pattern, without the enclosing parentheses
+   * @return a matcher for the pattern
+   * @throws IllegalArgumentException if the pattern can't be parsed
+   */
+  public static Wmes.MatcherBuilder getMatcher(Agent context, String pattern)
+      throws IllegalArgumentException {
     final Printer printer = context.getPrinter();
     final StringReader reader = new StringReader(pattern);
     final SymbolFactory syms = context.getSymbols();
@@ -66,7 +80,7 @@ public static Predicate<Wme> getPredicate(Agent context, String pattern)
 
     // TODO: acceptable test
 
-    return Wmes.newMatcher(syms, id, attr, value, -1);
+    return Wmes.matcher(syms).id(id).attr(attr).value(value);
   }
 
   private static Object getPatternValue(SymbolFactory syms, Lexeme l)
@@ -39,10 +39,7 @@ public void print(@NonNull Agent agent, @NonNull Printer printer, Symbol idIn, S
         pattern = pattern.substring(1, pattern.length() - 1);
       }
 
-      List<Wme> wmes =
-          Wmes.filter(
-              agent.getAllWmesInRete().iterator(),
-              WorkingMemoryPatternReader.getPredicate(agent, pattern));
+      List<Wme> wmes = WorkingMemoryPatternReader.getMatcher(agent, pattern).filter(agent);
       if (internal) {
         for (Wme w : wmes) {
           if (exact) {
@@ -203,11 +200,11 @@ private void mark_depths_augs_of_id(SymbolImpl idIn, int depth, Marker tc) {
       }
     }
     for (Slot s = id.slots; s != null; s = s.next) {
-      for (WmeImpl w : s.getWmes()) {
+      for (WmeImpl w = s.getFirstWme(); w != null; w = w.next) {
         mark_depths_augs_of_id(w.attr, depth - 1, tc);
         mark_depths_augs_of_id(w.value, depth - 1, tc);
       }
-      for (WmeImpl w : s.getAcceptablePreferenceWmes()) {
+      for (WmeImpl w = s.getFirstAcceptablePreferenceWme(); w != null; w = w.next) {
         mark_depths_augs_of_id(w.attr, depth - 1, tc);
         mark_depths_augs_of_id(w.value, depth - 1, tc);
       }
@@ -7,12 +7,16 @@
 
 import java.io.IOException;
 import java.io.Reader;
+import java.util.Arrays;
 import org.jsoar.kernel.parser.PossibleSymbolTypes;
 import org.jsoar.kernel.tracing.Printer;
 
 /**
  * lexer.cpp
  *
+ * <p>Unlike the kernel, the whole input is read into a buffer up front. Lexemes are scanned in
+ * place and only copied out into a string once they are complete.
+ *
  * <p>The following fields or methods were removed because they were unnecessary or unused:
  *
  * <ul>
@@ -31,9 +35,28 @@ public class Lexer {
 
   private static final char EOF_AS_CHAR = 0xffff;
 
+  private static final String EOF_AS_STRING = String.valueOf(EOF_AS_CHAR);
+
+  /** Shared strings for single character lexemes, i.e. most punctuation */
+  private static final String[] single_char_strings = new String[128];
+
+  static {
+    for (int i = 0; i < single_char_strings.length; i++) {
+      single_char_strings[i] = String.valueOf((char) i);
+    }
+  }
+
   private final Printer printer;
 
-  private Reader input;
+  private final char[] input;
+
+  private final int input_length;
+
+  private int current_index = -1; // The index of current_char in input.
+
+  private int start_of_lexeme = 0; // The index of the first character of the current lexeme.
+
+  private final StringBuilder quoted = new StringBuilder(); // Contents of |...| and "...".
 
   private char current_char; // The last lexeme read from the input string (set by get_lexeme()).
 
@@ -67,7 +90,7 @@ public void lex(Lexer lexer) throws IOException {
   private LexerRoutine lex_eof =
       new LexerRoutine() {
         public void lex(Lexer lexer) throws IOException {
-          lexer.store_and_advance();
+          lexer.lexeme.string = EOF_AS_STRING;
           lexer.setLexemeType(LexemeType.EOF);
         }
       };
@@ -78,10 +101,10 @@ public void lex(Lexer lexer) throws IOException {
           // Lexeme might be "=", or symbol
           // Note: this routine relies on = being a constituent character
           lexer.read_constituent_string();
-          if (lexer.lexeme.length() == 1) {
+          if (lexer.lexeme_length() == 1) {
             lexer.lexeme.type = LexemeType.EQUAL;
           } else {
-            lexer.determine_type_of_constituent_string();
+            lexer.determine_type_of_lexeme();
           }
         }
       };
@@ -110,21 +133,21 @@ public void lex(Lexer lexer) throws IOException {
           // Lexeme might be ">", ">=", ">>", or symbol
           // Note: this routine relies on =,> being constituent characters
           lexer.read_constituent_string();
-          if (lexer.lexeme.length() == 1) {
+          if (lexer.lexeme_length() == 1) {
             lexer.lexeme.type = LexemeType.GREATER;
             return;
           }
-          if (lexer.lexeme.length() == 2) {
-            if (lexer.lexeme.at(1) == '>') {
+          if (lexer.lexeme_length() == 2) {
+            if (lexer.lexeme_at(1) == '>') {
               lexer.lexeme.type = LexemeType.GREATER_GREATER;
               return;
             }
-            if (lexer.lexeme.at(1) == '=') {
+            if (lexer.lexeme_at(1) == '=') {
               lexer.lexeme.type = LexemeType.GREATER_EQUAL;
               return;
             }
           }
-          lexer.determine_type_of_constituent_string();
+          lexer.determine_type_of_lexeme();
         }
       };
 
@@ -134,31 +157,31 @@ public void lex(Lexer lexer) throws IOException {
           // Lexeme might be "<", "<=", "<=>", "<>", "<<", or variable
           // Note: this routine relies on =,<,> being constituent characters
           lexer.read_constituent_string();
-          if (lexer.lexeme.length() == 1) {
+          if (lexer.lexeme_length() == 1) {
             lexer.lexeme.type = LexemeType.LESS;
             return;
           }
-          if (lexer.lexeme.length() == 2) {
-            if (lexer.lexeme.at(1) == '>') {
+          if (lexer.lexeme_length() == 2) {
+            if (lexer.lexeme_at(1) == '>') {
               lexer.lexeme.type = LexemeType.NOT_EQUAL;
               return;
             }
-            if (lexer.lexeme.at(1) == '=') {
+            if (lexer.lexeme_at(1) == '=') {
               lexer.lexeme.type = LexemeType.LESS_EQUAL;
               return;
             }
-            if (lexer.lexeme.at(1) == '<') {
+            if (lexer.lexeme_at(1) == '<') {
               lexer.lexeme.type = LexemeType.LESS_LESS;
               return;
             }
           }
-          if (lexer.lexeme.length() == 3) {
-            if (lexer.lexeme.at(1) == '=' && lexer.lexeme.at(2) == '>') {
+          if (lexer.lexeme_length() == 3) {
+            if (lexer.lexeme_at(1) == '=' && lexer.lexeme_at(2) == '>') {
               lexer.lexeme.type = LexemeType.LESS_EQUAL_GREATER;
               return;
             }
           }
-          lexer.determine_type_of_constituent_string();
+          lexer.determine_type_of_lexeme();
         }
       };
 
@@ -178,21 +201,21 @@ public void lex(Lexer lexer) throws IOException {
         public void lex(Lexer lexer) throws IOException {
           // Disambiguate floating point numbers from WME names:
           boolean float_disallowed =
-              !Character.isWhitespace(lexer.prev_char)
+              !isWhitespace(lexer.prev_char)
                   && (lexer.lexeme.type == LexemeType.SYM_CONSTANT
                       || lexer.lexeme.type == LexemeType.VARIABLE);
 
           lexer.store_and_advance();
 
-          if (!float_disallowed && Character.isDigit(lexer.current_char)) {
+          if (!float_disallowed && isDigit(lexer.current_char)) {
             lexer.read_rest_of_floating_point_number();
           }
-          if (lexer.lexeme.length() == 1) {
+          if (lexer.lexeme_length() == 1) {
             lexer.lexeme.type = LexemeType.PERIOD;
             return;
           }
 
-          lexer.determine_type_of_constituent_string();
+          lexer.determine_type_of_lexeme();
         }
       };
 
@@ -207,8 +230,8 @@ public void lex(Lexer lexer) throws IOException {
           // be careful to check for this case
           if (lexer.current_char == '.') {
             boolean could_be_floating_point = true;
-            for (int i = 1; i < lexer.lexeme.length(); i++) {
-              if (!Character.isDigit(lexer.lexeme.at(i))) {
+            for (int i = 1; i < lexer.lexeme_length(); i++) {
+              if (!isDigit(lexer.lexeme_at(i))) {
                 could_be_floating_point = false;
               }
             }
@@ -216,11 +239,11 @@ public void lex(Lexer lexer) throws IOException {
               lexer.read_rest_of_floating_point_number();
             }
           }
-          if (lexer.lexeme.length() == 1) {
+          if (lexer.lexeme_length() == 1) {
             lexer.lexeme.type = LexemeType.PLUS;
             return;
           }
-          lexer.determine_type_of_constituent_string();
+          lexer.determine_type_of_lexeme();
         }
       };
 
@@ -236,8 +259,8 @@ public void lex(Lexer lexer) throws IOException {
           // be careful to check for this case
           if (lexer.current_char == '.') {
             could_be_floating_point = true;
-            for (int i = 1; i < lexer.lexeme.length(); i++) {
-              if (!Character.isDigit(lexer.lexeme.at(i))) {
+            for (int i = 1; i < lexer.lexeme_length(); i++) {
+              if (!isDigit(lexer.lexeme_at(i))) {
                 could_be_floating_point = false;
               }
             }
@@ -245,17 +268,17 @@ public void lex(Lexer lexer) throws IOException {
               lexer.read_rest_of_floating_point_number();
             }
           }
-          if (lexer.lexeme.length() == 1) {
+          if (lexer.lexeme_length() == 1) {
             lexer.lexeme.type = LexemeType.MINUS;
             return;
           }
-          if (lexer.lexeme.length() == 3) {
-            if ((lexer.lexeme.at(1) == '-') && (lexer.lexeme.at(2) == '>')) {
+          if (lexer.lexeme_length() == 3) {
+            if ((lexer.lexeme_at(1) == '-') && (lexer.lexeme_at(2) == '>')) {
               lexer.lexeme.type = LexemeType.RIGHT_ARROW;
               return;
             }
           }
-          lexer.determine_type_of_constituent_string();
+          lexer.determine_type_of_lexeme();
         }
       };
 
@@ -269,8 +292,8 @@ public void lex(Lexer lexer) throws IOException {
           // be careful to check for this case
           if (lexer.current_char == '.') {
             could_be_floating_point = true;
-            for (int i = 1; i < lexer.lexeme.length(); i++) {
-              if (!Character.isDigit(lexer.lexeme.at(i))) {
+            for (int i = 1; i < lexer.lexeme_length(); i++) {
+              if (!isDigit(lexer.lexeme_at(i))) {
                 could_be_floating_point = false;
               }
             }
@@ -278,7 +301,7 @@ public void lex(Lexer lexer) throws IOException {
               lexer.read_rest_of_floating_point_number();
             }
           }
-          lexer.determine_type_of_constituent_string();
+          lexer.determine_type_of_lexeme();
         }
       };
 
@@ -286,7 +309,7 @@ public void lex(Lexer lexer) throws IOException {
       new LexerRoutine() {
         public void lex(Lexer lexer) throws IOException {
           lexer.read_constituent_string();
-          lexer.determine_type_of_constituent_string();
+          lexer.determine_type_of_lexeme();
         }
       };
 
@@ -294,26 +317,11 @@ public void lex(Lexer lexer) throws IOException {
       new LexerRoutine() {
         public void lex(Lexer lexer) throws IOException {
           lexer.lexeme.type = LexemeType.SYM_CONSTANT;
-          lexer.get_next_char();
-          do {
-            if ((lexer.current_char == EOF_AS_CHAR)) {
-              lexer.printer.print("Error: opening '|' without closing '|'\n");
-              lexer.print_location_of_most_recent_lexeme();
-              lexer.lexeme.type = LexemeType.EOF;
-              return;
-            }
-            if (lexer.current_char == '\\') {
-              lexer.get_next_char();
-              lexer.lexeme.string += lexer.current_char;
-              lexer.get_next_char();
-            } else if (lexer.current_char == '|') {
-              lexer.get_next_char();
-              break;
-            } else {
-              lexer.lexeme.string += lexer.current_char;
-              lexer.get_next_char();
-            }
-          } while (true);
+          if (!lexer.read_quoted_string('|')) {
+            lexer.printer.print("Error: opening '|' without closing '|'\n");
+            lexer.print_location_of_most_recent_lexeme();
+            lexer.lexeme.type = LexemeType.EOF;
+          }
         }
       };
 
@@ -321,27 +329,11 @@ public void lex(Lexer lexer) throws IOException {
       new LexerRoutine() {
         public void lex(Lexer lexer) throws IOException {
           lexer.lexeme.type = LexemeType.QUOTED_STRING;
-          lexer.get_next_char();
-          do {
-            if ((lexer.current_char == EOF_AS_CHAR)) {
-
-              lexer.printer.print("Error: opening '\"' without closing '\"'\n");
-              lexer.print_location_of_most_recent_lexeme();
-              lexer.lexeme.type = LexemeType.EOF;
-              return;
-            }
-            if (lexer.current_char == '\\') {
-              lexer.get_next_char();
-              lexer.lexeme.string += lexer.current_char;
-              lexer.get_next_char();
-            } else if (lexer.current_char == '"') {
-              lexer.get_next_char();
-              break;
-            } else {
-              lexer.lexeme.string += lexer.current_char;
-              lexer.get_next_char();
-            }
-          } while (true);
+          if (!lexer.read_quoted_string('"')) {
+            lexer.printer.print("Error: opening '\"' without closing '\"'\n");
+            lexer.print_location_of_most_recent_lexeme();
+            lexer.lexeme.type = LexemeType.EOF;
+          }
         }
       };
 
@@ -365,6 +357,24 @@ private static boolean isConstituentChar(char c) {
     return c < constituent_char.length && constituent_char[c];
   }
 
+  private static final boolean digit_char[] = new boolean[256];
+  private static final boolean whitespace_char[] = new boolean[256];
+
+  static {
+    for (int i = 0; i < 256; i++) {
+      digit_char[i] = Character.isDigit((char) i);
+      whitespace_char[i] = Character.isWhitespace((char) i);
+    }
+  }
+
+  private static boolean isDigit(char c) {
+    return c < digit_char.length ? digit_char[c] : Character.isDigit(c);
+  }
+
+  private static boolean isWhitespace(int c) {
+    return c >= 0 && c < whitespace_char.length ? whitespace_char[c] : Character.isWhitespace(c);
+  }
+
   static final boolean number_starters[] = new boolean[256];
 
   static {
@@ -385,9 +395,41 @@ private static boolean isConstituentChar(char c) {
     }
   }
 
+  /**
+   * Construct a lexer over everything that can be read from the given reader. The reader is read to
+   * the end here, but is not closed.
+   *
+   * @param printer printer for errors and warnings
+   * @param reader the input
+   * @throws IOException if there is an error reading the input
+   */
   public Lexer(Printer printer, Reader reader) throws IOException {
     this.printer = printer;
-    this.input = reader;
+    char[] buffer = new char[4096];
+    int length = 0;
+    int read;
+    while ((read = reader.read(buffer, length, buffer.length - length)) >= 0) {
+      length += read;
+      if (length == buffer.length) {
+        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+      }
+    }
+    this.input = buffer;
+    this.input_length = length;
+    init_lexer();
+    get_next_char();
+  }
+
+  /**
+   * Construct a lexer over a string
+   *
+   * @param printer printer for errors and warnings
+   * @param input the input
+   */
+  public Lexer(Printer printer, String input) {
+    this.printer = printer;
+    this.input = input.toCharArray();
+    this.input_length = this.input.length;
     init_lexer();
     get_next_char();
   }
@@ -410,45 +452,100 @@ public boolean isEof() {
    * value of current_char is stored in prev_char.
    *
    * <p>lexer.cpp::get_next_char
-   *
-   * @throws IOException
    */
-  private void get_next_char() throws IOException {
+  private void get_next_char() {
     if (current_char == EOF_AS_CHAR) {
       prev_char = EOF_AS_CHAR;
       return;
     }
 
     prev_char = current_char;
-    int next_char = input.read();
-    current_char = next_char >= 0 ? (char) next_char : EOF_AS_CHAR;
+    if (current_index < input_length) {
+      current_index++;
+    }
+    current_char = current_index < input_length ? input[current_index] : EOF_AS_CHAR;
   }
 
   private void record_position_of_start_of_lexeme() {
     column_of_start_of_last_lexeme = current_column - 1;
     line_of_start_of_last_lexeme = current_line;
+    start_of_lexeme = current_index;
+  }
+
+  /** @return the number of characters stored in the current lexeme so far */
+  int lexeme_length() {
+    return current_index - start_of_lexeme;
+  }
+
+  /** @return the character at the given index of the current lexeme */
+  char lexeme_at(int index) {
+    return input[start_of_lexeme + index];
+  }
+
+  /** @return the characters stored in the current lexeme, as a string */
+  private String lexeme_string() {
+    final int length = lexeme_length();
+    if (length == 1 && input[start_of_lexeme] < single_char_strings.length) {
+      return single_char_strings[input[start_of_lexeme]];
+    }
+    return new String(input, start_of_lexeme, length);
   }
 
   public void setLexemeType(LexemeType type) {
     lexeme.type = type;
   }
 
+  /**
+   * Adds current_char to the current lexeme and moves to the next character. Lexemes are always
+   * contiguous in the input so there's nothing to copy here.
+   */
   void store_and_advance() throws IOException {
-    lexeme.append(current_char);
     get_next_char();
   }
 
   void read_constituent_string() throws IOException {
-    while ((current_char != EOF_AS_CHAR) && isConstituentChar(current_char)) {
+    while (isConstituentChar(current_char)) {
       store_and_advance();
     }
   }
 
+  /**
+   * Reads the contents of a |...| or "..." lexeme into the lexeme's string, handling backslash
+   * escapes. At entry, current_char is the opening delimiter.
+   *
+   * @param delimiter the closing delimiter
+   * @return false if the input ended before the closing delimiter
+   */
+  private boolean read_quoted_string(char delimiter) throws IOException {
+    quoted.setLength(0);
+    get_next_char();
+    try {
+      while (true) {
+        if (current_char == EOF_AS_CHAR) {
+          return false;
+        }
+        if (current_char == '\\') {
+          get_next_char();
+          quoted.append(current_char);
+          get_next_char();
+        } else if (current_char == delimiter) {
+          get_next_char();
+          return true;
+        } else {
+          quoted.append(current_char);
+          get_next_char();
+        }
+      }
+    } finally {
+      lexeme.string = quoted.toString();
+    }
+  }
+
   void read_rest_of_floating_point_number() throws IOException {
     // at entry, current_char=="."; we read the "." and rest of number
     store_and_advance();
 
-    while (Character.isDigit(current_char)) {
+    while (isDigit(current_char)) {
       store_and_advance(); // string of digits
     }
     if ((current_char == 'e') || (current_char == 'E')) {
@@ -456,12 +553,18 @@ void read_rest_of_floating_point_number() throws IOException {
       if ((current_char == '+') || (current_char == '-')) {
         store_and_advance(); // optional leading + or -
       }
-      while (Character.isDigit(current_char)) {
+      while (isDigit(current_char)) {
         store_and_advance(); // string of digits
       }
     }
   }
 
+  /** Copies the current lexeme out of the input and then determines its type. */
+  private boolean determine_type_of_lexeme() {
+    lexeme.string = lexeme_string();
+    return determine_type_of_constituent_string();
+  }
+
   private boolean determine_type_of_constituent_string() {
     PossibleSymbolTypes possibleType = determine_possible_symbol_types_for_string(lexeme.string);
 
@@ -475,11 +578,7 @@ private boolean determine_type_of_constituent_string() {
     if (possibleType.possible_ic) {
       try {
         lexeme.type = LexemeType.INTEGER;
-        if (lexeme.string.charAt(0) != '+') {
-          lexeme.int_val = Long.valueOf(lexeme.string);
-        } else {
-          lexeme.int_val = Long.valueOf(lexeme.string.substring(1));
-        }
+        lexeme.int_val = Long.parseLong(lexeme.string); // accepts a leading '+'
       } catch (NumberFormatException e) {
         printer.print("Error: bad integer '" + lexeme.string + "' (possibly too large)\n");
         print_location_of_most_recent_lexeme();
@@ -493,7 +592,7 @@ private boolean determine_type_of_constituent_string() {
     if (possibleType.possible_fc) {
       try {
         lexeme.type = LexemeType.FLOAT;
-        lexeme.float_val = Double.valueOf(lexeme.string);
+        lexeme.float_val = Double.parseDouble(lexeme.string);
       } catch (NumberFormatException e) {
         printer.print("Error: bad floating point number: '" + lexeme.string + "\n");
         print_location_of_most_recent_lexeme();
@@ -508,7 +607,7 @@ private boolean determine_type_of_constituent_string() {
       try {
         lexeme.id_letter = Character.toUpperCase(lexeme.string.charAt(0));
         lexeme.type = LexemeType.IDENTIFIER;
-        lexeme.id_number = Long.valueOf(lexeme.string.substring(1));
+        lexeme.id_number = Long.parseLong(lexeme.string, 1, lexeme.string.length(), 10);
       } catch (NumberFormatException e) {
         printer.print("Error: bad number for identifier (probably too large)\n");
         print_location_of_most_recent_lexeme();
@@ -540,16 +639,23 @@ private boolean determine_type_of_constituent_string() {
    * @throws IOException
    */
   public void getNextLexeme() throws IOException {
-    lexeme.string = "";
+    lexeme.string = null;
 
     consumeWhitespaceAndComments();
 
     // no more whitespace, so go get the actual lexeme
     record_position_of_start_of_lexeme();
-    if (current_char != EOF_AS_CHAR) {
+    if (current_char == EOF_AS_CHAR) {
+      lex_eof.lex(this);
+    } else if (current_char < lexer_routines.length) {
       lexer_routines[current_char].lex(this);
     } else {
-      lex_eof.lex(this);
+      lex_unknown.lex(this);
+    }
+
+    // routines that don't copy the lexeme out of the input themselves leave it until here
+    if (lexeme.string == null) {
+      lexeme.string = lexeme_string();
     }
   }
 
@@ -557,7 +663,7 @@ private void consumeWhitespaceAndComments() throws IOException {
     while (true) {
       if (current_char == EOF_AS_CHAR) break;
 
-      if (Character.isWhitespace(current_char)) {
+      if (isWhitespace(current_char)) {
         get_next_char();
         continue;
       }
@@ -768,16 +874,16 @@ public static PossibleSymbolTypes determine_possible_symbol_types_for_string(Str
     if (Lexer.number_starters[s.charAt(0)]) {
       int ch = 0;
       if ((s.charAt(ch) == '+') || (s.charAt(ch) == '-')) ch++; /* optional leading + or - */
-      while (ch < s.length() && Character.isDigit(s.charAt(ch))) ch++; /* string of digits */
-      if (ch == s.length() && Character.isDigit(s.charAt(ch - 1))) p.possible_ic = true;
+      while (ch < s.length() && isDigit(s.charAt(ch))) ch++; /* string of digits */
+      if (ch == s.length() && isDigit(s.charAt(ch - 1))) p.possible_ic = true;
       if (ch < s.length() && s.charAt(ch) == '.') {
         ch++; /* decimal point */
-        while (ch < s.length() && Character.isDigit(s.charAt(ch))) ch++; /* string of digits */
+        while (ch < s.length() && isDigit(s.charAt(ch))) ch++; /* string of digits */
         if (ch < s.length() && (s.charAt(ch) == 'e' || s.charAt(ch) == 'E')) {
           ch++; /* E */
           if (ch < s.length() && (s.charAt(ch) == '+' || s.charAt(ch) == '-'))
             ch++; /* optional leading + or - */
-          while (ch < s.length() && Character.isDigit(s.charAt(ch))) ch++; /* string of digits */
+          while (ch < s.length() && isDigit(s.charAt(ch))) ch++; /* string of digits */
         }
         if (ch == s.length()) p.possible_fc = true;
       }
@@ -817,7 +923,7 @@ public static PossibleSymbolTypes determine_possible_symbol_types_for_string(Str
     if (s.length() > 1 && Character.isLetter(idStart)) {
       /* --- is the rest of the string an integer? --- */
       int i = idStartIndex + 1;
-      while (i < s.length() && Character.isDigit(s.charAt(i))) {
+      while (i < s.length() && isDigit(s.charAt(i))) {
         ++i;
       }
       p.possible_id = i == s.length();
@@ -830,7 +936,7 @@ public void get_lexeme_from_string(String the_lexeme) {
     boolean sym_constant_start_found = false;
     boolean sym_constant_end_found = false;
 
-    lexeme.string = new String();
+    final StringBuilder string = new StringBuilder(the_lexeme.length());
 
     for (int c = 0; c < the_lexeme.length(); c++) {
       if (the_lexeme.charAt(c) == '|') {
@@ -840,9 +946,10 @@ public void get_lexeme_from_string(String the_lexeme) {
           sym_constant_end_found = true;
         }
       } else {
-        lexeme.string += the_lexeme.charAt(c);
+        string.append(the_lexeme.charAt(c));
       }
     }
+    lexeme.string = string.toString();
 
     if (sym_constant_end_found) {
       lexeme.type = LexemeType.SYM_CONSTANT;
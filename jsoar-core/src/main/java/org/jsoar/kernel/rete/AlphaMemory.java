@@ -84,6 +84,18 @@ void remove_ref_to_alpha_mem(Rete rete) {
     if (this.reference_count != 0) {
       return;
     }
+    if (!rete.defer_alpha_mem_deallocation(this)) {
+      deallocate(rete);
+    }
+  }
+
+  /**
+   * Removes this alpha memory from the rete's hash table and releases its right memories. Split out
+   * of {@link #remove_ref_to_alpha_mem(Rete)} so bulk excises can do this once at the end.
+   *
+   * @param rete the owning rete
+   */
+  void deallocate(Rete rete) {
     /* --- remove from hash table, and deallocate the alpha_mem --- */
     HashTable<AlphaMemory> ht = rete.table_for_tests(id, attr, value, acceptable);
     ht.remove_from_hash_table(this);
@@ -0,0 +1,150 @@
+package org.jsoar.kernel.rete;
+
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link DataInput} that reads straight out of a {@link ByteBuffer}, so {@link ReteNetReader} can
+ * load a memory-mapped rete net without copying it through a stream first.
+ *
+ * <p>The buffer's position is advanced as it is read. It should be big-endian, as {@link
+ * java.io.DataOutputStream} writes.
+ */
+class ByteBufferDataInput implements DataInput {
+  private final ByteBuffer buffer;
+
+  ByteBufferDataInput(ByteBuffer buffer) {
+    this.buffer = buffer;
+  }
+
+  private static EOFException eof(BufferUnderflowException e) {
+    final EOFException result = new EOFException("Unexpected end of rete net");
+    result.initCause(e);
+    return result;
+  }
+
+  @Override
+  public void readFully(byte[] b) throws IOException {
+    readFully(b, 0, b.length);
+  }
+
+  @Override
+  public void readFully(byte[] b, int off, int len) throws IOException {
+    try {
+      buffer.get(b, off, len);
+    } catch (BufferUnderflowException e) {
+      throw eof(e);
+    }
+  }
+
+  @Override
+  public int skipBytes(int n) {
+    final int skipped = Math.max(0, Math.min(n, buffer.remaining()));
+    buffer.position(buffer.position() + skipped);
+    return skipped;
+  }
+
+  @Override
+  public boolean readBoolean() throws IOException {
+    return readByte() != 0;
+  }
+
+  @Override
+  public byte readByte() throws IOException {
+    try {
+      return buffer.get();
+    } catch (BufferUnderflowException e) {
+      throw eof(e);
+    }
+  }
+
+  @Override
+  public int readUnsignedByte() throws IOException {
+    return readByte() & 0xff;
+  }
+
+  @Override
+  public short readShort() throws IOException {
+    try {
+      return buffer.getShort();
+    } catch (BufferUnderflowException e) {
+      throw eof(e);
+    }
+  }
+
+  @Override
+  public int readUnsignedShort() throws IOException {
+    return readShort() & 0xffff;
+  }
+
+  @Override
+  public char readChar() throws IOException {
+    return (char) readShort();
+  }
+
+  @Override
+  public int readInt() throws IOException {
+    try {
+      return buffer.getInt();
+    } catch (BufferUnderflowException e) {
+      throw eof(e);
+    }
+  }
+
+  @Override
+  public long readLong() throws IOException {
+    try {
+      return buffer.getLong();
+    } catch (BufferUnderflowException e) {
+      throw eof(e);
+    }
+  }
+
+  @Override
+  public float readFloat() throws IOException {
+    return Float.intBitsToFloat(readInt());
+  }
+
+  @Override
+  public double readDouble() throws IOException {
+    return Double.longBitsToDouble(readLong());
+  }
+
+  /**
+   * Reads a line of bytes the way {@link DataInputStream#readLine()} does: each byte is one
+   * character, and the line ends with {@code \n}, {@code \r}, {@code \r\n} or the end of the
+   * buffer.
+   *
+   * @return the line, or {@code null} if the buffer is at its end
+   */
+  @Override
+  public String readLine() {
+    if (!buffer.hasRemaining()) {
+      return null;
+    }
+    final StringBuilder line = new StringBuilder();
+    while (buffer.hasRemaining()) {
+      final int c = buffer.get() & 0xff;
+      if (c == '\n') {
+        break;
+      }
+      if (c == '\r') {
+        if (buffer.hasRemaining() && buffer.get(buffer.position()) == '\n') {
+          buffer.get();
+        }
+        break;
+      }
+      line.append((char) c);
+    }
+    return line.toString();
+  }
+
+  @Override
+  public String readUTF() throws IOException {
+    return DataInputStream.readUTF(this);
+  }
+}
@@ -0,0 +1,35 @@
+package org.jsoar.kernel.rete;
+
+import lombok.Value;
+
+/**
+ * Occupancy statistics for one of the rete's token hash tables.
+ *
+ * @see Rete#getLeftHashTableStatistics()
+ * @see Rete#getRightHashTableStatistics()
+ */
+@Value
+public class HashTableStatistics {
+  /** Number of entries in the table */
+  int size;
+  /** Number of buckets in the table */
+  int buckets;
+  /** Number of non-empty buckets */
+  int occupiedBuckets;
+  /** Length of the longest bucket chain */
+  int maxChainLength;
+  /** Number of times the table has been resized */
+  int resizes;
+  /** True if an incremental resize is in progress */
+  boolean resizing;
+
+  /** @return the number of entries per bucket */
+  public double getLoadFactor() {
+    return buckets != 0 ? (double) size / buckets : 0.0;
+  }
+
+  /** @return the mean length of the non-empty bucket chains */
+  public double getAverageChainLength() {
+    return occupiedBuckets != 0 ? (double) size / occupiedBuckets : 0.0;
+  }
+}
@@ -19,6 +19,7 @@ public class LeftToken extends Token {
   LeftToken next_in_bucket;
   private LeftToken prev_in_bucket; // part of hash bucket dll
   final SymbolImpl referent; // referent of the hash test (thing we hashed on)
+  int hv; // hash value this token was inserted into the left hash table with
   private ListHead<RightToken> negrm_tokens = null; /* join results: for Neg, CN nodes only */
 
   public LeftToken(
@@ -51,6 +52,10 @@ LeftToken removeFromHashTable(LeftToken head) {
     return head;
   }
 
+  LeftToken getPreviousInBucket() {
+    return prev_in_bucket;
+  }
+
   boolean hasNegRightTokens() {
     return negrm_tokens != null && !negrm_tokens.isEmpty();
   }
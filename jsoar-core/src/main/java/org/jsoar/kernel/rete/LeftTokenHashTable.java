@@ -5,16 +5,20 @@
  */
 package org.jsoar.kernel.rete;
 
-/** @author ray */
-public class LeftTokenHashTable {
-  private static final int LOG2_LEFT_HT_SIZE = 14;
-  private static final int LEFT_HT_SIZE = 1 << LOG2_LEFT_HT_SIZE;
-
-  private static final int LEFT_HT_MASK = LEFT_HT_SIZE - 1;
-
-  private final LeftToken[] buckets = new LeftToken[LEFT_HT_SIZE];
+/**
+ * Hash table of left tokens. Grows as tokens are added, see {@link ReteHashTable}.
+ *
+ * @author ray
+ */
+public class LeftTokenHashTable extends ReteHashTable<LeftToken> {
+  public LeftTokenHashTable() {
+    this(DEFAULT_LOG2_SIZE);
+  }
 
-  public LeftTokenHashTable() {}
+  /** @param log2Size log2 of the initial number of buckets */
+  public LeftTokenHashTable(int log2Size) {
+    super(LeftToken.class, log2Size);
+  }
 
   /**
    * Get the head of the bucket for a particular hash code. Iterate over this list using {@link
@@ -26,8 +30,7 @@ public LeftTokenHashTable() {}
    * @return the head of the bucket
    */
   public LeftToken left_ht_bucket(int hv) {
-    int index = hv & LEFT_HT_MASK;
-    return buckets[index];
+    return bucket(hv);
     // return (* ( ((token **) thisAgent->left_ht) + ((hv) & LEFT_HT_MASK)));
   }
 
@@ -38,7 +41,9 @@ public LeftToken left_ht_bucket(int hv) {
    * @param hv
    */
   public void insert_token_into_left_ht(LeftToken tok, int hv) {
-    buckets[hv & LEFT_HT_MASK] = tok.addToHashTable(buckets[hv & LEFT_HT_MASK]);
+    tok.hv = hv;
+    setBucket(hv, tok.addToHashTable(bucket(hv)));
+    entryAdded();
   }
 
   /**
@@ -48,6 +53,27 @@ public void insert_token_into_left_ht(LeftToken tok, int hv) {
    * @param hv
    */
   public void remove_token_from_left_ht(LeftToken tok, int hv) {
-    buckets[hv & LEFT_HT_MASK] = tok.removeFromHashTable(buckets[hv & LEFT_HT_MASK]);
+    setBucket(hv, tok.removeFromHashTable(bucket(hv)));
+    entryRemoved();
+  }
+
+  @Override
+  int hashOf(LeftToken entry) {
+    return entry.hv;
+  }
+
+  @Override
+  LeftToken nextInBucket(LeftToken entry) {
+    return entry.next_in_bucket;
+  }
+
+  @Override
+  LeftToken previousInBucket(LeftToken entry) {
+    return entry.getPreviousInBucket();
+  }
+
+  @Override
+  LeftToken insertAtHead(LeftToken entry, LeftToken head) {
+    return entry.addToHashTable(head);
   }
 }
@@ -14,12 +14,14 @@
  */
 class NonPosNodeData implements AReteNodeData {
   Token tokens = null; // dll of tokens at this node
+  int token_count = 0; // length of tokens, kept up to date by Token
   boolean is_left_unlinked; // :1;           /* used on mp nodes only */
 
   /** @return Shallow copy of this object */
   public NonPosNodeData copy() {
     NonPosNodeData n = new NonPosNodeData();
     n.tokens = this.tokens;
+    n.token_count = this.token_count;
     n.is_left_unlinked = this.is_left_unlinked;
     return n;
   }
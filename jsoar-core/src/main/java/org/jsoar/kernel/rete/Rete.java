@@ -5,10 +5,21 @@
  */
 package org.jsoar.kernel.rete;
 
+import java.util.AbstractCollection;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
 import lombok.NonNull;
 import org.jsoar.kernel.Production;
 import org.jsoar.kernel.ProductionType;
@@ -31,6 +42,7 @@
 import org.jsoar.kernel.memory.Instantiation;
 import org.jsoar.kernel.memory.Wme;
 import org.jsoar.kernel.memory.WmeImpl;
+import org.jsoar.kernel.memory.WmeIndex;
 import org.jsoar.kernel.rete.PartialMatches.Entry;
 import org.jsoar.kernel.rhs.Action;
 import org.jsoar.kernel.rhs.RhsValue;
@@ -65,23 +77,42 @@ public class Rete {
 
   private ReteListener listener;
 
+  /** Maximum number of old buckets migrated per table by {@link #incrementalRehash()} */
+  public static final int REHASH_BUCKETS_PER_STEP = 4096;
+
   private final LeftTokenHashTable left_ht = new LeftTokenHashTable();
   private final RightMemoryHashTable right_ht = new RightMemoryHashTable();
-  // TODO rete_node_counts should be populated
-  int rete_node_counts[] = new int[256];
+  /** Number of beta nodes of each type, indexed by {@link ReteNodeType#ordinal()} */
+  private final int[] rete_node_counts = new int[ReteNodeType.values().length];
   /*package*/ RightToken dummy_top_token;
 
+  /** Maximum number of free right memories kept for reuse by {@link #add_wme_to_alpha_mem} */
+  private static final int MAX_FREE_RIGHT_MEMS = 1 << 16;
+
   private int alpha_mem_id_counter;
-  private List<HashTable<AlphaMemory>> alpha_hash_tables;
+  private final HashTable<AlphaMemory>[] alpha_hash_tables;
   /**
-   * TODO: Although this hashset preserves the insertion order of the WMEs, the order is the reverse
+   * Head and tail of the dll of all wmes in the rete, linked through {@link WmeImpl#rete_next}.
+   *
+   * <p>TODO: Although this list preserves the insertion order of the WMEs, the order is the reverse
    * of that in CSoar which inserts at the front. It doesn't appear to affect correctness, but it
    * may cause firing order variation from CSoar. See usage in find_or_make_alpha_mem()
    *
    * <p>all_wmes_in_rete
    */
-  private LinkedHashSet<WmeImpl> all_wmes_in_rete = new LinkedHashSet<WmeImpl>();
-  // private ListHead<WmeImpl> all_wmes_in_rete = ListHead.newInstance();
+  private WmeImpl all_wmes_in_rete;
+
+  private WmeImpl last_wme_in_rete;
+  private int num_wmes_in_rete;
+  private final Collection<WmeImpl> all_wmes_view = new AllWmesView();
+  /** Secondary index over all_wmes_in_rete, null unless enabled */
+  private WmeIndex wme_index;
+
+  /** Recycled right memories, linked through {@link RightMemory#next_in_am} */
+  private RightMemory free_right_mems;
+
+  private int num_free_right_mems;
+
   private int beta_node_id_counter;
   ReteNode dummy_top_node;
 
@@ -97,6 +128,23 @@ public class Rete {
    */
   private Token dummy_matches_node_tokens;
 
+  /** 0 if profiling is off, otherwise one in this many WME changes is timed */
+  private int profile_sample_interval = 0;
+
+  private int profile_countdown;
+
+  /** true while the activations for a sampled WME change are being timed */
+  private boolean profile_sampling;
+
+  /** time spent in child activations of the activation currently being timed */
+  private long profile_child_nanos;
+
+  /** Memory nodes waiting to be merged, non-null only during a bulk excise */
+  private Set<ReteNode> deferred_merges;
+
+  /** Alpha memories waiting to be deallocated, non-null only during a bulk excise */
+  private List<AlphaMemory> deferred_alpha_mems;
+
   private final EpisodicMemory episodicMemory;
   private final SemanticMemory semanticMemory;
   private final ReinforcementLearningParams reinforcementLearningParams;
@@ -114,11 +162,7 @@ public Rete(
     this.reinforcementLearningParams = reinforcementLearningParams;
 
     // rete.cpp:8864
-    alpha_hash_tables = new ArrayList<HashTable<AlphaMemory>>(16);
-    for (var i = 0; i < 16; ++i) {
-      alpha_hash_tables.add(
-          new HashTable<AlphaMemory>(0, AlphaMemory.HASH_FUNCTION, AlphaMemory.class));
-    }
+    alpha_hash_tables = newAlphaHashTables();
 
     init_dummy_top_node();
   }
@@ -174,16 +218,206 @@ public int getHighestRhsUnboundVariableIndex() {
     return highest_rhs_unboundvar_index;
   }
 
+  @SuppressWarnings("unchecked")
+  private static HashTable<AlphaMemory>[] newAlphaHashTables() {
+    final HashTable<AlphaMemory>[] tables = new HashTable[16];
+    for (var i = 0; i < tables.length; ++i) {
+      tables[i] = new HashTable<AlphaMemory>(0, AlphaMemory.HASH_FUNCTION, AlphaMemory.class);
+    }
+    return tables;
+  }
+
   /**
-   * @return List of all Wmes currently in the rete. This is the actual list so please don't modify
-   *     it.
+   * @return List of all Wmes currently in the rete. This is a read-only view of the actual list, so
+   *     it must not be iterated while wmes are being added or removed.
    */
   public Collection<WmeImpl> getAllWmes() {
-    return all_wmes_in_rete;
+    return all_wmes_view;
   }
 
   public boolean containsWme(Wme w) {
-    return all_wmes_in_rete.contains(w);
+    if (!(w instanceof WmeImpl)) {
+      return false;
+    }
+    final WmeImpl wi = (WmeImpl) w;
+    return wi.rete_prev != null ? wi.rete_prev.rete_next == wi : all_wmes_in_rete == wi;
+  }
+
+  /** @return the number of wmes currently in the rete */
+  public int getNumWmes() {
+    return num_wmes_in_rete;
+  }
+
+  /**
+   * Enable or disable the secondary index over the wmes in the rete. Enabling it indexes the wmes
+   * currently in the rete, after which it is kept up to date as wmes are added and removed.
+   *
+   * @param enabled true to maintain the index
+   * @see org.jsoar.kernel.SoarProperties#WME_INDEX
+   */
+  public void setWmeIndexEnabled(boolean enabled) {
+    if (enabled && wme_index == null) {
+      wme_index = new WmeIndex(all_wmes_view);
+    } else if (!enabled && wme_index != null) {
+      wme_index.clear(all_wmes_view);
+      wme_index = null;
+    }
+  }
+
+  /** @return the secondary index over the wmes in the rete, or null if it isn't enabled */
+  public WmeIndex getWmeIndex() {
+    return wme_index;
+  }
+
+  /**
+   * Set the initial (and minimum) size of the left and right token hash tables. If the tables are
+   * currently smaller, they are grown incrementally.
+   *
+   * @param log2Size log2 of the number of buckets
+   * @see org.jsoar.kernel.SoarProperties#RETE_HASH_TABLE_LOG2_SIZE
+   */
+  public void setHashTableLog2Size(int log2Size) {
+    left_ht.setMinimumLog2Size(log2Size);
+    right_ht.setMinimumLog2Size(log2Size);
+  }
+
+  /**
+   * @param shrink true if the left and right token hash tables should shrink when they become
+   *     sparse
+   * @see org.jsoar.kernel.SoarProperties#RETE_HASH_TABLE_SHRINK
+   */
+  public void setHashTableShrinkEnabled(boolean shrink) {
+    left_ht.setShrinkEnabled(shrink);
+    right_ht.setShrinkEnabled(shrink);
+  }
+
+  /**
+   * Perform one step of any resize in progress in the left and right token hash tables. This must
+   * not be called while a match is in progress. The decision cycle calls this after every phase so
+   * that the cost of a resize is spread over several phases.
+   *
+   * @return true if a resize is still in progress
+   */
+  public boolean incrementalRehash() {
+    final boolean left = left_ht.rehash(REHASH_BUCKETS_PER_STEP);
+    final boolean right = right_ht.rehash(REHASH_BUCKETS_PER_STEP);
+    return left || right;
+  }
+
+  /** @return occupancy statistics for the left token hash table */
+  public HashTableStatistics getLeftHashTableStatistics() {
+    return left_ht.getStatistics();
+  }
+
+  /** @return occupancy statistics for the right memory hash table */
+  public HashTableStatistics getRightHashTableStatistics() {
+    return right_ht.getStatistics();
+  }
+
+  /**
+   * Returns the number of beta nodes of a given type. This is kept up to date as nodes are created,
+   * split, merged and deallocated, so it's cheap to call.
+   *
+   * @param type the node type
+   * @return number of nodes of that type currently in the network
+   */
+  public int getReteNodeCount(ReteNodeType type) {
+    return rete_node_counts[type.ordinal()];
+  }
+
+  /** Statistics part of rete.cpp:init_new_rete_node_with_type */
+  void update_stats_for_creating_node(ReteNodeType type) {
+    rete_node_counts[type.ordinal()]++;
+  }
+
+  /** rete.cpp:update_stats_for_destroying_node */
+  void update_stats_for_destroying_node(ReteNodeType type) {
+    rete_node_counts[type.ordinal()]--;
+  }
+
+  /**
+   * Walks the beta network and collects node sharing, token and memory statistics. This visits
+   * every node, so it's O(size of the network).
+   *
+   * @return the statistics
+   */
+  public ReteStatistics getStatistics() {
+    final StatisticsCollector collector = new StatisticsCollector();
+    collector.count_productions_using(dummy_top_node);
+
+    final Map<ReteNodeType, ReteStatistics.NodeTypeStatistics> nodeTypes =
+        new EnumMap<>(ReteNodeType.class);
+    for (ReteNodeType type : ReteNodeType.values()) {
+      final int i = type.ordinal();
+      if (collector.nodes[i] != 0) {
+        nodeTypes.put(
+            type,
+            new ReteStatistics.NodeTypeStatistics(
+                type,
+                collector.nodes[i],
+                collector.shared_nodes[i],
+                collector.production_uses[i],
+                collector.tokens[i],
+                collector.max_tokens[i]));
+      }
+    }
+
+    long right_mems = 0;
+    for (AlphaMemory am : collector.alpha_mems.keySet()) {
+      for (RightMemory rm = am.right_mems; rm != null; rm = rm.next_in_am) {
+        right_mems++;
+      }
+    }
+    return new ReteStatistics(
+        Collections.unmodifiableMap(nodeTypes), collector.alpha_mems.size(), right_mems);
+  }
+
+  /** Accumulates the results of a walk of the beta network for {@link #getStatistics()} */
+  private static class StatisticsCollector {
+    final int[] nodes = new int[ReteNodeType.values().length];
+    final int[] shared_nodes = new int[nodes.length];
+    final long[] production_uses = new long[nodes.length];
+    final long[] tokens = new long[nodes.length];
+    final int[] max_tokens = new int[nodes.length];
+    final Map<ReteNode, Integer> productions_using = new IdentityHashMap<>();
+    final Map<AlphaMemory, Boolean> alpha_mems = new IdentityHashMap<>();
+
+    /**
+     * Returns the number of productions that use a node, i.e. the number of p-nodes below it. The
+     * subnetwork of a conjunctive negation is used by the productions below its CN node. Each node
+     * is added to the totals the first time it's visited.
+     */
+    int count_productions_using(ReteNode node) {
+      final Integer known = productions_using.get(node);
+      if (known != null) {
+        return known;
+      }
+
+      int count = node.node_type == ReteNodeType.P_BNODE ? 1 : 0;
+      for (ReteNode child = node.first_child; child != null; child = child.next_sibling) {
+        count += count_productions_using(child);
+      }
+      if (node.node_type == ReteNodeType.CN_PARTNER_BNODE) {
+        count += count_productions_using(node.b_cn().partner);
+      }
+      productions_using.put(node, count);
+
+      final int i = node.node_type.ordinal();
+      nodes[i]++;
+      production_uses[i] += count;
+      if (count > 1) {
+        shared_nodes[i]++;
+      }
+      if (!node.node_type.bnode_is_bottom_of_split_mp()) {
+        final int node_tokens = node.a_np().token_count;
+        tokens[i] += node_tokens;
+        max_tokens[i] = Math.max(max_tokens[i], node_tokens);
+      }
+      if (node.node_type.bnode_is_posneg() && node.node_type != ReteNodeType.P_BNODE) {
+        alpha_mems.put(node.b_posneg().alpha_mem_, Boolean.TRUE);
+      }
+      return count;
+    }
   }
 
   /**
@@ -433,6 +667,7 @@ public void excise_production_from_rete(Production p) {
 
     // finally, excise the p_node
     p_node.remove_node_from_parents_list_of_children();
+    update_stats_for_destroying_node(p_node.node_type);
 
     // and propogate up the net
     if (parent.first_child == null) {
@@ -440,6 +675,167 @@ public void excise_production_from_rete(Production p) {
     }
   }
 
+  /**
+   * Removes a batch of productions from the rete. The result is the same as calling {@link
+   * #excise_production_from_rete(Production)} for each one, but shared beta subnetworks are torn
+   * down once: memory nodes left with a single child are only merged back into mp nodes after all
+   * of the productions are gone (by which point most of them have been deallocated instead), and
+   * alpha memories that lose their last reference are deallocated together at the end.
+   *
+   * @param prods the productions to remove. Each must currently be in the rete.
+   */
+  public void excise_productions_from_rete(Collection<Production> prods) {
+    deferred_merges = new LinkedHashSet<>();
+    deferred_alpha_mems = new ArrayList<>();
+    try {
+      for (Production p : prods) {
+        excise_production_from_rete(p);
+      }
+
+      for (ReteNode mem_node : deferred_merges) {
+        // deallocated nodes have no children, and ones that picked up a second
+        // child can't be merged
+        if (mem_node.first_child != null && mem_node.first_child.next_sibling == null) {
+          ReteNode.merge_into_mp_node(this, mem_node);
+        }
+      }
+      for (AlphaMemory am : deferred_alpha_mems) {
+        if (am.reference_count == 0) {
+          am.deallocate(this);
+        }
+      }
+    } finally {
+      deferred_merges = null;
+      deferred_alpha_mems = null;
+    }
+  }
+
+  /**
+   * Called when a memory node is left with a single child during an excise.
+   *
+   * @param mem_node the memory node
+   * @return true if a bulk excise is in progress and the merge will be done when it finishes
+   */
+  boolean defer_merge(ReteNode mem_node) {
+    if (deferred_merges == null) {
+      return false;
+    }
+    deferred_merges.add(mem_node);
+    return true;
+  }
+
+  /**
+   * Called when an alpha memory loses its last reference during an excise.
+   *
+   * @param am the alpha memory
+   * @return true if a bulk excise is in progress and the alpha memory will be deallocated when it
+   *     finishes
+   */
+  boolean defer_alpha_mem_deallocation(AlphaMemory am) {
+    if (deferred_alpha_mems == null) {
+      return false;
+    }
+    deferred_alpha_mems.add(am);
+    return true;
+  }
+
+  /**
+   * Turn beta node profiling on or off. While it's on, the time spent in each node's left and right
+   * activations (not counting the activations of its children) is added to the node.
+   *
+   * <p>Only one in every {@code sampleInterval} WME additions and removals is timed, and that time
+   * is scaled up by the interval, so a large interval keeps the overhead down at the cost of
+   * accuracy. Other activations, e.g. when a production is added, are not timed.
+   *
+   * @param sampleInterval 0 to turn profiling off, 1 to time every WME change, or n to time one in
+   *     every n WME changes
+   * @see #getProfiledMatchNanos(Collection)
+   */
+  public void setProfiling(int sampleInterval) {
+    if (sampleInterval < 0) {
+      throw new IllegalArgumentException("sampleInterval must be >= 0, got " + sampleInterval);
+    }
+    this.profile_sample_interval = sampleInterval;
+    this.profile_countdown = 1;
+  }
+
+  /** @return the current profiling sample interval, 0 if profiling is off */
+  public int getProfiling() {
+    return profile_sample_interval;
+  }
+
+  /** Clear the profiled time of every node in the rete */
+  public void resetProfiling() {
+    reset_profiling(dummy_top_node);
+  }
+
+  private static void reset_profiling(ReteNode node) {
+    node.profile_nanos = 0;
+    for (ReteNode child = node.first_child; child != null; child = child.next_sibling) {
+      reset_profiling(child);
+    }
+  }
+
+  /** @return true if the WME change that's starting should be timed */
+  private boolean sample_wme_change() {
+    if (profile_sample_interval == 0 || --profile_countdown > 0) {
+      return false;
+    }
+    profile_countdown = profile_sample_interval;
+    return true;
+  }
+
+  private void finish_profiled_activation(ReteNode node, long start, long outer_child_nanos) {
+    final long elapsed = System.nanoTime() - start;
+    node.profile_nanos += (elapsed - profile_child_nanos) * profile_sample_interval;
+    profile_child_nanos = outer_child_nanos + elapsed;
+  }
+
+  /**
+   * Returns the profiled match time of each production. A production is charged for all of the
+   * nodes between the top of the rete and its p-node, including NCC subnetworks. The time of a node
+   * shared by several of the given productions is split evenly between them.
+   *
+   * @param productions the productions
+   * @return estimated nanoseconds spent matching each production that is in the rete
+   * @see #setProfiling(int)
+   */
+  public Map<Production, Long> getProfiledMatchNanos(Collection<Production> productions) {
+    final Map<ReteNode, Integer> sharing = new HashMap<>();
+    for (Production p : productions) {
+      for_each_profiled_ancestor(p.getReteNode(), node -> sharing.merge(node, 1, Integer::sum));
+    }
+
+    final Map<Production, Long> result = new LinkedHashMap<>();
+    for (Production p : productions) {
+      if (p.getReteNode() == null) {
+        continue;
+      }
+      final double[] nanos = {0.0};
+      for_each_profiled_ancestor(
+          p.getReteNode(), node -> nanos[0] += (double) node.profile_nanos / sharing.get(node));
+      result.put(p, Math.round(nanos[0]));
+    }
+    return result;
+  }
+
+  /** Visits a p-node and every node above it, like {@link #countTokensProduction(ReteNode)} */
+  private void for_each_profiled_ancestor(ReteNode p_node, Consumer<ReteNode> visitor) {
+    if (p_node == null) {
+      return;
+    }
+    visitor.accept(p_node);
+    ReteNode node = p_node.parent;
+    while (node != dummy_top_node) {
+      visitor.accept(node);
+      if (node.node_type == ReteNodeType.CN_BNODE) {
+        node = node.b_cn().partner;
+        visitor.accept(node);
+      }
+      node = node.parent;
+    }
+  }
+
   /**
    * Stand-in for taking the address of an object in C, where the address is used for hashing, e.g.
    * cn_node_left_addition() in rete.cpp
@@ -470,9 +866,22 @@ private static int xor_op(int i, int a, int v) {
    * @param w The WME to add
    */
   public void add_wme_to_rete(WmeImpl w) {
+    profile_sampling = sample_wme_change();
+
     /* --- add w to all_wmes_in_rete --- */
-    all_wmes_in_rete.add(w);
-    // w.in_rete.insertAtHead(all_wmes_in_rete);
+    w.rete_next = null;
+    w.rete_prev = last_wme_in_rete;
+    if (last_wme_in_rete != null) {
+      last_wme_in_rete.rete_next = w;
+    } else {
+      all_wmes_in_rete = w;
+    }
+    last_wme_in_rete = w;
+    num_wmes_in_rete++;
+    if (wme_index != null) {
+      wme_index.add(w);
+    }
+    syms.wmeAdded(w);
 
     /* --- it's not in any right memories or tokens yet --- */
     w.clearRightMemories();
@@ -484,24 +893,25 @@ public void add_wme_to_rete(WmeImpl w) {
     int hv = w.value.getHash();
 
     if (w.acceptable) {
-      add_wme_to_aht(alpha_hash_tables.get(8), xor_op(0, 0, 0), w);
-      add_wme_to_aht(alpha_hash_tables.get(9), xor_op(hi, 0, 0), w);
-      add_wme_to_aht(alpha_hash_tables.get(10), xor_op(0, ha, 0), w);
-      add_wme_to_aht(alpha_hash_tables.get(11), xor_op(hi, ha, 0), w);
-      add_wme_to_aht(alpha_hash_tables.get(12), xor_op(0, 0, hv), w);
-      add_wme_to_aht(alpha_hash_tables.get(13), xor_op(hi, 0, hv), w);
-      add_wme_to_aht(alpha_hash_tables.get(14), xor_op(0, ha, hv), w);
-      add_wme_to_aht(alpha_hash_tables.get(15), xor_op(hi, ha, hv), w);
+      add_wme_to_aht(alpha_hash_tables[8], xor_op(0, 0, 0), w);
+      add_wme_to_aht(alpha_hash_tables[9], xor_op(hi, 0, 0), w);
+      add_wme_to_aht(alpha_hash_tables[10], xor_op(0, ha, 0), w);
+      add_wme_to_aht(alpha_hash_tables[11], xor_op(hi, ha, 0), w);
+      add_wme_to_aht(alpha_hash_tables[12], xor_op(0, 0, hv), w);
+      add_wme_to_aht(alpha_hash_tables[13], xor_op(hi, 0, hv), w);
+      add_wme_to_aht(alpha_hash_tables[14], xor_op(0, ha, hv), w);
+      add_wme_to_aht(alpha_hash_tables[15], xor_op(hi, ha, hv), w);
     } else {
-      add_wme_to_aht(alpha_hash_tables.get(0), xor_op(0, 0, 0), w);
-      add_wme_to_aht(alpha_hash_tables.get(1), xor_op(hi, 0, 0), w);
-      add_wme_to_aht(alpha_hash_tables.get(2), xor_op(0, ha, 0), w);
-      add_wme_to_aht(alpha_hash_tables.get(3), xor_op(hi, ha, 0), w);
-      add_wme_to_aht(alpha_hash_tables.get(4), xor_op(0, 0, hv), w);
-      add_wme_to_aht(alpha_hash_tables.get(5), xor_op(hi, 0, hv), w);
-      add_wme_to_aht(alpha_hash_tables.get(6), xor_op(0, ha, hv), w);
-      add_wme_to_aht(alpha_hash_tables.get(7), xor_op(hi, ha, hv), w);
+      add_wme_to_aht(alpha_hash_tables[0], xor_op(0, 0, 0), w);
+      add_wme_to_aht(alpha_hash_tables[1], xor_op(hi, 0, 0), w);
+      add_wme_to_aht(alpha_hash_tables[2], xor_op(0, ha, 0), w);
+      add_wme_to_aht(alpha_hash_tables[3], xor_op(hi, ha, 0), w);
+      add_wme_to_aht(alpha_hash_tables[4], xor_op(0, 0, hv), w);
+      add_wme_to_aht(alpha_hash_tables[5], xor_op(hi, 0, hv), w);
+      add_wme_to_aht(alpha_hash_tables[6], xor_op(0, ha, hv), w);
+      add_wme_to_aht(alpha_hash_tables[7], xor_op(hi, ha, hv), w);
     }
+    profile_sampling = false;
 
     w.epmem_id = DefaultEpisodicMemory.EPMEM_NODEID_BAD;
     w.epmem_valid = 0; // NIL
@@ -551,8 +961,25 @@ public void remove_wme_from_rete(WmeImpl w) {
     }
 
     /* --- remove w from all_wmes_in_rete --- */
-    all_wmes_in_rete.remove(w);
-    // w.in_rete.remove(all_wmes_in_rete);
+    if (w.rete_prev != null) {
+      w.rete_prev.rete_next = w.rete_next;
+    } else {
+      all_wmes_in_rete = w.rete_next;
+    }
+    if (w.rete_next != null) {
+      w.rete_next.rete_prev = w.rete_prev;
+    } else {
+      last_wme_in_rete = w.rete_prev;
+    }
+    w.rete_next = null;
+    w.rete_prev = null;
+    num_wmes_in_rete--;
+    if (wme_index != null) {
+      wme_index.remove(w);
+    }
+    syms.wmeRemoved(w);
+
+    profile_sampling = sample_wme_change();
 
     /* --- remove w from each alpha_mem it's in --- */
     while (w.getRightMemories() != null) {
@@ -605,6 +1032,7 @@ public void remove_wme_from_rete(WmeImpl w) {
         remove_token_and_subtree(tok);
       }
     }
+    profile_sampling = false;
   }
 
   /** rete.cpp:1403:get_next_alpha_mem_id */
@@ -622,7 +1050,15 @@ int get_next_alpha_mem_id() {
    */
   void add_wme_to_alpha_mem(WmeImpl w, AlphaMemory am) {
     /* --- allocate new right_mem, fill it fields --- */
-    final var rm = new RightMemory(w, am);
+    final RightMemory rm;
+    if (free_right_mems != null) {
+      rm = free_right_mems.reset(w, am);
+      free_right_mems = rm.next_in_am;
+      rm.next_in_am = null;
+      num_free_right_mems--;
+    } else {
+      rm = new RightMemory(w, am);
+    }
 
     /* --- add it to dll's for the hash bucket, alpha mem, and wme --- */
     final int hv = am.am_id ^ w.id.getHash();
@@ -647,6 +1083,14 @@ void remove_wme_from_alpha_mem(RightMemory rm) {
     right_ht.removeFromBucket(hv, rm);
     am.removeRightMemory(rm);
     w.removeRightMemory(rm);
+
+    /* --- recycle the right_mem --- */
+    if (num_free_right_mems < MAX_FREE_RIGHT_MEMS) {
+      rm.reset(null, null);
+      rm.next_in_am = free_right_mems;
+      free_right_mems = rm;
+      num_free_right_mems++;
+    }
   }
 
   /**
@@ -664,7 +1108,7 @@ void remove_wme_from_alpha_mem(RightMemory rm) {
             + ((attr != null) ? 2 : 0)
             + ((value != null) ? 4 : 0)
             + ((acceptable) ? 8 : 0);
-    return alpha_hash_tables.get(index);
+    return alpha_hash_tables[index];
   }
 
   /**
@@ -750,7 +1194,7 @@ AlphaMemory find_or_make_alpha_mem(
       }
     } else {
       // couldn't find such an existing mem, so do it the hard way
-      for (WmeImpl w : all_wmes_in_rete) {
+      for (WmeImpl w = all_wmes_in_rete; w != null; w = w.rete_next) {
         if (am.wme_matches_alpha_mem(w)) {
           add_wme_to_alpha_mem(w, am);
         }
@@ -805,6 +1249,7 @@ int get_next_beta_node_id() {
    */
   void init_dummy_top_node() {
     dummy_top_node = ReteNode.createDummy();
+    update_stats_for_creating_node(dummy_top_node.node_type);
     dummy_top_token = RightToken.createDummy(dummy_top_node);
   }
 
@@ -964,6 +1409,18 @@ public static SymbolImpl var_bound_in_reconstructed_conds(
    * @param w
    */
   private void executeLeftAddition(ReteNode node, Token tok, WmeImpl w) {
+    if (!profile_sampling) {
+      dispatchLeftAddition(node, tok, w);
+      return;
+    }
+    final long start = System.nanoTime();
+    final long outer_child_nanos = profile_child_nanos;
+    profile_child_nanos = 0;
+    dispatchLeftAddition(node, tok, w);
+    finish_profiled_activation(node, start, outer_child_nanos);
+  }
+
+  private void dispatchLeftAddition(ReteNode node, Token tok, WmeImpl w) {
     // TODO: These should be polymorphic methods of ReteNode
     // rete.cpp:8796
     switch (node.node_type) {
@@ -1007,6 +1464,18 @@ private void executeLeftAddition(ReteNode node, Token tok, WmeImpl w) {
    * and simpler than emulating function pointers with Java interfaces.
    */
   private void executeRightAddition(ReteNode node, WmeImpl w) {
+    if (!profile_sampling) {
+      dispatchRightAddition(node, w);
+      return;
+    }
+    final long start = System.nanoTime();
+    final long outer_child_nanos = profile_child_nanos;
+    profile_child_nanos = 0;
+    dispatchRightAddition(node, w);
+    finish_profiled_activation(node, start, outer_child_nanos);
+  }
+
+  private void dispatchRightAddition(ReteNode node, WmeImpl w) {
     switch (node.node_type) {
       case POSITIVE_BNODE:
         positive_node_right_addition(node, w);
@@ -2298,6 +2767,7 @@ private Token get_all_left_tokens_emerging_from_node(ReteNode node) {
    *
    * @param printer The printer to print to
    * @param node The current node
+   * @param child The node below the current node on the way to the p-node
    * @param cutoff Don't print cutoff node or any higher
    * @param cond Condition for current node
    * @param wtt WmeImpl trace type
@@ -2307,12 +2777,13 @@ private Token get_all_left_tokens_emerging_from_node(ReteNode node) {
   private int ppmi_aux(
       Printer printer,
       ReteNode node,
+      ReteNode child,
       ReteNode cutoff,
       Condition cond,
       WmeTraceType wtt,
       int indent,
       boolean showNodeIds) {
-    int matches_at_this_level = getMatchCountForNode(node);
+    int matches_at_this_level = getMatchCountForNode(node, child);
 
     // if we're at the cutoff node, we're done
     if (node == cutoff) return matches_at_this_level;
@@ -2320,7 +2791,7 @@ private int ppmi_aux(
     // do stuff higher up
     ReteNode parent = node.real_parent_node();
     final int matches_one_level_up =
-        ppmi_aux(printer, parent, cutoff, cond.prev, wtt, indent, showNodeIds);
+        ppmi_aux(printer, parent, node, cutoff, cond.prev, wtt, indent, showNodeIds);
 
     // Form string for current match count: If an earlier cond had no
     // matches, just leave it blank; if this is the first 0, use ">>>>"
@@ -2347,6 +2818,7 @@ private int ppmi_aux(
       ppmi_aux(
           printer,
           node.b_cn().partner.real_parent_node(),
+          node.b_cn().partner,
           parent,
           ncc.bottom,
           wtt,
@@ -2396,7 +2868,8 @@ public void print_partial_match_information(
       Printer printer, ReteNode p_node, WmeTraceType wtt, boolean showNodeIds) {
     ConditionsAndNots cans = p_node_to_conditions_and_nots(p_node, null, null, false);
 
-    int n = ppmi_aux(printer, p_node.parent, dummy_top_node, cans.bottom, wtt, 0, showNodeIds);
+    int n =
+        ppmi_aux(printer, p_node.parent, p_node, dummy_top_node, cans.bottom, wtt, 0, showNodeIds);
 
     printer.print("\n%d complete matches.\n", n);
     if (n != 0 && (wtt != WmeTraceType.NONE)) {
@@ -2410,8 +2883,8 @@ public void print_partial_match_information(
   }
 
   private List<Entry> getPartialMatchesAux(
-      List<Entry> entries, ReteNode node, ReteNode cutoff, Condition cond) {
-    final int matches_at_this_level = getMatchCountForNode(node);
+      List<Entry> entries, ReteNode node, ReteNode child, ReteNode cutoff, Condition cond) {
+    final int matches_at_this_level = getMatchCountForNode(node, child);
 
     // if we're at the cutoff node, we're done
     if (node == cutoff) {
@@ -2420,7 +2893,7 @@ private List<Entry> getPartialMatchesAux(
 
     // do stuff higher up
     final ReteNode parent = node.real_parent_node();
-    getPartialMatchesAux(entries, parent, cutoff, cond.prev);
+    getPartialMatchesAux(entries, parent, node, cutoff, cond.prev);
 
     final var ncc = cond.asConjunctiveNegationCondition();
     if (ncc != null) {
@@ -2432,6 +2905,7 @@ private List<Entry> getPartialMatchesAux(
               getPartialMatchesAux(
                   new ArrayList<Entry>(),
                   node.b_cn().partner.real_parent_node(),
+                  node.b_cn().partner,
                   parent,
                   ncc.bottom)));
     } else {
@@ -2444,22 +2918,42 @@ private List<Entry> getPartialMatchesAux(
   public PartialMatches getPartialMatches(ReteNode p_node) {
     final ConditionsAndNots cans = p_node_to_conditions_and_nots(p_node, null, null, false);
     final List<PartialMatches.Entry> entries =
-        getPartialMatchesAux(new ArrayList<Entry>(), p_node.parent, dummy_top_node, cans.bottom);
+        getPartialMatchesAux(
+            new ArrayList<Entry>(), p_node.parent, p_node, dummy_top_node, cans.bottom);
     return new PartialMatches(entries);
   }
 
   /**
    * Extracted from ppmi_aux method.
    *
+   * <p>Every left token emerging from a node ends up as exactly one token in the memory of each of
+   * its children, so rather than regenerating the tokens like CSoar does, this reads the token
+   * count kept at the child. The exception is a CN partner node, which doesn't keep its tokens.
+   *
    * @param node a rete node
+   * @param child the child of node (or of its split memory node) on the way to the p-node
    * @return the number of matches for in the node (left token count)
    */
-  private int getMatchCountForNode(ReteNode node) {
-    // find the number of matches for this condition
-    final var tokens = get_all_left_tokens_emerging_from_node(node);
-    var matches_at_this_level = 0;
-    for (var t = tokens; t != null; t = t.next_of_node) matches_at_this_level++;
-    return matches_at_this_level;
+  private int getMatchCountForNode(ReteNode node, ReteNode child) {
+    if (child.node_type == ReteNodeType.CN_PARTNER_BNODE) {
+      final var tokens = get_all_left_tokens_emerging_from_node(node);
+      var matches_at_this_level = 0;
+      for (var t = tokens; t != null; t = t.next_of_node) matches_at_this_level++;
+      return matches_at_this_level;
+    }
+    final ReteNode memory = child.node_type.bnode_is_bottom_of_split_mp() ? child.parent : child;
+    return memory.a_np().token_count;
+  }
+
+  /**
+   * Returns the number of complete matches for the given p-node, i.e. the number of tokens in it.
+   * Client code should call {@link Production#getMatchCount()}.
+   *
+   * @param p_node the production p-node
+   * @return match count, or 0 if p_node is <code>null</code>
+   */
+  public int getMatchCount(ReteNode p_node) {
+    return p_node != null ? p_node.a_np().token_count : 0;
   }
 
   /**
@@ -2484,11 +2978,46 @@ public int countTokensProduction(ReteNode p_node) {
     while (node != dummy_top_node) {
       if ((node.node_type != ReteNodeType.POSITIVE_BNODE)
           && (node.node_type != ReteNodeType.UNHASHED_POSITIVE_BNODE)) {
-        for (Token tok = node.a_np().tokens; tok != null; tok = tok.next_of_node) count++;
+        count += node.a_np().token_count;
       }
       if (node.node_type == ReteNodeType.CN_BNODE) node = node.b_cn().partner.parent;
       else node = node.parent;
     }
     return count;
   }
+
+  /** Read-only view of the dll of all wmes in the rete */
+  private class AllWmesView extends AbstractCollection<WmeImpl> {
+    @Override
+    public Iterator<WmeImpl> iterator() {
+      return new Iterator<WmeImpl>() {
+        private WmeImpl next = all_wmes_in_rete;
+
+        @Override
+        public boolean hasNext() {
+          return next != null;
+        }
+
+        @Override
+        public WmeImpl next() {
+          if (next == null) {
+            throw new NoSuchElementException();
+          }
+          final WmeImpl result = next;
+          next = next.rete_next;
+          return result;
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return num_wmes_in_rete;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      return o instanceof Wme && containsWme((Wme) o);
+    }
+  }
 }
@@ -0,0 +1,269 @@
+package org.jsoar.kernel.rete;
+
+import java.lang.reflect.Array;
+
+/**
+ * Base class for the chained hash tables used by the rete to hold left tokens and right memories.
+ * CSoar uses fixed size tables. Here, the table grows (and optionally shrinks) as the number of
+ * entries changes so that bucket chains stay short as working memory grows.
+ *
+ * <p>Resizing is incremental. When a resize starts, a new bucket array is allocated and the old
+ * buckets are migrated to it a few at a time by {@link #rehash(int)}. While a migration is in
+ * progress, a hash value is routed to the old bucket array if its old bucket hasn't been migrated
+ * yet, and to the new one otherwise. Since all entries with the same hash value always live in the
+ * same old bucket, a bucket chain returned for a hash value always contains every entry with that
+ * hash value.
+ *
+ * <p>Because the rete walks bucket chains while it adds and removes entries, {@link #rehash(int)}
+ * must only be called when no match is in progress, e.g. between phases.
+ *
+ * @param <T> the entry type
+ */
+abstract class ReteHashTable<T> {
+  /** The table size used by CSoar, and the default initial size */
+  static final int DEFAULT_LOG2_SIZE = 14;
+
+  private static final int MIN_LOG2_SIZE = 4;
+  private static final int MAX_LOG2_SIZE = 30;
+
+  private final Class<T> type;
+
+  private T[] buckets;
+  private int log2Size;
+  private int mask;
+
+  /** Buckets being migrated into {@link #buckets}, or {@code null} if no resize is in progress */
+  private T[] oldBuckets;
+
+  private int oldMask;
+
+  /** Index of the next old bucket to migrate. Old buckets below this index are empty. */
+  private int migrated;
+
+  private int size;
+  private int minLog2Size;
+  private boolean shrinkEnabled;
+  private int resizes;
+
+  ReteHashTable(Class<T> type, int log2Size) {
+    this.type = type;
+    this.minLog2Size = clampLog2Size(log2Size);
+    allocate(this.minLog2Size);
+  }
+
+  /**
+   * Returns the hash value an entry was inserted with
+   *
+   * @param entry the entry
+   * @return its hash value
+   */
+  abstract int hashOf(T entry);
+
+  /**
+   * @param entry the entry
+   * @return the next entry in the entry's bucket chain
+   */
+  abstract T nextInBucket(T entry);
+
+  /**
+   * @param entry the entry
+   * @return the previous entry in the entry's bucket chain
+   */
+  abstract T previousInBucket(T entry);
+
+  /**
+   * Link an entry in front of the given bucket head
+   *
+   * @param entry the entry to insert
+   * @param head the current head of the bucket, possibly {@code null}
+   * @return the new head of the bucket
+   */
+  abstract T insertAtHead(T entry, T head);
+
+  /**
+   * Returns the head of the bucket chain containing entries with the given hash value
+   *
+   * @param hv the hash value
+   * @return the head of the bucket
+   */
+  final T bucket(int hv) {
+    if (oldBuckets != null) {
+      final int oldIndex = hv & oldMask;
+      if (oldIndex >= migrated) {
+        return oldBuckets[oldIndex];
+      }
+    }
+    return buckets[hv & mask];
+  }
+
+  /**
+   * Replace the head of the bucket chain containing entries with the given hash value
+   *
+   * @param hv the hash value
+   * @param head the new head
+   */
+  final void setBucket(int hv, T head) {
+    if (oldBuckets != null) {
+      final int oldIndex = hv & oldMask;
+      if (oldIndex >= migrated) {
+        oldBuckets[oldIndex] = head;
+        return;
+      }
+    }
+    buckets[hv & mask] = head;
+  }
+
+  /** Must be called by subclasses after an entry is inserted */
+  final void entryAdded() {
+    size++;
+    if (oldBuckets == null && size > buckets.length && log2Size < MAX_LOG2_SIZE) {
+      startResize(log2Size + 1);
+    }
+  }
+
+  /** Must be called by subclasses after an entry is removed */
+  final void entryRemoved() {
+    size--;
+    if (shrinkEnabled
+        && oldBuckets == null
+        && log2Size > minLog2Size
+        && size < (buckets.length >>> 3)) {
+      startResize(log2Size - 1);
+    }
+  }
+
+  /**
+   * Migrate up to the given number of buckets of a resize in progress. Must not be called while the
+   * rete is walking bucket chains.
+   *
+   * @param maxBuckets the maximum number of old buckets to migrate
+   * @return true if a resize is still in progress after this step
+   */
+  boolean rehash(int maxBuckets) {
+    if (oldBuckets == null) {
+      return false;
+    }
+    final int end = Math.min(oldBuckets.length, migrated + maxBuckets);
+    while (migrated < end) {
+      T tail = oldBuckets[migrated];
+      oldBuckets[migrated] = null;
+      migrated++;
+
+      if (tail == null) {
+        continue;
+      }
+      for (T next = nextInBucket(tail); next != null; next = nextInBucket(next)) {
+        tail = next;
+      }
+      // Walk backwards, inserting at head, so the chain order is preserved
+      for (T entry = tail; entry != null; ) {
+        final T previous = previousInBucket(entry);
+        final int index = hashOf(entry) & mask;
+        buckets[index] = insertAtHead(entry, buckets[index]);
+        entry = previous;
+      }
+    }
+    if (migrated == oldBuckets.length) {
+      oldBuckets = null;
+      migrated = 0;
+
+      // If we've outgrown the new table while migrating, start again
+      if (size > buckets.length && log2Size < MAX_LOG2_SIZE) {
+        startResize(log2Size + 1);
+      } else if (log2Size < minLog2Size) {
+        startResize(minLog2Size);
+      }
+    }
+    return oldBuckets != null;
+  }
+
+  /** Finish any resize in progress. Must not be called while the rete is walking bucket chains. */
+  void rehashAll() {
+    while (rehash(Integer.MAX_VALUE)) {}
+  }
+
+  /** @return true if a resize is in progress */
+  boolean isResizing() {
+    return oldBuckets != null;
+  }
+
+  /** @return the number of entries in the table */
+  int size() {
+    return size;
+  }
+
+  /** @return the log2 of the current bucket count */
+  int getLog2Size() {
+    return log2Size;
+  }
+
+  /**
+   * Set the minimum size of the table, which is also its initial size. If the table is smaller than
+   * this, it is grown. If a resize is already in progress, the table is grown once it finishes.
+   *
+   * @param log2Size log2 of the minimum number of buckets
+   */
+  void setMinimumLog2Size(int log2Size) {
+    minLog2Size = clampLog2Size(log2Size);
+    if (oldBuckets == null && this.log2Size < minLog2Size) {
+      startResize(minLog2Size);
+    }
+  }
+
+  /** @param shrinkEnabled true if the table should shrink when it becomes sparse */
+  void setShrinkEnabled(boolean shrinkEnabled) {
+    this.shrinkEnabled = shrinkEnabled;
+  }
+
+  /**
+   * Compute occupancy statistics for this table. This walks every bucket so it is intended for
+   * diagnostics only.
+   *
+   * @return statistics for this table
+   */
+  HashTableStatistics getStatistics() {
+    final int[] counts = new int[2]; // occupied buckets, longest chain
+    countChains(buckets, counts);
+    if (oldBuckets != null) {
+      countChains(oldBuckets, counts);
+    }
+    return new HashTableStatistics(
+        size, buckets.length, counts[0], counts[1], resizes, oldBuckets != null);
+  }
+
+  private void countChains(T[] array, int[] counts) {
+    for (T head : array) {
+      if (head != null) {
+        int length = 0;
+        for (T e = head; e != null; e = nextInBucket(e)) {
+          length++;
+        }
+        counts[0]++;
+        counts[1] = Math.max(counts[1], length);
+      }
+    }
+  }
+
+  private void startResize(int newLog2Size) {
+    resizes++;
+    if (size == 0) {
+      allocate(newLog2Size);
+      return;
+    }
+    oldBuckets = buckets;
+    oldMask = mask;
+    migrated = 0;
+    allocate(newLog2Size);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void allocate(int newLog2Size) {
+    log2Size = newLog2Size;
+    buckets = (T[]) Array.newInstance(type, 1 << newLog2Size);
+    mask = buckets.length - 1;
+  }
+
+  private static int clampLog2Size(int log2Size) {
+    return Math.max(MIN_LOG2_SIZE, Math.min(MAX_LOG2_SIZE, log2Size));
+  }
+}
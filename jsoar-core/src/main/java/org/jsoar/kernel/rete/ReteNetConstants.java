@@ -47,7 +47,7 @@ public static VarName fromOrdinal(int i) throws SoarException {
    * @param enm Enum class to operate on.
    * @param index the ordinal of the enum constant to return (see {@link Enum#ordinal()}).
    */
-  private static <E extends Enum<E>> E fromOrdinal(Class<E> enm, int index) throws SoarException {
+  static <E extends Enum<E>> E fromOrdinal(Class<E> enm, int index) throws SoarException {
     E[] enumConstants = enm.getEnumConstants();
     if (index >= enumConstants.length) {
       throw new SoarException(
@@ -6,9 +6,12 @@
 package org.jsoar.kernel.rete;
 
 import java.io.BufferedInputStream;
+import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
@@ -53,7 +56,13 @@
 public class ReteNetReader {
   // JSoar rete-net header information.
   protected static final String MAGIC_STRING = "JSoarCompactReteNet";
-  protected static final int FORMAT_VERSION = 1;
+  protected static final int FORMAT_VERSION = 2;
+
+  /**
+   * Version 1 wrote every int as four bytes and enums by name. Version 2 writes ints as varints and
+   * enums by ordinal, which makes files much smaller and quicker to read.
+   */
+  private static final int FIRST_COMPACT_VERSION = 2;
 
   private final Agent context;
   private final SymbolFactoryImpl syms;
@@ -61,6 +70,7 @@ public class ReteNetReader {
   private final DefaultProductionManager productionManager;
   private final ReinforcementLearning rl;
 
+  private int version;
   private List<Symbol> symbolMap;
   private List<AlphaMemory> alphaMemories;
 
@@ -85,16 +95,36 @@ protected ReteNetReader(@NonNull Agent context) {
    * @see ReteNetWriter#write(java.io.OutputStream)
    */
   public void read(InputStream is) throws IOException, SoarException {
-    DataInputStream dis = new DataInputStream(new BufferedInputStream(is));
+    readNet(new DataInputStream(new BufferedInputStream(is)));
+  }
+
+  /**
+   * Load a rete network from the given buffer, starting at its current position. The buffer is read
+   * in place, so it may be a memory-mapped file, and its position is left after the rete net. Use a
+   * {@link ByteBuffer#duplicate() duplicate} to load the same buffer into several agents.
+   *
+   * @param buffer the buffer to read from
+   * @throws IOException if the buffer ends early
+   * @throws SoarException if an error occurs
+   * @see ReteNetWriter#write(java.io.OutputStream)
+   */
+  public void read(ByteBuffer buffer) throws IOException, SoarException {
+    final ByteBuffer in = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+    readNet(new ByteBufferDataInput(in));
+    buffer.position(in.position());
+  }
+
+  private void readNet(DataInput dis) throws IOException, SoarException {
     final String magic = dis.readUTF();
     if (!MAGIC_STRING.equals(magic)) {
       throw new SoarException("Input does not appear to be a valid JSoar rete net");
     }
-    final int version = dis.readInt();
-    if (version != FORMAT_VERSION) {
+    version = dis.readInt();
+    if (version < 1 || version > FORMAT_VERSION) {
       throw new SoarException(
           String.format(
-              "Unsupported JSoar rete net version. Expected %d, got %d", FORMAT_VERSION, version));
+              "Unsupported JSoar rete net version. Expected at most %d, got %d",
+              FORMAT_VERSION, version));
     }
 
     readAllSymbols(dis);
@@ -105,8 +135,8 @@ public void read(InputStream is) throws IOException, SoarException {
 
   /** @see ReteNetWriter#writeProperties */
   @SuppressWarnings("unchecked")
-  private void readProperties(DataInputStream dis) throws IOException, SoarException {
-    int numProperties = dis.readInt();
+  private void readProperties(DataInput dis) throws IOException, SoarException {
+    int numProperties = readInt(dis);
     PropertyManager properties = context.getProperties();
     for (int i = 0; i < numProperties; i++) {
       String name = dis.readUTF();
@@ -119,7 +149,7 @@ private void readProperties(DataInputStream dis) throws IOException, SoarExcepti
         boolean value = dis.readBoolean();
         properties.set((PropertyKey<Boolean>) propertyKey, value);
       } else if (propertyKey.getType().equals(Integer.class)) {
-        int value = dis.readInt();
+        int value = readInt(dis);
         properties.set((PropertyKey<Integer>) propertyKey, value);
       } else {
         throw new SoarException(
@@ -130,9 +160,9 @@ private void readProperties(DataInputStream dis) throws IOException, SoarExcepti
   }
 
   /** @see ReteNetWriter#writeChildrenOfNode */
-  private void readChildrenOfNode(DataInputStream dis) throws IOException, SoarException {
+  private void readChildrenOfNode(DataInput dis) throws IOException, SoarException {
     // Number of children.
-    int numNodes = dis.readInt();
+    int numNodes = readInt(dis);
 
     for (int i = 0; i < numNodes; i++) {
       readNodeAndChildren(dis, rete.dummy_top_node);
@@ -143,7 +173,7 @@ private void readChildrenOfNode(DataInputStream dis) throws IOException, SoarExc
    * @see ReteNetWriter#writeNodeAndChildren
    *     <p>rete.cpp:7377:reteload_node_and_children
    */
-  private void readNodeAndChildren(DataInputStream dis, ReteNode parent)
+  private void readNodeAndChildren(DataInput dis, ReteNode parent)
       throws IOException, SoarException {
     Stack<ReteNode> stack = new Stack<>();
     stack.push(parent);
@@ -151,7 +181,7 @@ private void readNodeAndChildren(DataInputStream dis, ReteNode parent)
     while (stack.size() > 0) {
       ReteNode currentParent = stack.pop();
 
-      final ReteNodeType type = ReteNodeType.valueOf(dis.readUTF());
+      final ReteNodeType type = readEnum(dis, ReteNodeType.class);
       ReteNode New = null;
       AlphaMemory am;
       boolean left_unlinked_flag;
@@ -177,7 +207,7 @@ private void readNodeAndChildren(DataInputStream dis, ReteNode parent)
           left_hash_loc = readLeftHashLoc(dis);
           // ... and fall through to the next case below ...
         case UNHASHED_MP_BNODE:
-          am = alphaMemories.get(dis.readInt());
+          am = alphaMemories.get(readInt(dis));
           am.reference_count++;
           other_tests = readTestList(dis);
           left_unlinked_flag = dis.readBoolean();
@@ -188,7 +218,7 @@ private void readNodeAndChildren(DataInputStream dis, ReteNode parent)
 
         case POSITIVE_BNODE:
         case UNHASHED_POSITIVE_BNODE:
-          am = alphaMemories.get(dis.readInt());
+          am = alphaMemories.get(readInt(dis));
           am.reference_count++;
           other_tests = readTestList(dis);
           left_unlinked_flag = dis.readBoolean();
@@ -201,7 +231,7 @@ private void readNodeAndChildren(DataInputStream dis, ReteNode parent)
           left_hash_loc = readLeftHashLoc(dis);
           // ... and fall through to the next case below ...
         case UNHASHED_NEGATIVE_BNODE:
-          am = alphaMemories.get(dis.readInt());
+          am = alphaMemories.get(readInt(dis));
           am.reference_count++;
 
           other_tests = readTestList(dis);
@@ -211,7 +241,7 @@ private void readNodeAndChildren(DataInputStream dis, ReteNode parent)
           break;
 
         case CN_PARTNER_BNODE:
-          int count = dis.readInt();
+          int count = readInt(dis);
           ReteNode ncc_top = currentParent;
           while (count-- > 0) ncc_top = ncc_top.real_parent_node();
           New = ReteNode.make_new_cn_node(rete, ncc_top, currentParent);
@@ -220,8 +250,8 @@ private void readNodeAndChildren(DataInputStream dis, ReteNode parent)
         case P_BNODE:
           String name = dis.readUTF();
           String doc = dis.readUTF();
-          ProductionType prodType = ProductionType.valueOf(dis.readUTF());
-          Support declaredSupport = Support.valueOf(dis.readUTF());
+          ProductionType prodType = readEnum(dis, ProductionType.class);
+          Support declaredSupport = readEnum(dis, Support.class);
           Action actionList = readActionList(dis);
           prod =
               Production.newBuilder()
@@ -232,11 +262,11 @@ private void readNodeAndChildren(DataInputStream dis, ReteNode parent)
                   .actions(actionList)
                   .build();
 
-          int numUnboundVariables = dis.readInt();
+          int numUnboundVariables = readInt(dis);
           rete.update_max_rhs_unbound_variables(numUnboundVariables);
           List<Variable> unboundVars = new ArrayList<Variable>(numUnboundVariables);
           for (int i = 0; i < numUnboundVariables; i++) {
-            unboundVars.add(getSymbol(dis.readInt()).asVariable());
+            unboundVars.add(getSymbol(readInt(dis)).asVariable());
           }
           prod.setRhsUnboundVariables(unboundVars);
 
@@ -263,17 +293,46 @@ private void readNodeAndChildren(DataInputStream dis, ReteNode parent)
       }
 
       /* --- read in the children of the node --- */
-      int count = dis.readInt();
+      int count = readInt(dis);
       while (count-- > 0) {
         stack.push(New);
       }
     }
   }
 
+  /** @see ReteNetWriter#writeInt */
+  private int readInt(DataInput dis) throws IOException {
+    if (version < FIRST_COMPACT_VERSION) {
+      return dis.readInt();
+    }
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      final byte b = dis.readByte();
+      value |= (b & 0x7f) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IOException("Malformed int in rete net");
+  }
+
+  /** @see ReteNetWriter#writeEnum */
+  private <E extends Enum<E>> E readEnum(DataInput dis, Class<E> enm)
+      throws IOException, SoarException {
+    if (version < FIRST_COMPACT_VERSION) {
+      try {
+        return Enum.valueOf(enm, dis.readUTF());
+      } catch (IllegalArgumentException e) {
+        throw new SoarException(e.getMessage());
+      }
+    }
+    return ReteNetConstants.fromOrdinal(enm, dis.readUnsignedByte());
+  }
+
   /** @see ReteNetWriter#writeLeftHashLoc */
-  private VarLocation readLeftHashLoc(DataInputStream dis) throws IOException {
-    int field_num = dis.readInt();
-    int levels_up = dis.readInt();
+  private VarLocation readLeftHashLoc(DataInput dis) throws IOException {
+    int field_num = readInt(dis);
+    int levels_up = readInt(dis);
 
     return new VarLocation(levels_up, field_num);
   }
@@ -283,13 +342,13 @@ private VarLocation readLeftHashLoc(DataInputStream dis) throws IOException {
    *
    * @see ReteNetWriter#writeActionList
    */
-  private Action readActionList(DataInputStream dis) throws IOException, SoarException {
+  private Action readActionList(DataInput dis) throws IOException, SoarException {
     Action a;
     Action prev_a = null;
     Action first_a = null;
     int count;
 
-    count = dis.readInt();
+    count = readInt(dis);
 
     while (count-- > 0) {
       a = readAction(dis);
@@ -313,10 +372,10 @@ private Action readActionList(DataInputStream dis) throws IOException, SoarExcep
    *
    * @see ReteNetWriter#writeAction
    */
-  private Action readAction(DataInputStream dis) throws IOException, SoarException {
+  private Action readAction(DataInput dis) throws IOException, SoarException {
     Action a = null;
 
-    int type = dis.readInt();
+    int type = readInt(dis);
     ReteNetConstants.Action actionType = ReteNetConstants.Action.fromOrdinal(type);
     if (actionType == ReteNetConstants.Action.MAKE_ACTION) {
       a = new MakeAction();
@@ -328,12 +387,11 @@ private Action readAction(DataInputStream dis) throws IOException, SoarException
 
     boolean hasPreferenceType = dis.readBoolean();
     if (hasPreferenceType) {
-      String preference_type = dis.readUTF();
-      a.preference_type = PreferenceType.valueOf(preference_type);
+      a.preference_type = readEnum(dis, PreferenceType.class);
     } else {
       a.preference_type = null;
     }
-    a.support = ActionSupport.valueOf(dis.readUTF());
+    a.support = readEnum(dis, ActionSupport.class);
 
     if (actionType == ReteNetConstants.Action.FUNCALL_ACTION) {
       FunctionAction fa = a.asFunctionAction();
@@ -358,22 +416,22 @@ private Action readAction(DataInputStream dis) throws IOException, SoarException
    *
    * @see ReteNetWriter#writeRHSValue
    */
-  private RhsValue readRHSValue(DataInputStream dis) throws IOException, SoarException {
+  private RhsValue readRHSValue(DataInput dis) throws IOException, SoarException {
     RhsValue rv = null;
     SymbolImpl sym;
     int field_num;
     int type;
     int levels_up;
 
-    type = dis.readInt();
+    type = readInt(dis);
     ReteNetConstants.RHS rhsType = ReteNetConstants.RHS.fromOrdinal(type);
     switch (rhsType) {
       case RHS_SYMBOL: // RhsSymbolValue
-        sym = getSymbol(dis.readInt());
+        sym = getSymbol(readInt(dis));
         rv = new RhsSymbolValue(sym);
         break;
       case RHS_FUNCALL: // RhsFunctionCall
-        sym = getSymbol(dis.readInt());
+        sym = getSymbol(readInt(dis));
         boolean isStandalone = dis.readBoolean();
 
         // Check if the RHS function sym exists.
@@ -387,19 +445,19 @@ private RhsValue readRHSValue(DataInputStream dis) throws IOException, SoarExcep
                   sym.asString().getValue());
         }
         RhsFunctionCall funCall = new RhsFunctionCall(sym.asString(), isStandalone);
-        int count = dis.readInt();
+        int count = readInt(dis);
         while (count-- > 0) {
           funCall.addArgument(readRHSValue(dis));
         }
         rv = funCall;
         break;
       case RHS_RETELOC: // ReteLocation
-        field_num = dis.readInt();
-        levels_up = dis.readInt();
+        field_num = readInt(dis);
+        levels_up = readInt(dis);
         rv = ReteLocation.create(field_num, levels_up);
         break;
       case RHS_UNBOUND_VAR: // UnboundVariable
-        int index = dis.readInt(); // Index of the unbound variable.
+        int index = readInt(dis); // Index of the unbound variable.
         rete.update_max_rhs_unbound_variables(index + 1);
         rv = UnboundVariable.create(index);
         break;
@@ -415,13 +473,13 @@ private RhsValue readRHSValue(DataInputStream dis) throws IOException, SoarExcep
    *
    * @see ReteNetWriter#writeTestList
    */
-  private ReteTest readTestList(DataInputStream dis) throws IOException, SoarException {
+  private ReteTest readTestList(DataInput dis) throws IOException, SoarException {
     ReteTest rt, prev_rt, first;
     int count;
 
     prev_rt = null;
     first = null;
-    count = dis.readInt();
+    count = readInt(dis);
     while (count-- > 0) {
       rt = readTest(dis);
       if (prev_rt != null) {
@@ -446,29 +504,29 @@ private ReteTest readTestList(DataInputStream dis) throws IOException, SoarExcep
    *
    * @see ReteNetWriter#writeTest
    */
-  private ReteTest readTest(DataInputStream dis) throws IOException, SoarException {
+  private ReteTest readTest(DataInput dis) throws IOException, SoarException {
     SymbolImpl sym;
 
-    int type = dis.readInt();
-    int right_field_num = dis.readInt();
+    int type = readInt(dis);
+    int right_field_num = readInt(dis);
 
     ReteTest rt = new ReteTest(type);
     if (rt.test_is_constant_relational_test()) {
       type -= ReteTest.CONSTANT_RELATIONAL; // ReteTest's constructor will add this back in.
-      sym = getSymbol(dis.readInt());
+      sym = getSymbol(readInt(dis));
       rt = ReteTest.createConstantTest(type, right_field_num, (SymbolImpl) sym);
     } else if (rt.test_is_variable_relational_test()) {
       type -= ReteTest.VARIABLE_RELATIONAL; // ReteTest's constructor will add this back in.
-      int field_num = dis.readInt();
-      int levels_up = dis.readInt();
+      int field_num = readInt(dis);
+      int levels_up = readInt(dis);
       rt =
           ReteTest.createVariableTest(type, right_field_num, new VarLocation(levels_up, field_num));
     } else if (type == ReteTest.DISJUNCTION) {
-      int count = dis.readInt();
+      int count = readInt(dis);
       List<SymbolImpl> disjuncts = new ArrayList<SymbolImpl>(count);
 
       while (count-- > 0) {
-        sym = getSymbol(dis.readInt());
+        sym = getSymbol(readInt(dis));
         disjuncts.add((SymbolImpl) sym);
       }
       rt = ReteTest.createDisjunctionTest(right_field_num, disjuncts);
@@ -484,7 +542,7 @@ private ReteTest readTest(DataInputStream dis) throws IOException, SoarException
   }
 
   private static interface SymbolReader<T extends Symbol> {
-    T read(DataInputStream dis) throws IOException;
+    T read(DataInput dis) throws IOException;
   }
 
   /**
@@ -497,7 +555,7 @@ private ReteTest readTest(DataInputStream dis) throws IOException, SoarException
    * @throws SoarException
    * @see ReteNetWriter#writeAllSymbols
    */
-  private void readAllSymbols(DataInputStream dis) throws IOException, SoarException {
+  private void readAllSymbols(DataInput dis) throws IOException, SoarException {
     final List<Symbol> result = new ArrayList<Symbol>();
     result.add(null); // symbol 0 is null (see writeAllSymbols)
 
@@ -506,7 +564,7 @@ private void readAllSymbols(DataInputStream dis) throws IOException, SoarExcepti
             dis,
             new SymbolReader<StringSymbol>() {
 
-              public StringSymbol read(DataInputStream dis) throws IOException {
+              public StringSymbol read(DataInput dis) throws IOException {
                 return syms.createString(dis.readUTF());
               }
             }));
@@ -515,7 +573,7 @@ public StringSymbol read(DataInputStream dis) throws IOException {
             dis,
             new SymbolReader<Variable>() {
 
-              public Variable read(DataInputStream dis) throws IOException {
+              public Variable read(DataInput dis) throws IOException {
                 return syms.make_variable(dis.readUTF());
               }
             }));
@@ -524,7 +582,7 @@ public Variable read(DataInputStream dis) throws IOException {
             dis,
             new SymbolReader<IntegerSymbol>() {
 
-              public IntegerSymbol read(DataInputStream dis) throws IOException {
+              public IntegerSymbol read(DataInput dis) throws IOException {
                 return syms.createInteger(dis.readLong());
               }
             }));
@@ -533,7 +591,7 @@ public IntegerSymbol read(DataInputStream dis) throws IOException {
             dis,
             new SymbolReader<DoubleSymbol>() {
 
-              public DoubleSymbol read(DataInputStream dis) throws IOException {
+              public DoubleSymbol read(DataInput dis) throws IOException {
                 return syms.createDouble(dis.readDouble());
               }
             }));
@@ -541,9 +599,9 @@ public DoubleSymbol read(DataInputStream dis) throws IOException {
   }
 
   /** @see ReteNetWriter#writeSymbolList */
-  private <T extends Symbol> List<T> readSymbolList(DataInputStream dis, SymbolReader<T> reader)
+  private <T extends Symbol> List<T> readSymbolList(DataInput dis, SymbolReader<T> reader)
       throws IOException, SoarException {
-    final int size = dis.readInt();
+    final int size = readInt(dis);
     if (size < 0) {
       throw new SoarException(String.format("Invalid symbol list size %d", size));
     }
@@ -570,8 +628,8 @@ private SymbolImpl getSymbol(int index) throws SoarException {
    *
    * @see ReteNetWriter#writeAlphaMemories
    */
-  private void readAlphaMemories(DataInputStream dis) throws IOException, SoarException {
-    final int count = dis.readInt();
+  private void readAlphaMemories(DataInput dis) throws IOException, SoarException {
+    final int count = readInt(dis);
     if (count < 0) {
       throw new SoarException(String.format("Invalid alpha memory list size %d", count));
     }
@@ -579,9 +637,9 @@ private void readAlphaMemories(DataInputStream dis) throws IOException, SoarExce
     final List<AlphaMemory> ams = new ArrayList<AlphaMemory>(count);
     ams.add(null); // am index values start at 1. See writeAlphaMemories
     for (int i = 0; i < count; ++i) {
-      final SymbolImpl id = getSymbol(dis.readInt());
-      final SymbolImpl attr = getSymbol(dis.readInt());
-      final SymbolImpl value = getSymbol(dis.readInt());
+      final SymbolImpl id = getSymbol(readInt(dis));
+      final SymbolImpl attr = getSymbol(readInt(dis));
+      final SymbolImpl value = getSymbol(readInt(dis));
       final boolean acceptable = dis.readBoolean();
       ams.add(rete.find_or_make_alpha_mem(id, attr, value, acceptable));
     }
@@ -593,8 +651,8 @@ private void readAlphaMemories(DataInputStream dis) throws IOException, SoarExce
    *
    * @see ReteNetWriter#writeVarNames
    */
-  private Object readVarNames(DataInputStream dis) throws SoarException, IOException {
-    final int type = dis.readInt();
+  private Object readVarNames(DataInput dis) throws SoarException, IOException {
+    final int type = readInt(dis);
     final ReteNetConstants.VarName varNameType = ReteNetConstants.VarName.fromOrdinal(type);
 
     switch (varNameType) {
@@ -604,19 +662,19 @@ private Object readVarNames(DataInputStream dis) throws SoarException, IOExcepti
         }
       case VARNAME_ONE_VAR:
         {
-          final int index = dis.readInt();
+          final int index = readInt(dis);
           return VarNames.one_var_to_varnames(getSymbol(index).asVariable());
         }
       case VARNAME_LIST:
         {
-          final int count = dis.readInt();
+          final int count = readInt(dis);
           if (count < 0) {
             throw new SoarException(
                 String.format("Count of varnames list record must be positive, got %d", count));
           }
           final LinkedList<Variable> vars = new LinkedList<Variable>();
           for (int i = 0; i < count; ++i) {
-            vars.add(getSymbol(i).asVariable());
+            vars.add(getSymbol(readInt(dis)).asVariable());
           }
           return VarNames.var_list_to_varnames(vars);
         }
@@ -633,7 +691,7 @@ private Object readVarNames(DataInputStream dis) throws SoarException, IOExcepti
    *
    * @see ReteNetWriter#writeNodeVarNames
    */
-  private NodeVarNames readNodeVarNames(DataInputStream dis, ReteNode node, List<Symbol> symbolMap)
+  private NodeVarNames readNodeVarNames(DataInput dis, ReteNode node, List<Symbol> symbolMap)
       throws SoarException, IOException {
     if (node.node_type == ReteNodeType.DUMMY_TOP_BNODE) {
       return null;
@@ -130,13 +130,13 @@ private void ensureNoJustifications() throws SoarException {
    */
   private void writeProperties(DataOutputStream dos, HashSet<PropertyKey<?>> properties)
       throws IOException, SoarException {
-    dos.writeInt(properties.size());
+    writeInt(dos, properties.size());
     for (PropertyKey<?> prop : properties) {
       dos.writeUTF(prop.getName());
       if (prop.getType().equals(Boolean.class)) {
         dos.writeBoolean((Boolean) context.getProperties().get(prop));
       } else if (prop.getType().equals(Integer.class)) {
-        dos.writeInt((Integer) context.getProperties().get(prop));
+        writeInt(dos, (Integer) context.getProperties().get(prop));
       } else {
         throw new SoarException("Unhandled property type: " + prop.getType());
       }
@@ -168,7 +168,7 @@ public boolean apply(ReteNode child) {
     children = FluentIterable.from(children.toList().reverse());
 
     // --- Count number of non-CN-node children. ---
-    dos.writeInt(children.size());
+    writeInt(dos, children.size());
 
     for (ReteNode child : children) {
       writeNodeAndChildren(dos, child);
@@ -198,9 +198,8 @@ private void writeNodeAndChildren(DataOutputStream dos, ReteNode node)
     Production prod;
     ReteNode temp;
 
-    // RETECOMPAT: When writing out an enum type, JSoar uses the enum's toString(), but CSoar writes
-    // out one byte.
-    dos.writeUTF(node.node_type.toString());
+    // RETECOMPAT: JSoar writes enums as one byte ordinals, like CSoar, but the ordinals differ.
+    writeEnum(dos, node.node_type);
 
     switch (node.node_type) {
       case MEMORY_BNODE:
@@ -214,16 +213,15 @@ private void writeNodeAndChildren(DataOutputStream dos, ReteNode node)
         // ... and fall through to the next case below ...
       case UNHASHED_MP_BNODE:
         // RETECOMPAT: No effort has been put in writing out CSoar compatible integers. Everything
-        // is written
-        // out as a 32-bit integer.
-        dos.writeInt(getAlphaMemoryIndex(node.b_posneg().alpha_mem_));
+        // is written out as a varint.
+        writeInt(dos, getAlphaMemoryIndex(node.b_posneg().alpha_mem_));
         writeTestList(dos, node.b_posneg().other_tests);
         dos.writeBoolean(node.a_np().is_left_unlinked);
         break;
 
       case POSITIVE_BNODE:
       case UNHASHED_POSITIVE_BNODE:
-        dos.writeInt(getAlphaMemoryIndex(node.b_posneg().alpha_mem_));
+        writeInt(dos, getAlphaMemoryIndex(node.b_posneg().alpha_mem_));
         writeTestList(dos, node.b_posneg().other_tests);
         dos.writeBoolean(node.node_is_left_unlinked());
         break;
@@ -232,7 +230,7 @@ private void writeNodeAndChildren(DataOutputStream dos, ReteNode node)
         writeLeftHashLoc(dos, node);
         // ... and fall through to the next case below ...
       case UNHASHED_NEGATIVE_BNODE:
-        dos.writeInt(getAlphaMemoryIndex(node.b_posneg().alpha_mem_));
+        writeInt(dos, getAlphaMemoryIndex(node.b_posneg().alpha_mem_));
         writeTestList(dos, node.b_posneg().other_tests);
         break;
 
@@ -243,7 +241,7 @@ private void writeNodeAndChildren(DataOutputStream dos, ReteNode node)
           temp = temp.real_parent_node();
           i++;
         }
-        dos.writeInt(i);
+        writeInt(dos, i);
         break;
 
       case P_BNODE:
@@ -251,12 +249,12 @@ private void writeNodeAndChildren(DataOutputStream dos, ReteNode node)
         // RETECOMPAT: Production names in JSoar are strings, but in CSoar they're string symbols.
         dos.writeUTF(prod.getName());
         dos.writeUTF(prod.getDocumentation());
-        dos.writeUTF(prod.getType().toString());
-        dos.writeUTF(prod.getDeclaredSupport().toString());
+        writeEnum(dos, prod.getType());
+        writeEnum(dos, prod.getDeclaredSupport());
         writeActionList(dos, prod.getFirstAction());
-        dos.writeInt(prod.getRhsUnboundVariables().size());
+        writeInt(dos, prod.getRhsUnboundVariables().size());
         for (Variable unboundVar : prod.getRhsUnboundVariables()) {
-          dos.writeInt(getSymbolIndex(unboundVar));
+          writeInt(dos, getSymbolIndex(unboundVar));
         }
         if (node.b_p().parents_nvn != null) {
           dos.writeBoolean(true);
@@ -275,14 +273,38 @@ private void writeNodeAndChildren(DataOutputStream dos, ReteNode node)
     writeChildrenOfNode(dos, node);
   }
 
+  /**
+   * Writes an int in as few bytes as possible, seven bits at a time starting with the lowest, with
+   * the high bit of each byte set if more follow. Most ints in a rete net are small counts and
+   * indexes, so they take one byte.
+   *
+   * @see ReteNetReader#readInt
+   */
+  private static void writeInt(DataOutputStream dos, int value) throws IOException {
+    while ((value & ~0x7f) != 0) {
+      dos.writeByte((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    dos.writeByte(value);
+  }
+
+  /**
+   * Writes an enum constant as a one byte ordinal.
+   *
+   * @see ReteNetReader#readEnum
+   */
+  private static void writeEnum(DataOutputStream dos, Enum<?> value) throws IOException {
+    dos.writeByte(value.ordinal());
+  }
+
   /**
    * Convenience function for writing out the field_num and levels_up for a {@link ReteNode}.
    *
    * @see ReteNetReader#readLeftHashLoc
    */
   private void writeLeftHashLoc(DataOutputStream dos, ReteNode node) throws IOException {
-    dos.writeInt(node.left_hash_loc_field_num);
-    dos.writeInt(node.left_hash_loc_levels_up);
+    writeInt(dos, node.left_hash_loc_field_num);
+    writeInt(dos, node.left_hash_loc_levels_up);
   }
 
   /**
@@ -306,7 +328,7 @@ private void writeActionList(DataOutputStream dos, Action firstAction)
     for (a = firstAction; a != null; a = a.next) {
       numActions++;
     }
-    dos.writeInt(numActions);
+    writeInt(dos, numActions);
 
     for (a = firstAction; a != null; a = a.next) {
       writeAction(dos, a);
@@ -327,20 +349,20 @@ private void writeActionList(DataOutputStream dos, Action firstAction)
    */
   private void writeAction(DataOutputStream dos, Action a) throws IOException, SoarException {
     if (a instanceof MakeAction) {
-      dos.writeInt(ReteNetConstants.Action.MAKE_ACTION.ordinal());
+      writeInt(dos, ReteNetConstants.Action.MAKE_ACTION.ordinal());
     } else if (a instanceof FunctionAction) {
-      dos.writeInt(ReteNetConstants.Action.FUNCALL_ACTION.ordinal());
+      writeInt(dos, ReteNetConstants.Action.FUNCALL_ACTION.ordinal());
     } else {
       throw new SoarException("Unhandled action type.");
     }
 
     if (a.preference_type != null) {
       dos.writeBoolean(true);
-      dos.writeUTF(a.preference_type.toString());
+      writeEnum(dos, a.preference_type);
     } else {
       dos.writeBoolean(false);
     }
-    dos.writeUTF(a.support.toString());
+    writeEnum(dos, a.support);
 
     if (a instanceof FunctionAction) {
       writeRHSValue(dos, a.asFunctionAction().call);
@@ -377,25 +399,25 @@ private void writeRHSValue(DataOutputStream dos, RhsValue rv) throws IOException
     Symbol sym;
 
     if (rv instanceof RhsSymbolValue) {
-      dos.writeInt(ReteNetConstants.RHS.RHS_SYMBOL.ordinal());
+      writeInt(dos, ReteNetConstants.RHS.RHS_SYMBOL.ordinal());
       sym = rv.asSymbolValue().getSym();
-      dos.writeInt(getSymbolIndex(sym));
+      writeInt(dos, getSymbolIndex(sym));
     } else if (rv instanceof RhsFunctionCall) {
-      dos.writeInt(ReteNetConstants.RHS.RHS_FUNCALL.ordinal());
-      dos.writeInt(getSymbolIndex(rv.asFunctionCall().getName()));
+      writeInt(dos, ReteNetConstants.RHS.RHS_FUNCALL.ordinal());
+      writeInt(dos, getSymbolIndex(rv.asFunctionCall().getName()));
       dos.writeBoolean(rv.asFunctionCall().isStandalone());
       List<RhsValue> arguments = rv.asFunctionCall().getArguments();
-      dos.writeInt(arguments.size());
+      writeInt(dos, arguments.size());
       for (RhsValue value : arguments) {
         writeRHSValue(dos, value);
       }
     } else if (rv instanceof ReteLocation) {
-      dos.writeInt(ReteNetConstants.RHS.RHS_RETELOC.ordinal());
-      dos.writeInt(rv.asReteLocation().getFieldNum());
-      dos.writeInt(rv.asReteLocation().getLevelsUp());
+      writeInt(dos, ReteNetConstants.RHS.RHS_RETELOC.ordinal());
+      writeInt(dos, rv.asReteLocation().getFieldNum());
+      writeInt(dos, rv.asReteLocation().getLevelsUp());
     } else if (rv instanceof UnboundVariable) {
-      dos.writeInt(ReteNetConstants.RHS.RHS_UNBOUND_VAR.ordinal());
-      dos.writeInt(rv.asUnboundVariable().getIndex());
+      writeInt(dos, ReteNetConstants.RHS.RHS_UNBOUND_VAR.ordinal());
+      writeInt(dos, rv.asUnboundVariable().getIndex());
     } else {
       throw new SoarException("Unhandled RHS value");
     }
@@ -420,7 +442,7 @@ private void writeTestList(DataOutputStream dos, ReteTest firstRete)
     for (rt = firstRete; rt != null; rt = rt.next) {
       numTests++;
     }
-    dos.writeInt(numTests);
+    writeInt(dos, numTests);
 
     for (rt = firstRete; rt != null; rt = rt.next) {
       writeTest(dos, rt);
@@ -446,21 +468,21 @@ private void writeTestList(DataOutputStream dos, ReteTest firstRete)
    * @see ReteNetReader#readTest
    */
   private void writeTest(DataOutputStream dos, ReteTest rt) throws IOException, SoarException {
-    dos.writeInt(rt.type);
-    dos.writeInt(rt.right_field_num);
+    writeInt(dos, rt.type);
+    writeInt(dos, rt.right_field_num);
     // Relational tests to constants.
     if (rt.test_is_constant_relational_test()) {
-      dos.writeInt(getSymbolIndex(rt.constant_referent));
+      writeInt(dos, getSymbolIndex(rt.constant_referent));
     }
     // Relational tests to variables.
     else if (rt.test_is_variable_relational_test()) {
-      dos.writeInt(rt.variable_referent.field_num);
-      dos.writeInt(rt.variable_referent.levels_up);
+      writeInt(dos, rt.variable_referent.field_num);
+      writeInt(dos, rt.variable_referent.levels_up);
     } else if (rt.type == ReteTest.DISJUNCTION) {
       List<SymbolImpl> disjunctions = rt.disjunction_list;
-      dos.writeInt(disjunctions.size());
+      writeInt(dos, disjunctions.size());
       for (SymbolImpl disjunction : disjunctions) {
-        dos.writeInt(getSymbolIndex(disjunction));
+        writeInt(dos, getSymbolIndex(disjunction));
       }
     }
     // These both aren't included in CSoar's retesave_rete_test
@@ -539,7 +561,7 @@ public void write(DataOutputStream dos, DoubleSymbol s) throws IOException {
   private <T extends Symbol> int writeSymbolList(
       DataOutputStream dos, int nextIndex, List<T> symbols, SymbolWriter<T> writer)
       throws IOException {
-    dos.writeInt(symbols.size());
+    writeInt(dos, symbols.size());
     for (T s : symbols) {
       writer.write(dos, s);
       nextIndex = indexSymbol(s, nextIndex);
@@ -577,7 +599,7 @@ private int getSymbolIndex(Symbol s) {
   private void writeAlphaMemories(DataOutputStream dos, List<AlphaMemory> ams) throws IOException {
     amIndex = new HashMap<AlphaMemory, Integer>();
 
-    dos.writeInt(ams.size());
+    writeInt(dos, ams.size());
     int nextIndex = 1;
     for (AlphaMemory am : ams) {
       writeAlphaMemory(dos, am);
@@ -615,9 +637,9 @@ private int getAlphaMemoryIndex(AlphaMemory am) throws SoarException {
    * @see ReteNetReader#readAlphaMemories
    */
   private void writeAlphaMemory(DataOutputStream dos, AlphaMemory am) throws IOException {
-    dos.writeInt(getSymbolIndex(am.id));
-    dos.writeInt(getSymbolIndex(am.attr));
-    dos.writeInt(getSymbolIndex(am.value));
+    writeInt(dos, getSymbolIndex(am.id));
+    writeInt(dos, getSymbolIndex(am.attr));
+    writeInt(dos, getSymbolIndex(am.value));
     dos.writeBoolean(am.acceptable);
   }
 
@@ -633,16 +655,16 @@ private void writeAlphaMemory(DataOutputStream dos, AlphaMemory am) throws IOExc
    */
   private void writeVarNames(DataOutputStream dos, Object varNames) throws IOException {
     if (varNames == null) {
-      dos.writeInt(ReteNetConstants.VarName.VARNAME_NULL.ordinal());
+      writeInt(dos, ReteNetConstants.VarName.VARNAME_NULL.ordinal());
     } else if (VarNames.varnames_is_one_var(varNames)) {
-      dos.writeInt(ReteNetConstants.VarName.VARNAME_ONE_VAR.ordinal());
-      dos.writeInt(getSymbolIndex(VarNames.varnames_to_one_var(varNames)));
+      writeInt(dos, ReteNetConstants.VarName.VARNAME_ONE_VAR.ordinal());
+      writeInt(dos, getSymbolIndex(VarNames.varnames_to_one_var(varNames)));
     } else {
-      dos.writeInt(ReteNetConstants.VarName.VARNAME_LIST.ordinal());
+      writeInt(dos, ReteNetConstants.VarName.VARNAME_LIST.ordinal());
       final List<Variable> vars = VarNames.varnames_to_var_list(varNames);
-      dos.writeInt(vars.size());
+      writeInt(dos, vars.size());
       for (Variable v : vars) {
-        dos.writeInt(getSymbolIndex(v));
+        writeInt(dos, getSymbolIndex(v));
       }
     }
   }
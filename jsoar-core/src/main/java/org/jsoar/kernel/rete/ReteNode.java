@@ -33,6 +33,8 @@ public class ReteNode {
   ReteNode first_child; // used for dll of all children
   ReteNode next_sibling; // regardless of unlinking status
 
+  long profile_nanos; // estimated time spent in this node's activations, see Rete#setProfiling
+
   private AReteNodeData a = null;
   private BReteNodeData b = null;
 
@@ -288,6 +290,7 @@ static ReteNode createDummy() {
   static ReteNode make_new_mem_node(
       Rete rete, ReteNode parent, ReteNodeType node_type, VarLocation left_hash_loc) {
     ReteNode node = new ReteNode(node_type, rete.get_next_beta_node_id());
+    rete.update_stats_for_creating_node(node_type);
 
     node.parent = parent;
     node.next_sibling = parent.first_child;
@@ -324,6 +327,7 @@ static ReteNode make_new_positive_node(
       ReteTest rt,
       boolean prefer_left_unlinking) {
     ReteNode node = new ReteNode(node_type, 0);
+    rete.update_stats_for_creating_node(node_type);
 
     node.parent = parent_mem;
     node.next_sibling = parent_mem.first_child;
@@ -388,9 +392,11 @@ static ReteNode split_mp_node(Rete rete, ReteNode mp_node) {
     // save a copy of the MP data, then kill the MP node
     final ReteNode parent = mp_node.parent;
     mp_node.remove_node_from_parents_list_of_children();
+    rete.update_stats_for_destroying_node(mp_node.node_type);
 
     // create the new memory node
     final ReteNode mem_node = new ReteNode(mem_node_type, mp_node.node_id);
+    rete.update_stats_for_creating_node(mem_node_type);
 
     // Insert the memory node in the position of the original MP node
     mem_node.parent = parent;
@@ -402,6 +408,7 @@ static ReteNode split_mp_node(Rete rete, ReteNode mp_node) {
 
     // Transfer the MP node's tokens to new memory node
     mem_node.a_np().tokens = mp_node.a_np().tokens;
+    mem_node.a_np().token_count = mp_node.a_np().token_count;
     for (Token t = mp_node.a_np().tokens; t != null; t = t.next_of_node) {
       t.node = mem_node;
     }
@@ -413,6 +420,7 @@ static ReteNode split_mp_node(Rete rete, ReteNode mp_node) {
     // transmogrify the old MP node into the new Pos node
     pos_node.node_type = node_type;
     pos_node.a = new PosNodeData(pos_node);
+    rete.update_stats_for_creating_node(node_type);
 
     // Make the pos node a child of the new memory node
     pos_node.parent = mem_node;
@@ -486,9 +494,14 @@ static ReteNode merge_into_mp_node(Rete rete, ReteNode mem_node) {
       node_type = ReteNodeType.UNHASHED_MP_BNODE;
     }
 
+    rete.update_stats_for_destroying_node(mem_node.node_type);
+    rete.update_stats_for_destroying_node(pos_node.node_type);
+    rete.update_stats_for_creating_node(node_type);
+
     // the old Pos node gets transmogrified into the new MP node
     final ReteNode mp_node = pos_node;
     mp_node.node_type = node_type;
+    mp_node.profile_nanos += mem_node.profile_nanos;
     mp_node.node_id = mem_node.node_id;
     mp_node.b = pos_node.b_posneg(); // inherit posneg from pos_copy
     // assert mp_node.a_np == null;
@@ -496,6 +509,7 @@ static ReteNode merge_into_mp_node(Rete rete, ReteNode mem_node) {
 
     // transfer the Mem node's tokens to the MP node
     mp_node.a_np().tokens = mem_node.a_np().tokens;
+    mp_node.a_np().token_count = mem_node.a_np().token_count;
     for (Token t = mem_node.a_np().tokens; t != null; t = t.next_of_node) {
       t.node = mp_node;
     }
@@ -586,6 +600,7 @@ static ReteNode make_new_negative_node(
       AlphaMemory am,
       ReteTest rt) {
     ReteNode node = new ReteNode(node_type, rete.get_next_beta_node_id());
+    rete.update_stats_for_creating_node(node_type);
 
     node.parent = parent;
     node.next_sibling = parent.first_child;
@@ -627,6 +642,8 @@ static ReteNode make_new_cn_node(Rete rete, ReteNode parent, ReteNode bottom_of_
 
     final ReteNode node = new ReteNode(ReteNodeType.CN_BNODE, rete.get_next_beta_node_id());
     final ReteNode partner = new ReteNode(ReteNodeType.CN_PARTNER_BNODE, 0);
+    rete.update_stats_for_creating_node(node.node_type);
+    rete.update_stats_for_creating_node(partner.node_type);
 
     /*
      * NOTE: for improved efficiency, <node> should be on the parent's
@@ -676,6 +693,7 @@ static ReteNode make_new_cn_node(Rete rete, ReteNode parent, ReteNode bottom_of_
    */
   static ReteNode make_new_production_node(Rete rete, ReteNode parent, Production new_prod) {
     final ReteNode p_node = new ReteNode(ReteNodeType.P_BNODE, 0);
+    rete.update_stats_for_creating_node(p_node.node_type);
 
     new_prod.setReteNode(rete, p_node);
     p_node.parent = parent;
@@ -740,6 +758,7 @@ static void deallocate_rete_node(Rete rete, ReteNode node) {
 
     // remove the node from its parent's list
     node.remove_node_from_parents_list_of_children();
+    rete.update_stats_for_destroying_node(node.node_type);
 
     // for unmerged pos. nodes: unlink, maybe merge its parent
     if (node.node_type.bnode_is_bottom_of_split_mp()) {
@@ -748,7 +767,9 @@ static void deallocate_rete_node(Rete rete, ReteNode node) {
       }
       // if parent is mem node with just one child, merge them
       if (parent.first_child != null && parent.first_child.next_sibling == null) {
-        merge_into_mp_node(rete, parent);
+        if (!rete.defer_merge(parent)) {
+          merge_into_mp_node(rete, parent);
+        }
         parent = null;
       }
     }
@@ -1,10 +1,15 @@
 package org.jsoar.kernel.rete;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import org.jsoar.kernel.Agent;
-import org.jsoar.kernel.Production;
 import org.jsoar.kernel.ProductionManager;
 import org.jsoar.kernel.SoarException;
 
@@ -27,6 +32,24 @@ public static void saveRete(Agent context, OutputStream os) throws IOException,
     new ReteNetWriter(context).write(os);
   }
 
+  /**
+   * Serialize the agent into a read-only buffer that can be passed to {@link
+   * #createAgent(ByteBuffer)} any number of times.
+   *
+   * @param context the agent to serialize
+   * @return the serialized agent
+   * @throws SoarException on serialization error
+   */
+  public static ByteBuffer snapshot(Agent context) throws SoarException {
+    final ByteArrayOutputStream os = new ByteArrayOutputStream();
+    try {
+      saveRete(context, os);
+    } catch (IOException e) {
+      throw new SoarException(e.getMessage(), e); // can't happen for a byte array
+    }
+    return ByteBuffer.wrap(os.toByteArray()).asReadOnlyBuffer();
+  }
+
   /**
    * Construct a new agent based on a serialized agent. The new agent will be pre-loaded with
    * productions from the serialized agent, but will not be initialized.
@@ -42,6 +65,36 @@ public static Agent createAgent(InputStream is) throws IOException, SoarExceptio
     return agent;
   }
 
+  /**
+   * Construct a new agent based on a serialized agent held in a buffer, for example one returned by
+   * {@link #map(Path)}. The buffer itself is not modified, so the same buffer may be used to create
+   * any number of agents.
+   *
+   * @param buffer the serialized agent
+   * @return an agent whose productions are loaded from the provided buffer.
+   * @throws SoarException if the buffer contains an unrecognized rete file.
+   * @throws IOException if the buffer ends early
+   */
+  public static Agent createAgent(ByteBuffer buffer) throws IOException, SoarException {
+    Agent agent = new Agent();
+    replaceRete(agent, buffer);
+    return agent;
+  }
+
+  /**
+   * Memory-map a rete net file so that it can be loaded with {@link #createAgent(ByteBuffer)}
+   * without reading it through a stream. The file must not be compressed.
+   *
+   * @param path the rete net file
+   * @return a read-only buffer holding the file
+   * @throws IOException on general I/O errors (e.g., permission issues)
+   */
+  public static ByteBuffer map(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return channel.map(MapMode.READ_ONLY, 0, channel.size());
+    }
+  }
+
   /**
    * Excise all productions from the target agent and load productions from the serialized agent.
    *
@@ -51,16 +104,32 @@ public static Agent createAgent(InputStream is) throws IOException, SoarExceptio
    * @throws IOException on general I/O errors (e.g., permission issues)
    */
   public static void replaceRete(Agent context, InputStream is) throws IOException, SoarException {
+    exciseAll(context);
+    new ReteNetReader(context).read(is);
     context.initialize();
+  }
 
-    // Excise all productions.
-    ProductionManager productions = context.getProductions();
-    for (Production p : productions.getProductions(null)) {
-      productions.exciseProduction(p, false);
-    }
-
-    new ReteNetReader(context).read(is);
+  /**
+   * Excise all productions from the target agent and load productions from a serialized agent held
+   * in a buffer. The buffer itself is not modified.
+   *
+   * @param context the agent to replace the productions of.
+   * @param buffer the serialized agent
+   * @throws SoarException if the buffer contains an unrecognized rete file.
+   * @throws IOException if the buffer ends early
+   */
+  public static void replaceRete(Agent context, ByteBuffer buffer)
+      throws IOException, SoarException {
+    exciseAll(context);
+    new ReteNetReader(context).read(buffer.duplicate());
+    context.initialize();
+  }
 
+  private static void exciseAll(Agent context) {
     context.initialize();
+
+    // Excise all productions.
+    ProductionManager productions = context.getProductions();
+    productions.exciseProductions(productions.getProductions(null), false);
   }
 }
@@ -0,0 +1,101 @@
+package org.jsoar.kernel.rete;
+
+import java.util.Map;
+import lombok.Value;
+
+/**
+ * Size and sharing statistics for the beta network, for planning memory use and finding rules that
+ * don't share well. Byte counts are rough estimates based on object layouts with compressed
+ * pointers, not measurements of the heap.
+ *
+ * @see Rete#getStatistics()
+ */
+@Value
+public class ReteStatistics {
+  /** Rough size of a beta node and its data in bytes */
+  public static final int ESTIMATED_NODE_BYTES = 112;
+  /** Rough size of a token in bytes */
+  public static final int ESTIMATED_TOKEN_BYTES = 72;
+  /** Rough size of a right memory in bytes */
+  public static final int ESTIMATED_RIGHT_MEMORY_BYTES = 40;
+  /** Rough size of an alpha memory in bytes */
+  public static final int ESTIMATED_ALPHA_MEMORY_BYTES = 64;
+
+  /** Statistics for the beta nodes of a single type */
+  @Value
+  public static class NodeTypeStatistics {
+    /** The node type */
+    ReteNodeType type;
+    /** Number of nodes of this type */
+    int nodes;
+    /** Number of nodes of this type used by more than one production */
+    int sharedNodes;
+    /** Sum over all nodes of this type of the number of productions using each one */
+    long productionUses;
+    /** Number of tokens held by nodes of this type */
+    long tokens;
+    /** Largest number of tokens held by a single node of this type */
+    int maxTokens;
+
+    /** @return mean number of productions using each node, 1.0 if there is no sharing */
+    public double getSharingFactor() {
+      return nodes != 0 ? (double) productionUses / nodes : 0.0;
+    }
+
+    /** @return mean number of tokens held by each node */
+    public double getAverageTokens() {
+      return nodes != 0 ? (double) tokens / nodes : 0.0;
+    }
+
+    /** @return estimated size of the nodes and their tokens */
+    public long getEstimatedBytes() {
+      return (long) nodes * ESTIMATED_NODE_BYTES + tokens * ESTIMATED_TOKEN_BYTES;
+    }
+  }
+
+  /** Statistics for each node type in the network, in {@link ReteNodeType} order */
+  Map<ReteNodeType, NodeTypeStatistics> nodeTypes;
+  /** Number of alpha memories used by beta nodes */
+  int alphaMemories;
+  /** Number of right memories (WME matches) in those alpha memories */
+  long rightMemories;
+
+  /** @return total number of beta nodes */
+  public int getNodes() {
+    return nodeTypes.values().stream().mapToInt(NodeTypeStatistics::getNodes).sum();
+  }
+
+  /** @return total number of tokens */
+  public long getTokens() {
+    return nodeTypes.values().stream().mapToLong(NodeTypeStatistics::getTokens).sum();
+  }
+
+  /**
+   * Returns how much the network shares, as the number of beta nodes there would be without sharing
+   * divided by the number there are. Production nodes and the dummy top node are not counted.
+   *
+   * @return the sharing factor, 1.0 if there is no sharing
+   */
+  public double getSharingFactor() {
+    long nodes = 0;
+    long uses = 0;
+    for (NodeTypeStatistics s : nodeTypes.values()) {
+      if (s.getType() != ReteNodeType.P_BNODE && s.getType() != ReteNodeType.DUMMY_TOP_BNODE) {
+        nodes += s.getNodes();
+        uses += s.getProductionUses();
+      }
+    }
+    return nodes != 0 ? (double) uses / nodes : 0.0;
+  }
+
+  /** @return estimated size of the beta network, its tokens and alpha memories */
+  public long getEstimatedBytes() {
+    long bytes =
+        (long) alphaMemories * ESTIMATED_ALPHA_MEMORY_BYTES
+            + rightMemories * ESTIMATED_RIGHT_MEMORY_BYTES;
+    for (NodeTypeStatistics s : nodeTypes.values()) {
+      bytes += s.getEstimatedBytes();
+    }
+    return bytes;
+  }
+}
@@ -13,11 +13,12 @@
  * @author ray
  */
 public class RightMemory {
-  final WmeImpl w; /* the wme */
-  final AlphaMemory am; /* the alpha memory */
+  WmeImpl w; /* the wme */
+  AlphaMemory am; /* the alpha memory */
 
   // final ListItem<RightMemory> in_bucket = new ListItem<RightMemory>(this); // hash bucket dll
   RightMemory next_in_bucket, prev_in_bucket; /*hash bucket dll*/
+  int hv; /* hash value this rm was inserted into the right hash table with */
 
   // final ListItem<RightMemory> in_am = new ListItem<RightMemory>(this); // rm's in this amem
   RightMemory next_in_am, prev_in_am; /*rm's in this amem*/
@@ -35,6 +36,20 @@ public RightMemory(WmeImpl w, AlphaMemory am) {
     this.am = am;
   }
 
+  /**
+   * Reinitialize a recycled right memory
+   *
+   * @param w the wme
+   * @param am the alpha memory
+   * @return this
+   * @see Rete#add_wme_to_alpha_mem(WmeImpl, AlphaMemory)
+   */
+  RightMemory reset(WmeImpl w, AlphaMemory am) {
+    this.w = w;
+    this.am = am;
+    return this;
+  }
+
   public RightMemory addToWme(RightMemory head) {
     next_from_wme = head;
     prev_from_wme = null;
@@ -5,14 +5,20 @@
  */
 package org.jsoar.kernel.rete;
 
-/** @author ray */
-public class RightMemoryHashTable {
-  private static final int LOG2_RIGHT_HT_SIZE = 14;
-  private static final int RIGHT_HT_SIZE = 1 << LOG2_RIGHT_HT_SIZE;
-
-  private static final int RIGHT_HT_MASK = RIGHT_HT_SIZE - 1;
+/**
+ * Hash table of right memories. Grows as right memories are added, see {@link ReteHashTable}.
+ *
+ * @author ray
+ */
+public class RightMemoryHashTable extends ReteHashTable<RightMemory> {
+  public RightMemoryHashTable() {
+    this(DEFAULT_LOG2_SIZE);
+  }
 
-  private final RightMemory buckets[] = new RightMemory[RIGHT_HT_SIZE];
+  /** @param log2Size log2 of the initial number of buckets */
+  public RightMemoryHashTable(int log2Size) {
+    super(RightMemory.class, log2Size);
+  }
 
   /**
    * rete.cpp:683:right_ht_bucket
@@ -21,31 +27,22 @@ public class RightMemoryHashTable {
    * @return the head of the right memory bucket
    */
   RightMemory right_ht_bucket(int hv) {
-    final int index = hv & RIGHT_HT_MASK;
-    return buckets[index];
+    return bucket(hv);
     // return (* ( ((token **) thisAgent->left_ht) + ((hv) & LEFT_HT_MASK)));
   }
 
   void insertAtHeadOfBucket(int hv, RightMemory rm) {
-    final int index = hv & RIGHT_HT_MASK;
-    final RightMemory oldHead = buckets[index];
-    if (oldHead == null) {
-      rm.next_in_bucket = null;
-    } else {
-      rm.next_in_bucket = oldHead;
-      oldHead.prev_in_bucket = rm;
-    }
-    rm.prev_in_bucket = null;
-    buckets[index] = rm;
+    rm.hv = hv;
+    setBucket(hv, insertAtHead(rm, bucket(hv)));
+    entryAdded();
   }
 
   void removeFromBucket(int hv, RightMemory rm) {
-    final int index = hv & RIGHT_HT_MASK;
-    if (rm == buckets[index]) {
+    if (rm == bucket(hv)) {
       if (rm.next_in_bucket != null) {
         rm.next_in_bucket.prev_in_bucket = null;
       }
-      buckets[index] = rm.next_in_bucket;
+      setBucket(hv, rm.next_in_bucket);
     } else {
       rm.prev_in_bucket.next_in_bucket = rm.next_in_bucket;
       if (rm.next_in_bucket != null) {
@@ -54,5 +51,33 @@ void removeFromBucket(int hv, RightMemory rm) {
     }
     rm.prev_in_bucket = null;
     rm.next_in_bucket = null;
+    entryRemoved();
+  }
+
+  @Override
+  int hashOf(RightMemory entry) {
+    return entry.hv;
+  }
+
+  @Override
+  RightMemory nextInBucket(RightMemory entry) {
+    return entry.next_in_bucket;
+  }
+
+  @Override
+  RightMemory previousInBucket(RightMemory entry) {
+    return entry.prev_in_bucket;
+  }
+
+  @Override
+  RightMemory insertAtHead(RightMemory rm, RightMemory oldHead) {
+    if (oldHead == null) {
+      rm.next_in_bucket = null;
+    } else {
+      rm.next_in_bucket = oldHead;
+      oldHead.prev_in_bucket = rm;
+    }
+    rm.prev_in_bucket = null;
+    return rm;
   }
 }
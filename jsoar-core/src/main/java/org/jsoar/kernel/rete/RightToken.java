@@ -26,6 +26,7 @@ public static RightToken createDummy(ReteNode current_node) {
     assert current_node != null && current_node.node_type == ReteNodeType.DUMMY_TOP_BNODE;
     RightToken t = new RightToken(current_node, null, null, null);
     current_node.a_np().tokens = t;
+    current_node.a_np().token_count = 1;
     return t;
   }
 
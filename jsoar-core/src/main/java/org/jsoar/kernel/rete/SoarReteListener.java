@@ -22,6 +22,7 @@
 import org.jsoar.kernel.Production.Support;
 import org.jsoar.kernel.ProductionType;
 import org.jsoar.kernel.SavedFiringType;
+import org.jsoar.kernel.SoarProperties;
 import org.jsoar.kernel.lhs.Condition;
 import org.jsoar.kernel.memory.Instantiation;
 import org.jsoar.kernel.memory.PreferenceType;
@@ -43,6 +44,9 @@
 import org.jsoar.kernel.wma.WorkingMemoryActivation;
 import org.jsoar.util.ListHead;
 import org.jsoar.util.adaptables.Adaptables;
+import org.jsoar.util.properties.BooleanPropertyProvider;
+import org.jsoar.util.properties.IntegerPropertyProvider;
+import org.jsoar.util.properties.PropertyManager;
 
 /**
  * NOTE: This is an internal interface. Don't use it unless you know what you're doing.
@@ -94,6 +98,33 @@ public class SoarReteListener implements ReteListener {
   /** New waterfall model: postponed assertions that can be restored if they don't fire */
   public final ListHead<MatchSetChange> postponed_assertions = ListHead.newInstance();
 
+  private final IntegerPropertyProvider hashTableLog2Size =
+      new IntegerPropertyProvider(SoarProperties.RETE_HASH_TABLE_LOG2_SIZE) {
+        @Override
+        public Integer set(Integer value) {
+          rete.setHashTableLog2Size(value);
+          return super.set(value);
+        }
+      };
+
+  private final BooleanPropertyProvider hashTableShrink =
+      new BooleanPropertyProvider(SoarProperties.RETE_HASH_TABLE_SHRINK) {
+        @Override
+        public Boolean set(Boolean value) {
+          rete.setHashTableShrinkEnabled(value);
+          return super.set(value);
+        }
+      };
+
+  private final BooleanPropertyProvider wmeIndex =
+      new BooleanPropertyProvider(SoarProperties.WME_INDEX) {
+        @Override
+        public Boolean set(Boolean value) {
+          rete.setWmeIndexEnabled(value);
+          return super.set(value);
+        }
+      };
+
   /**
    * Constuct a new rete listener. {@link #initialize()} must be called as well.
    *
@@ -111,6 +142,11 @@ public void initialize() {
     this.decider = context.getDecider();
     this.recMemory = Adaptables.adapt(context, RecognitionMemory.class);
     this.wma = Adaptables.adapt(context, WorkingMemoryActivation.class);
+
+    final PropertyManager properties = context.getProperties();
+    properties.setProvider(SoarProperties.RETE_HASH_TABLE_LOG2_SIZE, hashTableLog2Size);
+    properties.setProvider(SoarProperties.RETE_HASH_TABLE_SHRINK, hashTableShrink);
+    properties.setProvider(SoarProperties.WME_INDEX, wmeIndex);
   }
 
   /* (non-Javadoc)
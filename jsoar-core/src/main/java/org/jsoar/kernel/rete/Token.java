@@ -98,6 +98,10 @@ public void removeFromWme() {
 
   public void removeFromNode() {
     final NonPosNodeData a_np = node.a_np();
+    // negrm tokens point at their node, but aren't in its list
+    if (previous_of_node != null || a_np.tokens == this) {
+      a_np.token_count--;
+    }
 
     if (next_of_node != null) {
       next_of_node.previous_of_node = previous_of_node;
@@ -118,6 +122,7 @@ private static void addToNode(NonPosNodeData a_np, Token tok) {
       a_np.tokens.previous_of_node = tok;
     }
     a_np.tokens = tok;
+    a_np.token_count++;
   }
 
   private static void addToWme(WmeImpl wme, Token tok) {
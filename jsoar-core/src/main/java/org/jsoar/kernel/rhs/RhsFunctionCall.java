@@ -8,6 +8,8 @@
 import java.util.ArrayList;
 import java.util.Formatter;
 import java.util.List;
+import org.jsoar.kernel.rhs.functions.RhsFunctionBinding;
+import org.jsoar.kernel.rhs.functions.RhsFunctionManager;
 import org.jsoar.kernel.symbols.StringSymbol;
 import org.jsoar.kernel.symbols.Variable;
 import org.jsoar.util.ListHead;
@@ -22,6 +24,7 @@ public class RhsFunctionCall extends AbstractRhsValue {
   private final StringSymbol name;
   private final boolean standalone;
   private final List<RhsValue> arguments = new ArrayList<RhsValue>();
+  private RhsFunctionBinding binding;
 
   /**
    * Construct a new RHS function call value
@@ -52,6 +55,25 @@ public boolean isStandalone() {
     return standalone;
   }
 
+  /**
+   * WARNING: This is an internal interface. Don't use it unless you know what you're doing.
+   *
+   * @return the handler binding cached by {@link RhsFunctionManager#execute(RhsFunctionCall,
+   *     List)}, possibly {@code null}
+   */
+  public RhsFunctionBinding getBinding() {
+    return binding;
+  }
+
+  /**
+   * WARNING: This is an internal interface. Don't use it unless you know what you're doing.
+   *
+   * @param binding the new handler binding
+   */
+  public void setBinding(RhsFunctionBinding binding) {
+    this.binding = binding;
+  }
+
   public void addArgument(RhsValue arg) {
     arguments.add(arg);
   }
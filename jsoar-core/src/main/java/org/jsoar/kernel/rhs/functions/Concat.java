@@ -18,7 +18,8 @@
  *
  * @author ray
  */
-public class Concat extends AbstractRhsFunctionHandler {
+public class Concat extends AbstractRhsFunctionHandler
+    implements ReusableArgumentsRhsFunctionHandler {
   /**
    * Concatenate the given list of symbols into a string using default, unescaped string
    * representation of each symbol.
@@ -16,7 +16,8 @@
  *
  * <p>rhsfun_math.cpp:125:minus_rhs_function_code
  */
-public final class FloatingPointDivide extends AbstractRhsFunctionHandler {
+public final class FloatingPointDivide extends AbstractRhsFunctionHandler
+    implements NumericRhsFunctionHandler {
   public FloatingPointDivide() {
     super("/", 1, Integer.MAX_VALUE);
   }
@@ -55,4 +56,28 @@ public Symbol execute(RhsFunctionContext context, List<Symbol> arguments)
     }
     return syms.createDouble(f);
   }
+
+  @Override
+  public Symbol execute(RhsFunctionContext context, Symbol arg) throws RhsFunctionException {
+    RhsFunctions.checkNumeric(getName(), arg);
+
+    final double f = RhsFunctions.asDouble(arg);
+    if (f == 0.0) {
+      throw new RhsFunctionException("Attempt to divide ('/') by zero");
+    }
+    return context.getSymbols().createDouble(1.0 / f);
+  }
+
+  @Override
+  public Symbol execute(RhsFunctionContext context, Symbol arg0, Symbol arg1)
+      throws RhsFunctionException {
+    RhsFunctions.checkNumeric(getName(), arg0);
+    RhsFunctions.checkNumeric(getName(), arg1);
+
+    final double nextf = RhsFunctions.asDouble(arg1);
+    if (nextf == 0.0) {
+      throw new RhsFunctionException("Attempt to divide ('/') by zero");
+    }
+    return context.getSymbols().createDouble(RhsFunctions.asDouble(arg0) / nextf);
+  }
 }
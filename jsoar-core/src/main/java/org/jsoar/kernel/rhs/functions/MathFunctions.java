@@ -99,7 +99,8 @@ public Symbol execute(RhsFunctionContext context, List<Symbol> arguments)
         }
       };
 
-  private abstract static class OneArgMathFunction extends AbstractRhsFunctionHandler {
+  private abstract static class OneArgMathFunction extends AbstractRhsFunctionHandler
+      implements NumericRhsFunctionHandler {
     public OneArgMathFunction(String name) {
       super(name, 1, 1);
     }
@@ -113,8 +114,13 @@ public Symbol execute(RhsFunctionContext context, List<Symbol> arguments)
       RhsFunctions.checkArgumentCount(this, arguments);
       RhsFunctions.checkAllArgumentsAreNumeric(getName(), arguments);
 
-      Double v = RhsFunctions.asDouble(arguments.get(0));
-      return context.getSymbols().createDouble(call(v.doubleValue()));
+      return execute(context, arguments.get(0));
+    }
+
+    @Override
+    public Symbol execute(RhsFunctionContext context, Symbol arg) throws RhsFunctionException {
+      RhsFunctions.checkNumeric(getName(), arg);
+      return context.getSymbols().createDouble(call(RhsFunctions.asDouble(arg)));
     }
 
     protected abstract double call(double arg) throws RhsFunctionException;
@@ -26,7 +26,7 @@
  * @author ray
  * @see Max
  */
-public class Max extends AbstractRhsFunctionHandler {
+public class Max extends AbstractRhsFunctionHandler implements ReusableArgumentsRhsFunctionHandler {
   public Max() {
     super("max", 1, Integer.MAX_VALUE);
   }
@@ -26,7 +26,7 @@
  * @author ray
  * @see Max
  */
-public class Min extends AbstractRhsFunctionHandler {
+public class Min extends AbstractRhsFunctionHandler implements ReusableArgumentsRhsFunctionHandler {
   public Min() {
     super("min", 1, Integer.MAX_VALUE);
   }
@@ -16,7 +16,7 @@
  *
  * <p>rhsfun_math.cpp:125:minus_rhs_function_code
  */
-public final class Minus extends AbstractRhsFunctionHandler {
+public final class Minus extends AbstractRhsFunctionHandler implements NumericRhsFunctionHandler {
   public Minus() {
     super("-", 1, Integer.MAX_VALUE);
   }
@@ -70,4 +70,29 @@ public Symbol execute(RhsFunctionContext context, List<Symbol> arguments)
 
     return float_found ? syms.createDouble(f) : syms.createInteger(i);
   }
+
+  @Override
+  public Symbol execute(RhsFunctionContext context, Symbol arg) throws RhsFunctionException {
+    RhsFunctions.checkNumeric(getName(), arg);
+
+    final IntegerSymbol i = arg.asInteger();
+    final SymbolFactory syms = context.getSymbols();
+    return i != null
+        ? syms.createInteger(-i.getValue())
+        : syms.createDouble(-arg.asDouble().getValue());
+  }
+
+  @Override
+  public Symbol execute(RhsFunctionContext context, Symbol arg0, Symbol arg1)
+      throws RhsFunctionException {
+    RhsFunctions.checkNumeric(getName(), arg0);
+    RhsFunctions.checkNumeric(getName(), arg1);
+
+    final IntegerSymbol i0 = arg0.asInteger();
+    final IntegerSymbol i1 = arg1.asInteger();
+    final SymbolFactory syms = context.getSymbols();
+    return i0 != null && i1 != null
+        ? syms.createInteger(i0.getValue() - i1.getValue())
+        : syms.createDouble(RhsFunctions.asDouble(arg0) - RhsFunctions.asDouble(arg1));
+  }
 }
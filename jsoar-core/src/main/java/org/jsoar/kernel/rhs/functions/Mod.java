@@ -10,7 +10,7 @@
 import org.jsoar.kernel.symbols.Symbol;
 
 /** @author ray */
-public class Mod extends AbstractRhsFunctionHandler {
+public class Mod extends AbstractRhsFunctionHandler implements NumericRhsFunctionHandler {
   public Mod() {
     super("mod", 2, 2);
   }
@@ -23,15 +23,21 @@ public Symbol execute(RhsFunctionContext context, List<Symbol> arguments)
       throws RhsFunctionException {
     RhsFunctions.checkArgumentCount(this, arguments);
 
-    final IntegerSymbol a = arguments.get(0).asInteger();
+    return execute(context, arguments.get(0), arguments.get(1));
+  }
+
+  @Override
+  public Symbol execute(RhsFunctionContext context, Symbol arg0, Symbol arg1)
+      throws RhsFunctionException {
+    final IntegerSymbol a = arg0.asInteger();
     if (a == null) {
       throw new RhsFunctionException(
-          String.format("Non-integer (%s) passed to '%s' function", arguments.get(0), getName()));
+          String.format("Non-integer (%s) passed to '%s' function", arg0, getName()));
     }
-    final IntegerSymbol b = arguments.get(1).asInteger();
+    final IntegerSymbol b = arg1.asInteger();
     if (b == null) {
       throw new RhsFunctionException(
-          String.format("Non-integer (%s) passed to '%s' function", arguments.get(1), getName()));
+          String.format("Non-integer (%s) passed to '%s' function", arg1, getName()));
     }
 
     if (b.getValue() == 0) {
@@ -0,0 +1,43 @@
+package org.jsoar.kernel.rhs.functions;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.jsoar.kernel.symbols.Symbol;
+
+/**
+ * Interface for a pure numeric RHS function that can also be called with one or two arguments
+ * directly, without an argument list. {@link RhsFunctionManager} uses these overloads when a call
+ * has that many arguments, so they must return the same result and throw the same errors as {@link
+ * #execute(RhsFunctionContext, java.util.List)}. By default they just build a list, so
+ * implementations only need to override the arities they can do faster. Numeric functions are pure,
+ * so they also get the reused argument list, see {@link ReusableArgumentsRhsFunctionHandler}.
+ *
+ * @see MathFunctions
+ */
+public interface NumericRhsFunctionHandler extends ReusableArgumentsRhsFunctionHandler {
+  /**
+   * Execute the function with a single argument
+   *
+   * @param context Context info for the function including symbol factory
+   * @param arg the argument
+   * @return Result symbol
+   * @throws RhsFunctionException if an error occurs
+   */
+  default Symbol execute(RhsFunctionContext context, Symbol arg) throws RhsFunctionException {
+    return execute(context, Collections.singletonList(arg));
+  }
+
+  /**
+   * Execute the function with two arguments
+   *
+   * @param context Context info for the function including symbol factory
+   * @param arg0 the first argument
+   * @param arg1 the second argument
+   * @return Result symbol
+   * @throws RhsFunctionException if an error occurs
+   */
+  default Symbol execute(RhsFunctionContext context, Symbol arg0, Symbol arg1)
+      throws RhsFunctionException {
+    return execute(context, Arrays.asList(arg0, arg1));
+  }
+}
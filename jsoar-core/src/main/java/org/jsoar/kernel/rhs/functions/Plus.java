@@ -10,7 +10,7 @@
  *
  * <p>rhsfun_math.cpp:41:plus_rhs_function_code
  */
-public final class Plus extends AbstractRhsFunctionHandler {
+public final class Plus extends AbstractRhsFunctionHandler implements NumericRhsFunctionHandler {
   public Plus() {
     super("+");
   }
@@ -44,4 +44,18 @@ public Symbol execute(RhsFunctionContext context, List<Symbol> arguments)
     final SymbolFactory syms = context.getSymbols();
     return float_found ? syms.createDouble(f) : syms.createInteger(i);
   }
+
+  @Override
+  public Symbol execute(RhsFunctionContext context, Symbol arg0, Symbol arg1)
+      throws RhsFunctionException {
+    RhsFunctions.checkNumeric(getName(), arg0);
+    RhsFunctions.checkNumeric(getName(), arg1);
+
+    final IntegerSymbol i0 = arg0.asInteger();
+    final IntegerSymbol i1 = arg1.asInteger();
+    final SymbolFactory syms = context.getSymbols();
+    return i0 != null && i1 != null
+        ? syms.createInteger(i0.getValue() + i1.getValue())
+        : syms.createDouble(RhsFunctions.asDouble(arg0) + RhsFunctions.asDouble(arg1));
+  }
 }
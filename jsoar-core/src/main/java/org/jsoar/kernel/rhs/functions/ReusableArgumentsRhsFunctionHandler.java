@@ -0,0 +1,13 @@
+package org.jsoar.kernel.rhs.functions;
+
+/**
+ * Marker interface for a RHS function handler that only reads its argument list while {@link
+ * #execute(RhsFunctionContext, java.util.List)} runs and never keeps a reference to it.
+ *
+ * <p>{@link RhsFunctionManager#execute(org.jsoar.kernel.rhs.RhsFunctionCall, java.util.List)} hands
+ * these handlers the argument buffer that the agent reuses for the next call. Every other handler
+ * gets a list of its own.
+ *
+ * @see NumericRhsFunctionHandler
+ */
+public interface ReusableArgumentsRhsFunctionHandler extends RhsFunctionHandler {}
@@ -0,0 +1,39 @@
+package org.jsoar.kernel.rhs.functions;
+
+import org.jsoar.kernel.rhs.RhsFunctionCall;
+
+/**
+ * WARNING: This is an internal interface. Don't use it unless you know what you're doing.
+ *
+ * <p>The handler a {@link RhsFunctionCall} was bound to by {@link RhsFunctionManager}, so the call
+ * doesn't have to be looked up by name every time it's executed. A binding is only valid for the
+ * manager that made it and only until a handler is registered, unregistered, disabled or enabled.
+ */
+public final class RhsFunctionBinding {
+  private final RhsFunctionManager manager;
+  private final int version;
+  private final RhsFunctionHandler handler;
+  private final boolean disabled;
+
+  RhsFunctionBinding(
+      RhsFunctionManager manager, int version, RhsFunctionHandler handler, boolean disabled) {
+    this.manager = manager;
+    this.version = version;
+    this.handler = handler;
+    this.disabled = disabled;
+  }
+
+  /** @return the handler, or null if the function is disabled or not registered */
+  public RhsFunctionHandler getHandler() {
+    return handler;
+  }
+
+  /** @return true if the function was disabled when it was bound */
+  public boolean isDisabled() {
+    return disabled;
+  }
+
+  boolean isValidFor(RhsFunctionManager manager, int version) {
+    return this.manager == manager && this.version == version;
+  }
+}
@@ -5,11 +5,14 @@
  */
 package org.jsoar.kernel.rhs.functions;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import lombok.NonNull;
+import org.jsoar.kernel.rhs.RhsFunctionCall;
 import org.jsoar.kernel.symbols.Symbol;
 
 /**
@@ -24,6 +27,13 @@ public class RhsFunctionManager {
   private final Map<String, RhsFunctionHandler> handlers = new ConcurrentHashMap<>();
   private final Map<String, RhsFunctionHandler> disabledHandlers = new ConcurrentHashMap<>();
 
+  /**
+   * Bumped after every change to the handler maps so stale {@link RhsFunctionBinding}s can be
+   * detected. It's only bumped after the change is made, so a binding made concurrently with a
+   * change is always invalidated by it.
+   */
+  private final AtomicInteger version = new AtomicInteger();
+
   /**
    * Construct a new RHS function manager with the given execution context
    *
@@ -47,7 +57,9 @@ public List<RhsFunctionHandler> getHandlers() {
    * @return The previously registered handler
    */
   public RhsFunctionHandler registerHandler(@NonNull RhsFunctionHandler handler) {
-    return handlers.put(handler.getName(), handler);
+    final RhsFunctionHandler old = handlers.put(handler.getName(), handler);
+    version.incrementAndGet();
+    return old;
   }
 
   /**
@@ -71,6 +83,7 @@ public RhsFunctionHandler getHandler(String name) {
    */
   public void unregisterHandler(@NonNull String name) {
     handlers.remove(name);
+    version.incrementAndGet();
   }
 
   /**
@@ -81,6 +94,7 @@ public void unregisterHandler(@NonNull String name) {
   public void disableHandler(@NonNull String name) {
     if (handlers.containsKey(name)) {
       disabledHandlers.put(name, handlers.remove(name));
+      version.incrementAndGet();
     }
   }
 
@@ -92,6 +106,7 @@ public void disableHandler(@NonNull String name) {
   public void enableHandler(@NonNull String name) {
     if (disabledHandlers.containsKey(name)) {
       handlers.computeIfAbsent(name, k -> disabledHandlers.remove(name));
+      version.incrementAndGet();
     }
   }
 
@@ -130,4 +145,60 @@ public Symbol execute(String name, List<Symbol> arguments) throws RhsFunctionExc
 
     throw new RhsFunctionException("No function '" + name + "' registered");
   }
+
+  /**
+   * Execute a RHS function call with the given arguments. This does the same thing as {@link
+   * #execute(String, List)}, but binds the call to its handler the first time it's executed and
+   * only looks the handler up by name again after handlers have changed. One and two argument calls
+   * to a {@link NumericRhsFunctionHandler} are dispatched without the argument list.
+   *
+   * <p>The arguments may be a buffer the caller reuses once this returns. It's only passed on to a
+   * {@link ReusableArgumentsRhsFunctionHandler}, other handlers get a copy they're free to keep.
+   *
+   * <p>This method should only be called from the agent thread
+   *
+   * @param call The RHS function call
+   * @param arguments The instantiated arguments of the call
+   * @return The result
+   * @throws RhsFunctionException if an error occurs or there is no such RHS function.
+   */
+  public Symbol execute(RhsFunctionCall call, List<Symbol> arguments) throws RhsFunctionException {
+    RhsFunctionBinding binding = call.getBinding();
+    if (binding == null || !binding.isValidFor(this, version.get())) {
+      binding = bind(call.getName().getValue());
+      call.setBinding(binding);
+    }
+
+    final RhsFunctionHandler handler = binding.getHandler();
+    if (handler == null) {
+      if (binding.isDisabled()) {
+        return null;
+      }
+      throw new RhsFunctionException("No function '" + call.getName().getValue() + "' registered");
+    }
+
+    if (handler instanceof NumericRhsFunctionHandler) {
+      final NumericRhsFunctionHandler numeric = (NumericRhsFunctionHandler) handler;
+      switch (arguments.size()) {
+        case 1:
+          return numeric.execute(rhsContext, arguments.get(0));
+        case 2:
+          return numeric.execute(rhsContext, arguments.get(0), arguments.get(1));
+        default:
+          break;
+      }
+    }
+    if (handler instanceof ReusableArgumentsRhsFunctionHandler) {
+      return handler.execute(rhsContext, arguments);
+    }
+    return handler.execute(rhsContext, new ArrayList<>(arguments));
+  }
+
+  private RhsFunctionBinding bind(String name) {
+    // read the version first so a change made while we look up is never missed
+    final int current = version.get();
+    final RhsFunctionHandler handler = handlers.get(name);
+    return new RhsFunctionBinding(
+        this, current, handler, handler == null && disabledHandlers.containsKey(name));
+  }
 }
@@ -85,10 +85,20 @@ public static void checkArgumentCount(String name, List<Symbol> arguments, int m
   public static void checkAllArgumentsAreNumeric(String name, List<Symbol> arguments)
       throws RhsFunctionException {
     for (Symbol arg : arguments) {
-      if (arg.asInteger() == null && arg.asDouble() == null) {
-        throw new RhsFunctionException(
-            "non-number (" + arg + ") passed to '" + name + "' function");
-      }
+      checkNumeric(name, arg);
+    }
+  }
+
+  /**
+   * Check that a single argument is numeric, i.e. a {@link IntegerSymbol} or {@link DoubleSymbol}
+   *
+   * @param name the function name, used to construct error messages
+   * @param arg the argument to check
+   * @throws RhsFunctionException if the argument is non-numeric
+   */
+  public static void checkNumeric(String name, Symbol arg) throws RhsFunctionException {
+    if (arg.asInteger() == null && arg.asDouble() == null) {
+      throw new RhsFunctionException("non-number (" + arg + ") passed to '" + name + "' function");
     }
   }
 
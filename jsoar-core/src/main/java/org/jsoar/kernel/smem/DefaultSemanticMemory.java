@@ -9,12 +9,10 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintWriter;
-import java.io.StringReader;
 import java.io.StringWriter;
 import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.sql.DatabaseMetaData;
-import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayDeque;
@@ -53,6 +51,7 @@
 import org.jsoar.kernel.smem.DefaultSemanticMemoryParams.ActivateOnQueryChoices;
 import org.jsoar.kernel.smem.DefaultSemanticMemoryParams.ActivationChoices;
 import org.jsoar.kernel.smem.DefaultSemanticMemoryParams.AppendDatabaseChoices;
+import org.jsoar.kernel.smem.DefaultSemanticMemoryParams.BackendChoices;
 import org.jsoar.kernel.smem.DefaultSemanticMemoryParams.BaseUpdateChoices;
 import org.jsoar.kernel.smem.DefaultSemanticMemoryParams.LazyCommitChoices;
 import org.jsoar.kernel.smem.DefaultSemanticMemoryParams.LearningChoices;
@@ -158,9 +157,9 @@ private enum smem_query_levels {
   /** semantic_memory.h:237:SMEM_ACT_MAX */
   private static final long SMEM_ACT_MAX = -1 / 2; // TODO???
 
-  private static final long SMEM_AUGMENTATIONS_NULL = 0L;
+  static final long SMEM_AUGMENTATIONS_NULL = 0L;
 
-  private static final long SMEM_ACT_HISTORY_ENTRIES = 10L;
+  static final long SMEM_ACT_HISTORY_ENTRIES = 10L;
 
   private static final long SMEM_ACT_LOW = -1000000000L;
 
@@ -184,8 +183,12 @@ private enum smem_query_levels {
 
   private Trace trace;
 
+  /** The database, or {@code null} unless semantic memory is open with the JDBC backend */
   private SemanticMemoryDatabase db;
 
+  /** Where semantic memory is stored, or {@code null} if semantic memory is not open */
+  private SemanticMemoryStore store;
+
   /** agent.h:smem_validation */
   private /* uintptr_t */ long smem_validation;
 
@@ -228,6 +231,7 @@ public DefaultSemanticMemory(Adaptable context) {
   public DefaultSemanticMemory(Adaptable context, SemanticMemoryDatabase db) {
     this.context = context;
     this.db = db;
+    this.store = db != null ? new JdbcSemanticMemoryStore(db) : null;
   }
 
   public void initialize() {
@@ -289,6 +293,10 @@ SemanticMemoryDatabase getDatabase() {
     return db;
   }
 
+  SemanticMemoryStore getStore() {
+    return store;
+  }
+
   DefaultSemanticMemoryParams getParams() {
     return params;
   }
@@ -341,7 +349,7 @@ private List<WmeImpl> smem_get_direct_augs_of_id(SymbolImpl sym, Marker tc /*
 
       // regular wmes
       for (Slot s = id.slots; s != null; s = s.next) {
-        for (WmeImpl w : s.getWmes()) {
+        for (WmeImpl w = s.getFirstWme(); w != null; w = w.next) {
           if (!w.acceptable) {
             return_val.add(w);
           }
@@ -360,8 +368,7 @@ private static boolean smem_symbol_is_constant(Symbol sym) {
   }
 
   private long /* smem_hash_id */ smem_temporal_hash_add_type(int symbol_type) throws SQLException {
-    db.hash_add_type.setInt(1, symbol_type);
-    return JdbcTools.insertAndGetRowId(db.hash_add_type);
+    return store.addSymbolType(symbol_type);
   }
 
   private long /* smem_hash_id */ smem_temporal_hash_int(long val, boolean add_on_fail /*
@@ -372,12 +379,7 @@ private static boolean smem_symbol_is_constant(Symbol sym) {
     long /* smem_hash_id */ return_val = 0;
 
     // search first
-    db.hash_get_int.setLong(1, val);
-    try (ResultSet rs = db.hash_get_int.executeQuery()) {
-      if (rs.next()) {
-        return_val = rs.getLong(1);
-      }
-    }
+    return_val = store.findIntegerSymbol(val);
 
     // if fail and supposed to add
     if (return_val == 0 && add_on_fail) {
@@ -385,9 +387,7 @@ private static boolean smem_symbol_is_constant(Symbol sym) {
       return_val = smem_temporal_hash_add_type(Symbols.INT_CONSTANT_SYMBOL_TYPE);
 
       // then content
-      db.hash_add_int.setLong(1, return_val);
-      db.hash_add_int.setLong(2, val);
-      db.hash_add_int.executeUpdate(/* soar_module::op_reinit */ );
+      store.addIntegerSymbol(return_val, val);
     }
 
     return return_val;
@@ -402,12 +402,7 @@ private static boolean smem_symbol_is_constant(Symbol sym) {
 
     // search first
     // search first
-    db.hash_get_float.setDouble(1, val);
-    try (ResultSet rs = db.hash_get_float.executeQuery()) {
-      if (rs.next()) {
-        return_val = rs.getLong(1);
-      }
-    }
+    return_val = store.findFloatSymbol(val);
 
     // if fail and supposed to add
     if (return_val == 0 && add_on_fail) {
@@ -415,9 +410,7 @@ private static boolean smem_symbol_is_constant(Symbol sym) {
       return_val = smem_temporal_hash_add_type(Symbols.FLOAT_CONSTANT_SYMBOL_TYPE);
 
       // then content
-      db.hash_add_float.setLong(1, return_val);
-      db.hash_add_float.setDouble(2, val);
-      db.hash_add_float.executeUpdate(/* soar_module::op_reinit */ );
+      store.addFloatSymbol(return_val, val);
     }
 
     return return_val;
@@ -432,12 +425,7 @@ private static boolean smem_symbol_is_constant(Symbol sym) {
 
     // search first
     // search first
-    db.hash_get_str.setString(1, val);
-    try (ResultSet rs = db.hash_get_str.executeQuery()) {
-      if (rs.next()) {
-        return_val = rs.getLong(1);
-      }
-    }
+    return_val = store.findStringSymbol(val);
 
     // if fail and supposed to add
     if (return_val == 0 && add_on_fail) {
@@ -445,9 +433,7 @@ private static boolean smem_symbol_is_constant(Symbol sym) {
       return_val = smem_temporal_hash_add_type(Symbols.SYM_CONSTANT_SYMBOL_TYPE);
 
       // then content
-      db.hash_add_str.setLong(1, return_val);
-      db.hash_add_str.setString(2, val);
-      db.hash_add_str.executeUpdate(/* soar_module::op_reinit */ );
+      store.addStringSymbol(return_val, val);
     }
 
     return return_val;
@@ -548,17 +534,7 @@ private void smem_buffer_add_wme(
    */
   private boolean smem_variable_get(smem_variable_key variable_id, ByRef<Long> variable_value)
       throws SQLException {
-    final PreparedStatement var_get = db.var_get;
-
-    var_get.setInt(1, variable_id.ordinal());
-    try (ResultSet rs = var_get.executeQuery()) {
-      if (rs.next()) {
-        variable_value.value = rs.getLong(1);
-        return true;
-      } else {
-        return false;
-      }
-    }
+    return store.getVariable(variable_id.ordinal(), variable_value);
   }
 
   /**
@@ -568,12 +544,7 @@ private boolean smem_variable_get(smem_variable_key variable_id, ByRef<Long> var
    */
   private void smem_variable_set(smem_variable_key variable_id, long variable_value)
       throws SQLException {
-    final PreparedStatement var_set = db.var_set;
-
-    var_set.setLong(1, variable_value);
-    var_set.setInt(2, variable_id.ordinal());
-
-    var_set.execute();
+    store.setVariable(variable_id.ordinal(), variable_value);
   }
 
   /**
@@ -583,12 +554,7 @@ private void smem_variable_set(smem_variable_key variable_id, long variable_valu
    */
   private void smem_variable_create(smem_variable_key variable_id, long variable_value)
       throws SQLException {
-    final PreparedStatement var_create = db.var_create;
-
-    var_create.setInt(1, variable_id.ordinal());
-    var_create.setLong(2, variable_value);
-
-    var_create.execute();
+    store.createVariable(variable_id.ordinal(), variable_value);
   }
 
   /** semantic_memory.cpp:735:smem_temporal_hash */
@@ -653,32 +619,23 @@ private void smem_variable_create(smem_variable_key variable_id, long variable_v
 
   private int /* long? */ smem_reverse_hash_int(long /* smem_hash_id */ hash_value)
       throws SQLException {
-    db.hash_rev_int.setLong(1, hash_value);
-    try (ResultSet rs = db.hash_rev_int.executeQuery()) {
-      if (!rs.next()) {
-        throw new IllegalStateException("Expected non-empty result");
-      }
-      var toReturn = rs.getInt(1);
-      return toReturn;
+    final Long value = store.getIntegerSymbol(hash_value);
+    if (value == null) {
+      throw new IllegalStateException("Expected non-empty result");
     }
+    return value.intValue();
   }
 
   private double smem_reverse_hash_float(long /* smem_hash_id */ hash_value) throws SQLException {
-    db.hash_rev_float.setLong(1, hash_value);
-    try (ResultSet rs = db.hash_rev_float.executeQuery()) {
-      rs.next();
-      var toReturn = rs.getDouble(1);
-      return toReturn;
+    final Double value = store.getFloatSymbol(hash_value);
+    if (value == null) {
+      throw new IllegalStateException("Expected non-empty result");
     }
+    return value;
   }
 
   private String smem_reverse_hash_str(long /* smem_hash_id */ hash_value) throws SQLException {
-    db.hash_rev_str.setLong(1, hash_value);
-    try (ResultSet rs = db.hash_rev_str.executeQuery()) {
-      rs.next();
-      var toReturn = rs.getString(1);
-      return toReturn;
-    }
+    return store.getStringSymbol(hash_value);
   }
 
   private SymbolImpl smem_reverse_hash(int symbol_type, long /* smem_hash_id */ hash_value)
@@ -712,23 +669,19 @@ public double smem_lti_calc_base(long lti, long time_now, long n, long activatio
     long t_n = (time_now - activations_first);
 
     if (n == 0) {
-      db.lti_access_get.setLong(1, lti);
-      try (ResultSet rs = db.lti_access_get.executeQuery()) {
-
-        n = rs.getLong(2);
-      }
+      final long[] access = store.getLtiAccess(lti);
+      n = access != null ? access[1] : 0;
     }
 
     // get all history
 
-    db.history_get.setLong(1, lti);
-    try (ResultSet rs = db.history_get.executeQuery()) {
-      rs.next();
+    {
+      final long[] history = store.getHistory(lti);
       int available_history = (int) (Math.min(SMEM_ACT_HISTORY_ENTRIES, n));
-      t_k = time_now - rs.getLong(available_history - 1 + 1);
+      t_k = time_now - history[available_history - 1];
 
       for (var i = 0; i < available_history; i++) {
-        sum += Math.pow(time_now - rs.getLong(i + 1), -d);
+        sum += Math.pow(time_now - history[i], -d);
       }
     }
 
@@ -779,8 +732,7 @@ public double smem_lti_calc_base(long lti, long time_now, long n, long activatio
             if (time_diff > 0) {
               List<Long> to_update = new ArrayList<>();
 
-              db.lti_get_t.setLong(1, time_diff);
-              try (ResultSet rs = db.lti_get_t.executeQuery()) {
+              try (SemanticMemoryCursor rs = store.findLtisLastActivatedAt(time_diff)) {
                 while (rs.next()) {
                   to_update.add(rs.getLong(1));
                 }
@@ -806,23 +758,18 @@ public double smem_lti_calc_base(long lti, long time_now, long n, long activatio
     long prev_access_1;
     {
       // get old (potentially useful below)
-      db.lti_access_get.setLong(1, lti);
-
-      try (ResultSet rs = db.lti_access_get.executeQuery()) {
-        rs.next();
-        prev_access_n = rs.getLong(1);
-        prev_access_t = rs.getLong(2);
-        prev_access_1 = rs.getLong(3);
-      }
+      final long[] access = store.getLtiAccess(lti);
+      prev_access_n = access[0];
+      prev_access_t = access[1];
+      prev_access_1 = access[2];
 
       // set new
       if (add_access) {
-        db.lti_access_set.setLong(1, (prev_access_n + 1));
-        db.lti_access_set.setLong(2, time_now);
-        db.lti_access_set.setLong(3, ((prev_access_n == 0) ? (time_now) : (prev_access_1)));
-
-        db.lti_access_set.setLong(4, lti);
-        db.lti_access_set.executeUpdate();
+        store.setLtiAccess(
+            lti,
+            (prev_access_n + 1),
+            time_now,
+            ((prev_access_n == 0) ? (time_now) : (prev_access_1)));
       }
     }
 
@@ -836,17 +783,13 @@ public double smem_lti_calc_base(long lti, long time_now, long n, long activatio
     } else if (act_mode == ActivationChoices.base_level) {
       if (prev_access_n == 0) {
         if (add_access) {
-          db.history_add.setLong(1, lti);
-          db.history_add.setLong(2, time_now);
-          db.history_add.executeUpdate();
+          store.addHistory(lti, time_now);
         }
 
         new_activation = 0;
       } else {
         if (add_access) {
-          db.history_push.setLong(1, time_now);
-          db.history_push.setLong(2, lti);
-          db.history_push.executeUpdate();
+          store.pushHistory(lti, time_now);
         }
 
         new_activation =
@@ -860,28 +803,20 @@ public double smem_lti_calc_base(long lti, long time_now, long n, long activatio
 
     // get number of augmentations (if not supplied)
     if (num_edges == SMEM_ACT_MAX) {
-      db.act_lti_child_ct_get.setLong(1, lti);
-      try (ResultSet rs = db.act_lti_child_ct_get.executeQuery()) {
-        rs.next();
-        num_edges = rs.getLong(1);
-      }
+      num_edges = store.getLtiChildCount(lti);
     }
 
     // only if augmentation count is less than threshold do we associate
     // with edges
     if (num_edges < this.params.thresh.get()) {
       // activation_value=? WHERE lti=?
-      db.act_set.setDouble(1, new_activation);
-      db.act_set.setLong(2, lti);
-      db.act_set.executeUpdate();
+      store.setAugmentationActivation(lti, new_activation);
     }
 
     // always associate activation with lti
     {
       // activation_value=? WHERE lti=?
-      db.act_lti_set.setDouble(1, new_activation);
-      db.act_lti_set.setLong(2, lti);
-      db.act_lti_set.executeUpdate();
+      store.setLtiActivation(lti, new_activation);
     }
 
     // TODO: SMem Timers
@@ -1044,14 +979,7 @@ else if (valid_ltis.contains(id)) {
 
     try {
       // soar_letter=? AND number=?
-      db.lti_get.setLong(1, name_letter);
-      db.lti_get.setLong(2, name_number);
-
-      try (ResultSet rs = db.lti_get.executeQuery()) {
-        if (rs.next()) {
-          return_val = rs.getLong(1);
-        }
-      }
+      return_val = store.findLti(name_letter, name_number);
     } catch (SQLException e) {
       throw new SoarException(e.getMessage(), e);
     }
@@ -1071,15 +999,7 @@ else if (valid_ltis.contains(id)) {
     // create lti: soar_letter, number, total_augmentations,
     // activation_value, activations_total, activations_last,
     // activations_first
-    db.lti_add.setLong(1, name_letter);
-    db.lti_add.setLong(2, name_number);
-    db.lti_add.setLong(3, 0);
-    db.lti_add.setDouble(4, 0);
-    db.lti_add.setLong(5, 0);
-    db.lti_add.setLong(6, 0);
-    db.lti_add.setLong(7, 0);
-
-    long return_val = JdbcTools.insertAndGetRowId(db.lti_add);
+    long return_val = store.addLti(name_letter, name_number);
 
     // increment stat
     stats.nodes.set(stats.nodes.get() + 1); // smem_stats->chunks in CSoar
@@ -1154,12 +1074,12 @@ public IdentifierImpl smem_lti_soar_make(
   public void smem_reset_id_counters() throws SoarException {
     // semantic_memory.cpp:1082:smem_reset_id_counters
 
-    if (db != null /*
+    if (store != null /*
                         * my_agent->smem_db->get_status() ==
                         * soar_module::connected
                         */) {
       try {
-        try (ResultSet rs = db.lti_max.executeQuery()) {
+        try (SemanticMemoryCursor rs = store.getLtiMaxNumbers()) {
           while (rs.next()) {
             // soar_letter, max
             final var name_letter = rs.getLong(1);
@@ -1189,9 +1109,7 @@ void smem_disconnect_chunk(/* smem_lti_id */ long lti_id) throws SQLException {
       Set<Long> distinct_attr = new LinkedHashSet<>();
 
       // pairs first, accumulate distinct attributes and pair count
-      db.web_all.setLong(1, lti_id);
-
-      try (ResultSet webAllCounts = db.web_all.executeQuery()) {
+      try (SemanticMemoryCursor webAllCounts = store.getAugmentations(lti_id)) {
         while (webAllCounts.next()) {
           pair_count++;
 
@@ -1202,19 +1120,11 @@ void smem_disconnect_chunk(/* smem_lti_id */ long lti_id) throws SQLException {
           if (webAllCounts.getLong(1) != SMEM_AUGMENTATIONS_NULL) {
             // adjust in opposite direction ( adjust, attribute,
             // const )
-            db.wmes_constant_frequency_update.setInt(1, -1);
-            db.wmes_constant_frequency_update.setLong(2, child_attr);
-            db.wmes_constant_frequency_update.setInt(3, webAllCounts.getInt(1 + 1));
-
-            db.wmes_constant_frequency_update.executeUpdate();
+            store.updateConstantFrequency(child_attr, webAllCounts.getLong(1 + 1), -1);
           } else {
             // adjust in opposite direction ( adjust, attribute, lti
             // )
-            db.wmes_constant_frequency_update.setInt(1, -1);
-            db.wmes_constant_frequency_update.setLong(2, child_attr);
-            db.wmes_constant_frequency_update.setInt(3, webAllCounts.getInt(2 + 1));
-
-            db.wmes_constant_frequency_update.executeUpdate();
+            store.updateConstantFrequency(child_attr, webAllCounts.getLong(2 + 1), -1);
           }
         }
       }
@@ -1222,10 +1132,7 @@ void smem_disconnect_chunk(/* smem_lti_id */ long lti_id) throws SQLException {
       // now attributes
       for (Long a : distinct_attr) {
         // adjust in opposite direction ( adjust, attribute )
-        db.attribute_frequency_update.setInt(1, -1);
-        db.attribute_frequency_update.setLong(2, a);
-
-        db.attribute_frequency_update.executeUpdate();
+        store.updateAttributeFrequency(a, -1);
       }
 
       // update local statistic
@@ -1234,8 +1141,7 @@ void smem_disconnect_chunk(/* smem_lti_id */ long lti_id) throws SQLException {
 
     // disconnect
     {
-      db.web_truncate.setLong(1, lti_id);
-      db.web_truncate.executeUpdate(/* soar_module::op_reinit */ );
+      store.deleteAugmentations(lti_id);
     }
   }
 
@@ -1318,12 +1224,7 @@ void smem_store_chunk(
         trace.startNewLine().print(Category.SMEM, "<=SMEM: (%s ^* *)", print_id);
       }
     } else {
-      db.act_lti_child_ct_get.setLong(1, lti_id);
-
-      try (ResultSet rs = db.act_lti_child_ct_get.executeQuery()) {
-        rs.next();
-        existing_edges = rs.getLong(1);
-      }
+      existing_edges = store.getLtiChildCount(lti_id);
     }
 
     // get new edges
@@ -1342,10 +1243,7 @@ void smem_store_chunk(
           attr_new.add(attr_hash);
         } else {
           // lti_id, attribute_s_id
-          db.web_attr_child.setLong(1, lti_id);
-          db.web_attr_child.setLong(2, attr_hash);
-
-          try (ResultSet rs = db.web_attr_child.executeQuery()) {
+          try (SemanticMemoryCursor rs = store.findChildren(lti_id, attr_hash)) {
 
             if (!rs.next()) {
               attr_new.add(attr_hash);
@@ -1362,11 +1260,8 @@ void smem_store_chunk(
               const_new.add(new SmemHashIdLongPair(attr_hash, value_hash));
             } else {
               // lti_id, attribute_s_id, val_const
-              db.web_const_child.setLong(1, lti_id);
-              db.web_const_child.setLong(2, attr_hash);
-              db.web_const_child.setLong(3, value_hash);
-
-              try (ResultSet rs = db.web_const_child.executeQuery()) {
+              try (SemanticMemoryCursor rs =
+                  store.findConstantChildren(lti_id, attr_hash, value_hash)) {
 
                 if (!rs.next()) {
                   const_new.add(new SmemHashIdLongPair(attr_hash, value_hash));
@@ -1401,11 +1296,7 @@ void smem_store_chunk(
               lti_new.add(new SmemHashIdLongPair(attr_hash, value_lti));
             } else {
               // lti_id, attribute_s_id, val_lti
-              db.web_lti_child.setLong(1, lti_id);
-              db.web_lti_child.setLong(2, attr_hash);
-              db.web_lti_child.setLong(3, value_lti);
-
-              try (ResultSet rs = db.web_lti_child.executeQuery()) {
+              try (SemanticMemoryCursor rs = store.findLtiChildren(lti_id, attr_hash, value_lti)) {
 
                 if (!rs.next()) {
                   lti_new.add(new SmemHashIdLongPair(attr_hash, value_lti));
@@ -1446,17 +1337,13 @@ void smem_store_chunk(
       // if before below
       if ((existing_edges < thresh) && after_above) {
         // update smem_augmentations to inf
-        db.act_set.setDouble(1, web_act);
-        db.act_set.setLong(2, lti_id);
-        db.act_set.executeUpdate();
+        store.setAugmentationActivation(lti_id, web_act);
       }
     }
 
     // update edge counter
     {
-      db.act_lti_child_ct_set.setLong(1, new_edges);
-      db.act_lti_child_ct_set.setLong(2, lti_id);
-      db.act_lti_child_ct_set.executeUpdate();
+      store.setLtiChildCount(lti_id, new_edges);
     }
 
     // now we can safely activate the lti
@@ -1477,38 +1364,20 @@ void smem_store_chunk(
           {
             // lti_id, attribute_s_id, val_const, value_lti_id,
             // activation_value
-            db.web_add.setLong(1, lti_id);
-            db.web_add.setLong(2, pair.getHashID());
-            db.web_add.setLong(3, pair.getSecond());
-            db.web_add.setLong(4, SMEM_AUGMENTATIONS_NULL);
-            db.web_add.setDouble(5, web_act);
-
-            db.web_add.executeUpdate();
+            store.addAugmentation(
+                lti_id, pair.getHashID(), pair.getSecond(), SMEM_AUGMENTATIONS_NULL, web_act);
           }
 
           // update counter
           {
             // check if counter exists (and add if does not):
             // attribute_s_id, val
-            db.wmes_constant_frequency_check.setLong(1, pair.getHashID());
-            db.wmes_constant_frequency_check.setLong(2, pair.getSecond());
-
-            try (ResultSet rs = db.wmes_constant_frequency_check.executeQuery()) {
-
-              if (!rs.next()) {
-                db.wmes_constant_frequency_add.setLong(1, pair.getHashID());
-                db.wmes_constant_frequency_add.setLong(2, pair.getSecond());
-
-                db.wmes_constant_frequency_add.executeUpdate();
-              } else {
-                // adjust count (adjustment, attribute_s_id,
-                // val)
-                db.wmes_constant_frequency_update.setLong(1, 1);
-                db.wmes_constant_frequency_update.setLong(2, pair.getHashID());
-                db.wmes_constant_frequency_update.setLong(3, pair.getSecond());
-
-                db.wmes_constant_frequency_update.executeUpdate();
-              }
+            if (store.getConstantFrequency(pair.getHashID(), pair.getSecond()) == null) {
+              store.addConstantFrequency(pair.getHashID(), pair.getSecond());
+            } else {
+              // adjust count (adjustment, attribute_s_id,
+              // val)
+              store.updateConstantFrequency(pair.getHashID(), pair.getSecond(), 1);
             }
           }
         }
@@ -1521,38 +1390,20 @@ void smem_store_chunk(
           {
             // lti_id, attribute_s_id, val_const, value_lti_id,
             // activation_value
-            db.web_add.setLong(1, lti_id);
-            db.web_add.setLong(2, pair.getHashID());
-            db.web_add.setLong(3, SMEM_AUGMENTATIONS_NULL);
-            db.web_add.setLong(4, pair.getSecond());
-            db.web_add.setDouble(5, web_act);
-
-            db.web_add.executeUpdate();
+            store.addAugmentation(
+                lti_id, pair.getHashID(), SMEM_AUGMENTATIONS_NULL, pair.getSecond(), web_act);
           }
 
           // update counter
           {
             // check if counter exists (and add if does not):
             // attribute_s_id, val
-            db.wmes_lti_frequency_check.setLong(1, pair.getHashID());
-            db.wmes_lti_frequency_check.setLong(2, pair.getSecond());
-
-            try (ResultSet rs = db.wmes_lti_frequency_check.executeQuery()) {
-
-              if (!rs.next()) {
-                db.wmes_lti_frequency_add.setLong(1, pair.getHashID());
-                db.wmes_lti_frequency_add.setLong(2, pair.getSecond());
-
-                db.wmes_lti_frequency_add.executeUpdate();
-              } else {
-                // adjust count (adjustment, attribute_s_id,
-                // lti)
-                db.wmes_lti_frequency_update.setLong(1, 1);
-                db.wmes_lti_frequency_update.setLong(2, pair.getHashID());
-                db.wmes_lti_frequency_update.setLong(3, pair.getSecond());
-
-                db.wmes_lti_frequency_update.executeUpdate();
-              }
+            if (store.getLtiFrequency(pair.getHashID(), pair.getSecond()) == null) {
+              store.addLtiFrequency(pair.getHashID(), pair.getSecond());
+            } else {
+              // adjust count (adjustment, attribute_s_id,
+              // lti)
+              store.updateLtiFrequency(pair.getHashID(), pair.getSecond(), 1);
             }
           }
         }
@@ -1563,20 +1414,10 @@ void smem_store_chunk(
         for (Long a : attr_new) {
           // check if counter exists (and add if does not):
           // attribute_s_id
-          db.attribute_frequency_check.setLong(1, a);
-
-          try (ResultSet rs = db.attribute_frequency_check.executeQuery()) {
-
-            if (!rs.next()) {
-              db.attribute_frequency_add.setLong(1, a);
-
-              db.attribute_frequency_add.executeUpdate();
-            } else {
-              db.attribute_frequency_update.setLong(1, 1);
-              db.attribute_frequency_update.setLong(2, a);
-
-              db.attribute_frequency_update.executeUpdate();
-            }
+          if (store.getAttributeFrequency(a) == null) {
+            store.addAttributeFrequency(a);
+          } else {
+            store.updateAttributeFrequency(a, 1);
           }
         }
       }
@@ -1705,16 +1546,12 @@ void smem_install_memory(
     // get identifier if not known
     var lti_created_here = false;
     if (lti == null) {
-      db.lti_letter_num.setLong(1, lti_id);
-      try (ResultSet rs = db.lti_letter_num.executeQuery()) {
-        if (!rs.next()) {
-          throw new IllegalStateException("Expected non-empty result");
-        }
-
-        lti =
-            smem_lti_soar_make(
-                lti_id, (char) rs.getLong(1), rs.getLong(1 + 1), result_header.getLevel());
+      final long[] name = store.getLtiName(lti_id);
+      if (name == null) {
+        throw new IllegalStateException("Expected non-empty result");
       }
+
+      lti = smem_lti_soar_make(lti_id, (char) name[0], name[1], result_header.getLevel());
       lti_created_here = true;
     }
 
@@ -1741,11 +1578,10 @@ void smem_install_memory(
             && (lti.slots == null))) {
       // get direct children: attr_type, attr_hash, value_type,
       // value_hash, value_letter, value_num, value_lti
-      db.web_expand.setLong(1, lti_id);
-      try (ResultSet rs = db.web_expand.executeQuery()) {
+      try (SemanticMemoryCursor rs = store.expandAugmentations(lti_id)) {
         while (rs.next()) {
           // make the identifier symbol irrespective of value type
-          final SymbolImpl attr_sym = smem_reverse_hash(rs.getInt(1), rs.getLong(1 + 1));
+          final SymbolImpl attr_sym = smem_reverse_hash((int) rs.getLong(1), rs.getLong(1 + 1));
 
           // identifier vs. constant
           final SymbolImpl value_sym;
@@ -1755,7 +1591,7 @@ void smem_install_memory(
                 smem_lti_soar_make(
                     lti_rs, (char) rs.getLong(4 + 1), rs.getLong(5 + 1), lti.getLevel());
           } else {
-            value_sym = smem_reverse_hash(rs.getInt(2 + 1), rs.getLong(3 + 1));
+            value_sym = smem_reverse_hash((int) rs.getLong(2 + 1), rs.getLong(3 + 1));
           }
 
           // add wme
@@ -1782,27 +1618,18 @@ void smem_install_memory(
   // ////////////////////////////////////////////////////////
   // ////////////////////////////////////////////////////////
 
-  PreparedStatement smem_setup_web_crawl(WeightedCueElement el) throws SQLException {
-    PreparedStatement q = null;
-
-    // first, point to correct query and setup
-    // query-specific parameters
-    if (el.element_type == smem_cue_element_type.attr_t) {
-      // attribute_s_id=?
-      q = db.web_attr_all;
-    } else if (el.element_type == smem_cue_element_type.value_const_t) {
+  SemanticMemoryCursor smem_setup_web_crawl(WeightedCueElement el) throws SQLException {
+    // point to correct query with query-specific parameters,
+    // all sorted on activation
+    if (el.element_type == smem_cue_element_type.value_const_t) {
       // attribute_s_id=? AND value_constant_s_id=?
-      q = db.web_const_all;
-      q.setLong(2, el.value_hash);
+      return store.findByConstant(el.attr_hash, el.value_hash);
     } else if (el.element_type == smem_cue_element_type.value_lti_t) {
-      q = db.web_lti_all;
-      q.setLong(2, el.value_lti);
+      return store.findByLti(el.attr_hash, el.value_lti);
+    } else {
+      // attribute_s_id=?
+      return store.findByAttribute(el.attr_hash);
     }
-
-    // all require hash as first parameter
-    q.setLong(1, el.attr_hash);
-
-    return q;
   }
 
   /** semantic_memory.cpp:2145:_smem_process_cue_wme */
@@ -1820,7 +1647,7 @@ boolean _smem_process_cue_wme(
     long /* smem_lti_id */ value_lti;
     smem_cue_element_type element_type;
 
-    PreparedStatement q = null;
+    Long frequency = null;
 
     {
       // we only have to do the hard work if
@@ -1833,9 +1660,7 @@ boolean _smem_process_cue_wme(
           element_type = smem_cue_element_type.value_const_t;
 
           if (value_hash != 0) {
-            q = db.wmes_constant_frequency_get;
-            q.setLong(1, attr_hash);
-            q.setLong(2, value_hash);
+            frequency = store.getConstantFrequency(attr_hash, value_hash);
 
           } else if (pos_cue) {
             good_wme = false;
@@ -1855,39 +1680,34 @@ boolean _smem_process_cue_wme(
           value_hash = 0;
 
           if (value_lti == 0) {
-            q = db.attribute_frequency_get;
-            q.setLong(1, attr_hash);
+            frequency = store.getAttributeFrequency(attr_hash);
 
             element_type = smem_cue_element_type.attr_t;
           } else {
-            q = db.wmes_lti_frequency_get;
-            q.setLong(1, attr_hash);
-            q.setLong(2, value_lti);
+            frequency = store.getLtiFrequency(attr_hash, value_lti);
 
             element_type = smem_cue_element_type.value_lti_t;
           }
         }
 
         if (good_wme) {
-          try (ResultSet rs = q.executeQuery()) {
-            if (rs.next()) {
-              new_cue_element = new WeightedCueElement();
+          if (frequency != null) {
+            new_cue_element = new WeightedCueElement();
 
-              new_cue_element.weight = rs.getLong(1);
-              new_cue_element.attr_hash = attr_hash;
-              new_cue_element.value_hash = value_hash;
-              new_cue_element.value_lti = value_lti;
-              new_cue_element.cue_element = w;
+            new_cue_element.weight = frequency;
+            new_cue_element.attr_hash = attr_hash;
+            new_cue_element.value_hash = value_hash;
+            new_cue_element.value_lti = value_lti;
+            new_cue_element.cue_element = w;
 
-              new_cue_element.element_type = element_type;
-              new_cue_element.pos_element = pos_cue;
-              new_cue_element.mathElement = mathQuery;
+            new_cue_element.element_type = element_type;
+            new_cue_element.pos_element = pos_cue;
+            new_cue_element.mathElement = mathQuery;
 
-              weighted_pq.add(new_cue_element);
-            } else {
-              if (pos_cue) {
-                good_wme = false;
-              }
+            weighted_pq.add(new_cue_element);
+          } else {
+            if (pos_cue) {
+              good_wme = false;
             }
           }
         }
@@ -2130,9 +1950,6 @@ private MathQueryProcessResults processMathQuery(
         }
       }
 
-      PreparedStatement q = null;
-      PreparedStatement q2 = null;
-
       long /* smem_lti_id */ cand;
       boolean good_cand;
 
@@ -2141,8 +1958,6 @@ private MathQueryProcessResults processMathQuery(
         // every candidate in the minimal list before the
         // confirmation walk
         if (params.base_update.get() == BaseUpdateChoices.naive) {
-          q = smem_setup_web_crawl(cand_set);
-
           // queue up distinct lti's to update
           // - set because queries could contain wilds
           // - not in loop because the effects of activation may
@@ -2150,7 +1965,7 @@ private MathQueryProcessResults processMathQuery(
           // alter the resultset of the query (isolation???)
           Set<Long /* smem_lti_id */> to_update = new LinkedHashSet<>();
 
-          try (ResultSet rs = q.executeQuery()) {
+          try (SemanticMemoryCursor rs = smem_setup_web_crawl(cand_set)) {
             while (rs.next()) {
               to_update.add(rs.getLong(1));
             }
@@ -2163,11 +1978,10 @@ private MathQueryProcessResults processMathQuery(
       }
 
       // setup first query, which is sorted on activation already
-      q = smem_setup_web_crawl(cand_set);
       lastCue = new BasicWeightedCue(cand_set.cue_element, cand_set.weight);
 
       // this becomes the minimal set to walk (till match or fail)
-      try (ResultSet qrs = q.executeQuery()) {
+      try (SemanticMemoryCursor qrs = smem_setup_web_crawl(cand_set)) {
         if (qrs.next()) {
           final PriorityQueue<ActivatedLti> plentiful_parents = ActivatedLti.newPriorityQueue();
           var more_rows = true;
@@ -2175,12 +1989,10 @@ private MathQueryProcessResults processMathQuery(
           boolean has_feature;
 
           while (more_rows && (qrs.getDouble(1 + 1) == SMEM_ACT_MAX)) {
-            db.act_lti_get.setLong(1, qrs.getLong(1));
-            try (ResultSet actLtiGetRs = db.act_lti_get.executeQuery()) {
-              if (!actLtiGetRs.next())
-                throw new IllegalStateException("act_lti_get did not return a result");
-              plentiful_parents.add(new ActivatedLti(actLtiGetRs.getLong(1), qrs.getLong(1)));
-            }
+            final Double lti_act = store.getLtiActivation(qrs.getLong(1));
+            if (lti_act == null)
+              throw new IllegalStateException("act_lti_get did not return a result");
+            plentiful_parents.add(new ActivatedLti(lti_act.longValue(), qrs.getLong(1)));
             // my_agent->smem_stmts->act_lti_get->reinitialize();
 
             more_rows = qrs.next(); // ( q->execute() ==
@@ -2222,38 +2034,33 @@ private MathQueryProcessResults processMathQuery(
                   continue;
                 }
 
+                SemanticMemoryCursor q2 = null;
                 if (next_element.element_type == smem_cue_element_type.attr_t) {
                   // parent=? AND attribute_s_id=?
-                  q2 = db.web_attr_child;
+                  q2 = store.findChildren(cand, next_element.attr_hash);
                 } else if (next_element.element_type == smem_cue_element_type.value_const_t) {
                   // parent=? AND attribute_s_id=? AND
                   // value_constant_s_id=?
-                  q2 = db.web_const_child;
-                  q2.setLong(3, next_element.value_hash);
+                  q2 =
+                      store.findConstantChildren(
+                          cand, next_element.attr_hash, next_element.value_hash);
                 } else if (next_element.element_type == smem_cue_element_type.value_lti_t) {
                   // parent=? AND attribute_s_id=? AND
                   // value_lti_id=?
-                  q2 = db.web_lti_child;
-                  q2.setLong(3, next_element.value_lti);
+                  q2 = store.findLtiChildren(cand, next_element.attr_hash, next_element.value_lti);
                 }
 
-                // all require own id, attribute
-                q2.setLong(1, cand);
-                q2.setLong(2, next_element.attr_hash);
-
-                try (ResultSet q2rs = q2.executeQuery()) {
+                try (SemanticMemoryCursor q2rs = q2) {
                   has_feature = q2rs.next();
                   var mathQueryMet = false;
                   if (next_element.mathElement != null && has_feature) {
                     do {
                       var valueHash = q2rs.getLong(2);
-                      db.hash_rev_type.setLong(1, valueHash);
-                      ResultSet rs = db.hash_rev_type.executeQuery();
+                      var valueType = store.getSymbolType(valueHash);
                       // If this hash wasn't in the table, there isn't a value to work with
-                      if (!rs.next()) {
+                      if (valueType == -1) {
                         good_cand = false;
                       } else {
-                        var valueType = rs.getInt(1);
                         // Not using the built in hash reverse because I want the raw type, not the
                         // symbol
                         switch (valueType) {
@@ -2269,7 +2076,6 @@ private MathQueryProcessResults processMathQuery(
                             break;
                         }
                       }
-                      rs.close();
                       // Go through the all the attribute records, to find the best match for a math
                       // query
                     } while (q2rs.next());
@@ -2420,7 +2226,7 @@ void smem_init_db() throws SoarException, SQLException, IOException {
    */
   void smem_init_db(boolean readonly /* = false */)
       throws SoarException, SQLException, IOException {
-    if (db != null /*
+    if (store != null /*
                         * my_agent->smem_db->get_status() !=
                         * soar_module::disconnected
                         */) {
@@ -2431,6 +2237,18 @@ void smem_init_db(boolean readonly /* = false */)
     // TODO SMEM Timers my_agent->smem_timers->init->start();
     // //////////////////////////////////////////////////////////////////////////
 
+    if (params.backend.get() == BackendChoices.heap) {
+      trace.print(Category.SMEM, "SMem| Initializing semantic memory store in heap memory.\n");
+
+      store = new HeapSemanticMemoryStore();
+
+      // update validation count
+      smem_validation++;
+
+      initializeStore(true);
+      return;
+    }
+
     // attempt connection
     final String jdbcUrl =
         URLDecoder.decode(params.protocol.get() + ":" + params.path.get(), StandardCharsets.UTF_8);
@@ -2455,6 +2273,7 @@ void smem_init_db(boolean readonly /* = false */)
     }
 
     db = new SemanticMemoryDatabase(params.driver.get(), connection);
+    store = new JdbcSemanticMemoryStore(db);
 
     // temporary queries for one-time init actions
 
@@ -2481,6 +2300,7 @@ void smem_init_db(boolean readonly /* = false */)
             // Undo what was done so far
             connection.close();
             db = null;
+            store = null;
             // This will only recurse once, because the path is
             // guaranteed to be memory for the second call
             smem_init_db(readonly);
@@ -2508,8 +2328,18 @@ void smem_init_db(boolean readonly /* = false */)
       db.prepare();
     }
 
+    initializeStore(tabula_rasa);
+  }
+
+  /**
+   * Extracted from smem_init_db(). Set up the variables of a new store or read them back from an
+   * existing one, then reset the identifier counters.
+   *
+   * <p>semantic_memory.cpp:1952:smem_init_db
+   */
+  private void initializeStore(boolean tabula_rasa) throws SoarException, SQLException {
     if (tabula_rasa) {
-      db.begin.executeUpdate(/* soar_module::op_reinit */ );
+      store.begin();
       {
         smem_max_cycle = 1;
         smem_variable_create(smem_variable_key.var_max_cycle, smem_max_cycle);
@@ -2525,7 +2355,7 @@ void smem_init_db(boolean readonly /* = false */)
         smem_variable_create(
             smem_variable_key.var_act_mode, params.activation_mode.get().ordinal());
       }
-      db.commit.executeUpdate();
+      store.commit();
     } else {
       final ByRef<Long> tempMaxCycle = ByRef.create(smem_max_cycle);
       smem_variable_get(smem_variable_key.var_max_cycle, tempMaxCycle);
@@ -2557,7 +2387,7 @@ void smem_init_db(boolean readonly /* = false */)
     // if lazy commit, then we encapsulate the entire lifetime of the agent
     // in a single transaction
     if (params.lazy_commit.get() == LazyCommitChoices.on) {
-      db.begin.executeUpdate(/* soar_module::op_reinit */ );
+      store.begin();
     }
 
     // //////////////////////////////////////////////////////////////////////////
@@ -2658,7 +2488,7 @@ private void applyDatabasePerformanceOptions() throws SQLException, SoarExceptio
   @Override
   public void smem_attach() throws SoarException {
     // semantic_memory.cpp:2112:smem_attach
-    if (db == null) {
+    if (store == null) {
       try {
         smem_init_db();
       } catch (SQLException | IOException e) {
@@ -2684,17 +2514,18 @@ void _smem_close_vars() throws SQLException {
   @Override
   public void smem_close() throws SoarException {
     // semantic_memory.cpp:2126:smem_close
-    if (db != null) {
+    if (store != null) {
       try {
         _smem_close_vars();
 
         // if lazy, commit
         if (params.lazy_commit.get() == LazyCommitChoices.on) {
-          db.commit.executeUpdate(/* soar_module::op_reinit */ );
+          store.commit();
         }
 
         // close the database
-        db.getConnection().close();
+        store.close();
+        store = null;
         db = null;
       } catch (SQLException e) {
         throw new SoarException("While closing SMEM: " + e.getMessage(), e);
@@ -2995,7 +2826,7 @@ private boolean smem_parse_chunks_safe(String chunkString)
 
     // copied primarily from cli_sp
     final var errorWriter = new StringWriter();
-    final var lexer = new Lexer(new Printer(errorWriter), new StringReader(chunkString));
+    final var lexer = new Lexer(new Printer(errorWriter), chunkString);
     lexer.setAllowIds(true);
     lexer.getNextLexeme();
 
@@ -3350,7 +3181,7 @@ else if (path == path_type.cmd_query) {
 
             // start transaction (if not lazy)
             if (params.lazy_commit.get() == LazyCommitChoices.off) {
-              db.begin.executeUpdate(/* soar_module::op_reinit */ );
+              this.store.begin();
             }
 
             for (IdentifierImpl sym_p : store) {
@@ -3370,7 +3201,7 @@ else if (path == path_type.cmd_query) {
 
             // commit transaction (if not lazy)
             if (params.lazy_commit.get() == LazyCommitChoices.off) {
-              db.commit.executeUpdate(/* soar_module::op_reinit */ );
+              this.store.commit();
             }
 
             // //////////////////////////////////////////////////////////////////////////
@@ -3418,7 +3249,7 @@ else if (path == path_type.cmd_query) {
 
       // start transaction (if not lazy)
       if (params.lazy_commit.get() == LazyCommitChoices.off) {
-        db.begin.execute();
+        this.store.begin();
       }
 
       for (SymbolImpl it : smem_changed_ids) {
@@ -3433,7 +3264,7 @@ else if (path == path_type.cmd_query) {
 
       // commit transaction (if not lazy)
       if (params.lazy_commit.get() == LazyCommitChoices.off) {
-        db.commit.execute();
+        this.store.commit();
       }
 
       smem_changed_ids.clear();
@@ -3484,6 +3315,8 @@ boolean smem_backup_db(String file_name, ByRef<String> err) throws SQLException
       _smem_close_vars();
 
       return db.backupDb(file_name);
+    } else if (store != null) {
+      err.value = "Semantic memory backend '" + params.backend.get() + "' cannot be backed up.";
     } else {
       err.value = "Semantic database is not currently connected.";
     }
@@ -3524,7 +3357,7 @@ private void smem_visualize_store_safe(PrintWriter return_val)
     {
       // id, soar_letter, number
       {
-        try (ResultSet q = db.vis_lti.executeQuery()) {
+        try (SemanticMemoryCursor q = store.selectLtis()) {
           while (q.next()) {
             final var lti_id = q.getLong(1);
             final char lti_letter = (char) q.getLong(2);
@@ -3564,7 +3397,7 @@ private void smem_visualize_store_safe(PrintWriter return_val)
 
           {
             // lti_id, attr_type, attr_hash, val_type, val_hash
-            try (ResultSet q = db.vis_value_const.executeQuery()) {
+            try (SemanticMemoryCursor q = store.selectConstantAugmentations()) {
               while (q.next()) {
                 final var lti_id = q.getLong(1);
                 my_terminals = lti_terminals.computeIfAbsent(lti_id, k -> new ArrayList<>());
@@ -3667,7 +3500,7 @@ private void smem_visualize_store_safe(PrintWriter return_val)
         {
           // lti_id, attr_type, attr_hash, value_lti_id
           {
-            try (ResultSet q = db.vis_value_lti.executeQuery()) {
+            try (SemanticMemoryCursor q = store.selectLtiAugmentations()) {
               while (q.next()) {
                 // source
                 var lti_id = q.getLong(1);
@@ -3756,12 +3589,10 @@ private void smem_visualize_lti_safe(
       // fake former linkage
       {
         // get just this lti
-        db.lti_letter_num.setLong(1, lti_id);
+        final long[] name = store.getLtiName(lti_id);
 
-        try (ResultSet lti_q = db.lti_letter_num.executeQuery()) {
-          // soar_letter
-          new_lti.lti_name = String.format("%c%d", (char) lti_q.getLong(1), lti_q.getLong(1 + 1));
-        }
+        // soar_letter
+        new_lti.lti_name = String.format("%c%d", (char) name[0], name[1]);
       }
 
       bfs.add(new_lti);
@@ -3777,8 +3608,7 @@ private void smem_visualize_lti_safe(
 
       // get direct children: attr_type, attr_hash, value_type,
       // value_hash, value_letter, value_num, value_lti
-      db.web_expand.setLong(1, parent_lti.lti_id);
-      try (ResultSet expand_q = db.web_expand.executeQuery()) {
+      try (SemanticMemoryCursor expand_q = store.expandAugmentations(parent_lti.lti_id)) {
         while (expand_q.next()) {
           // identifier vs. constant
           final var check_lti_id = expand_q.getLong(7);
@@ -3921,8 +3751,6 @@ private void smem_visualize_lti_safe(
 
     // handle lti nodes at once
     {
-      PreparedStatement act_q = db.vis_lti_act;
-
       return_val.append("node [ shape = doublecircle ];");
       return_val.append("\n");
 
@@ -3932,16 +3760,12 @@ private void smem_visualize_lti_safe(
         return_val.append(e.getValue().lti_name);
         return_val.append("\\n[");
 
-        act_q.setLong(1, e.getKey());
-        try (ResultSet rs = act_q.executeQuery()) {
-
-          if (rs.next()) {
-            Double temp_double = rs.getDouble(1);
-            if (temp_double >= 0) {
-              return_val.append("+");
-            }
-            return_val.append(temp_double.toString());
+        final Double temp_double = store.getLtiActivation(e.getKey());
+        if (temp_double != null) {
+          if (temp_double >= 0) {
+            return_val.append("+");
           }
+          return_val.append(temp_double.toString());
         }
 
         return_val.append("]\"");
@@ -3968,18 +3792,14 @@ private void smem_visualize_lti_safe(
 
     Map<String, List<String>> augmentations = new LinkedHashMap<>();
 
-    PreparedStatement expand_q = db.web_expand;
-
     return_val.append("(@");
     return_val.append(lti_letter);
     return_val.append(lti_number);
 
-    expand_q.setLong(1, lti_id);
-
-    try (ResultSet rs = expand_q.executeQuery()) {
+    try (SemanticMemoryCursor rs = store.expandAugmentations(lti_id)) {
 
       while (rs.next()) {
-        switch (rs.getInt(1)) {
+        switch ((int) rs.getLong(1)) {
           case Symbols.SYM_CONSTANT_SYMBOL_TYPE:
             temp_str = smem_reverse_hash_str(rs.getLong(1 + 1));
             break;
@@ -3999,7 +3819,7 @@ private void smem_visualize_lti_safe(
           temp_str2 = new StringBuilder("@");
 
           // soar letter
-          temp_str2.append((char) rs.getInt(4 + 1));
+          temp_str2.append((char) (int) rs.getLong(4 + 1));
 
           // number
           temp_str2.append(rs.getLong(5 + 1));
@@ -4007,7 +3827,7 @@ private void smem_visualize_lti_safe(
           // add to next
           next.add(rs.getLong(6 + 1));
         } else {
-          switch (rs.getInt(2 + 1)) {
+          switch ((int) rs.getLong(2 + 1)) {
             case Symbols.SYM_CONSTANT_SYMBOL_TYPE:
               temp_str2 = new StringBuilder(smem_reverse_hash_str(rs.getLong(3 + 1)));
               temp_str2.insert(0, "|");
@@ -4071,11 +3891,10 @@ void smem_print_store(StringBuilder return_val) throws SoarException {
     smem_attach();
 
     // id, soar_letter, number
-    PreparedStatement q = db.vis_lti;
-    try (ResultSet rs = q.executeQuery()) {
+    try (SemanticMemoryCursor rs = store.selectLtis()) {
       while (rs.next()) {
         _smem_print_lti(
-            rs.getLong(1), (char) rs.getInt(2), rs.getLong(3), rs.getDouble(4), return_val);
+            rs.getLong(1), (char) rs.getLong(2), rs.getLong(3), rs.getDouble(4), return_val);
       }
     } catch (SQLException e) {
       throw new SoarException(e);
@@ -4137,9 +3956,6 @@ void smem_print_lti(long /* smem_lti_id */ lti_id, int depth, StringBuilder retu
 
     Set<Long /* smem_lti_id */> next;
 
-    PreparedStatement lti_q = db.lti_letter_num;
-    PreparedStatement act_q = db.vis_lti_act;
-
     int i;
 
     // vizualizing the store requires an open semantic database
@@ -4159,19 +3975,13 @@ void smem_print_lti(long /* smem_lti_id */ lti_id, int depth, StringBuilder retu
 
       // get lti info
       try {
-        lti_q.setLong(1, c.getLTIid());
-        act_q.setLong(1, c.getLTIid());
-
-        try (ResultSet ltiRS = lti_q.executeQuery();
-            ResultSet actRS = act_q.executeQuery()) {
+        {
+          final long[] name = store.getLtiName(c.getLTIid());
+          final Double act = store.getLtiActivation(c.getLTIid());
 
           next =
               _smem_print_lti(
-                  c.getLTIid(),
-                  (char) ltiRS.getLong(1),
-                  ltiRS.getLong(2),
-                  actRS.getDouble(1),
-                  return_val);
+                  c.getLTIid(), (char) name[0], name[1], act != null ? act : 0, return_val);
 
           // done with lookup
 
@@ -4197,11 +4007,11 @@ void smem_print_lti(long /* smem_lti_id */ lti_id, int depth, StringBuilder retu
    */
   void commit() throws SoarException {
     // if lazy, commit
-    if (db != null && params.lazy_commit.get() == LazyCommitChoices.on) {
+    if (store != null && params.lazy_commit.get() == LazyCommitChoices.on) {
       // Commit and then start next lazy-commit transaction
       try {
-        db.commit.executeUpdate(/* soar_module::op_reinit */ );
-        db.begin.executeUpdate(/* soar_module::op_reinit */ );
+        store.commit();
+        store.begin();
       } catch (SQLException e) {
         throw new SoarException("Error while forcing commit: " + e.getMessage(), e);
       }
@@ -125,6 +125,11 @@ static enum AppendDatabaseChoices {
     off
   }
 
+  static enum BackendChoices {
+    jdbc,
+    heap
+  }
+
   private static final String PREFIX = "smem.params.";
 
   /**
@@ -202,6 +207,11 @@ public SetWrapperLong toSetWrapper(String value) {
   final EnumPropertyProvider<LearningChoices> learning =
       new EnumPropertyProvider<LearningChoices>(LEARNING);
 
+  static final PropertyKey<BackendChoices> BACKEND =
+      key("backend", BackendChoices.class).defaultValue(BackendChoices.jdbc).build();
+  final EnumPropertyProvider<BackendChoices> backend =
+      new EnumPropertyProvider<BackendChoices>(BACKEND);
+
   static final PropertyKey<String> DRIVER =
       key("driver", String.class).defaultValue("org.sqlite.JDBC").build();
   final DefaultPropertyProvider<String> driver = new DefaultPropertyProvider<String>(DRIVER);
@@ -290,6 +300,7 @@ public DefaultSemanticMemoryParams(PropertyManager properties) {
     this.properties = properties;
 
     properties.setProvider(LEARNING, learning);
+    properties.setProvider(BACKEND, backend);
     properties.setProvider(DRIVER, driver);
     properties.setProvider(PROTOCOL, protocol);
     properties.setProvider(PATH, path);
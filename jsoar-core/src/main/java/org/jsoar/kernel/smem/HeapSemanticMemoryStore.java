@@ -0,0 +1,708 @@
+package org.jsoar.kernel.smem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import org.jsoar.util.ByRef;
+
+/**
+ * {@link SemanticMemoryStore} that keeps semantic memory on the Java heap, without SQL. Intended
+ * for agents whose semantic memory doesn't have to outlive them, where it replaces an in-memory
+ * SQLite database.
+ *
+ * <p>Every augmentation is a member of two posting lists: one for its attribute and one for its
+ * attribute and value. The posting lists are ordered by activation, so the candidate set of a
+ * cue-based retrieval is walked from its most active lti without sorting, and the walk can stop at
+ * the first match. Changing the activation of an lti moves its augmentations within their posting
+ * lists. Symbols, ltis and frequencies are found through hash tables.
+ *
+ * <p>Augmentations with the same activation are ordered latest first, which is the order the
+ * indexes of {@link SemanticMemoryDatabase} return them in, so retrievals are identical for both
+ * stores.
+ */
+final class HeapSemanticMemoryStore implements SemanticMemoryStore {
+  /** Most active first, then latest first */
+  private static final Comparator<Augmentation> BY_ACTIVATION =
+      (a, b) -> {
+        if (a.activation != b.activation) {
+          return a.activation > b.activation ? -1 : 1;
+        }
+        return Long.compare(b.sequence, a.sequence);
+      };
+
+  private final Map<Integer, Long> variables = new HashMap<>();
+
+  /** Indexed by s_id - 1 */
+  private final List<SymbolEntry> symbols = new ArrayList<>();
+
+  private final Map<Long, Long> integerSymbols = new HashMap<>();
+  private final Map<Double, Long> floatSymbols = new HashMap<>();
+  private final Map<String, Long> stringSymbols = new HashMap<>();
+
+  /** Indexed by lti_id - 1 */
+  private final List<Lti> ltis = new ArrayList<>();
+
+  /** (letter, number) -> lti */
+  private final Map<Key, Lti> ltisByName = new HashMap<>();
+
+  /** activations_last -> ltis */
+  private final Map<Long, Set<Lti>> ltisByLastActivation = new HashMap<>();
+
+  private final Map<Long, NavigableSet<Augmentation>> byAttribute = new HashMap<>();
+  private final Map<Key, NavigableSet<Augmentation>> byConstant = new HashMap<>();
+  private final Map<Key, NavigableSet<Augmentation>> byLti = new HashMap<>();
+
+  private final Map<Long, Long> attributeFrequencies = new HashMap<>();
+  private final Map<Key, Long> constantFrequencies = new HashMap<>();
+  private final Map<Key, Long> ltiFrequencies = new HashMap<>();
+
+  /** Assigned to augmentations in insertion order, like a rowid */
+  private long nextSequence = 1;
+
+  @Override
+  public void begin() {}
+
+  @Override
+  public void commit() {}
+
+  @Override
+  public void close() {}
+
+  @Override
+  public boolean getVariable(int id, ByRef<Long> value) {
+    final Long v = variables.get(id);
+    if (v == null) {
+      return false;
+    }
+    value.value = v;
+    return true;
+  }
+
+  @Override
+  public void setVariable(int id, long value) {
+    variables.replace(id, value);
+  }
+
+  @Override
+  public void createVariable(int id, long value) {
+    variables.put(id, value);
+  }
+
+  @Override
+  public long addSymbolType(int type) {
+    symbols.add(new SymbolEntry(type));
+    return symbols.size();
+  }
+
+  private SymbolEntry symbol(long sId) {
+    return sId > 0 && sId <= symbols.size() ? symbols.get((int) sId - 1) : null;
+  }
+
+  @Override
+  public int getSymbolType(long sId) {
+    final SymbolEntry s = symbol(sId);
+    return s != null ? s.type : -1;
+  }
+
+  @Override
+  public long findIntegerSymbol(long value) {
+    return integerSymbols.getOrDefault(value, 0L);
+  }
+
+  @Override
+  public long findFloatSymbol(double value) {
+    return floatSymbols.getOrDefault(value, 0L);
+  }
+
+  @Override
+  public long findStringSymbol(String value) {
+    return stringSymbols.getOrDefault(value, 0L);
+  }
+
+  @Override
+  public void addIntegerSymbol(long sId, long value) {
+    symbol(sId).value = value;
+    integerSymbols.put(value, sId);
+  }
+
+  @Override
+  public void addFloatSymbol(long sId, double value) {
+    symbol(sId).value = value;
+    floatSymbols.put(value, sId);
+  }
+
+  @Override
+  public void addStringSymbol(long sId, String value) {
+    symbol(sId).value = value;
+    stringSymbols.put(value, sId);
+  }
+
+  @Override
+  public Long getIntegerSymbol(long sId) {
+    final SymbolEntry s = symbol(sId);
+    return s != null && s.value instanceof Long ? (Long) s.value : null;
+  }
+
+  @Override
+  public Double getFloatSymbol(long sId) {
+    final SymbolEntry s = symbol(sId);
+    return s != null && s.value instanceof Double ? (Double) s.value : null;
+  }
+
+  @Override
+  public String getStringSymbol(long sId) {
+    final SymbolEntry s = symbol(sId);
+    return s != null && s.value instanceof String ? (String) s.value : null;
+  }
+
+  private Lti lti(long id) {
+    return id > 0 && id <= ltis.size() ? ltis.get((int) id - 1) : null;
+  }
+
+  @Override
+  public long addLti(long letter, long number) {
+    final Lti lti = new Lti(ltis.size() + 1, letter, number);
+    ltis.add(lti);
+    ltisByName.put(new Key(letter, number), lti);
+    ltisByLastActivation.computeIfAbsent(lti.activationsLast, k -> new LinkedHashSet<>()).add(lti);
+    return lti.id;
+  }
+
+  @Override
+  public long findLti(long letter, long number) {
+    final Lti lti = ltisByName.get(new Key(letter, number));
+    return lti != null ? lti.id : 0;
+  }
+
+  @Override
+  public long[] getLtiName(long id) {
+    final Lti lti = lti(id);
+    return lti != null ? new long[] {lti.letter, lti.number} : null;
+  }
+
+  @Override
+  public SemanticMemoryCursor getLtiMaxNumbers() {
+    final Map<Long, Long> max = new TreeMap<>();
+    for (Lti lti : ltis) {
+      max.merge(lti.letter, lti.number, Math::max);
+    }
+    final List<long[]> rows = new ArrayList<>(max.size());
+    for (Map.Entry<Long, Long> e : max.entrySet()) {
+      rows.add(new long[] {e.getKey(), e.getValue()});
+    }
+    return new LongRowCursor(rows);
+  }
+
+  @Override
+  public long[] getLtiAccess(long id) {
+    final Lti lti = lti(id);
+    return lti != null
+        ? new long[] {lti.activationsTotal, lti.activationsLast, lti.activationsFirst}
+        : null;
+  }
+
+  @Override
+  public void setLtiAccess(long id, long total, long last, long first) {
+    final Lti lti = lti(id);
+    if (lti == null) {
+      return;
+    }
+    if (lti.activationsLast != last) {
+      final Set<Lti> previous = ltisByLastActivation.get(lti.activationsLast);
+      previous.remove(lti);
+      if (previous.isEmpty()) {
+        ltisByLastActivation.remove(lti.activationsLast);
+      }
+      ltisByLastActivation.computeIfAbsent(last, k -> new LinkedHashSet<>()).add(lti);
+    }
+    lti.activationsTotal = total;
+    lti.activationsLast = last;
+    lti.activationsFirst = first;
+  }
+
+  @Override
+  public SemanticMemoryCursor findLtisLastActivatedAt(long time) {
+    final Set<Lti> found = ltisByLastActivation.getOrDefault(time, Collections.emptySet());
+    final List<long[]> rows = new ArrayList<>(found.size());
+    for (Lti lti : found) {
+      rows.add(new long[] {lti.id});
+    }
+    rows.sort(Comparator.comparingLong(r -> r[0]));
+    return new LongRowCursor(rows);
+  }
+
+  @Override
+  public long getLtiChildCount(long id) {
+    final Lti lti = lti(id);
+    return lti != null ? lti.childCount : 0;
+  }
+
+  @Override
+  public void setLtiChildCount(long id, long count) {
+    final Lti lti = lti(id);
+    if (lti != null) {
+      lti.childCount = count;
+    }
+  }
+
+  @Override
+  public Double getLtiActivation(long id) {
+    final Lti lti = lti(id);
+    return lti != null ? lti.activation : null;
+  }
+
+  @Override
+  public void setLtiActivation(long id, double activation) {
+    final Lti lti = lti(id);
+    if (lti != null) {
+      lti.activation = activation;
+    }
+  }
+
+  @Override
+  public SemanticMemoryCursor selectLtis() {
+    final List<Lti> sorted = new ArrayList<>(ltis);
+    sorted.sort(Comparator.<Lti>comparingLong(l -> l.letter).thenComparingLong(l -> l.number));
+    return new RowCursor<Lti>(sorted.iterator()) {
+      @Override
+      long getLong(Lti row, int column) {
+        switch (column) {
+          case 1:
+            return row.id;
+          case 2:
+            return row.letter;
+          case 3:
+            return row.number;
+          case 4:
+            return (long) row.activation;
+          default:
+            return 0;
+        }
+      }
+
+      @Override
+      double getDouble(Lti row, int column) {
+        return column == 4 ? row.activation : getLong(row, column);
+      }
+    };
+  }
+
+  @Override
+  public long[] getHistory(long id) {
+    final Lti lti = lti(id);
+    return lti != null ? lti.history : null;
+  }
+
+  @Override
+  public void addHistory(long id, long time) {
+    final Lti lti = lti(id);
+    if (lti != null && lti.history == null) {
+      lti.history = new long[(int) DefaultSemanticMemory.SMEM_ACT_HISTORY_ENTRIES];
+      lti.history[0] = time;
+    }
+  }
+
+  @Override
+  public void pushHistory(long id, long time) {
+    final Lti lti = lti(id);
+    if (lti != null && lti.history != null) {
+      System.arraycopy(lti.history, 0, lti.history, 1, lti.history.length - 1);
+      lti.history[0] = time;
+    }
+  }
+
+  @Override
+  public void addAugmentation(
+      long id, long attribute, long valueConstant, long valueLti, double activation) {
+    final Lti lti = lti(id);
+    if (lti == null) {
+      return;
+    }
+
+    final NavigableSet<Augmentation> attributePostings =
+        byAttribute.computeIfAbsent(attribute, k -> new TreeSet<>(BY_ACTIVATION));
+    final NavigableSet<Augmentation> valuePostings =
+        valueLti != DefaultSemanticMemory.SMEM_AUGMENTATIONS_NULL
+            ? byLti.computeIfAbsent(new Key(attribute, valueLti), k -> new TreeSet<>(BY_ACTIVATION))
+            : byConstant.computeIfAbsent(
+                new Key(attribute, valueConstant), k -> new TreeSet<>(BY_ACTIVATION));
+
+    final Augmentation a =
+        new Augmentation(
+            nextSequence++,
+            lti,
+            attribute,
+            valueConstant,
+            valueLti,
+            activation,
+            attributePostings,
+            valuePostings);
+    lti.augmentations.add(a);
+    attributePostings.add(a);
+    valuePostings.add(a);
+  }
+
+  @Override
+  public void deleteAugmentations(long id) {
+    final Lti lti = lti(id);
+    if (lti == null) {
+      return;
+    }
+    for (Augmentation a : lti.augmentations) {
+      a.attributePostings.remove(a);
+      a.valuePostings.remove(a);
+    }
+    lti.augmentations.clear();
+  }
+
+  @Override
+  public void setAugmentationActivation(long id, double activation) {
+    final Lti lti = lti(id);
+    if (lti == null) {
+      return;
+    }
+    for (Augmentation a : lti.augmentations) {
+      if (a.activation != activation) {
+        // the posting lists are ordered by activation, so re-insert
+        a.attributePostings.remove(a);
+        a.valuePostings.remove(a);
+        a.activation = activation;
+        a.attributePostings.add(a);
+        a.valuePostings.add(a);
+      }
+    }
+  }
+
+  @Override
+  public SemanticMemoryCursor getAugmentations(long id) {
+    final List<long[]> rows = new ArrayList<>();
+    for (Augmentation a : augmentations(id)) {
+      rows.add(new long[] {a.attribute, a.valueConstant, a.valueLti});
+    }
+    return new LongRowCursor(rows);
+  }
+
+  @Override
+  public SemanticMemoryCursor expandAugmentations(long id) {
+    final List<long[]> rows = new ArrayList<>();
+    for (Augmentation a : augmentations(id)) {
+      final Lti value = lti(a.valueLti);
+      final SymbolEntry constant = symbol(a.valueConstant);
+      rows.add(
+          new long[] {
+            getSymbolType(a.attribute),
+            a.attribute,
+            constant != null ? constant.type : 0,
+            constant != null ? a.valueConstant : 0,
+            value != null ? value.letter : 0,
+            value != null ? value.number : 0,
+            a.valueLti
+          });
+    }
+    return new LongRowCursor(rows);
+  }
+
+  @Override
+  public SemanticMemoryCursor findChildren(long id, long attribute) {
+    final List<long[]> rows = new ArrayList<>();
+    for (Augmentation a : augmentations(id)) {
+      if (a.attribute == attribute) {
+        rows.add(new long[] {id, a.valueConstant});
+      }
+    }
+    return new LongRowCursor(rows);
+  }
+
+  @Override
+  public SemanticMemoryCursor findConstantChildren(long id, long attribute, long valueConstant) {
+    final List<long[]> rows = new ArrayList<>();
+    for (Augmentation a : augmentations(id)) {
+      if (a.attribute == attribute && a.valueConstant == valueConstant) {
+        rows.add(new long[] {id, a.valueConstant});
+      }
+    }
+    return new LongRowCursor(rows);
+  }
+
+  @Override
+  public SemanticMemoryCursor findLtiChildren(long id, long attribute, long valueLti) {
+    final List<long[]> rows = new ArrayList<>();
+    for (Augmentation a : augmentations(id)) {
+      if (a.attribute == attribute
+          && a.valueConstant == DefaultSemanticMemory.SMEM_AUGMENTATIONS_NULL
+          && a.valueLti == valueLti) {
+        rows.add(new long[] {id, a.valueConstant});
+      }
+    }
+    return new LongRowCursor(rows);
+  }
+
+  private List<Augmentation> augmentations(long id) {
+    final Lti lti = lti(id);
+    return lti != null ? lti.augmentations : Collections.emptyList();
+  }
+
+  @Override
+  public SemanticMemoryCursor findByAttribute(long attribute) {
+    return postings(byAttribute.get(attribute));
+  }
+
+  @Override
+  public SemanticMemoryCursor findByConstant(long attribute, long valueConstant) {
+    return postings(byConstant.get(new Key(attribute, valueConstant)));
+  }
+
+  @Override
+  public SemanticMemoryCursor findByLti(long attribute, long valueLti) {
+    return postings(byLti.get(new Key(attribute, valueLti)));
+  }
+
+  /** @return a cursor of (lti_id, activation) that walks the posting list as it is read */
+  private static SemanticMemoryCursor postings(NavigableSet<Augmentation> postings) {
+    final Iterator<Augmentation> it =
+        postings != null ? postings.iterator() : Collections.emptyIterator();
+    return new RowCursor<Augmentation>(it) {
+      @Override
+      long getLong(Augmentation row, int column) {
+        switch (column) {
+          case 1:
+            return row.lti.id;
+          case 2:
+            return (long) row.activation;
+          default:
+            return 0;
+        }
+      }
+
+      @Override
+      double getDouble(Augmentation row, int column) {
+        return column == 2 ? row.activation : getLong(row, column);
+      }
+    };
+  }
+
+  @Override
+  public SemanticMemoryCursor selectConstantAugmentations() {
+    final List<long[]> rows = new ArrayList<>();
+    for (Augmentation a : allAugmentations()) {
+      final SymbolEntry attribute = symbol(a.attribute);
+      final SymbolEntry value = symbol(a.valueConstant);
+      if (attribute != null && value != null) {
+        rows.add(new long[] {a.lti.id, attribute.type, a.attribute, value.type, a.valueConstant});
+      }
+    }
+    return new LongRowCursor(rows);
+  }
+
+  @Override
+  public SemanticMemoryCursor selectLtiAugmentations() {
+    final List<long[]> rows = new ArrayList<>();
+    for (Augmentation a : allAugmentations()) {
+      final SymbolEntry attribute = symbol(a.attribute);
+      if (attribute != null && a.valueLti != DefaultSemanticMemory.SMEM_AUGMENTATIONS_NULL) {
+        rows.add(new long[] {a.lti.id, attribute.type, a.attribute, a.valueLti});
+      }
+    }
+    return new LongRowCursor(rows);
+  }
+
+  /** @return every augmentation, in insertion order */
+  private List<Augmentation> allAugmentations() {
+    final List<Augmentation> all = new ArrayList<>();
+    for (Lti lti : ltis) {
+      all.addAll(lti.augmentations);
+    }
+    all.sort(Comparator.comparingLong(a -> a.sequence));
+    return all;
+  }
+
+  @Override
+  public Long getAttributeFrequency(long attribute) {
+    return attributeFrequencies.get(attribute);
+  }
+
+  @Override
+  public void addAttributeFrequency(long attribute) {
+    attributeFrequencies.put(attribute, 1L);
+  }
+
+  @Override
+  public void updateAttributeFrequency(long attribute, long delta) {
+    attributeFrequencies.computeIfPresent(attribute, (k, v) -> v + delta);
+  }
+
+  @Override
+  public Long getConstantFrequency(long attribute, long valueConstant) {
+    return constantFrequencies.get(new Key(attribute, valueConstant));
+  }
+
+  @Override
+  public void addConstantFrequency(long attribute, long valueConstant) {
+    constantFrequencies.put(new Key(attribute, valueConstant), 1L);
+  }
+
+  @Override
+  public void updateConstantFrequency(long attribute, long valueConstant, long delta) {
+    constantFrequencies.computeIfPresent(new Key(attribute, valueConstant), (k, v) -> v + delta);
+  }
+
+  @Override
+  public Long getLtiFrequency(long attribute, long valueLti) {
+    return ltiFrequencies.get(new Key(attribute, valueLti));
+  }
+
+  @Override
+  public void addLtiFrequency(long attribute, long valueLti) {
+    ltiFrequencies.put(new Key(attribute, valueLti), 1L);
+  }
+
+  @Override
+  public void updateLtiFrequency(long attribute, long valueLti, long delta) {
+    ltiFrequencies.computeIfPresent(new Key(attribute, valueLti), (k, v) -> v + delta);
+  }
+
+  private static final class SymbolEntry {
+    final int type;
+    Object value;
+
+    SymbolEntry(int type) {
+      this.type = type;
+    }
+  }
+
+  private static final class Lti {
+    final long id;
+    final long letter;
+    final long number;
+
+    long childCount;
+    double activation;
+    long activationsTotal;
+    long activationsLast;
+    long activationsFirst;
+
+    /** Latest first, {@code null} until the first activation */
+    long[] history;
+
+    final List<Augmentation> augmentations = new ArrayList<>();
+
+    Lti(long id, long letter, long number) {
+      this.id = id;
+      this.letter = letter;
+      this.number = number;
+    }
+  }
+
+  private static final class Augmentation {
+    final long sequence;
+    final Lti lti;
+    final long attribute;
+    final long valueConstant;
+    final long valueLti;
+    final NavigableSet<Augmentation> attributePostings;
+    final NavigableSet<Augmentation> valuePostings;
+
+    /** Only change while removed from the posting lists */
+    double activation;
+
+    Augmentation(
+        long sequence,
+        Lti lti,
+        long attribute,
+        long valueConstant,
+        long valueLti,
+        double activation,
+        NavigableSet<Augmentation> attributePostings,
+        NavigableSet<Augmentation> valuePostings) {
+      this.sequence = sequence;
+      this.lti = lti;
+      this.attribute = attribute;
+      this.valueConstant = valueConstant;
+      this.valueLti = valueLti;
+      this.activation = activation;
+      this.attributePostings = attributePostings;
+      this.valuePostings = valuePostings;
+    }
+  }
+
+  private static final class Key {
+    final long first;
+    final long second;
+
+    Key(long first, long second) {
+      this.first = first;
+      this.second = second;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(first) * 31 + Long.hashCode(second);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) obj;
+      return first == other.first && second == other.second;
+    }
+  }
+
+  /** A cursor over rows that are read from an iterator as the cursor advances */
+  private abstract static class RowCursor<T> implements SemanticMemoryCursor {
+    private final Iterator<T> rows;
+    private T current;
+
+    RowCursor(Iterator<T> rows) {
+      this.rows = rows;
+    }
+
+    abstract long getLong(T row, int column);
+
+    double getDouble(T row, int column) {
+      return getLong(row, column);
+    }
+
+    @Override
+    public boolean next() {
+      current = rows.hasNext() ? rows.next() : null;
+      return current != null;
+    }
+
+    @Override
+    public long getLong(int column) {
+      return current != null ? getLong(current, column) : 0;
+    }
+
+    @Override
+    public double getDouble(int column) {
+      return current != null ? getDouble(current, column) : 0;
+    }
+
+    @Override
+    public void close() {
+      current = null;
+    }
+  }
+
+  private static final class LongRowCursor extends RowCursor<long[]> {
+    LongRowCursor(List<long[]> rows) {
+      super(rows.iterator());
+    }
+
+    @Override
+    long getLong(long[] row, int column) {
+      return column >= 1 && column <= row.length ? row[column - 1] : 0;
+    }
+  }
+}
@@ -0,0 +1,461 @@
+package org.jsoar.kernel.smem;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.jsoar.util.ByRef;
+import org.jsoar.util.JdbcTools;
+
+/**
+ * {@link SemanticMemoryStore} backed by the prepared statements of a {@link
+ * SemanticMemoryDatabase}.
+ */
+final class JdbcSemanticMemoryStore implements SemanticMemoryStore {
+  private final SemanticMemoryDatabase db;
+
+  /** @param db the database, with its statements prepared */
+  JdbcSemanticMemoryStore(SemanticMemoryDatabase db) {
+    this.db = db;
+  }
+
+  SemanticMemoryDatabase getDatabase() {
+    return db;
+  }
+
+  @Override
+  public void begin() throws SQLException {
+    db.begin.executeUpdate();
+  }
+
+  @Override
+  public void commit() throws SQLException {
+    db.commit.executeUpdate();
+  }
+
+  @Override
+  public void close() throws SQLException {
+    db.getConnection().close();
+  }
+
+  @Override
+  public boolean getVariable(int id, ByRef<Long> value) throws SQLException {
+    db.var_get.setInt(1, id);
+    try (ResultSet rs = db.var_get.executeQuery()) {
+      if (rs.next()) {
+        value.value = rs.getLong(1);
+        return true;
+      } else {
+        return false;
+      }
+    }
+  }
+
+  @Override
+  public void setVariable(int id, long value) throws SQLException {
+    db.var_set.setLong(1, value);
+    db.var_set.setInt(2, id);
+    db.var_set.execute();
+  }
+
+  @Override
+  public void createVariable(int id, long value) throws SQLException {
+    db.var_create.setInt(1, id);
+    db.var_create.setLong(2, value);
+    db.var_create.execute();
+  }
+
+  @Override
+  public long addSymbolType(int type) throws SQLException {
+    db.hash_add_type.setInt(1, type);
+    return JdbcTools.insertAndGetRowId(db.hash_add_type);
+  }
+
+  @Override
+  public int getSymbolType(long sId) throws SQLException {
+    db.hash_rev_type.setLong(1, sId);
+    try (ResultSet rs = db.hash_rev_type.executeQuery()) {
+      return rs.next() ? rs.getInt(1) : -1;
+    }
+  }
+
+  @Override
+  public long findIntegerSymbol(long value) throws SQLException {
+    db.hash_get_int.setLong(1, value);
+    return getFirstLong(db.hash_get_int);
+  }
+
+  @Override
+  public long findFloatSymbol(double value) throws SQLException {
+    db.hash_get_float.setDouble(1, value);
+    return getFirstLong(db.hash_get_float);
+  }
+
+  @Override
+  public long findStringSymbol(String value) throws SQLException {
+    db.hash_get_str.setString(1, value);
+    return getFirstLong(db.hash_get_str);
+  }
+
+  @Override
+  public void addIntegerSymbol(long sId, long value) throws SQLException {
+    db.hash_add_int.setLong(1, sId);
+    db.hash_add_int.setLong(2, value);
+    db.hash_add_int.executeUpdate();
+  }
+
+  @Override
+  public void addFloatSymbol(long sId, double value) throws SQLException {
+    db.hash_add_float.setLong(1, sId);
+    db.hash_add_float.setDouble(2, value);
+    db.hash_add_float.executeUpdate();
+  }
+
+  @Override
+  public void addStringSymbol(long sId, String value) throws SQLException {
+    db.hash_add_str.setLong(1, sId);
+    db.hash_add_str.setString(2, value);
+    db.hash_add_str.executeUpdate();
+  }
+
+  @Override
+  public Long getIntegerSymbol(long sId) throws SQLException {
+    db.hash_rev_int.setLong(1, sId);
+    try (ResultSet rs = db.hash_rev_int.executeQuery()) {
+      return rs.next() ? rs.getLong(1) : null;
+    }
+  }
+
+  @Override
+  public Double getFloatSymbol(long sId) throws SQLException {
+    db.hash_rev_float.setLong(1, sId);
+    try (ResultSet rs = db.hash_rev_float.executeQuery()) {
+      return rs.next() ? rs.getDouble(1) : null;
+    }
+  }
+
+  @Override
+  public String getStringSymbol(long sId) throws SQLException {
+    db.hash_rev_str.setLong(1, sId);
+    try (ResultSet rs = db.hash_rev_str.executeQuery()) {
+      return rs.next() ? rs.getString(1) : null;
+    }
+  }
+
+  @Override
+  public long addLti(long letter, long number) throws SQLException {
+    // soar_letter, number, total_augmentations, activation_value,
+    // activations_total, activations_last, activations_first
+    db.lti_add.setLong(1, letter);
+    db.lti_add.setLong(2, number);
+    db.lti_add.setLong(3, 0);
+    db.lti_add.setDouble(4, 0);
+    db.lti_add.setLong(5, 0);
+    db.lti_add.setLong(6, 0);
+    db.lti_add.setLong(7, 0);
+    return JdbcTools.insertAndGetRowId(db.lti_add);
+  }
+
+  @Override
+  public long findLti(long letter, long number) throws SQLException {
+    db.lti_get.setLong(1, letter);
+    db.lti_get.setLong(2, number);
+    return getFirstLong(db.lti_get);
+  }
+
+  @Override
+  public long[] getLtiName(long lti) throws SQLException {
+    db.lti_letter_num.setLong(1, lti);
+    try (ResultSet rs = db.lti_letter_num.executeQuery()) {
+      return rs.next() ? new long[] {rs.getLong(1), rs.getLong(2)} : null;
+    }
+  }
+
+  @Override
+  public SemanticMemoryCursor getLtiMaxNumbers() throws SQLException {
+    return new ResultSetCursor(db.lti_max.executeQuery());
+  }
+
+  @Override
+  public long[] getLtiAccess(long lti) throws SQLException {
+    db.lti_access_get.setLong(1, lti);
+    try (ResultSet rs = db.lti_access_get.executeQuery()) {
+      return rs.next() ? new long[] {rs.getLong(1), rs.getLong(2), rs.getLong(3)} : null;
+    }
+  }
+
+  @Override
+  public void setLtiAccess(long lti, long total, long last, long first) throws SQLException {
+    db.lti_access_set.setLong(1, total);
+    db.lti_access_set.setLong(2, last);
+    db.lti_access_set.setLong(3, first);
+    db.lti_access_set.setLong(4, lti);
+    db.lti_access_set.executeUpdate();
+  }
+
+  @Override
+  public SemanticMemoryCursor findLtisLastActivatedAt(long time) throws SQLException {
+    db.lti_get_t.setLong(1, time);
+    return new ResultSetCursor(db.lti_get_t.executeQuery());
+  }
+
+  @Override
+  public long getLtiChildCount(long lti) throws SQLException {
+    db.act_lti_child_ct_get.setLong(1, lti);
+    return getFirstLong(db.act_lti_child_ct_get);
+  }
+
+  @Override
+  public void setLtiChildCount(long lti, long count) throws SQLException {
+    db.act_lti_child_ct_set.setLong(1, count);
+    db.act_lti_child_ct_set.setLong(2, lti);
+    db.act_lti_child_ct_set.executeUpdate();
+  }
+
+  @Override
+  public Double getLtiActivation(long lti) throws SQLException {
+    db.act_lti_get.setLong(1, lti);
+    try (ResultSet rs = db.act_lti_get.executeQuery()) {
+      return rs.next() ? rs.getDouble(1) : null;
+    }
+  }
+
+  @Override
+  public void setLtiActivation(long lti, double activation) throws SQLException {
+    db.act_lti_set.setDouble(1, activation);
+    db.act_lti_set.setLong(2, lti);
+    db.act_lti_set.executeUpdate();
+  }
+
+  @Override
+  public SemanticMemoryCursor selectLtis() throws SQLException {
+    return new ResultSetCursor(db.vis_lti.executeQuery());
+  }
+
+  @Override
+  public long[] getHistory(long lti) throws SQLException {
+    db.history_get.setLong(1, lti);
+    try (ResultSet rs = db.history_get.executeQuery()) {
+      if (!rs.next()) {
+        return null;
+      }
+      final long[] history = new long[(int) DefaultSemanticMemory.SMEM_ACT_HISTORY_ENTRIES];
+      for (int i = 0; i < history.length; i++) {
+        history[i] = rs.getLong(i + 1);
+      }
+      return history;
+    }
+  }
+
+  @Override
+  public void addHistory(long lti, long time) throws SQLException {
+    db.history_add.setLong(1, lti);
+    db.history_add.setLong(2, time);
+    db.history_add.executeUpdate();
+  }
+
+  @Override
+  public void pushHistory(long lti, long time) throws SQLException {
+    db.history_push.setLong(1, time);
+    db.history_push.setLong(2, lti);
+    db.history_push.executeUpdate();
+  }
+
+  @Override
+  public void addAugmentation(
+      long lti, long attribute, long valueConstant, long valueLti, double activation)
+      throws SQLException {
+    db.web_add.setLong(1, lti);
+    db.web_add.setLong(2, attribute);
+    db.web_add.setLong(3, valueConstant);
+    db.web_add.setLong(4, valueLti);
+    db.web_add.setDouble(5, activation);
+    db.web_add.executeUpdate();
+  }
+
+  @Override
+  public void deleteAugmentations(long lti) throws SQLException {
+    db.web_truncate.setLong(1, lti);
+    db.web_truncate.executeUpdate();
+  }
+
+  @Override
+  public void setAugmentationActivation(long lti, double activation) throws SQLException {
+    db.act_set.setDouble(1, activation);
+    db.act_set.setLong(2, lti);
+    db.act_set.executeUpdate();
+  }
+
+  @Override
+  public SemanticMemoryCursor getAugmentations(long lti) throws SQLException {
+    db.web_all.setLong(1, lti);
+    return new ResultSetCursor(db.web_all.executeQuery());
+  }
+
+  @Override
+  public SemanticMemoryCursor expandAugmentations(long lti) throws SQLException {
+    db.web_expand.setLong(1, lti);
+    return new ResultSetCursor(db.web_expand.executeQuery());
+  }
+
+  @Override
+  public SemanticMemoryCursor findChildren(long lti, long attribute) throws SQLException {
+    db.web_attr_child.setLong(1, lti);
+    db.web_attr_child.setLong(2, attribute);
+    return new ResultSetCursor(db.web_attr_child.executeQuery());
+  }
+
+  @Override
+  public SemanticMemoryCursor findConstantChildren(long lti, long attribute, long valueConstant)
+      throws SQLException {
+    db.web_const_child.setLong(1, lti);
+    db.web_const_child.setLong(2, attribute);
+    db.web_const_child.setLong(3, valueConstant);
+    return new ResultSetCursor(db.web_const_child.executeQuery());
+  }
+
+  @Override
+  public SemanticMemoryCursor findLtiChildren(long lti, long attribute, long valueLti)
+      throws SQLException {
+    db.web_lti_child.setLong(1, lti);
+    db.web_lti_child.setLong(2, attribute);
+    db.web_lti_child.setLong(3, valueLti);
+    return new ResultSetCursor(db.web_lti_child.executeQuery());
+  }
+
+  @Override
+  public SemanticMemoryCursor findByAttribute(long attribute) throws SQLException {
+    db.web_attr_all.setLong(1, attribute);
+    return new ResultSetCursor(db.web_attr_all.executeQuery());
+  }
+
+  @Override
+  public SemanticMemoryCursor findByConstant(long attribute, long valueConstant)
+      throws SQLException {
+    db.web_const_all.setLong(1, attribute);
+    db.web_const_all.setLong(2, valueConstant);
+    return new ResultSetCursor(db.web_const_all.executeQuery());
+  }
+
+  @Override
+  public SemanticMemoryCursor findByLti(long attribute, long valueLti) throws SQLException {
+    db.web_lti_all.setLong(1, attribute);
+    db.web_lti_all.setLong(2, valueLti);
+    return new ResultSetCursor(db.web_lti_all.executeQuery());
+  }
+
+  @Override
+  public SemanticMemoryCursor selectConstantAugmentations() throws SQLException {
+    return new ResultSetCursor(db.vis_value_const.executeQuery());
+  }
+
+  @Override
+  public SemanticMemoryCursor selectLtiAugmentations() throws SQLException {
+    return new ResultSetCursor(db.vis_value_lti.executeQuery());
+  }
+
+  @Override
+  public Long getAttributeFrequency(long attribute) throws SQLException {
+    db.attribute_frequency_get.setLong(1, attribute);
+    return getFirstLongOrNull(db.attribute_frequency_get);
+  }
+
+  @Override
+  public void addAttributeFrequency(long attribute) throws SQLException {
+    db.attribute_frequency_add.setLong(1, attribute);
+    db.attribute_frequency_add.executeUpdate();
+  }
+
+  @Override
+  public void updateAttributeFrequency(long attribute, long delta) throws SQLException {
+    db.attribute_frequency_update.setLong(1, delta);
+    db.attribute_frequency_update.setLong(2, attribute);
+    db.attribute_frequency_update.executeUpdate();
+  }
+
+  @Override
+  public Long getConstantFrequency(long attribute, long valueConstant) throws SQLException {
+    db.wmes_constant_frequency_get.setLong(1, attribute);
+    db.wmes_constant_frequency_get.setLong(2, valueConstant);
+    return getFirstLongOrNull(db.wmes_constant_frequency_get);
+  }
+
+  @Override
+  public void addConstantFrequency(long attribute, long valueConstant) throws SQLException {
+    db.wmes_constant_frequency_add.setLong(1, attribute);
+    db.wmes_constant_frequency_add.setLong(2, valueConstant);
+    db.wmes_constant_frequency_add.executeUpdate();
+  }
+
+  @Override
+  public void updateConstantFrequency(long attribute, long valueConstant, long delta)
+      throws SQLException {
+    db.wmes_constant_frequency_update.setLong(1, delta);
+    db.wmes_constant_frequency_update.setLong(2, attribute);
+    db.wmes_constant_frequency_update.setLong(3, valueConstant);
+    db.wmes_constant_frequency_update.executeUpdate();
+  }
+
+  @Override
+  public Long getLtiFrequency(long attribute, long valueLti) throws SQLException {
+    db.wmes_lti_frequency_get.setLong(1, attribute);
+    db.wmes_lti_frequency_get.setLong(2, valueLti);
+    return getFirstLongOrNull(db.wmes_lti_frequency_get);
+  }
+
+  @Override
+  public void addLtiFrequency(long attribute, long valueLti) throws SQLException {
+    db.wmes_lti_frequency_add.setLong(1, attribute);
+    db.wmes_lti_frequency_add.setLong(2, valueLti);
+    db.wmes_lti_frequency_add.executeUpdate();
+  }
+
+  @Override
+  public void updateLtiFrequency(long attribute, long valueLti, long delta) throws SQLException {
+    db.wmes_lti_frequency_update.setLong(1, delta);
+    db.wmes_lti_frequency_update.setLong(2, attribute);
+    db.wmes_lti_frequency_update.setLong(3, valueLti);
+    db.wmes_lti_frequency_update.executeUpdate();
+  }
+
+  /** @return the first column of the first row, or 0 if there are no rows */
+  private static long getFirstLong(PreparedStatement ps) throws SQLException {
+    try (ResultSet rs = ps.executeQuery()) {
+      return rs.next() ? rs.getLong(1) : 0;
+    }
+  }
+
+  private static Long getFirstLongOrNull(PreparedStatement ps) throws SQLException {
+    try (ResultSet rs = ps.executeQuery()) {
+      return rs.next() ? rs.getLong(1) : null;
+    }
+  }
+
+  /** A cursor over a result set */
+  private static final class ResultSetCursor implements SemanticMemoryCursor {
+    private final ResultSet results;
+
+    ResultSetCursor(ResultSet results) {
+      this.results = results;
+    }
+
+    @Override
+    public boolean next() throws SQLException {
+      return results.next();
+    }
+
+    @Override
+    public long getLong(int column) throws SQLException {
+      return results.getLong(column);
+    }
+
+    @Override
+    public double getDouble(int column) throws SQLException {
+      return results.getDouble(column);
+    }
+
+    @Override
+    public void close() throws SQLException {
+      results.close();
+    }
+  }
+}
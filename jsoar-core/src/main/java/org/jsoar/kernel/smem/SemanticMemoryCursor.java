@@ -0,0 +1,35 @@
+package org.jsoar.kernel.smem;
+
+import java.sql.SQLException;
+
+/**
+ * A forward-only cursor over rows returned by a {@link SemanticMemoryStore}. Like a {@link
+ * java.sql.ResultSet}, a new cursor is positioned before its first row and columns are numbered
+ * from 1.
+ */
+interface SemanticMemoryCursor extends AutoCloseable {
+  /**
+   * Move to the next row
+   *
+   * @return true if there is a row, false if the cursor is exhausted
+   * @throws SQLException
+   */
+  boolean next() throws SQLException;
+
+  /**
+   * @param column the column, starting at 1
+   * @return the value of the column in the current row, 0 for a {@code NULL} value
+   * @throws SQLException
+   */
+  long getLong(int column) throws SQLException;
+
+  /**
+   * @param column the column, starting at 1
+   * @return the value of the column in the current row, 0 for a {@code NULL} value
+   * @throws SQLException
+   */
+  double getDouble(int column) throws SQLException;
+
+  @Override
+  void close() throws SQLException;
+}
@@ -0,0 +1,210 @@
+package org.jsoar.kernel.smem;
+
+import java.sql.SQLException;
+import org.jsoar.util.ByRef;
+
+/**
+ * Storage behind semantic memory. The operations mirror the tables of the semantic memory database:
+ * persistent variables, the symbol hash, long-term identifiers with their activation history, the
+ * augmentations (edges) between them and the attribute and attribute/value frequencies used to plan
+ * cue-based retrievals.
+ *
+ * <p>Ids are 1-based and assigned in increasing order. A failed symbol hash or lti lookup returns
+ * 0.
+ *
+ * <p>A cursor returned by the store must be closed before the store is modified. Implementations
+ * that don't use JDBC never throw {@link SQLException}.
+ *
+ * @see JdbcSemanticMemoryStore
+ * @see HeapSemanticMemoryStore
+ */
+interface SemanticMemoryStore {
+  /** Start a transaction */
+  void begin() throws SQLException;
+
+  /** Commit the current transaction */
+  void commit() throws SQLException;
+
+  /**
+   * Release all resources. Uncommitted changes are not committed.
+   *
+   * @throws SQLException
+   */
+  void close() throws SQLException;
+
+  // persistent variables
+
+  boolean getVariable(int id, ByRef<Long> value) throws SQLException;
+
+  /** Update an existing variable. Does nothing if the variable was never created. */
+  void setVariable(int id, long value) throws SQLException;
+
+  void createVariable(int id, long value) throws SQLException;
+
+  // symbol hash
+
+  /** @return the new s_id */
+  long addSymbolType(int type) throws SQLException;
+
+  /** @return the symbol type, or -1 if the s_id is unknown */
+  int getSymbolType(long sId) throws SQLException;
+
+  long findIntegerSymbol(long value) throws SQLException;
+
+  long findFloatSymbol(double value) throws SQLException;
+
+  long findStringSymbol(String value) throws SQLException;
+
+  void addIntegerSymbol(long sId, long value) throws SQLException;
+
+  void addFloatSymbol(long sId, double value) throws SQLException;
+
+  void addStringSymbol(long sId, String value) throws SQLException;
+
+  /** @return the value, or {@code null} if the s_id is unknown */
+  Long getIntegerSymbol(long sId) throws SQLException;
+
+  /** @return the value, or {@code null} if the s_id is unknown */
+  Double getFloatSymbol(long sId) throws SQLException;
+
+  /** @return the value, or {@code null} if the s_id is unknown */
+  String getStringSymbol(long sId) throws SQLException;
+
+  // long-term identifiers
+
+  /** @return the new lti_id of an lti without augmentations or activations */
+  long addLti(long letter, long number) throws SQLException;
+
+  long findLti(long letter, long number) throws SQLException;
+
+  /** @return the (letter, number) of an lti, or {@code null} if the lti_id is unknown */
+  long[] getLtiName(long lti) throws SQLException;
+
+  /** @return rows of (letter, largest number) for each letter in use */
+  SemanticMemoryCursor getLtiMaxNumbers() throws SQLException;
+
+  /**
+   * @return the (total, last, first) activation times of an lti, or {@code null} if the lti_id is
+   *     unknown
+   */
+  long[] getLtiAccess(long lti) throws SQLException;
+
+  void setLtiAccess(long lti, long total, long last, long first) throws SQLException;
+
+  /** @return rows of (lti_id) for the ltis last activated at the given time */
+  SemanticMemoryCursor findLtisLastActivatedAt(long time) throws SQLException;
+
+  /** @return the number of augmentations recorded for the lti */
+  long getLtiChildCount(long lti) throws SQLException;
+
+  void setLtiChildCount(long lti, long count) throws SQLException;
+
+  /** @return the activation of the lti, or {@code null} if the lti_id is unknown */
+  Double getLtiActivation(long lti) throws SQLException;
+
+  void setLtiActivation(long lti, double activation) throws SQLException;
+
+  /** @return rows of (lti_id, letter, number, activation) ordered by letter and number */
+  SemanticMemoryCursor selectLtis() throws SQLException;
+
+  // activation history
+
+  /**
+   * @return the last {@link DefaultSemanticMemory#SMEM_ACT_HISTORY_ENTRIES} activation times of the
+   *     lti, latest first, or {@code null} if it has no history. Must not be modified.
+   */
+  long[] getHistory(long lti) throws SQLException;
+
+  /** Start the history of an lti with its first activation */
+  void addHistory(long lti, long time) throws SQLException;
+
+  /** Push an activation onto the history of an lti, dropping the oldest */
+  void pushHistory(long lti, long time) throws SQLException;
+
+  // augmentations
+
+  /**
+   * Add an augmentation. Exactly one of the values is {@link
+   * DefaultSemanticMemory#SMEM_AUGMENTATIONS_NULL}.
+   */
+  void addAugmentation(
+      long lti, long attribute, long valueConstant, long valueLti, double activation)
+      throws SQLException;
+
+  void deleteAugmentations(long lti) throws SQLException;
+
+  /** Set the activation of every augmentation of the lti */
+  void setAugmentationActivation(long lti, double activation) throws SQLException;
+
+  /** @return rows of (attribute, value constant, value lti) for each augmentation of the lti */
+  SemanticMemoryCursor getAugmentations(long lti) throws SQLException;
+
+  /**
+   * @return rows of (attribute type, attribute, value type, value constant, value lti letter, value
+   *     lti number, value lti) for each augmentation of the lti. The columns that don't apply to
+   *     the kind of value are 0.
+   */
+  SemanticMemoryCursor expandAugmentations(long lti) throws SQLException;
+
+  /**
+   * @return rows of (lti_id, value constant) for the augmentations of the lti with the given
+   *     attribute
+   */
+  SemanticMemoryCursor findChildren(long lti, long attribute) throws SQLException;
+
+  /** Like {@link #findChildren(long, long)}, restricted to a constant value */
+  SemanticMemoryCursor findConstantChildren(long lti, long attribute, long valueConstant)
+      throws SQLException;
+
+  /** Like {@link #findChildren(long, long)}, restricted to an lti value */
+  SemanticMemoryCursor findLtiChildren(long lti, long attribute, long valueLti) throws SQLException;
+
+  /**
+   * Find the augmentations with the given attribute, the candidate set of a cue-based retrieval.
+   *
+   * @return rows of (lti_id, activation) in decreasing activation. Ties are returned latest
+   *     augmentation first.
+   */
+  SemanticMemoryCursor findByAttribute(long attribute) throws SQLException;
+
+  /** Like {@link #findByAttribute(long)}, restricted to a constant value */
+  SemanticMemoryCursor findByConstant(long attribute, long valueConstant) throws SQLException;
+
+  /** Like {@link #findByAttribute(long)}, restricted to an lti value */
+  SemanticMemoryCursor findByLti(long attribute, long valueLti) throws SQLException;
+
+  /**
+   * @return rows of (lti_id, attribute type, attribute, value type, value constant) for every
+   *     augmentation with a constant value
+   */
+  SemanticMemoryCursor selectConstantAugmentations() throws SQLException;
+
+  /**
+   * @return rows of (lti_id, attribute type, attribute, value lti) for every augmentation with an
+   *     lti value
+   */
+  SemanticMemoryCursor selectLtiAugmentations() throws SQLException;
+
+  // frequencies
+
+  /** @return the number of ltis with the attribute, or {@code null} if it was never counted */
+  Long getAttributeFrequency(long attribute) throws SQLException;
+
+  /** Start counting an attribute at 1 */
+  void addAttributeFrequency(long attribute) throws SQLException;
+
+  /** Adjust the count of an attribute. Does nothing if it was never counted. */
+  void updateAttributeFrequency(long attribute, long delta) throws SQLException;
+
+  Long getConstantFrequency(long attribute, long valueConstant) throws SQLException;
+
+  void addConstantFrequency(long attribute, long valueConstant) throws SQLException;
+
+  void updateConstantFrequency(long attribute, long valueConstant, long delta) throws SQLException;
+
+  Long getLtiFrequency(long attribute, long valueLti) throws SQLException;
+
+  void addLtiFrequency(long attribute, long valueLti) throws SQLException;
+
+  void updateLtiFrequency(long attribute, long valueLti, long delta) throws SQLException;
+}
@@ -1,17 +1,14 @@
 package org.jsoar.kernel.smem;
 
 import com.google.common.base.Joiner;
-import java.io.IOException;
 import java.io.PrintWriter;
-import java.io.StringReader;
 import java.io.StringWriter;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.ArrayList;
 import java.util.Arrays;
 import org.jsoar.kernel.Agent;
-import org.jsoar.kernel.Production;
+import org.jsoar.kernel.ProductionManager;
 import org.jsoar.kernel.SoarException;
 import org.jsoar.kernel.epmem.EpisodicMemory;
 import org.jsoar.kernel.parser.original.LexemeType;
@@ -20,6 +17,7 @@
 import org.jsoar.kernel.smem.DefaultSemanticMemoryParams.ActivateOnQueryChoices;
 import org.jsoar.kernel.smem.DefaultSemanticMemoryParams.ActivationChoices;
 import org.jsoar.kernel.smem.DefaultSemanticMemoryParams.AppendDatabaseChoices;
+import org.jsoar.kernel.smem.DefaultSemanticMemoryParams.BackendChoices;
 import org.jsoar.kernel.smem.DefaultSemanticMemoryParams.BaseUpdateChoices;
 import org.jsoar.kernel.smem.DefaultSemanticMemoryParams.LazyCommitChoices;
 import org.jsoar.kernel.smem.DefaultSemanticMemoryParams.LearningChoices;
@@ -82,11 +80,7 @@ public static class SmemC implements Runnable {
     public SmemC(Agent agent, DefaultSemanticMemory smem) {
       this.agent = agent;
       this.smem = smem;
-      try {
-        this.lexer = new Lexer(new Printer(new PrintWriter(System.out)), new StringReader(""));
-      } catch (IOException e) {
-        throw new RuntimeException("SmemCommand failed to create Lexer", e);
-      }
+      this.lexer = new Lexer(new Printer(new PrintWriter(System.out)), "");
     }
 
     @Option(
@@ -233,7 +227,7 @@ private String doBackup(String[] backupFileName) {
     }
 
     private String doCommit() {
-      if (smem.getDatabase() == null) {
+      if (smem.getStore() == null) {
         agent.getPrinter().startNewLine().print("Semantic memory database is not open.");
         return "";
       }
@@ -289,11 +283,8 @@ private String doInit() {
         return "";
       }
 
-      int count = 0;
-      for (Production p : new ArrayList<Production>(agent.getProductions().getProductions(null))) {
-        agent.getProductions().exciseProduction(p, false);
-        count++;
-      }
+      final ProductionManager productions = agent.getProductions();
+      final int count = productions.exciseProductions(productions.getProductions(null), false);
       agent.initialize();
 
       return "Agent reinitialized.\n"
@@ -338,7 +329,7 @@ private String doPrint(String param, Integer printDepth) {
             final char name_letter = lexer.getCurrentLexeme().id_letter;
             final long name_number = lexer.getCurrentLexeme().id_number;
 
-            if (smem.getDatabase() != null) {
+            if (smem.getStore() != null) {
               lti_id = smem.smem_lti_get_id(name_letter, name_number);
 
               if (lti_id == 0) {
@@ -384,7 +375,17 @@ private String doSql(String[] sqlStatement) {
       final String sql =
           Joiner.on(' ').join(Arrays.copyOfRange(sqlStatement, 0, sqlStatement.length)).trim();
       if (smem.getDatabase() == null) {
-        agent.getPrinter().startNewLine().print("Semantic memory database is not open.");
+        if (smem.getStore() != null) {
+          agent
+              .getPrinter()
+              .startNewLine()
+              .print(
+                  "Semantic memory backend '"
+                      + smem.getParams().backend.get()
+                      + "' does not use a database.");
+        } else {
+          agent.getPrinter().startNewLine().print("Semantic memory database is not open.");
+        }
         return "";
       }
 
@@ -412,6 +413,11 @@ private String doSet(String setParam, String value) {
       try {
         if (setParam.equals("learning")) {
           props.set(DefaultSemanticMemoryParams.LEARNING, LearningChoices.valueOf(value));
+        } else if (setParam.equals("backend")) {
+          if (smem.getStore() != null) {
+            return "Backend is protected while the database is open.";
+          }
+          props.set(DefaultSemanticMemoryParams.BACKEND, BackendChoices.valueOf(value));
         } else if (setParam.equals("driver")) {
           props.set(DefaultSemanticMemoryParams.DRIVER, value);
         } else if (setParam.equals("protocol")) {
@@ -488,48 +494,52 @@ private String doStats(String statToPrint) {
       if (statToPrint == null) {
         pw.printf(PrintHelper.generateHeader("Semantic Memory Statistics", 40));
 
-        try {
-          String database =
-              smem.getDatabase().getConnection().getMetaData().getDatabaseProductName();
-          String version =
-              smem.getDatabase().getConnection().getMetaData().getDatabaseProductVersion();
-          pw.printf(PrintHelper.generateItem(database + " Version:", version, 40));
-        } catch (SQLException e) {
-          agent.getPrinter().startNewLine().print(e.getMessage());
-          return "";
-        }
-
-        Statement s = null;
-        long pageCount = 0;
-        long pageSize = 0;
-        try {
-          s = smem.getDatabase().getConnection().createStatement();
-
-          ResultSet rs = null;
+        if (smem.getDatabase() != null) {
           try {
-            rs = s.executeQuery("PRAGMA page_count");
-            pageCount = rs.getLong(0 + 1);
-          } finally {
-            rs.close();
+            String database =
+                smem.getDatabase().getConnection().getMetaData().getDatabaseProductName();
+            String version =
+                smem.getDatabase().getConnection().getMetaData().getDatabaseProductVersion();
+            pw.printf(PrintHelper.generateItem(database + " Version:", version, 40));
+          } catch (SQLException e) {
+            agent.getPrinter().startNewLine().print(e.getMessage());
+            return "";
           }
 
+          Statement s = null;
+          long pageCount = 0;
+          long pageSize = 0;
           try {
-            rs = s.executeQuery("PRAGMA page_size");
-            pageSize = rs.getLong(0 + 1);
-          } finally {
-            rs.close();
-          }
-        } catch (SQLException e) {
-          throw new ExecutionException(spec.commandLine(), e.getMessage(), e);
-        } finally {
-          try {
-            s.close();
+            s = smem.getDatabase().getConnection().createStatement();
+
+            ResultSet rs = null;
+            try {
+              rs = s.executeQuery("PRAGMA page_count");
+              pageCount = rs.getLong(0 + 1);
+            } finally {
+              rs.close();
+            }
+
+            try {
+              rs = s.executeQuery("PRAGMA page_size");
+              pageSize = rs.getLong(0 + 1);
+            } finally {
+              rs.close();
+            }
           } catch (SQLException e) {
             throw new ExecutionException(spec.commandLine(), e.getMessage(), e);
+          } finally {
+            try {
+              s.close();
+            } catch (SQLException e) {
+              throw new ExecutionException(spec.commandLine(), e.getMessage(), e);
+            }
           }
-        }
 
-        p.mem_usage.set(pageCount * pageSize);
+          p.mem_usage.set(pageCount * pageSize);
+        } else {
+          pw.printf(PrintHelper.generateItem("Backend:", smem.getParams().backend.get(), 40));
+        }
 
         pw.printf(
             PrintHelper.generateItem(
@@ -589,6 +599,7 @@ private String doSmem() {
       pw.printf(PrintHelper.generateItem("learning:", p.learning.get(), 40));
       pw.printf(PrintHelper.generateSection("Storage", 40));
 
+      pw.printf(PrintHelper.generateItem("backend:", p.backend.get(), 40));
       pw.printf(PrintHelper.generateItem("driver:", p.driver.get(), 40));
 
       String nativeOrPure = null;
@@ -599,6 +610,8 @@ private String doSmem() {
               ((SQLiteJDBCLoader.isNativeMode()) ? "Native" : "Pure Java")
                   + " - "
                   + db.getConnection().getMetaData().getDriverVersion();
+        } else if (smem.getStore() != null) {
+          nativeOrPure = "Not using a database";
         } else {
           nativeOrPure = "Not connected to database";
         }
@@ -0,0 +1,304 @@
+package org.jsoar.kernel.symbols;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.jsoar.kernel.memory.WmeImpl;
+
+/**
+ * Symbol table that holds symbols referenced by working memory in strong, primitive keyed tables.
+ *
+ * <p>Each symbol counts the number of WMEs that reference it. New symbols, and symbols whose count
+ * drops to zero, are queued. {@link #releaseUnreferencedSymbols()} moves queued symbols that are
+ * still unreferenced into weak value maps, where they remain findable until they are garbage
+ * collected. A symbol is moved back into the strong tables when it's found again or when a WME
+ * references it. Since a symbol is always in exactly one of the two tables until it is collected,
+ * two symbols with the same value can never exist at the same time.
+ *
+ * <p>Unlike {@link WeakSymbolTable}, the tables aren't thread safe. Like the rest of the agent, the
+ * symbol factory must then only be used from the agent thread.
+ *
+ * <p>Identifiers are keyed by name number in one table per name letter, and doubles are keyed by
+ * their raw bits, which matches {@link Double#equals(Object)}.
+ *
+ * @see SymbolTableType#COUNTED
+ */
+class CountedSymbolTable implements SymbolTable {
+  private final Map<String, StringSymbolImpl> strings = new HashMap<>();
+  private final LongSymbolMap<IntegerSymbolImpl> integers = new LongSymbolMap<>();
+  private final LongSymbolMap<DoubleSymbolImpl> doubles = new LongSymbolMap<>();
+
+  @SuppressWarnings("unchecked")
+  private final LongSymbolMap<IdentifierImpl>[] identifiers = new LongSymbolMap[26];
+
+  private final Map<String, StringSymbolImpl> weakStrings = WeakSymbolTable.newReferenceMap();
+  private final Map<Long, IntegerSymbolImpl> weakIntegers = WeakSymbolTable.newReferenceMap();
+  private final Map<Long, DoubleSymbolImpl> weakDoubles = WeakSymbolTable.newReferenceMap();
+  private final Map<Long, IdentifierImpl> weakIdentifiers = WeakSymbolTable.newReferenceMap();
+
+  /** Symbols that may have become unreferenced since the last release */
+  private final List<SymbolImpl> releaseQueue = new ArrayList<>();
+
+  CountedSymbolTable() {
+    for (int i = 0; i < identifiers.length; ++i) {
+      identifiers[i] = new LongSymbolMap<>();
+    }
+  }
+
+  @Override
+  public SymbolTableType getType() {
+    return SymbolTableType.COUNTED;
+  }
+
+  @Override
+  public StringSymbolImpl findString(String value) {
+    final StringSymbolImpl sym = strings.get(value);
+    return sym != null || weakStrings.isEmpty() ? sym : retain(weakStrings.get(value));
+  }
+
+  @Override
+  public void addString(StringSymbolImpl sym) {
+    strings.put(sym.getValue(), sym);
+    releaseQueue.add(sym);
+  }
+
+  @Override
+  public StringSymbolImpl findOrCreateString(
+      String value, Function<String, StringSymbolImpl> create) {
+    StringSymbolImpl sym = findString(value);
+    if (sym == null) {
+      sym = create.apply(value);
+      addString(sym);
+    }
+    return sym;
+  }
+
+  @Override
+  public IntegerSymbolImpl findInteger(long value) {
+    final IntegerSymbolImpl sym = integers.get(value);
+    return sym != null || weakIntegers.isEmpty() ? sym : retain(weakIntegers.get(value));
+  }
+
+  @Override
+  public void addInteger(IntegerSymbolImpl sym) {
+    integers.put(sym.getValue(), sym);
+    releaseQueue.add(sym);
+  }
+
+  @Override
+  public IntegerSymbolImpl findOrCreateInteger(
+      long value, Function<Long, IntegerSymbolImpl> create) {
+    IntegerSymbolImpl sym = findInteger(value);
+    if (sym == null) {
+      sym = create.apply(value);
+      addInteger(sym);
+    }
+    return sym;
+  }
+
+  @Override
+  public DoubleSymbolImpl findDouble(double value) {
+    final long bits = Double.doubleToLongBits(value);
+    final DoubleSymbolImpl sym = doubles.get(bits);
+    return sym != null || weakDoubles.isEmpty() ? sym : retain(weakDoubles.get(bits));
+  }
+
+  @Override
+  public void addDouble(DoubleSymbolImpl sym) {
+    doubles.put(Double.doubleToLongBits(sym.getValue()), sym);
+    releaseQueue.add(sym);
+  }
+
+  @Override
+  public DoubleSymbolImpl findOrCreateDouble(
+      double value, Function<Double, DoubleSymbolImpl> create) {
+    DoubleSymbolImpl sym = findDouble(value);
+    if (sym == null) {
+      sym = create.apply(value);
+      addDouble(sym);
+    }
+    return sym;
+  }
+
+  @Override
+  public IdentifierImpl findIdentifier(char letter, long number) {
+    final int index = letter - 'A';
+    if (index < 0 || index >= identifiers.length) {
+      return null;
+    }
+    final IdentifierImpl id = identifiers[index].get(number);
+    return id != null || weakIdentifiers.isEmpty()
+        ? id
+        : retain(weakIdentifiers.get(weakIdKey(letter, number)));
+  }
+
+  @Override
+  public void addIdentifier(IdentifierImpl id) {
+    identifiers[id.getNameLetter() - 'A'].put(id.getNameNumber(), id);
+    releaseQueue.add(id);
+  }
+
+  @Override
+  public void removeIdentifier(IdentifierImpl id) {
+    identifiers[id.getNameLetter() - 'A'].remove(id.getNameNumber());
+    weakIdentifiers.remove(weakIdKey(id.getNameLetter(), id.getNameNumber()));
+  }
+
+  @Override
+  public void removeShortTermIdentifiers() {
+    for (IdentifierImpl id : getIdentifiers()) {
+      if (!id.isLongTermIdentifier()) {
+        removeIdentifier(id);
+      }
+    }
+  }
+
+  @Override
+  public Collection<StringSymbolImpl> getStrings() {
+    final List<StringSymbolImpl> result = new ArrayList<>(strings.values());
+    result.addAll(weakStrings.values());
+    return result;
+  }
+
+  @Override
+  public Collection<IntegerSymbolImpl> getIntegers() {
+    final List<IntegerSymbolImpl> result = integers.values();
+    result.addAll(weakIntegers.values());
+    return result;
+  }
+
+  @Override
+  public Collection<DoubleSymbolImpl> getDoubles() {
+    final List<DoubleSymbolImpl> result = doubles.values();
+    result.addAll(weakDoubles.values());
+    return result;
+  }
+
+  @Override
+  public Collection<IdentifierImpl> getIdentifiers() {
+    final List<IdentifierImpl> result = new ArrayList<>();
+    for (LongSymbolMap<IdentifierImpl> table : identifiers) {
+      result.addAll(table.values());
+    }
+    result.addAll(weakIdentifiers.values());
+    return result;
+  }
+
+  @Override
+  public void wmeAdded(WmeImpl w) {
+    addReference(w.id);
+    addReference(w.attr);
+    addReference(w.value);
+  }
+
+  @Override
+  public void wmeRemoved(WmeImpl w) {
+    removeReference(w.id);
+    removeReference(w.attr);
+    removeReference(w.value);
+  }
+
+  @Override
+  public void releaseUnreferencedSymbols() {
+    for (SymbolImpl sym : releaseQueue) {
+      if (sym.wmeReferences == 0) {
+        release(sym);
+      }
+    }
+    releaseQueue.clear();
+  }
+
+  private void addReference(SymbolImpl sym) {
+    if (sym.wmeReferences++ == 0) {
+      retain(sym);
+    }
+  }
+
+  private void removeReference(SymbolImpl sym) {
+    if (--sym.wmeReferences == 0) {
+      releaseQueue.add(sym);
+    }
+  }
+
+  /**
+   * Move a symbol from the weak tables to the strong tables if it's not there already. Symbols from
+   * other factories, variables and Java symbols are ignored.
+   */
+  private <T extends SymbolImpl> T retain(T sym) {
+    if (sym == null) {
+      return null;
+    }
+    final StringSymbolImpl s = sym.asString();
+    if (s != null) {
+      if (weakStrings.remove(s.getValue(), s)) {
+        addString(s);
+      }
+      return sym;
+    }
+    final IntegerSymbolImpl i = sym.asInteger();
+    if (i != null) {
+      if (weakIntegers.remove(i.getValue(), i)) {
+        addInteger(i);
+      }
+      return sym;
+    }
+    final DoubleSymbolImpl d = sym.asDouble();
+    if (d != null) {
+      if (weakDoubles.remove(Double.doubleToLongBits(d.getValue()), d)) {
+        addDouble(d);
+      }
+      return sym;
+    }
+    final IdentifierImpl id = sym.asIdentifier();
+    if (id != null
+        && weakIdentifiers.remove(weakIdKey(id.getNameLetter(), id.getNameNumber()), id)) {
+      addIdentifier(id);
+    }
+    return sym;
+  }
+
+  /** Move a symbol from the strong tables to the weak tables if it's there */
+  private void release(SymbolImpl sym) {
+    final StringSymbolImpl s = sym.asString();
+    if (s != null) {
+      if (strings.get(s.getValue()) == s) {
+        strings.remove(s.getValue());
+        weakStrings.put(s.getValue(), s);
+      }
+      return;
+    }
+    final IntegerSymbolImpl i = sym.asInteger();
+    if (i != null) {
+      if (integers.get(i.getValue()) == i) {
+        integers.remove(i.getValue());
+        weakIntegers.put(i.getValue(), i);
+      }
+      return;
+    }
+    final DoubleSymbolImpl d = sym.asDouble();
+    if (d != null) {
+      final long bits = Double.doubleToLongBits(d.getValue());
+      if (doubles.get(bits) == d) {
+        doubles.remove(bits);
+        weakDoubles.put(bits, d);
+      }
+      return;
+    }
+    final IdentifierImpl id = sym.asIdentifier();
+    if (id != null) {
+      final LongSymbolMap<IdentifierImpl> table = identifiers[id.getNameLetter() - 'A'];
+      if (table.get(id.getNameNumber()) == id) {
+        table.remove(id.getNameNumber());
+        weakIdentifiers.put(weakIdKey(id.getNameLetter(), id.getNameNumber()), id);
+      }
+    }
+  }
+
+  /** Name numbers are assigned sequentially, so they'll never reach the bits used for the letter */
+  private static long weakIdKey(char letter, long number) {
+    return ((long) (letter - 'A') << 58) | number;
+  }
+}
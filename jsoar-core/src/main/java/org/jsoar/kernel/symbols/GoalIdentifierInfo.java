@@ -115,8 +115,8 @@ public Identifier getIdentifier() {
    */
   @Override
   public IdentifierImpl getOperator() {
-    final List<WmeImpl> WMEs = operator_slot != null ? operator_slot.getWmes() : null;
-    return WMEs != null && !WMEs.isEmpty() ? WMEs.get(0).value.asIdentifier() : null;
+    final WmeImpl w = operator_slot != null ? operator_slot.getFirstWme() : null;
+    return w != null ? w.value.asIdentifier() : null;
   }
 
   /* (non-Javadoc)
@@ -127,7 +127,7 @@ public Symbol getOperatorName() {
     final IdentifierImpl op = getOperator();
     final var slot = Slot.find_slot(op, id.factory.findString("name"));
 
-    return slot != null && !id.slots.getWmes().isEmpty() ? slot.getWmes().get(0).getValue() : null;
+    return slot != null && slot.hasWmes() ? slot.getFirstWme().getValue() : null;
   }
 
   /* (non-Javadoc)
@@ -18,6 +18,7 @@
 import org.jsoar.kernel.Goal;
 import org.jsoar.kernel.GoalDependencySet;
 import org.jsoar.kernel.memory.Slot;
+import org.jsoar.kernel.memory.SlotTable;
 import org.jsoar.kernel.memory.Wme;
 import org.jsoar.kernel.memory.WmeImpl;
 import org.jsoar.kernel.memory.WmeType;
@@ -59,6 +60,11 @@ public class IdentifierImpl extends SymbolImpl implements Identifier {
   public int link_count;
   public ListItem<IdentifierImpl> unknown_level;
   public Slot slots; // dll of slots for this identifier
+
+  private int slotCount;
+  /** Index of slots by attribute, null until there are enough slots to need one */
+  private SlotTable slotTable;
+
   public Marker tc_number; /* used for transitive closures, marking, etc. */
   public SymbolImpl variablization; /* used by the chunker */
 
@@ -202,6 +208,13 @@ public void addSlot(@NonNull Slot slot) {
       slots.prev = slot;
     }
     slots = slot;
+
+    slotCount++;
+    if (slotTable != null) {
+      slotTable.add(slot);
+    } else if (slotCount >= SlotTable.BUILD_THRESHOLD) {
+      slotTable = new SlotTable(slots);
+    }
   }
 
   public void removeSlot(Slot slot) {
@@ -217,6 +230,28 @@ public void removeSlot(Slot slot) {
       }
     }
     slot.next = slot.prev = null;
+
+    slotCount--;
+    if (slotTable != null) {
+      if (slotCount <= SlotTable.DROP_THRESHOLD) {
+        slotTable = null;
+      } else {
+        slotTable.remove(slot);
+      }
+    }
+  }
+
+  /** @return the number of slots on this identifier */
+  public int getSlotCount() {
+    return slotCount;
+  }
+
+  /**
+   * @return the attribute index used by {@link Slot#find_slot(IdentifierImpl, Symbol)}, or null if
+   *     this identifier has few enough slots that the list is searched instead
+   */
+  public SlotTable getSlotTable() {
+    return slotTable;
   }
 
   /* (non-Javadoc)
@@ -0,0 +1,143 @@
+package org.jsoar.kernel.symbols;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An open addressing hash map from primitive {@code long} keys to symbols. Used by {@link
+ * CountedSymbolTable} so that integer, double and identifier lookups don't box their keys.
+ *
+ * <p>Collisions are resolved with linear probing, and removal shifts later entries of the probe
+ * sequence back so no tombstones are needed. This class is not thread-safe.
+ *
+ * @param <T> the symbol type
+ */
+final class LongSymbolMap<T> {
+  private static final int MIN_CAPACITY = 16;
+
+  private long[] keys;
+  private Object[] values;
+  private int mask;
+  private int size;
+
+  LongSymbolMap() {
+    allocate(MIN_CAPACITY);
+  }
+
+  /** @return the number of entries in the map */
+  int size() {
+    return size;
+  }
+
+  /**
+   * @param key the key
+   * @return the value for the key, or {@code null} if not found
+   */
+  @SuppressWarnings("unchecked")
+  T get(long key) {
+    for (int i = indexOf(key); values[i] != null; i = (i + 1) & mask) {
+      if (keys[i] == key) {
+        return (T) values[i];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Associate a value with a key, replacing any existing value
+   *
+   * @param key the key
+   * @param value the value, not {@code null}
+   */
+  void put(long key, T value) {
+    int i = indexOf(key);
+    for (; values[i] != null; i = (i + 1) & mask) {
+      if (keys[i] == key) {
+        values[i] = value;
+        return;
+      }
+    }
+    keys[i] = key;
+    values[i] = value;
+    if (++size > (values.length >>> 1)) {
+      resize(values.length << 1);
+    }
+  }
+
+  /**
+   * @param key the key
+   * @return the removed value, or {@code null} if not found
+   */
+  @SuppressWarnings("unchecked")
+  T remove(long key) {
+    int i = indexOf(key);
+    for (; values[i] != null; i = (i + 1) & mask) {
+      if (keys[i] == key) {
+        final T removed = (T) values[i];
+        deleteAt(i);
+        size--;
+        return removed;
+      }
+    }
+    return null;
+  }
+
+  /** @return a new list containing all of the values in the map */
+  @SuppressWarnings("unchecked")
+  List<T> values() {
+    final List<T> result = new ArrayList<>(size);
+    for (Object v : values) {
+      if (v != null) {
+        result.add((T) v);
+      }
+    }
+    return result;
+  }
+
+  /** Remove all entries */
+  void clear() {
+    Arrays.fill(values, null);
+    size = 0;
+  }
+
+  private void deleteAt(int hole) {
+    // Shift back any following entries whose probe sequence passes through the hole
+    for (int i = (hole + 1) & mask; values[i] != null; i = (i + 1) & mask) {
+      final int home = indexOf(keys[i]);
+      if (((i - home) & mask) >= ((i - hole) & mask)) {
+        keys[hole] = keys[i];
+        values[hole] = values[i];
+        hole = i;
+      }
+    }
+    values[hole] = null;
+  }
+
+  private void resize(int capacity) {
+    final long[] oldKeys = keys;
+    final Object[] oldValues = values;
+    allocate(capacity);
+    for (int i = 0; i < oldValues.length; ++i) {
+      if (oldValues[i] != null) {
+        int j = indexOf(oldKeys[i]);
+        while (values[j] != null) {
+          j = (j + 1) & mask;
+        }
+        keys[j] = oldKeys[i];
+        values[j] = oldValues[i];
+      }
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new long[capacity];
+    values = new Object[capacity];
+    mask = capacity - 1;
+  }
+
+  private int indexOf(long key) {
+    final long h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32)) & mask;
+  }
+}
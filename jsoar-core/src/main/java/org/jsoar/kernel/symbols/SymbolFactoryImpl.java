@@ -5,15 +5,15 @@
  */
 package org.jsoar.kernel.symbols;
 
-import com.google.common.collect.MapMaker;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import lombok.NonNull;
-import lombok.Value;
 import org.jsoar.kernel.SoarConstants;
+import org.jsoar.kernel.memory.WmeImpl;
 import org.jsoar.util.ByRef;
 
 /**
@@ -30,6 +30,9 @@
  * would grow larger over time because symbols can't be garbage collected as long as they're in the
  * cache.
  *
+ * <p>Alternatively, constants and identifiers can be cached in tables that count the WMEs
+ * referencing each symbol. See {@link SymbolTableType}.
+ *
  * <p>The following symtab.cpp functions have been dropped because they're not needed in Java:
  *
  * <ul>
@@ -43,32 +46,31 @@
  */
 public class SymbolFactoryImpl implements SymbolFactory {
 
-  /**
-   * A helper method to make the initializations below a little less ugly.
-   *
-   * @param <K> Map key type
-   * @param <V> Map value type
-   * @return Reference map with strong key references and weak value references
-   */
-  private static <K, V> Map<K, V> newReferenceMap() {
-    return new MapMaker().weakValues().makeMap();
-  }
-
   /** Contains per letter the number of generated IDs? */
   private final long[] id_counter = new long[26];
 
-  private final Map<String, StringSymbolImpl> symConstants = newReferenceMap();
-  private final Map<Long, IntegerSymbolImpl> intConstants = newReferenceMap();
-  private final Map<Double, DoubleSymbolImpl> floatConstants = newReferenceMap();
-  private final Map<IdKey, IdentifierImpl> identifiers = newReferenceMap();
-  private final Map<String, Variable> variables = newReferenceMap();
-  private final Map<Object, JavaSymbolImpl> javaSyms = newReferenceMap();
+  private SymbolTable table;
+  private final Map<String, Variable> variables = WeakSymbolTable.newReferenceMap();
+  private final Map<Object, JavaSymbolImpl> javaSyms = WeakSymbolTable.newReferenceMap();
   private final JavaSymbolImpl nullJavaSym;
   private int current_symbol_hash_id = 0;
 
+  private final Function<String, StringSymbolImpl> newString =
+      name -> new StringSymbolImpl(this, get_next_hash_id(), name);
+  private final Function<Long, IntegerSymbolImpl> newInteger =
+      value -> new IntegerSymbolImpl(this, get_next_hash_id(), value);
+  private final Function<Double, DoubleSymbolImpl> newDouble =
+      value -> new DoubleSymbolImpl(this, get_next_hash_id(), value);
+
   private final VariableGenerator vars = new VariableGenerator(this);
 
   public SymbolFactoryImpl() {
+    this(SymbolTableType.WEAK);
+  }
+
+  /** @param type how symbols are cached */
+  public SymbolFactoryImpl(@NonNull SymbolTableType type) {
+    table = newSymbolTable(type);
     nullJavaSym = new JavaSymbolImpl(this, get_next_hash_id(), null);
     reset();
   }
@@ -77,6 +79,61 @@ public VariableGenerator getVariableGenerator() {
     return vars;
   }
 
+  /** @return how symbols are currently cached */
+  public SymbolTableType getSymbolTableType() {
+    return table.getType();
+  }
+
+  /**
+   * Change how symbols are cached. Symbols already in the cache are moved to the new table. This is
+   * intended to be called while the agent is being constructed, before working memory contains any
+   * WMEs.
+   *
+   * @param type the new table type
+   */
+  public void setSymbolTableType(@NonNull SymbolTableType type) {
+    if (type == table.getType()) {
+      return;
+    }
+    final SymbolTable oldTable = table;
+    table = newSymbolTable(type);
+    oldTable.getStrings().forEach(table::addString);
+    oldTable.getIntegers().forEach(table::addInteger);
+    oldTable.getDoubles().forEach(table::addDouble);
+    oldTable.getIdentifiers().forEach(table::addIdentifier);
+  }
+
+  private static SymbolTable newSymbolTable(SymbolTableType type) {
+    return type == SymbolTableType.COUNTED ? new CountedSymbolTable() : new WeakSymbolTable();
+  }
+
+  /**
+   * Called by the rete whenever a WME is added to it, however the WME got there
+   *
+   * @param w the wme
+   */
+  public void wmeAdded(WmeImpl w) {
+    table.wmeAdded(w);
+  }
+
+  /**
+   * Called by the rete whenever a WME is removed from it, however the WME left
+   *
+   * @param w the wme
+   */
+  public void wmeRemoved(WmeImpl w) {
+    table.wmeRemoved(w);
+  }
+
+  /**
+   * With {@link SymbolTableType#COUNTED}, allows symbols that are no longer referenced by working
+   * memory to be garbage collected. Called after each batch of working memory changes. Does nothing
+   * with {@link SymbolTableType#WEAK}.
+   */
+  public void releaseUnreferencedSymbols() {
+    table.releaseUnreferencedSymbols();
+  }
+
   /**
    * Returns a list of all known symbols for use with the "symbols" command.
    *
@@ -84,10 +141,10 @@ public VariableGenerator getVariableGenerator() {
    */
   public List<Symbol> getAllSymbols() {
     final List<Symbol> result = new ArrayList<>();
-    result.addAll(identifiers.values());
-    result.addAll(symConstants.values());
-    result.addAll(intConstants.values());
-    result.addAll(floatConstants.values());
+    result.addAll(table.getIdentifiers());
+    result.addAll(table.getStrings());
+    result.addAll(table.getIntegers());
+    result.addAll(table.getDoubles());
     result.addAll(javaSyms.values());
     return result;
   }
@@ -103,13 +160,13 @@ public List<Symbol> getAllSymbols() {
   @SuppressWarnings("unchecked")
   public <T extends Symbol> List<T> getSymbols(Class<T> klass) {
     if (klass.isAssignableFrom(StringSymbolImpl.class)) {
-      return new ArrayList<>((Collection<? extends T>) symConstants.values());
+      return new ArrayList<>((Collection<? extends T>) table.getStrings());
     } else if (klass.isAssignableFrom(IntegerSymbolImpl.class)) {
-      return new ArrayList<>((Collection<? extends T>) intConstants.values());
+      return new ArrayList<>((Collection<? extends T>) table.getIntegers());
     } else if (klass.isAssignableFrom(DoubleSymbol.class)) {
-      return new ArrayList<>((Collection<? extends T>) floatConstants.values());
+      return new ArrayList<>((Collection<? extends T>) table.getDoubles());
     } else if (klass.isAssignableFrom(IdentifierImpl.class)) {
-      return new ArrayList<>((Collection<? extends T>) identifiers.values());
+      return new ArrayList<>((Collection<? extends T>) table.getIdentifiers());
     } else if (klass.isAssignableFrom(Variable.class)) {
       return new ArrayList<>((Collection<? extends T>) variables.values());
     } else if (klass.isAssignableFrom(JavaSymbolImpl.class)) {
@@ -132,7 +189,7 @@ public void reset() {
     // and start over.
 
     // Remove all Short Term identifiers.
-    identifiers.values().removeIf(id -> !id.isLongTermIdentifier());
+    table.removeShortTermIdentifiers();
 
     // Reset id counters
     Arrays.fill(id_counter, 1);
@@ -142,7 +199,7 @@ public void reset() {
 
   /** symtab.cpp:510:reset_id_and_variable_tc_numbers */
   public void reset_id_and_variable_tc_numbers() {
-    for (IdentifierImpl id : identifiers.values()) {
+    for (IdentifierImpl id : table.getIdentifiers()) {
       id.tc_number = null;
     }
     for (Variable v : variables.values()) {
@@ -211,12 +268,12 @@ public Variable make_variable(String name) {
    * @see org.jsoar.kernel.symbols.SymbolFactory#findIdentifier(char, int)
    */
   public IdentifierImpl findIdentifier(char name_letter, long name_number) {
-    return identifiers.get(getIdKey(name_letter, name_number));
+    return table.findIdentifier(name_letter, name_number);
   }
 
   public void removeIdentifier(IdentifierImpl identifier) {
     if (identifier != null) {
-      identifiers.remove(new IdKey(identifier.getNameLetter(), identifier.getNameNumber()));
+      table.removeIdentifier(identifier);
     }
   }
 
@@ -252,7 +309,7 @@ public IdentifierImpl createIdentifier(char name_letter, long name_number, int l
     id.setLevel(level);
     id.promotion_level = level;
 
-    identifiers.put(getIdKey(id.getNameLetter(), id.getNameNumber()), id);
+    table.addIdentifier(id);
     return id;
   }
 
@@ -295,15 +352,14 @@ public IdentifierImpl findOrCreateIdentifierExact(char nameLetter, long nameNumb
    * @see org.jsoar.kernel.symbols.SymbolFactory#find_sym_constant(java.lang.String)
    */
   public StringSymbolImpl findString(String name) {
-    return symConstants.get(name);
+    return table.findString(name);
   }
 
   /* (non-Javadoc)
    * @see org.jsoar.kernel.symbols.SymbolFactory#make_sym_constant(java.lang.String)
    */
   public StringSymbolImpl createString(@NonNull String name) {
-    return symConstants.computeIfAbsent(
-        name, k -> new StringSymbolImpl(this, get_next_hash_id(), name));
+    return table.findOrCreateString(name, newString);
   }
 
   /**
@@ -327,34 +383,28 @@ public StringSymbol generateUniqueString(String prefix, ByRef<Integer> number) {
    * @see org.jsoar.kernel.symbols.SymbolFactory#createInteger(long)
    */
   public IntegerSymbolImpl createInteger(long value) {
-    return intConstants.computeIfAbsent(
-        value, k -> new IntegerSymbolImpl(this, get_next_hash_id(), value));
+    return table.findOrCreateInteger(value, newInteger);
   }
 
   /* (non-Javadoc)
    * @see org.jsoar.kernel.symbols.SymbolFactory#findInteger(long)
    */
   public IntegerSymbolImpl findInteger(long value) {
-    return intConstants.get(value);
+    return table.findInteger(value);
   }
 
   /* (non-Javadoc)
    * @see org.jsoar.kernel.symbols.SymbolFactory#make_float_constant(double)
    */
   public DoubleSymbolImpl createDouble(double value) {
-    DoubleSymbolImpl sym = findDouble(value);
-    if (sym == null) {
-      sym = new DoubleSymbolImpl(this, get_next_hash_id(), value);
-      floatConstants.put(value, sym);
-    }
-    return sym;
+    return table.findOrCreateDouble(value, newDouble);
   }
 
   /* (non-Javadoc)
    * @see org.jsoar.kernel.symbols.SymbolFactory#find_float_constant(double)
    */
   public DoubleSymbolImpl findDouble(double value) {
-    return floatConstants.get(value);
+    return table.findDouble(value);
   }
 
   /* (non-Javadoc)
@@ -399,15 +449,4 @@ private int get_next_hash_id() {
     current_symbol_hash_id += 137;
     return current_symbol_hash_id;
   }
-
-  private static IdKey getIdKey(char letter, long number) {
-    return new IdKey(letter, number);
-  }
-
-  @Value
-  private static class IdKey {
-
-    private final char letter;
-    private final long number;
-  }
 }
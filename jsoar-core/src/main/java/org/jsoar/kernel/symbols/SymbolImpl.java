@@ -33,6 +33,9 @@ public abstract class SymbolImpl extends EqualityTest implements Symbol {
 
   private RhsSymbolValue rhsValue;
 
+  /** Number of WMEs referencing this symbol. Only maintained by {@link CountedSymbolTable} */
+  int wmeReferences;
+
   public /*smem_hash_id*/ long smem_hash;
   public /*uintptr_t*/ long common_smem_valid;
 
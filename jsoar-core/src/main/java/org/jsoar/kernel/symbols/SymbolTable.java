@@ -0,0 +1,88 @@
+package org.jsoar.kernel.symbols;
+
+import java.util.Collection;
+import java.util.function.Function;
+import org.jsoar.kernel.memory.WmeImpl;
+
+/**
+ * The cache behind {@link SymbolFactoryImpl}. Only constants and identifiers are stored here.
+ * Symbol creation, hash ids and id counters are handled by the factory.
+ *
+ * @see SymbolTableType
+ */
+interface SymbolTable {
+  SymbolTableType getType();
+
+  StringSymbolImpl findString(String value);
+
+  void addString(StringSymbolImpl sym);
+
+  /**
+   * Find the string symbol with the given value, creating and adding it if it doesn't exist
+   *
+   * @param value the value
+   * @param create creates the new symbol
+   * @return the symbol
+   */
+  StringSymbolImpl findOrCreateString(String value, Function<String, StringSymbolImpl> create);
+
+  IntegerSymbolImpl findInteger(long value);
+
+  void addInteger(IntegerSymbolImpl sym);
+
+  /**
+   * Find the integer symbol with the given value, creating and adding it if it doesn't exist
+   *
+   * @param value the value
+   * @param create creates the new symbol
+   * @return the symbol
+   */
+  IntegerSymbolImpl findOrCreateInteger(long value, Function<Long, IntegerSymbolImpl> create);
+
+  DoubleSymbolImpl findDouble(double value);
+
+  void addDouble(DoubleSymbolImpl sym);
+
+  /**
+   * Find the double symbol with the given value, creating and adding it if it doesn't exist
+   *
+   * @param value the value
+   * @param create creates the new symbol
+   * @return the symbol
+   */
+  DoubleSymbolImpl findOrCreateDouble(double value, Function<Double, DoubleSymbolImpl> create);
+
+  IdentifierImpl findIdentifier(char letter, long number);
+
+  void addIdentifier(IdentifierImpl id);
+
+  void removeIdentifier(IdentifierImpl id);
+
+  /** Remove all identifiers that aren't long-term identifiers */
+  void removeShortTermIdentifiers();
+
+  Collection<StringSymbolImpl> getStrings();
+
+  Collection<IntegerSymbolImpl> getIntegers();
+
+  Collection<DoubleSymbolImpl> getDoubles();
+
+  Collection<IdentifierImpl> getIdentifiers();
+
+  /**
+   * Called when a WME is added to working memory
+   *
+   * @param w the wme
+   */
+  void wmeAdded(WmeImpl w);
+
+  /**
+   * Called when a WME is removed from working memory
+   *
+   * @param w the wme
+   */
+  void wmeRemoved(WmeImpl w);
+
+  /** Release symbols that are no longer referenced by working memory. */
+  void releaseUnreferencedSymbols();
+}
@@ -0,0 +1,24 @@
+package org.jsoar.kernel.symbols;
+
+/**
+ * The strategies {@link SymbolFactoryImpl} can use to cache symbols.
+ *
+ * @see SymbolFactoryImpl#setSymbolTableType(SymbolTableType)
+ * @see org.jsoar.kernel.Agent#Agent(String, SymbolTableType, boolean)
+ */
+public enum SymbolTableType {
+  /**
+   * Symbols are cached in weak value maps and dropped from the cache once they are garbage
+   * collected. This is the default.
+   */
+  WEAK,
+
+  /**
+   * Symbols that are referenced by working memory are cached in primitive keyed tables with strong
+   * references, and the number of WMEs referencing each symbol is counted. When the count drops to
+   * zero, the symbol is moved to a weak value map so it can be garbage collected. This avoids weak
+   * reference bookkeeping on the common path of agents that repeatedly create the same symbols,
+   * e.g. from input.
+   */
+  COUNTED
+}
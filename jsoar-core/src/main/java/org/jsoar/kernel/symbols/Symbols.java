@@ -6,7 +6,6 @@
 package org.jsoar.kernel.symbols;
 
 import java.io.IOException;
-import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -243,7 +242,7 @@ public static Symbol readAttributeFromString(Agent agent, String s) {
     }
 
     try {
-      final Lexer lexer = new Lexer(agent.getPrinter(), new StringReader(s));
+      final Lexer lexer = new Lexer(agent.getPrinter(), s);
       lexer.getNextLexeme();
       final Lexeme lexeme = lexer.getCurrentLexeme();
       if (lexeme == null) {
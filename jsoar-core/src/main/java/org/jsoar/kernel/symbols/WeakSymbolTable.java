@@ -0,0 +1,145 @@
+package org.jsoar.kernel.symbols;
+
+import com.google.common.collect.MapMaker;
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+import lombok.Value;
+import org.jsoar.kernel.memory.WmeImpl;
+
+/**
+ * Symbol table that holds symbols in weak value maps so they are dropped from the cache when they
+ * are garbage collected.
+ *
+ * <p>Constants are created with {@link Map#computeIfAbsent(Object, Function)} on concurrent maps,
+ * so two threads creating the same constant always get the same symbol.
+ *
+ * @see SymbolTableType#WEAK
+ */
+class WeakSymbolTable implements SymbolTable {
+
+  /**
+   * A helper method to make the initializations below a little less ugly.
+   *
+   * @param <K> Map key type
+   * @param <V> Map value type
+   * @return Reference map with strong key references and weak value references
+   */
+  static <K, V> Map<K, V> newReferenceMap() {
+    return new MapMaker().weakValues().makeMap();
+  }
+
+  private final Map<String, StringSymbolImpl> symConstants = newReferenceMap();
+  private final Map<Long, IntegerSymbolImpl> intConstants = newReferenceMap();
+  private final Map<Double, DoubleSymbolImpl> floatConstants = newReferenceMap();
+  private final Map<IdKey, IdentifierImpl> identifiers = newReferenceMap();
+
+  @Override
+  public SymbolTableType getType() {
+    return SymbolTableType.WEAK;
+  }
+
+  @Override
+  public StringSymbolImpl findString(String value) {
+    return symConstants.get(value);
+  }
+
+  @Override
+  public void addString(StringSymbolImpl sym) {
+    symConstants.put(sym.getValue(), sym);
+  }
+
+  @Override
+  public StringSymbolImpl findOrCreateString(
+      String value, Function<String, StringSymbolImpl> create) {
+    return symConstants.computeIfAbsent(value, create);
+  }
+
+  @Override
+  public IntegerSymbolImpl findInteger(long value) {
+    return intConstants.get(value);
+  }
+
+  @Override
+  public void addInteger(IntegerSymbolImpl sym) {
+    intConstants.put(sym.getValue(), sym);
+  }
+
+  @Override
+  public IntegerSymbolImpl findOrCreateInteger(
+      long value, Function<Long, IntegerSymbolImpl> create) {
+    return intConstants.computeIfAbsent(value, create);
+  }
+
+  @Override
+  public DoubleSymbolImpl findDouble(double value) {
+    return floatConstants.get(value);
+  }
+
+  @Override
+  public void addDouble(DoubleSymbolImpl sym) {
+    floatConstants.put(sym.getValue(), sym);
+  }
+
+  @Override
+  public DoubleSymbolImpl findOrCreateDouble(
+      double value, Function<Double, DoubleSymbolImpl> create) {
+    return floatConstants.computeIfAbsent(value, create);
+  }
+
+  @Override
+  public IdentifierImpl findIdentifier(char letter, long number) {
+    return identifiers.get(new IdKey(letter, number));
+  }
+
+  @Override
+  public void addIdentifier(IdentifierImpl id) {
+    identifiers.put(new IdKey(id.getNameLetter(), id.getNameNumber()), id);
+  }
+
+  @Override
+  public void removeIdentifier(IdentifierImpl id) {
+    identifiers.remove(new IdKey(id.getNameLetter(), id.getNameNumber()));
+  }
+
+  @Override
+  public void removeShortTermIdentifiers() {
+    identifiers.values().removeIf(id -> !id.isLongTermIdentifier());
+  }
+
+  @Override
+  public Collection<StringSymbolImpl> getStrings() {
+    return symConstants.values();
+  }
+
+  @Override
+  public Collection<IntegerSymbolImpl> getIntegers() {
+    return intConstants.values();
+  }
+
+  @Override
+  public Collection<DoubleSymbolImpl> getDoubles() {
+    return floatConstants.values();
+  }
+
+  @Override
+  public Collection<IdentifierImpl> getIdentifiers() {
+    return identifiers.values();
+  }
+
+  @Override
+  public void wmeAdded(WmeImpl w) {}
+
+  @Override
+  public void wmeRemoved(WmeImpl w) {}
+
+  @Override
+  public void releaseUnreferencedSymbols() {}
+
+  @Value
+  private static class IdKey {
+
+    private final char letter;
+    private final long number;
+  }
+}
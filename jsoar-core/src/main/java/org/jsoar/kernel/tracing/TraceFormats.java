@@ -638,7 +638,7 @@ private int add_values_of_attribute_path(
     }
     var s = Slot.find_slot(id, path.get(pathIndex));
     if (s != null) {
-      for (WmeImpl w : s.getWmes()) {
+      for (WmeImpl w = s.getFirstWme(); w != null; w = w.next) {
         count =
             add_values_of_attribute_path(w.value, path, pathIndex + 1, result, recursive, count);
       }
@@ -693,7 +693,7 @@ private void add_trace_for_attribute_path(
         return;
       }
       for (Slot s = id.slots; s != null; s = s.next) {
-        for (WmeImpl w : s.getWmes()) {
+        for (WmeImpl w = s.getFirstWme(); w != null; w = w.next) {
           add_trace_for_wme(values, w, print_attributes, recursive);
         }
       }
@@ -958,10 +958,9 @@ private String selection_to_trace_string(
     tparams.current_s = tparams.current_o = null;
     if (current_state != null) {
       tparams.current_s = current_state;
-      if (!current_state.goalInfo.operator_slot.getWmes().isEmpty()) {
+      if (current_state.goalInfo.operator_slot.hasWmes()) {
         // TODO Is it safe to assume this is an IdentifierImpl?
-        tparams.current_o =
-            current_state.goalInfo.operator_slot.getWmes().get(0).value.asIdentifier();
+        tparams.current_o = current_state.goalInfo.operator_slot.getFirstWme().value.asIdentifier();
       }
     }
     tparams.allow_cycle_counts = allow_cycle_counts;
@@ -1014,10 +1013,10 @@ public void print_lowest_slot_in_context_stack(Writer writer, IdentifierImpl bot
     // "this doesn't work yet so for now just print the last selection".
     // Presumably, whatever it was supposed to do has been lost to the ages.
 
-    if (!bottom_goal.goalInfo.operator_slot.getWmes().isEmpty()) {
+    if (bottom_goal.goalInfo.operator_slot.hasWmes()) {
       print_stack_trace(
           writer,
-          bottom_goal.goalInfo.operator_slot.getWmes().get(0).value,
+          bottom_goal.goalInfo.operator_slot.getFirstWme().value,
           bottom_goal,
           TraceFormatRestriction.FOR_OPERATORS_TF,
           true);
@@ -1051,6 +1050,6 @@ private static SymbolImpl find_name_of_object(SymbolImpl object, StringSymbolImp
     if (s == null) {
       return null;
     }
-    return s.getWmes().isEmpty() ? null : s.getWmes().get(0).value;
+    return s.hasWmes() ? s.getFirstWme().value : null;
   }
 }
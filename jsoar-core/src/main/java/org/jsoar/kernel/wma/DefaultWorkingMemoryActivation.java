@@ -6,12 +6,11 @@
 
 package org.jsoar.kernel.wma;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
-import java.util.TreeMap;
 import org.jsoar.kernel.Decider;
 import org.jsoar.kernel.DecisionCycle;
 import org.jsoar.kernel.lhs.Condition;
@@ -26,6 +25,7 @@
 import org.jsoar.kernel.symbols.IdentifierImpl;
 import org.jsoar.kernel.tracing.Trace;
 import org.jsoar.kernel.tracing.Trace.Category;
+import org.jsoar.kernel.wma.DefaultWorkingMemoryActivationParams.ActivationApproxChoices;
 import org.jsoar.kernel.wma.DefaultWorkingMemoryActivationParams.ActivationChoices;
 import org.jsoar.kernel.wma.DefaultWorkingMemoryActivationParams.FakeForgettingChoices;
 import org.jsoar.kernel.wma.DefaultWorkingMemoryActivationParams.ForgetWmeChoices;
@@ -58,9 +58,14 @@
  * method wma_calculate_initial_boost, which is the only place it is used. If this turns out to be a
  * performance problem, we can revert to the CSoar solution.
  *
- * <p>The wma_decay_element that was added to every wme in CSoar in instead maintained in a map from
- * wme to {@link wma_decay_element} in this class. This structure is never accessed outside of WMA.
- * If this turns out to be a performance problem, we can revert to the CSoar solution.
+ * <p>As in CSoar, each activated wme points to its {@link wma_decay_element}, see {@link
+ * WmeImpl#wma_decay_el}. The touched elements are kept in a list, with flags on the elements
+ * standing in for set membership, and the forgetting priority queue is a {@link ForgettingQueue} (a
+ * calendar queue linked through the elements). None of this allocates once an element exists, which
+ * matters with forgetting on and a large working memory.
+ *
+ * <p>The reference history of each element is stored in primitive arrays, see {@link wma_history},
+ * and the powers used by the Petrov approximation are cached like the decay powers.
  *
  * <p>Removed method wma_remove_pref_o_set() because jsoar doesn't need to explicitly clean up
  * memory like that.
@@ -72,9 +77,8 @@
  *   <li>intptr_t == long
  *   <li>wma_reference == long
  *   <li>wma_d_cycle == long
- *   <li>wma_decay_set == {@code Set<wma_decay_element>}
- *   <li>wma_forget_p_queue == {@code Map<Long, Set<wma_decay_element>}
- *   <li>wma_decay_cycle_set == {@code Set<Long>}
+ *   <li>wma_decay_set == {@code List<wma_decay_element>}
+ *   <li>wma_forget_p_queue == {@link ForgettingQueue}
  *   <li>wma_pooled_wme_set == {@code Set<Wme>}
  *   <li>wma_sym_reference_map = {@code Map<SymbolImpl, long>}
  *   <li>tc_number = {@code Marker}
@@ -114,15 +118,22 @@ public class DefaultWorkingMemoryActivation implements WorkingMemoryActivation {
   private DefaultWorkingMemoryActivationStats stats; /* csoar: wma_stats */
   private DefaultWorkingMemoryActivationTimers timers; /* csoar: wma_timers */
 
-  private Set<Wme> wma_touched_elements;
-  private TreeMap<Long, Set<wma_decay_element>>
-      wma_forget_pq; // using TreeMap because this needs to be sorted and we will use
-  // TreeMap-specific methods
-  private Set<Long> wma_touched_sets;
-  private final Map<Wme, wma_decay_element> wmaDecayElements = new HashMap<>();
+  private final List<wma_decay_element> wma_touched_elements = new ArrayList<>();
+  private final ForgettingQueue wma_forget_pq = new ForgettingQueue();
+  /** Elements due to be considered for forgetting this cycle, reused to avoid allocation */
+  private final List<wma_decay_element> wma_forget_due = new ArrayList<>();
 
+  private double wma_decay_rate;
   private int wma_power_size;
   private double[] wma_power_array;
+  /** Powers of (1 + decay rate) for the Petrov approximation, null if it's not used */
+  private double[] wma_petrov_power_array;
+
+  // jsoar: protected parameters, read once in wma_init rather than on every activation
+  private boolean wma_petrov_approx;
+  private boolean wma_activation_approx;
+  private int wma_approx_history;
+
   private long[] wma_approx_array;
   private double wma_thresh_exp;
   private boolean wma_initialized;
@@ -179,10 +190,6 @@ public void initialize() {
     stats = new DefaultWorkingMemoryActivationStats(properties);
     timers = new DefaultWorkingMemoryActivationTimers(properties);
 
-    wma_forget_pq = new TreeMap<>();
-    wma_touched_elements = new HashSet<>();
-    wma_touched_sets = new HashSet<>();
-
     // call wma_init/wma_deinit when wma is turned on/off
     properties.addListener(
         DefaultWorkingMemoryActivationParams.ACTIVATION,
@@ -203,6 +210,8 @@ public void initialize() {
   public void reset() {
     this.timers.reset();
     this.wma_d_cycle_count = 0;
+    // the cycle count starts over, so the queue has to forget which cycles it has processed
+    this.wma_forget_pq.clear();
   }
 
   /** wma.cpp:148:wma_enabled */
@@ -227,6 +236,11 @@ private void wma_init() {
     final double decay_thresh = params.decay_thresh.get();
     final long max_pow_cache = params.max_pow_cache.get();
 
+    wma_decay_rate = decay_rate;
+    wma_petrov_approx = (params.petrov_approx.get() == PetrovApproxChoices.on);
+    wma_activation_approx = (params.activation_approx.get() == ActivationApproxChoices.on);
+    wma_approx_history = Math.max(1, params.approx_history.get());
+
     // Pre-compute the integer powers of the decay exponent in order to avoid
     // repeated calls to pow() at runtime
     {
@@ -254,6 +268,16 @@ private void wma_init() {
       for (var i = 1; i < wma_power_size; i++) {
         wma_power_array[i] = Math.pow(i, decay_rate);
       }
+
+      // jsoar: the Petrov approximation raises cycle differences to (1 + decay rate), so cache
+      // those powers too
+      if (wma_petrov_approx || wma_activation_approx) {
+        final double d_inv = (1 + decay_rate);
+        wma_petrov_power_array = new double[wma_power_size];
+        for (var i = 0; i < wma_power_size; i++) {
+          wma_petrov_power_array[i] = Math.pow(i, d_inv);
+        }
+      }
     }
 
     // calculate the pre-log'd forgetting threshold, to avoid most
@@ -283,6 +307,7 @@ private void wma_deinit() {
 
     // release power array memory
     wma_power_array = null;
+    wma_petrov_power_array = null;
 
     // release approximation array memory (if applicable)
     if (params.forgetting.get() == ForgettingChoices.approx) {
@@ -291,14 +316,15 @@ private void wma_deinit() {
 
     // clear touched
     wma_touched_elements.clear();
-    wma_touched_sets.clear();
 
     // clear forgetting priority queue
     wma_forget_pq.clear();
 
-    // jsoar modification: clear the decay elements (otherwise the wmes will never be garbage
-    // collected)
-    wmaDecayElements.clear();
+    // jsoar modification: clear the decay elements. Elements are removed from wmes as they leave
+    // the rete, so this gets all of them.
+    for (WmeImpl w : rete.getAllWmes()) {
+      w.wma_decay_el = null;
+    }
 
     // RPM 2/2013: should slot.wma_val_references be cleaned up somehow?
     //             Probably not a big deal since those will get cleaned up when the slots are
@@ -336,51 +362,135 @@ private double wma_pow(final long cycle_diff) {
     if (cycle_diff < wma_power_size) {
       return wma_power_array[(int) cycle_diff];
     } else {
-      return Math.pow((double) cycle_diff, params.decay_rate.get());
+      return Math.pow((double) cycle_diff, wma_decay_rate);
+    }
+  }
+
+  /** Cached version of {@code Math.pow(cycle_diff, 1 + decay_rate)} for the Petrov approximation */
+  private double wma_petrov_pow(final long cycle_diff) {
+    if (wma_petrov_power_array != null && cycle_diff < wma_power_size) {
+      return wma_petrov_power_array[(int) cycle_diff];
+    } else {
+      return Math.pow((double) cycle_diff, (1 + wma_decay_rate));
+    }
+  }
+
+  /**
+   * @param w a wme
+   * @return the wme's decay element, or null if it doesn't have one
+   */
+  private static wma_decay_element wma_decay_element_of(final Wme w) {
+    return (w instanceof WmeImpl) ? ((WmeImpl) w).wma_decay_el : null;
+  }
+
+  /**
+   * Add an element to the set of elements touched this cycle (wma_touched_elements in CSoar)
+   *
+   * @param decay_el the element
+   */
+  private void wma_touch_element(final wma_decay_element decay_el) {
+    decay_el.touched = true;
+    if (!decay_el.in_touched_list) {
+      decay_el.in_touched_list = true;
+      wma_touched_elements.add(decay_el);
     }
   }
 
   /** wma.cpp:333:wma_sum_history */
   private double wma_sum_history(final wma_history history, final long current_cycle) {
+    if (wma_activation_approx && history.cached_cycle == current_cycle) {
+      return history.cached_sum;
+    }
+
     var return_val = 0.0;
 
     int p = history.next_p;
     int counter = history.history_ct;
     long cycle_diff = 0;
 
-    //
+    // jsoar: with activation-approx on, only the most recent references are summed exactly
+    int exact = (wma_activation_approx) ? Math.min(wma_approx_history, counter) : counter;
+    counter -= exact;
 
-    while (counter != 0) {
+    while (exact != 0) {
       p = wma_history_prev(p);
 
-      cycle_diff = (current_cycle - history.access_history[p].d_cycle);
+      cycle_diff = (current_cycle - history.access_d_cycle[p]);
       assert (cycle_diff > 0);
 
-      return_val += (history.access_history[p].num_references * wma_pow(cycle_diff));
+      return_val += (history.access_num_references[p] * wma_pow(cycle_diff));
 
-      counter--;
+      exact--;
+    }
+
+    // jsoar: ... and the rest of the history is approximated along with the references that
+    // have fallen out of it
+    long approx_refs = 0;
+    long newest_diff = cycle_diff;
+    long oldest_diff = cycle_diff;
+    if (counter != 0) {
+      newest_diff = (current_cycle - history.access_d_cycle[wma_history_prev(p)]);
+      while (counter != 0) {
+        p = wma_history_prev(p);
+        oldest_diff = (current_cycle - history.access_d_cycle[p]);
+        approx_refs += history.access_num_references[p];
+        counter--;
+      }
     }
 
     // see (Petrov, 2006)
-    if ((params.petrov_approx.get() == PetrovApproxChoices.on)
-        && (history.total_references > history.history_references)) {
-      // ( n - k ) * ( tn^(1-d) - tk^(1-d) )
-      // -----------------------------------
-      // ( 1 - d ) * ( tn - tk )
-
-      // decay_rate is negated (for nice printing)
-      double d_inv = (1 + params.decay_rate.get());
-
-      return_val +=
-          (((history.total_references - history.history_references)
-                  * (Math.pow((double) (current_cycle - history.first_reference), d_inv)
-                      - Math.pow((double) (cycle_diff), d_inv)))
-              / (d_inv * ((current_cycle - history.first_reference) - cycle_diff)));
+    if (wma_petrov_approx && (history.total_references > history.history_references)) {
+      approx_refs += (history.total_references - history.history_references);
+      oldest_diff = (current_cycle - history.first_reference);
+    }
+
+    if (approx_refs != 0) {
+      return_val += wma_petrov_sum(approx_refs, oldest_diff, newest_diff);
+    }
+
+    if (wma_activation_approx) {
+      // each approximated reference is somewhere between the oldest and newest, so the sum can't
+      // be off by more than the difference between those two extremes. Forgetting also evaluates
+      // sums at future cycles to forecast when to forget, those don't count.
+      if (approx_refs != 0 && return_val > 0.0 && current_cycle == wma_d_cycle_count) {
+        final double error = approx_refs * (wma_pow(newest_diff) - wma_pow(oldest_diff));
+        if ((error / return_val) > stats.approx_error_bound.get()) {
+          stats.approx_error_bound.set(error / return_val);
+        }
+      }
+
+      history.cached_cycle = current_cycle;
+      history.cached_sum = return_val;
     }
 
     return return_val;
   }
 
+  /**
+   * The Petrov (2006) approximation of the time sum of references spread evenly between two ages:
+   *
+   * <pre>{@code
+   * ( n - k ) * ( tn^(1-d) - tk^(1-d) )
+   * -----------------------------------
+   * ( 1 - d ) * ( tn - tk )
+   * }</pre>
+   *
+   * @param refs number of references, n - k
+   * @param tn age of the oldest reference
+   * @param tk age of the newest reference
+   * @return the approximate sum
+   */
+  private double wma_petrov_sum(final long refs, final long tn, final long tk) {
+    if (tn == tk) {
+      return (refs * wma_pow(tn));
+    }
+
+    // decay_rate is negated (for nice printing)
+    final double d_inv = (1 + wma_decay_rate);
+
+    return ((refs * (wma_petrov_pow(tn) - wma_petrov_pow(tk))) / (d_inv * (tn - tk)));
+  }
+
   /** wma.cpp:376:wma_calculate_decay_activation */
   private double wma_calculate_decay_activation(
       final wma_decay_element decay_el, final long current_cycle, final boolean log_result) {
@@ -425,7 +535,7 @@ private long wma_calculate_initial_boost(final Wme w) {
             Wme cond_wme = pc.bt().wme_;
             alreadyProcessed.add(cond_wme);
 
-            wma_decay_element wma_decay_el = wmaDecayElements.get(cond_wme);
+            wma_decay_element wma_decay_el = wma_decay_element_of(cond_wme);
             if (wma_decay_el != null) {
               if (!wma_decay_el.just_created) {
                 num_cond_wmes++;
@@ -435,7 +545,7 @@ private long wma_calculate_initial_boost(final Wme w) {
               final Preference p = cond_wme.getPreferences().next();
               if (p.wma_o_set != null) {
                 for (Wme wme : p.wma_o_set) {
-                  wma_decay_el = wmaDecayElements.get(wme);
+                  wma_decay_el = wma_decay_element_of(wme);
                   if (!alreadyProcessed.contains(wme)
                       && (wma_decay_el == null || !wma_decay_el.just_created)) {
                     num_cond_wmes++;
@@ -482,34 +592,25 @@ public void wma_activate_wme(
       final Wme w, final long num_references, final Set<Wme> o_set, final boolean o_only) {
     // o-supported, non-architectural WME
     if (wma_should_have_decay_element(w)) {
-      wma_decay_element temp_el = wmaDecayElements.get(w);
+      final WmeImpl wi = (WmeImpl) w;
+      wma_decay_element temp_el = wi.wma_decay_el;
 
       // if decay structure doesn't exist, create it
       if (temp_el == null) {
         temp_el = new wma_decay_element();
 
-        temp_el.this_wme = w;
+        temp_el.this_wme = wi;
         temp_el.just_removed = false;
 
         temp_el.just_created = true;
         temp_el.num_references = wma_calculate_initial_boost(w);
 
-        temp_el.touches.history_ct = 0;
-        temp_el.touches.next_p = 0;
-
-        for (var i = 0; i < wma_history.WMA_DECAY_HISTORY; i++) {
-          temp_el.touches.access_history[i].d_cycle = 0;
-          temp_el.touches.access_history[i].num_references = 0;
-        }
-
-        temp_el.touches.history_references = 0;
-        temp_el.touches.total_references = 0;
-        temp_el.touches.first_reference = 0;
+        // jsoar: a new wma_history is already zeroed
 
         // prevents confusion with delayed forgetting
         temp_el.forget_cycle = -1L;
 
-        wmaDecayElements.put(w, temp_el);
+        wi.wma_decay_el = temp_el;
 
         if (trace.isEnabled(Category.WMA)) {
           trace
@@ -537,7 +638,7 @@ public void wma_activate_wme(
       // otherwise update the decay element
       else {
         temp_el.num_references += num_references;
-        wma_touched_elements.add(w);
+        wma_touch_element(temp_el);
       }
     }
     // i-supported, non-architectural WME
@@ -572,10 +673,10 @@ else if (!o_only
         // non-architectural (avoids dereferencing
         // the wme preference)
         else {
-          final wma_decay_element wma_decay_el = wmaDecayElements.get(wme);
+          final wma_decay_element wma_decay_el = wma_decay_element_of(wme);
           if (wma_decay_el != null) {
             wma_decay_el.num_references += num_references;
-            wma_touched_elements.add(wme);
+            wma_touch_element(wma_decay_el);
           }
         }
       }
@@ -594,7 +695,8 @@ else if (!o_only && !w.getPreferences().hasNext() && (o_set != null)) {
    */
   private void wma_deactivate_element(final Wme w, final wma_decay_element temp_el) {
     if ((temp_el != null) && (!temp_el.just_removed)) {
-      wma_touched_elements.remove(w);
+      // left in the list, but skipped by wma_update_decay_histories
+      temp_el.touched = false;
 
       if ((params.forgetting.get() == ForgettingChoices.approx)
           || (params.forgetting.get() == ForgettingChoices.bsearch)) {
@@ -607,7 +709,7 @@ private void wma_deactivate_element(final Wme w, final wma_decay_element temp_el
 
   @Override
   public void wma_remove_decay_element(final Wme w) {
-    final wma_decay_element temp_el = wmaDecayElements.get(w);
+    final wma_decay_element temp_el = wma_decay_element_of(w);
 
     if (temp_el != null) {
       // Deactivate the wme first
@@ -623,7 +725,7 @@ public void wma_remove_decay_element(final Wme w) {
                 "WMA @" + decisionCycle.d_cycle_count + ": " + "remove " + w.getTimetag() + "\n");
       }
 
-      wmaDecayElements.remove(w);
+      ((WmeImpl) w).wma_decay_el = null;
     }
   }
 
@@ -637,33 +739,15 @@ public void wma_remove_decay_element(final Wme w) {
   private void wma_forgetting_add_to_p_queue(
       final wma_decay_element decay_el, final long new_cycle) {
     if (decay_el != null) {
-      decay_el.forget_cycle = new_cycle;
-
-      final Set<wma_decay_element> pq = wma_forget_pq.get(new_cycle);
-      if (pq == null) {
-        Set<wma_decay_element> newbie = new HashSet<>();
-
-        newbie.add(decay_el);
-
-        wma_forget_pq.put(new_cycle, newbie);
-      } else {
-        pq.add(decay_el);
-      }
+      wma_forget_pq.add(decay_el, new_cycle);
     }
   }
 
   /** wma.cpp:759:wma_forgetting_remove_from_p_queue */
   private void wma_forgetting_remove_from_p_queue(final wma_decay_element decay_el) {
     if (decay_el != null) {
-      // try to find set for the element per cycle
-      final Set<wma_decay_element> pq = wma_forget_pq.get(decay_el.forget_cycle);
-      if ((pq != null) && pq.contains(decay_el)) {
-        pq.remove(decay_el);
-
-        if (pq.isEmpty()) {
-          wma_touched_sets.add(decay_el.forget_cycle);
-        }
-      }
+      // jsoar: empty buckets don't need cleaning up, so there are no touched sets
+      wma_forget_pq.remove(decay_el);
     }
   }
 
@@ -690,12 +774,12 @@ private long wma_forgetting_estimate_cycle(
       while (counter != 0) {
         p = wma_history_prev(p);
 
-        final long cycle_diff = (return_val - history.access_history[p].d_cycle);
+        final long cycle_diff = (return_val - history.access_d_cycle[p]);
 
         final int approx_ref =
             (int)
-                ((history.access_history[p].num_references < WMA_REFERENCES_PER_DECISION)
-                    ? (history.access_history[p].num_references)
+                ((history.access_num_references[p] < WMA_REFERENCES_PER_DECISION)
+                    ? (history.access_num_references[p])
                     : (WMA_REFERENCES_PER_DECISION - 1));
         if (wma_approx_array[approx_ref] > cycle_diff) {
           to_add += (wma_approx_array[approx_ref] - cycle_diff);
@@ -789,76 +873,65 @@ private boolean wma_forgetting_update_p_queue() {
     var return_val = false;
     boolean do_forget;
 
-    if (!wma_forget_pq.isEmpty()) {
-      final long current_cycle = wma_d_cycle_count;
-      final double decay_thresh = wma_thresh_exp;
-      final boolean forget_only_lti = (params.forget_wme.get() == ForgetWmeChoices.lti);
-
-      final Map.Entry<Long, Set<wma_decay_element>> pq = wma_forget_pq.firstEntry();
-      if (pq.getKey() == current_cycle) {
-        for (wma_decay_element current : pq.getValue()) {
-          if (wma_calculate_decay_activation(current, current_cycle, false) < decay_thresh) {
-            current.forget_cycle = WMA_FORGOTTEN_CYCLE;
-
-            if (!forget_only_lti
-                || ((IdentifierImpl) current.this_wme.getIdentifier()).isLongTermIdentifier()) {
-              do_forget = true;
-
-              // implements all-or-nothing check for lti mode
-              if (forget_only_lti) {
-                for (Slot s = ((IdentifierImpl) current.this_wme.getIdentifier()).slots;
-                    (s != null && do_forget);
-                    s = s.next) {
-                  for (WmeImpl w : s.getWmes()) {
-                    final wma_decay_element wma_decay_el = wmaDecayElements.get(w);
-                    if (w.preference.o_supported
-                        && (wma_decay_el == null
-                            || (wma_decay_el.forget_cycle != WMA_FORGOTTEN_CYCLE))) {
-                      do_forget = false;
-                    }
-                  }
+    final long current_cycle = wma_d_cycle_count;
+    final double decay_thresh = wma_thresh_exp;
+    final boolean forget_only_lti = (params.forget_wme.get() == ForgetWmeChoices.lti);
+
+    // jsoar: take the elements due this cycle out of the queue up front, which also takes care
+    // of cleaning up the decay set afterwards. This happens even when the queue is empty so it
+    // knows this cycle has been processed.
+    wma_forget_due.clear();
+    wma_forget_pq.removeDue(current_cycle, wma_forget_due);
+    for (wma_decay_element current : wma_forget_due) {
+      if (wma_calculate_decay_activation(current, current_cycle, false) < decay_thresh) {
+        current.forget_cycle = WMA_FORGOTTEN_CYCLE;
+
+        if (!forget_only_lti
+            || ((IdentifierImpl) current.this_wme.getIdentifier()).isLongTermIdentifier()) {
+          do_forget = true;
+
+          // implements all-or-nothing check for lti mode
+          if (forget_only_lti) {
+            for (Slot s = ((IdentifierImpl) current.this_wme.getIdentifier()).slots;
+                (s != null && do_forget);
+                s = s.next) {
+              for (WmeImpl w = s.getFirstWme(); w != null; w = w.next) {
+                final wma_decay_element wma_decay_el = w.wma_decay_el;
+                if (w.preference.o_supported
+                    && (wma_decay_el == null
+                        || (wma_decay_el.forget_cycle != WMA_FORGOTTEN_CYCLE))) {
+                  do_forget = false;
                 }
               }
+            }
+          }
 
-              if (do_forget) {
-                if (forget_only_lti) {
-                  // implements all-or-nothing forget for lti mode
-                  for (Slot s = ((IdentifierImpl) current.this_wme.getIdentifier()).slots;
-                      s != null;
-                      s = s.next) {
-                    for (WmeImpl w : s.getWmes()) {
-                      if (wma_forgetting_forget_wme(w)) {
-                        return_val = true;
-                      }
-                    }
-                  }
-                } else {
-                  if (wma_forgetting_forget_wme(current.this_wme)) {
+          if (do_forget) {
+            if (forget_only_lti) {
+              // implements all-or-nothing forget for lti mode
+              for (Slot s = ((IdentifierImpl) current.this_wme.getIdentifier()).slots;
+                  s != null;
+                  s = s.next) {
+                WmeImpl next_w;
+                for (WmeImpl w = s.getFirstWme(); w != null; w = next_w) {
+                  next_w = w.next;
+                  if (wma_forgetting_forget_wme(w)) {
                     return_val = true;
                   }
                 }
               }
+            } else {
+              if (wma_forgetting_forget_wme(current.this_wme)) {
+                return_val = true;
+              }
             }
-          } else {
-            wma_forgetting_move_in_p_queue(current, wma_forgetting_estimate_cycle(current, false));
           }
         }
-
-        // clean up decay set
-        wma_touched_sets.add(pq.getKey());
-        pq.getValue().clear();
-      }
-
-      // clean up touched sets
-      for (long touched : wma_touched_sets) {
-        final Set<wma_decay_element> pq_v = wma_forget_pq.get(touched);
-
-        if (pq_v != null && pq_v.isEmpty()) {
-          wma_forget_pq.remove(touched);
-        }
+      } else {
+        wma_forgetting_add_to_p_queue(current, wma_forgetting_estimate_cycle(current, false));
       }
-      wma_touched_sets.clear();
     }
+    wma_forget_due.clear();
 
     return return_val;
   }
@@ -870,8 +943,8 @@ private boolean wma_forgetting_naive_sweep() {
     final boolean forget_only_lti = (params.forget_wme.get() == ForgetWmeChoices.lti);
     var return_val = false;
 
-    for (Wme w : rete.getAllWmes()) {
-      final wma_decay_element wma_decay_el = wmaDecayElements.get(w);
+    for (WmeImpl w : rete.getAllWmes()) {
+      final wma_decay_element wma_decay_el = w.wma_decay_el;
       if (wma_decay_el != null
           && (!forget_only_lti || (((IdentifierImpl) w.getIdentifier()).isLongTermIdentifier()))) {
         // to be forgotten, wme must...
@@ -879,10 +952,7 @@ private boolean wma_forgetting_naive_sweep() {
         // - not have been accessed this cycle (i.e. no decay)
         // - have activation less than threshold
         if ((wma_decay_el.touches.total_references > 0)
-            && (wma_decay_el
-                    .touches
-                    .access_history[wma_history_prev(wma_decay_el.touches.next_p)]
-                    .d_cycle
+            && (wma_decay_el.touches.access_d_cycle[wma_history_prev(wma_decay_el.touches.next_p)]
                 < current_cycle)
             && (wma_calculate_decay_activation(wma_decay_el, current_cycle, false)
                 < decay_thresh)) {
@@ -906,7 +976,7 @@ private boolean wma_forgetting_naive_sweep() {
   @Override
   public void wma_activate_wmes_in_pref(final Preference pref) {
     if (pref.type == PreferenceType.ACCEPTABLE) {
-      for (WmeImpl w : pref.slot.getWmes()) {
+      for (WmeImpl w = pref.slot.getFirstWme(); w != null; w = w.next) {
         // id and attr should already match so just compare the value
         if (w.getValue() == pref.value) {
           wma_activate_wme(w);
@@ -923,19 +993,24 @@ private void wma_update_decay_histories() {
             || (params.forgetting.get() == ForgettingChoices.bsearch));
 
     // add to history for changed elements
-    for (Wme w : wma_touched_elements) {
-      final wma_decay_element temp_el = wmaDecayElements.get(w);
+    for (int i = 0; i < wma_touched_elements.size(); i++) {
+      final wma_decay_element temp_el = wma_touched_elements.get(i);
+      temp_el.in_touched_list = false;
+      if (!temp_el.touched) {
+        // deactivated since it was touched
+        continue;
+      }
+      temp_el.touched = false;
 
       // update number of references in the current history
       // (has to come before history overwrite)
       temp_el.touches.history_references +=
-          (temp_el.num_references
-              - temp_el.touches.access_history[temp_el.touches.next_p].num_references);
+          (temp_el.num_references - temp_el.touches.access_num_references[temp_el.touches.next_p]);
 
       // set history
-      temp_el.touches.access_history[temp_el.touches.next_p].d_cycle = current_cycle;
-      temp_el.touches.access_history[temp_el.touches.next_p].num_references =
-          temp_el.num_references;
+      temp_el.touches.access_d_cycle[temp_el.touches.next_p] = current_cycle;
+      temp_el.touches.access_num_references[temp_el.touches.next_p] = temp_el.num_references;
+      temp_el.touches.cached_cycle = -1;
 
       // log
       if (trace.isEnabled(Category.WMA)) {
@@ -992,7 +1067,7 @@ private void wma_update_decay_histories() {
   public double wma_get_wme_activation(final Wme w, final boolean log_result) {
     double return_val = (log_result) ? (WMA_ACTIVATION_NONE) : (WMA_TIME_SUM_NONE);
 
-    final wma_decay_element wma_decay_el = wmaDecayElements.get(w);
+    final wma_decay_element wma_decay_el = wma_decay_element_of(w);
     if (wma_decay_el != null) {
       return_val = wma_calculate_decay_activation(wma_decay_el, wma_d_cycle_count, log_result);
     }
@@ -1003,7 +1078,7 @@ public double wma_get_wme_activation(final Wme w, final boolean log_result) {
   @Override
   public String wma_get_wme_history(final Wme w) {
     var ret = new StringBuilder();
-    final wma_decay_element wma_decay_el = wmaDecayElements.get(w);
+    final wma_decay_element wma_decay_el = wma_decay_element_of(w);
     if (wma_decay_el != null) {
       final wma_history history = wma_decay_el.touches;
       final long current_cycle = wma_d_cycle_count;
@@ -1022,7 +1097,7 @@ public String wma_get_wme_history(final Wme w) {
         p = wma_history_prev(p);
         counter--;
 
-        ret.append("\n").append(history.access_history[p].toString(current_cycle));
+        ret.append("\n").append(history.reference_to_string(p, current_cycle));
       }
 
       final ForgettingChoices forget = params.forgetting.get();
@@ -28,6 +28,11 @@ static enum PetrovApproxChoices {
     off
   };
 
+  static enum ActivationApproxChoices {
+    on,
+    off
+  };
+
   static enum ForgettingChoices {
     off,
     naive,
@@ -88,6 +93,26 @@ private static <T> PropertyKey.Builder<T> key(String name, Class<T> type) {
   public final EnumPropertyProvider<PetrovApproxChoices> petrov_approx =
       new EnumPropertyProvider<PetrovApproxChoices>(PETROV_APPROX);
 
+  /**
+   * jsoar: when on, only the approx-history most recent references are summed exactly, older ones
+   * are folded into the Petrov approximation, and each element's activation is cached for the rest
+   * of the cycle. The largest relative error this can cause is reported in the approx-error-bound
+   * statistic.
+   */
+  static final PropertyKey<ActivationApproxChoices> ACTIVATION_APPROX =
+      key("activation-approx", ActivationApproxChoices.class)
+          .defaultValue(ActivationApproxChoices.off)
+          .build();
+
+  public final EnumPropertyProvider<ActivationApproxChoices> activation_approx =
+      new EnumPropertyProvider<ActivationApproxChoices>(ACTIVATION_APPROX);
+
+  /** jsoar: number of recent references summed exactly when activation-approx is on */
+  static final PropertyKey<Integer> APPROX_HISTORY =
+      key("approx-history", Integer.class).defaultValue(3).build();
+
+  public final IntegerPropertyProvider approx_history = new IntegerPropertyProvider(APPROX_HISTORY);
+
   static final PropertyKey<ForgettingChoices> FORGETTING_CHOICES =
       key("forgetting", ForgettingChoices.class).defaultValue(ForgettingChoices.off).build();
   public final EnumPropertyProvider<ForgettingChoices> forgetting =
@@ -125,6 +150,8 @@ public DefaultWorkingMemoryActivationParams(PropertyManager properties) {
     properties.setProvider(DECAY_RATE, decay_rate);
     properties.setProvider(DECAY_THRESH, decay_thresh);
     properties.setProvider(PETROV_APPROX, petrov_approx);
+    properties.setProvider(ACTIVATION_APPROX, activation_approx);
+    properties.setProvider(APPROX_HISTORY, approx_history);
     properties.setProvider(FORGETTING_CHOICES, forgetting);
     properties.setProvider(FORGET_WME_CHOICES, forget_wme);
     properties.setProvider(FAKE_FORGETTING, fake_forgetting);
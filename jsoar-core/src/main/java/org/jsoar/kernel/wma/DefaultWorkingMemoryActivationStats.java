@@ -43,15 +43,22 @@ private static <T> PropertyKey.Builder<T> key(String name, Class<T> type) {
   final DefaultPropertyProvider<Long> forgotten_wmes =
       new DefaultPropertyProvider<Long>(FORGOTTEN_WMES);
 
+  static final PropertyKey<Double> APPROX_ERROR_BOUND =
+      key("approx-error-bound", Double.class).defaultValue(0.0).build();
+  final DefaultPropertyProvider<Double> approx_error_bound =
+      new DefaultPropertyProvider<Double>(APPROX_ERROR_BOUND);
+
   private final PropertyManager properties;
   private final Set<PropertyKey<?>> keys = new HashSet<PropertyKey<?>>();
 
   public DefaultWorkingMemoryActivationStats(PropertyManager properties) {
     this.properties = properties;
     add(FORGOTTEN_WMES, forgotten_wmes);
+    add(APPROX_ERROR_BOUND, approx_error_bound);
   }
 
   private <T> void add(PropertyKey<T> key, PropertyProvider<T> value) {
+    this.keys.add(key);
     this.properties.setProvider(key, value);
   }
 
@@ -66,4 +73,9 @@ public void reset() {
   public long getForgottenWmes() {
     return forgotten_wmes.get();
   }
+
+  @Override
+  public double getApproxErrorBound() {
+    return approx_error_bound.get();
+  }
 }
@@ -0,0 +1,138 @@
+package org.jsoar.kernel.wma;
+
+import java.util.List;
+
+/**
+ * The forgetting priority queue (wma_forget_p_queue in CSoar), implemented as a calendar queue of
+ * decay elements keyed by the decision cycle in which they should next be considered for
+ * forgetting.
+ *
+ * <p>Elements are linked into one of a fixed number of buckets by their {@link
+ * wma_decay_element#forget_cycle} modulo the number of buckets, through fields on the element
+ * itself, so adding, moving and removing an element doesn't allocate. Elements due in a later "lap"
+ * of the calendar are skipped when their bucket comes around.
+ *
+ * <p>An element can never be queued for a cycle that {@link #removeDue(long, List)} has already
+ * processed, it's moved to the next unprocessed cycle instead. Otherwise it would sit in its bucket
+ * until the calendar came back around. If cycles are skipped anyway, e.g. while forgetting is
+ * turned off, anything left over in a bucket is returned the next time that bucket is visited, so
+ * at most one lap late.
+ */
+class ForgettingQueue {
+  /** Number of buckets, must be a power of two */
+  static final int DEFAULT_BUCKETS = 4096;
+
+  private final wma_decay_element[] buckets;
+  private final int mask;
+  private int size;
+  /** The earliest cycle that hasn't been passed to {@link #removeDue(long, List)} yet */
+  private long nextDue;
+
+  ForgettingQueue() {
+    this(DEFAULT_BUCKETS);
+  }
+
+  ForgettingQueue(int buckets) {
+    if (Integer.bitCount(buckets) != 1) {
+      throw new IllegalArgumentException("buckets must be a power of two, got " + buckets);
+    }
+    this.buckets = new wma_decay_element[buckets];
+    this.mask = buckets - 1;
+  }
+
+  /** @return true if no elements are queued */
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** @return number of queued elements */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Queue an element to be considered for forgetting in the given cycle, or the next unprocessed
+   * cycle if that one has already been processed. The element must not already be queued.
+   *
+   * @param decay_el the element
+   * @param cycle the cycle, stored in the element's forget_cycle
+   */
+  void add(wma_decay_element decay_el, long cycle) {
+    assert !decay_el.in_forget_queue;
+    if (cycle < nextDue) {
+      cycle = nextDue;
+    }
+    decay_el.forget_cycle = cycle;
+
+    final int index = (int) (cycle & mask);
+    final wma_decay_element head = buckets[index];
+    decay_el.forget_prev = null;
+    decay_el.forget_next = head;
+    if (head != null) {
+      head.forget_prev = decay_el;
+    }
+    buckets[index] = decay_el;
+    decay_el.in_forget_queue = true;
+    size++;
+  }
+
+  /**
+   * Remove an element from the queue. Does nothing if it isn't queued.
+   *
+   * @param decay_el the element
+   */
+  void remove(wma_decay_element decay_el) {
+    if (!decay_el.in_forget_queue) {
+      return;
+    }
+
+    if (decay_el.forget_prev != null) {
+      decay_el.forget_prev.forget_next = decay_el.forget_next;
+    } else {
+      buckets[(int) (decay_el.forget_cycle & mask)] = decay_el.forget_next;
+    }
+    if (decay_el.forget_next != null) {
+      decay_el.forget_next.forget_prev = decay_el.forget_prev;
+    }
+    decay_el.forget_next = null;
+    decay_el.forget_prev = null;
+    decay_el.in_forget_queue = false;
+    size--;
+  }
+
+  /**
+   * Remove all of the elements queued for the given cycle, along with any elements in the same
+   * bucket that are past due, and mark the cycle as processed.
+   *
+   * @param cycle the cycle
+   * @param result receives the removed elements
+   */
+  void removeDue(long cycle, List<wma_decay_element> result) {
+    nextDue = cycle + 1;
+    wma_decay_element decay_el = buckets[(int) (cycle & mask)];
+    while (decay_el != null) {
+      final wma_decay_element next = decay_el.forget_next;
+      if (decay_el.forget_cycle <= cycle) {
+        remove(decay_el);
+        result.add(decay_el);
+      }
+      decay_el = next;
+    }
+  }
+
+  /** Remove all elements from the queue */
+  void clear() {
+    for (int i = 0; i < buckets.length; i++) {
+      for (wma_decay_element decay_el = buckets[i]; decay_el != null; ) {
+        final wma_decay_element next = decay_el.forget_next;
+        decay_el.forget_next = null;
+        decay_el.forget_prev = null;
+        decay_el.in_forget_queue = false;
+        decay_el = next;
+      }
+      buckets[i] = null;
+    }
+    size = 0;
+    nextDue = 0;
+  }
+}
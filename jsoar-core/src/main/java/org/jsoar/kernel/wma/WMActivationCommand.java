@@ -5,6 +5,7 @@
 import org.jsoar.kernel.Agent;
 import org.jsoar.kernel.memory.Wme;
 import org.jsoar.kernel.rete.Rete;
+import org.jsoar.kernel.wma.DefaultWorkingMemoryActivationParams.ActivationApproxChoices;
 import org.jsoar.kernel.wma.DefaultWorkingMemoryActivationParams.ActivationChoices;
 import org.jsoar.kernel.wma.DefaultWorkingMemoryActivationParams.FakeForgettingChoices;
 import org.jsoar.kernel.wma.DefaultWorkingMemoryActivationParams.ForgetWmeChoices;
@@ -192,6 +193,16 @@ private void doSet(String param, String value) {
           props.set(
               DefaultWorkingMemoryActivationParams.PETROV_APPROX,
               PetrovApproxChoices.valueOf(value));
+        } else if (param.equals("activation-approx")) {
+          props.set(
+              DefaultWorkingMemoryActivationParams.ACTIVATION_APPROX,
+              ActivationApproxChoices.valueOf(value));
+        } else if (param.equals("approx-history")) {
+          final int history = Integer.valueOf(value);
+          if (history < 1 || history > wma_history.WMA_DECAY_HISTORY) {
+            throw new IllegalArgumentException();
+          }
+          props.set(DefaultWorkingMemoryActivationParams.APPROX_HISTORY, history);
         } else {
           parent.agent.getPrinter().startNewLine().print("Unknown parameter '" + param + "'");
         }
@@ -208,6 +219,7 @@ private void doStats(String param) {
       final DefaultWorkingMemoryActivationStats p = parent.wma.getStats();
       if (param == null) {
         pw.printf("Forgotten WMEs: %d%n", p.forgotten_wmes.get());
+        pw.printf("Approximation error bound: %f%n", p.approx_error_bound.get());
       } else {
         final PropertyKey<?> key =
             DefaultWorkingMemoryActivationStats.getProperty(
@@ -292,6 +304,8 @@ private void doWma() {
       pw.println("----------");
       pw.printf("decay-rate: %f%n", p.decay_rate.get());
       pw.printf("petrov-approx: %s%n", p.petrov_approx.get());
+      pw.printf("activation-approx: %s%n", p.activation_approx.get());
+      pw.printf("approx-history: %d%n", p.approx_history.get());
       pw.println();
       pw.println("Forgetting");
       pw.println("----------");
@@ -14,4 +14,10 @@ public interface WorkingMemoryActivationStatistics {
 
   /** @return Number of wmes that have been forgotten. */
   long getForgottenWmes();
+
+  /**
+   * @return Largest bound seen on the relative error of an approximated activation time sum, e.g.
+   *     0.01 for 1%. 0 if no activation has been approximated.
+   */
+  double getApproxErrorBound();
 }
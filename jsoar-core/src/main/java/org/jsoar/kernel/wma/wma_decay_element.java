@@ -5,12 +5,16 @@
  */
 package org.jsoar.kernel.wma;
 
-import org.jsoar.kernel.memory.Wme;
+import org.jsoar.kernel.memory.WmeImpl;
 
-/** attached to o-supported WMEs to keep track of its activation. */
+/**
+ * attached to o-supported WMEs to keep track of its activation.
+ *
+ * @see WmeImpl#wma_decay_el
+ */
 public class wma_decay_element {
   // the wme that this element goes with
-  Wme this_wme;
+  WmeImpl this_wme;
 
   // when a WME is removed from working memory, the data
   // structure is not necessarily deallocated right away
@@ -28,9 +32,20 @@ public class wma_decay_element {
 
   // when and how often this wme has been referenced in recent
   // history.
-  wma_history touches = new wma_history();
+  final wma_history touches = new wma_history();
 
   // if forgetting is enabled, this tells us when we think
   // we need to forget this wme
   long forget_cycle;
+
+  // jsoar: membership in the touched list replaces the
+  // wma_touched_elements set. touched is cleared when the element
+  // is deactivated, in_touched_list when the list is processed.
+  boolean touched;
+  boolean in_touched_list;
+
+  // jsoar: dll of elements in the same ForgettingQueue bucket
+  boolean in_forget_queue;
+  wma_decay_element forget_next;
+  wma_decay_element forget_prev;
 }
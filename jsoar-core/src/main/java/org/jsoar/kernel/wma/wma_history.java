@@ -6,11 +6,21 @@
 
 package org.jsoar.kernel.wma;
 
+/**
+ * The reference history of a decay element.
+ *
+ * <p>The access_history array of wma_cycle_reference structs in CSoar is stored as two parallel
+ * primitive arrays here, so a history is three objects instead of a dozen.
+ */
 public class wma_history {
   /** This is the size of the reference history. wma.h:29:WMA_DECAY_HISTORY */
   public static final int WMA_DECAY_HISTORY = 10;
 
-  wma_cycle_reference access_history[] = new wma_cycle_reference[WMA_DECAY_HISTORY];
+  /** access_history[i].num_references */
+  final long[] access_num_references = new long[WMA_DECAY_HISTORY];
+  /** access_history[i].d_cycle */
+  final long[] access_d_cycle = new long[WMA_DECAY_HISTORY];
+
   int next_p;
   int history_ct;
 
@@ -18,9 +28,22 @@ public class wma_history {
   long total_references;
   long first_reference;
 
-  wma_history() {
-    for (int i = 0; i < WMA_DECAY_HISTORY; ++i) {
-      this.access_history[i] = new wma_cycle_reference();
-    }
+  /**
+   * jsoar: with activation-approx on, the time sum as of cached_cycle. Only valid until the history
+   * changes, so cleared (set to -1) whenever a reference is recorded.
+   */
+  long cached_cycle = -1;
+
+  double cached_sum;
+
+  /**
+   * wma.cpp:1224:_wma_ref_to_str
+   *
+   * @param p index into the history
+   * @param current_cycle
+   */
+  String reference_to_string(int p, long current_cycle) {
+    final long cycle_diff = (current_cycle - access_d_cycle[p]);
+    return access_num_references[p] + " @ d" + access_d_cycle[p] + " (-" + cycle_diff + ")";
   }
 }
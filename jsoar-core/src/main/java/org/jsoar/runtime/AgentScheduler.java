@@ -0,0 +1,120 @@
+package org.jsoar.runtime;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jsoar.util.Arguments;
+
+/**
+ * Runs many {@link ThreadedAgent}s on a fixed pool of carrier threads rather than giving each agent
+ * its own thread. Install a scheduler with {@link ThreadedAgent#setScheduler(AgentScheduler)}
+ * before creating or attaching agents.
+ *
+ * <p>A running agent is run in slices of at most {@link #getDecisionsPerSlice()} decisions. After
+ * each slice, the agent gives up its carrier thread and is queued behind the other agents that are
+ * ready to run, so a small number of carriers can be shared fairly between a large number of
+ * agents. Commands sent to the agent with {@link ThreadedAgent#execute(Runnable)} and friends are
+ * run between slices, or at the next {@link org.jsoar.kernel.events.RunLoopEvent} during a slice.
+ *
+ * <p>When an agent calls the {@code wait} RHS function while running forever or by decisions, it is
+ * parked without holding a carrier thread until the wait is over. See {@link WaitRhsFunction}.
+ * Other run types, e.g. running by phases, are run in a single slice.
+ *
+ * <p>The CPU time used by each agent is available from {@link ThreadedAgent#getCpuTime()}.
+ */
+public class AgentScheduler {
+  /** The default maximum number of decisions an agent runs before yielding its carrier thread */
+  public static final int DEFAULT_DECISIONS_PER_SLICE = 100;
+
+  private static final AtomicInteger nextId = new AtomicInteger();
+
+  private final int carrierThreads;
+  private final ExecutorService carriers;
+  private final ScheduledExecutorService timer;
+  private volatile int decisionsPerSlice;
+
+  /**
+   * Create a new scheduler with {@link #DEFAULT_DECISIONS_PER_SLICE}
+   *
+   * @param carrierThreads the number of threads agents are run on
+   */
+  public AgentScheduler(int carrierThreads) {
+    this(carrierThreads, DEFAULT_DECISIONS_PER_SLICE);
+  }
+
+  /**
+   * Create a new scheduler
+   *
+   * @param carrierThreads the number of threads agents are run on
+   * @param decisionsPerSlice the maximum number of decisions an agent runs before yielding
+   */
+  public AgentScheduler(int carrierThreads, int decisionsPerSlice) {
+    Arguments.check(carrierThreads > 0, "carrierThreads must be positive");
+    setDecisionsPerSlice(decisionsPerSlice);
+
+    final int id = nextId.incrementAndGet();
+    this.carrierThreads = carrierThreads;
+    this.carriers =
+        Executors.newFixedThreadPool(
+            carrierThreads, newThreadFactory("Agent scheduler " + id + " carrier "));
+    this.timer =
+        Executors.newSingleThreadScheduledExecutor(
+            newThreadFactory("Agent scheduler " + id + " timer "));
+  }
+
+  /** @return the number of threads agents are run on */
+  public int getCarrierThreads() {
+    return carrierThreads;
+  }
+
+  /** @return the maximum number of decisions an agent runs before yielding its carrier thread */
+  public int getDecisionsPerSlice() {
+    return decisionsPerSlice;
+  }
+
+  /**
+   * Set the maximum number of decisions an agent runs before yielding its carrier thread. Smaller
+   * values give fairer scheduling between agents at the cost of more scheduling overhead. Takes
+   * effect at the start of each agent's next slice.
+   *
+   * @param decisionsPerSlice the number of decisions, must be positive
+   */
+  public void setDecisionsPerSlice(int decisionsPerSlice) {
+    Arguments.check(decisionsPerSlice > 0, "decisionsPerSlice must be positive");
+    this.decisionsPerSlice = decisionsPerSlice;
+  }
+
+  /**
+   * Stop the carrier threads. Agents still attached to this scheduler can no longer run, so they
+   * should be detached or disposed first.
+   */
+  public void shutdown() {
+    carriers.shutdown();
+    timer.shutdownNow();
+  }
+
+  /** @return true if {@link #shutdown()} has been called */
+  public boolean isShutdown() {
+    return carriers.isShutdown();
+  }
+
+  void execute(Runnable runnable) {
+    carriers.execute(runnable);
+  }
+
+  void schedule(Runnable runnable, long delay, TimeUnit unit) {
+    timer.schedule(runnable, delay, unit);
+  }
+
+  private static ThreadFactory newThreadFactory(String prefix) {
+    final AtomicInteger count = new AtomicInteger();
+    return runnable -> {
+      final Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+}
@@ -5,15 +5,19 @@
  */
 package org.jsoar.runtime;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.FutureTask;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import lombok.NonNull;
 import org.jsoar.kernel.Agent;
 import org.jsoar.kernel.AgentRunController;
@@ -69,6 +73,11 @@
  * <p>This object installs {@code run} and {@code stop-soar} commands as well as the {@code wait}
  * RHS function.
  *
+ * <p>If an {@link AgentScheduler} is installed with {@link #setScheduler(AgentScheduler)}, agents
+ * created or attached afterwards share the scheduler's carrier threads instead of each having its
+ * own thread. In that case, "the agent thread" is whichever carrier thread is currently running the
+ * agent.
+ *
  * @author ray
  * @see UncaughtExceptionEvent
  * @see StopEvent
@@ -76,6 +85,7 @@
  */
 public class ThreadedAgent extends AbstractAdaptable implements AgentRunController {
   private static final Logger logger = LoggerFactory.getLogger(ThreadedAgent.class);
+  private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
 
   private final Agent agent;
   private final BlockingQueue<Runnable> commands = new LinkedBlockingQueue<Runnable>();
@@ -96,7 +106,20 @@ public Boolean set(Boolean value) {
         }
       };
 
-  private final AgentThread agentThread = new AgentThread();
+  /** The agent's own thread, or {@code null} if it runs on an {@link AgentScheduler} */
+  private final AgentThread agentThread;
+  /** Scheduling state if the agent runs on an {@link AgentScheduler}, otherwise {@code null} */
+  private final PooledExecution pooled;
+
+  // The following are only used with an AgentScheduler. They're written on whichever thread is
+  // running the agent and read from the callers' threads, so they're volatile.
+  private volatile boolean stopRequested;
+  private volatile RunSlice activeSlice;
+  private volatile RunSlice parkedSlice;
+  private volatile boolean parkRequested;
+  /** Set when a slice runs so the carrier thread is yielded afterwards */
+  private boolean sliceRan;
+
   private final WaitManager waitManager = new WaitManager();
   private final WaitRhsFunction waitFunction = new WaitRhsFunction();
 
@@ -165,6 +188,25 @@ public static ThreadedAgent attach(Agent agent) {
     return ThreadedAgentManager.INSTANCE.attach(agent);
   }
 
+  /**
+   * Set the scheduler used by threaded agents that are created or attached after this call.
+   * Existing threaded agents are not affected.
+   *
+   * @param scheduler the scheduler, or {@code null} to give each agent its own thread
+   * @see AgentScheduler
+   */
+  public static void setScheduler(AgentScheduler scheduler) {
+    ThreadedAgentManager.INSTANCE.setScheduler(scheduler);
+  }
+
+  /**
+   * @return the scheduler used for new threaded agents, or {@code null} if each agent gets its own
+   *     thread
+   */
+  public static AgentScheduler getScheduler() {
+    return ThreadedAgentManager.INSTANCE.getScheduler();
+  }
+
   /**
    * Returns the event manager used for global ThreadedAgent events such as {@link
    * ThreadedAgentAttachedEvent}.
@@ -177,8 +219,24 @@ public static SoarEventManager getEventManager() {
 
   /** @param agent the agent to wrap. */
   ThreadedAgent(@NonNull final Agent agent) {
+    this(agent, null);
+  }
+
+  /**
+   * @param agent the agent to wrap.
+   * @param scheduler the scheduler to run the agent on, or {@code null} to give the agent its own
+   *     thread
+   */
+  ThreadedAgent(@NonNull final Agent agent, AgentScheduler scheduler) {
     this.agent = agent;
-    agentThread.setName("Agent '" + this.agent + "' thread");
+    if (scheduler != null) {
+      this.agentThread = null;
+      this.pooled = new PooledExecution(scheduler);
+    } else {
+      this.agentThread = new AgentThread();
+      this.pooled = null;
+      agentThread.setName("Agent '" + this.agent + "' thread");
+    }
 
     this.agent.getProperties().setProvider(SoarProperties.IS_RUNNING, agentRunningProvider);
 
@@ -193,7 +251,7 @@ public void onEvent(SoarEvent event) {
                 // an exception to break us out of the agent run loop.
                 // TODO: It may be nice to have a more official way of doing this
                 // from the RunLoopEvent.
-                if (Thread.currentThread().isInterrupted()) {
+                if (Thread.currentThread().isInterrupted() || (pooled != null && pooled.detached)) {
                   throw new InterruptAgentException();
                 }
                 Runnable runnable = commands.poll();
@@ -233,7 +291,7 @@ public ThreadedAgent initialize() {
    */
   public ThreadedAgent initialize(final CompletionHandler<Void> done) {
     // Only start the agent thread once
-    if (!initialized.getAndSet(true)) {
+    if (!initialized.getAndSet(true) && agentThread != null) {
       this.agentThread.start();
     }
 
@@ -259,9 +317,13 @@ public Void call() throws Exception {
    */
   public void detach() {
     try {
-      agentThread.interrupt();
       try {
-        agentThread.join();
+        if (pooled != null) {
+          pooled.detach();
+        } else {
+          agentThread.interrupt();
+          agentThread.join();
+        }
       } catch (InterruptedException e) {
         logger.error("Interrupted while waiting for agent thread to exit", e);
         Thread.currentThread().interrupt();
@@ -293,9 +355,31 @@ public void dispose() {
    * @return true if the current thread is the agent thread
    */
   public boolean isAgentThread() {
+    if (pooled != null) {
+      return Thread.currentThread().equals(pooled.owner);
+    }
     return Thread.currentThread().equals(agentThread);
   }
 
+  /**
+   * Returns the CPU time used to run this agent. If the agent has its own thread, this is the CPU
+   * time of that thread. If the agent runs on an {@link AgentScheduler}, this is the CPU time the
+   * carrier threads spent running this agent.
+   *
+   * <p>This method may be called from any thread.
+   *
+   * @return CPU time in nanoseconds, or -1 if CPU time measurement is not supported
+   */
+  public long getCpuTime() {
+    if (!threads.isThreadCpuTimeSupported()) {
+      return -1;
+    }
+    if (pooled != null) {
+      return pooled.cpuTime.get();
+    }
+    return threads.getThreadCpuTime(agentThread.getId());
+  }
+
   /** @return the agent owned by this proxy */
   public Agent getAgent() {
     return agent;
@@ -334,6 +418,7 @@ public void runFor(final long n, final RunType runType) {
     if (agentRunning.getAndSet(true)) {
       return;
     }
+    stopRequested = false;
 
     agent.getProperties().firePropertyChanged(SoarProperties.IS_RUNNING, true, false);
 
@@ -343,12 +428,14 @@ public void runFor(final long n, final RunType runType) {
           @Override
           public Void call() {
             getEvents().fireEvent(new StartEvent(agent));
+            if (pooled != null && (runType == RunType.DECISIONS || runType == RunType.FOREVER)) {
+              new RunSlice(runType == RunType.FOREVER ? -1 : n).run();
+              return null;
+            }
             try {
               agent.runFor(n, runType);
             } finally {
-              agentRunning.set(false);
-              agent.getProperties().firePropertyChanged(SoarProperties.IS_RUNNING, false, true);
-              getEvents().fireEvent(new StopEvent(agent));
+              finishRun();
             }
             return null;
           }
@@ -356,6 +443,12 @@ public Void call() {
         null);
   }
 
+  private void finishRun() {
+    agentRunning.set(false);
+    agent.getProperties().firePropertyChanged(SoarProperties.IS_RUNNING, false, true);
+    getEvents().fireEvent(new StopEvent(agent));
+  }
+
   /**
    * Start the agent running. The agent will run until {@link #stop()} is called or it halts for
    * some reason. When the agent starts running (at some point in the future), a {@link StartEvent}
@@ -370,6 +463,7 @@ public void runForever() {
    * StopEvent} event will be fired.
    */
   public void stop() {
+    stopRequested = true;
     executeInternal(
         new Runnable() {
           public void run() {
@@ -385,7 +479,9 @@ public String getName() {
 
   public void setName(String name) {
     agent.setName(name);
-    agentThread.setName("Agent '" + this.agent + "' thread");
+    if (agentThread != null) {
+      agentThread.setName("Agent '" + this.agent + "' thread");
+    }
   }
 
   public SoarCommandInterpreter getInterpreter() {
@@ -556,6 +652,9 @@ public void loadReteAndWait(Object rete) throws SoarException {
   private void executeInternal(Runnable runnable) {
     if (!isAgentThread()) {
       commands.add(runnable);
+      if (pooled != null) {
+        pooled.schedule();
+      }
     } else {
       runnable.run();
     }
@@ -730,6 +829,58 @@ BlockingQueue<Runnable> getCommandQueue() {
     return commands;
   }
 
+  /**
+   * Called by the {@link WaitManager} at the end of a decision cycle to suspend the agent without
+   * blocking its thread. This is only possible if the agent runs on an {@link AgentScheduler} and
+   * is running by decisions. The current run is stopped and resumed when {@link
+   * WaitManager#isDoneWaiting()} becomes true.
+   *
+   * @param timeout the wait timeout in milliseconds
+   * @return true if the agent will be parked, false if the wait manager must block instead
+   */
+  boolean park(long timeout) {
+    if (activeSlice == null || agent.getReasonForStop() != null) {
+      return false;
+    }
+    parkRequested = true;
+    agent.stop();
+    if (timeout != Long.MAX_VALUE) {
+      // Nudge the agent when the wait times out so it rechecks its wait state
+      pooled.scheduler.schedule(() -> executeInternal(() -> {}), timeout, TimeUnit.MILLISECONDS);
+    }
+    return true;
+  }
+
+  /**
+   * @return true if the agent runs on an {@link AgentScheduler} and {@link #stop()} has been called
+   *     since the current run started
+   */
+  boolean isStopRequested() {
+    return pooled != null && stopRequested;
+  }
+
+  /** @return true if the agent is parked in a wait. See {@link #park(long)} */
+  boolean isParked() {
+    return parkedSlice != null;
+  }
+
+  private void resumeIfDoneWaiting() {
+    if (parkedSlice != null && waitManager.isDoneWaiting()) {
+      waitManager.finishWait();
+      final RunSlice slice = parkedSlice;
+      parkedSlice = null;
+      pooled.submit(slice);
+    }
+  }
+
+  private static long currentThreadCpuTime() {
+    return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : 0;
+  }
+
+  private long getDecisionCount() {
+    return agent.getProperties().get(SoarProperties.DECISION_PHASES_COUNT).longValue();
+  }
+
   /* (non-Javadoc)
    * @see org.jsoar.util.adaptables.AbstractAdaptable#getAdapter(java.lang.Class)
    */
@@ -800,6 +951,140 @@ public void run() {
     }
   }
 
+  /**
+   * Runs the agent by decisions, one slice at a time, when it runs on an {@link AgentScheduler}.
+   * After each slice, the slice is queued again behind any pending commands and the agent yields
+   * its carrier thread.
+   */
+  private class RunSlice implements Runnable {
+    /** Decisions left to run, or negative to run forever */
+    private long remaining;
+
+    RunSlice(long decisions) {
+      this.remaining = decisions;
+    }
+
+    @Override
+    public void run() {
+      boolean finished = true;
+      activeSlice = this;
+      sliceRan = true;
+      try {
+        if (stopRequested) {
+          return;
+        }
+        final int sliceSize = pooled.scheduler.getDecisionsPerSlice();
+        final long n = remaining < 0 ? sliceSize : Math.min(remaining, sliceSize);
+        final long startCount = getDecisionCount();
+
+        agent.runFor(n, RunType.DECISIONS);
+
+        if (parkRequested) {
+          parkRequested = false;
+          if (remaining > 0) {
+            remaining = Math.max(0, remaining - (getDecisionCount() - startCount));
+          }
+          finished = false;
+          parkedSlice = this;
+          resumeIfDoneWaiting();
+        } else if (agent.getReasonForStop() == null && !stopRequested) {
+          if (remaining > 0) {
+            remaining -= n;
+          }
+          if (remaining != 0) {
+            finished = false;
+            pooled.submit(this);
+          }
+        }
+      } finally {
+        activeSlice = null;
+        if (finished) {
+          finishRun();
+        }
+      }
+    }
+  }
+
+  /** Scheduling state for an agent that runs on an {@link AgentScheduler} */
+  private class PooledExecution {
+    private final AgentScheduler scheduler;
+    private final AtomicLong cpuTime = new AtomicLong();
+    private volatile Thread owner;
+    private volatile boolean detached;
+    /** True while a drain of the command queue is queued or running. Guarded by this */
+    private boolean scheduled;
+
+    PooledExecution(AgentScheduler scheduler) {
+      this.scheduler = scheduler;
+    }
+
+    void submit(Runnable runnable) {
+      commands.add(runnable);
+      schedule();
+    }
+
+    synchronized void schedule() {
+      if (scheduled || detached) {
+        return;
+      }
+      scheduled = true;
+      try {
+        scheduler.execute(this::drain);
+      } catch (RejectedExecutionException e) {
+        logger.error("Agent scheduler has been shut down", e);
+        scheduled = false;
+      }
+    }
+
+    /** Run queued commands on a carrier thread until the queue is empty or a slice has run */
+    private void drain() {
+      owner = Thread.currentThread();
+      final long start = currentThreadCpuTime();
+      try {
+        sliceRan = false;
+        Runnable command;
+        while (!detached && !sliceRan && (command = commands.poll()) != null) {
+          try {
+            command.run();
+          } catch (InterruptAgentException e) {
+            break;
+          } catch (RuntimeException e) {
+            processUncaughtException(e);
+          }
+          resumeIfDoneWaiting();
+        }
+      } finally {
+        cpuTime.addAndGet(currentThreadCpuTime() - start);
+        owner = null;
+        synchronized (this) {
+          scheduled = false;
+          notifyAll();
+        }
+      }
+      if (!commands.isEmpty()) {
+        schedule();
+      }
+    }
+
+    /** Stop scheduling the agent and wait for any running slice or command to exit */
+    void detach() throws InterruptedException {
+      synchronized (this) {
+        detached = true;
+        stopRequested = true;
+        // Wake up a wait that couldn't be parked
+        commands.add(() -> {});
+        while (scheduled && !Thread.currentThread().equals(owner)) {
+          wait();
+        }
+      }
+      // A queued or parked run will never finish now
+      parkedSlice = null;
+      if (agentRunning.get()) {
+        finishRun();
+      }
+    }
+  }
+
   private static class InterruptAgentException extends RuntimeException {
     private static final long serialVersionUID = 3075897216751716278L;
   }
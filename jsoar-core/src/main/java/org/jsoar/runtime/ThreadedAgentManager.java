@@ -27,6 +27,7 @@ enum ThreadedAgentManager {
 
   private final Map<Agent, ThreadedAgent> agents = new MapMaker().weakKeys().makeMap();
   private final SoarEventManager events = new SoarEventManager();
+  private volatile AgentScheduler scheduler;
 
   /**
    * Creates a ThreadedAgent. Automatically initializes it. Returns when complete.
@@ -74,7 +75,7 @@ public ThreadedAgent attach(Agent agent) {
     synchronized (agents) {
       ThreadedAgent ta = agents.get(agent);
       if (ta == null) {
-        ta = new ThreadedAgent(agent);
+        ta = new ThreadedAgent(agent, scheduler);
         agents.put(agent, ta);
         events.fireEvent(new ThreadedAgentAttachedEvent(ta));
       }
@@ -92,6 +93,16 @@ public void detach(ThreadedAgent agent) {
     }
   }
 
+  /** @return the scheduler for new agents, or {@code null} if each agent gets its own thread */
+  public AgentScheduler getScheduler() {
+    return scheduler;
+  }
+
+  /** @param scheduler the scheduler for new agents, or {@code null} */
+  public void setScheduler(AgentScheduler scheduler) {
+    this.scheduler = scheduler;
+  }
+
   /** @return the events */
   public SoarEventManager getEventManager() {
     return events;
@@ -35,6 +35,7 @@ public class WaitManager {
   private SoarEventListener afterInputListener;
   private SoarEventListener afterDecisionCycleListener;
   private WaitInfo requestedWaitInfo = WaitInfo.NOT_WAITING;
+  private long waitStart;
   private final AtomicReference<WaitInfo> waitInfo = new AtomicReference<>(WaitInfo.NOT_WAITING);
   private final PropertyProvider<WaitInfo> waitInfoProp =
       new PropertyProvider<WaitInfo>() {
@@ -163,8 +164,15 @@ private void doWait() {
 
     // Update the wait property
     waitInfo.set(requestedWaitInfo);
+    waitStart = System.currentTimeMillis();
 
-    final long start = System.currentTimeMillis();
+    // On an AgentScheduler, give up the carrier thread rather than blocking it. The agent
+    // calls finishWait() when it's resumed.
+    if (agent.park(requestedWaitInfo.timeout)) {
+      return;
+    }
+
+    final long start = waitStart;
     final BlockingQueue<Runnable> commands = agent.getCommandQueue();
     boolean done = isDoneWaiting();
     while (!done) {
@@ -188,6 +196,11 @@ private void doWait() {
         break;
       }
     }
+    finishWait();
+  }
+
+  /** Clear the current wait */
+  void finishWait() {
     requestedWaitInfo = WaitInfo.NOT_WAITING; // clear the wait
 
     inputReady = false;
@@ -203,9 +216,17 @@ private synchronized void setNewInputAvailable() {
     }
   }
 
-  private synchronized boolean isDoneWaiting() {
+  /** @return true if the current wait is over */
+  synchronized boolean isDoneWaiting() {
+    if (agent.isParked()) {
+      // The agent stopped itself to park, so its reason for stopping doesn't count here
+      return inputReady
+          || agent.isStopRequested()
+          || System.currentTimeMillis() - waitStart >= requestedWaitInfo.timeout;
+    }
     return agent.getAgent().getReasonForStop() != null
         || inputReady
+        || agent.isStopRequested()
         || Thread.currentThread().isInterrupted();
   }
 
@@ -56,6 +56,7 @@ public class DefaultInterpreter implements SoarCommandInterpreter {
   private final SourceCommand sourceCommand;
   private final LoadCommand loadCommand;
   private final SaveCommand saveCommand;
+  private final SpCommand spCommand;
   private SoarExceptionsManager exceptionsManager;
 
   public DefaultInterpreter(Agent agent) {
@@ -73,10 +74,8 @@ public DefaultInterpreter(Agent agent) {
 
     // this interpreter-specific handler depends on SpCommand, which is created as part of the
     // standard commands
-    addCommand(
-        "load",
-        this.loadCommand =
-            new LoadCommand(sourceCommand, (SpCommand) this.commands.get("sp"), agent));
+    this.spCommand = (SpCommand) this.commands.get("sp");
+    addCommand("load", this.loadCommand = new LoadCommand(sourceCommand, spCommand, agent));
   }
 
   /* (non-Javadoc)
@@ -234,12 +233,17 @@ private String eval(Reader reader) throws IOException, SoarException {
 
       parsedCommand = parser.parseCommand(pbReader);
     }
+    spCommand.flush();
     return lastResult;
   }
 
   private String executeParsedCommand(ParsedCommand parsedCommand) throws SoarException {
     final ByRef<ParsedCommand> parsedCommandRef = new ByRef<ParsedCommand>(parsedCommand);
     final SoarCommand command = getSoarCommand(parsedCommandRef);
+    if (command != spCommand) {
+      // anything other than another production may depend on the productions loaded so far
+      spCommand.flush();
+    }
     final SoarCommandContext commandContext =
         new DefaultSoarCommandContext(parsedCommandRef.value.getLocation());
     return command.execute(
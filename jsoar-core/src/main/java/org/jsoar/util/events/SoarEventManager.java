@@ -5,21 +5,32 @@
  */
 package org.jsoar.util.events;
 
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
 
-/** @author ray */
+/**
+ * Dispatches events to listeners registered by event class.
+ *
+ * <p>Listeners are stored in immutable arrays, one per event class, that are rebuilt whenever a
+ * listener is added or removed. Firing an event only reads these arrays, so it takes no locks and
+ * allocates nothing, and firing an event with no listeners is nearly free. Since events are fired
+ * far more often than listeners change, this is a good trade. Callers that would have to allocate
+ * an event just to fire it can check {@link #hasListeners(Class)} first.
+ *
+ * @author ray
+ */
 public class SoarEventManager {
-  /** List of listeners for events of any type */
-  private List<SoarEventListener> listenersForAny = new CopyOnWriteArrayList<SoarEventListener>();
+  private static final SoarEventListener[] NO_LISTENERS = new SoarEventListener[0];
 
-  /** Listeners indexed by event type */
-  private Map<Class<? extends SoarEvent>, List<SoarEventListener>> listeners =
-      Collections.synchronizedMap(
-          new HashMap<Class<? extends SoarEvent>, List<SoarEventListener>>());
+  /** Listeners for events of any type */
+  private volatile SoarEventListener[] listenersForAny = NO_LISTENERS;
+
+  /**
+   * Listeners indexed by event type. The map is replaced, never modified, when listeners change.
+   * Writers synchronize on {@code this}.
+   */
+  private volatile Map<Class<? extends SoarEvent>, SoarEventListener[]> listeners = new HashMap<>();
 
   public SoarEventManager() {}
 
@@ -39,7 +50,15 @@ public <T extends SoarEvent> void addListener(Class<T> klass, SoarEventListener
     if (listener == null) {
       throw new NullPointerException("listener");
     }
-    getListenersForEventType(klass).add(listener);
+    synchronized (this) {
+      if (isAnyEventType(klass)) {
+        listenersForAny = added(listenersForAny, listener);
+      } else {
+        final Map<Class<? extends SoarEvent>, SoarEventListener[]> copy = new HashMap<>(listeners);
+        copy.put(klass, added(copy.getOrDefault(klass, NO_LISTENERS), listener));
+        listeners = copy;
+      }
+    }
   }
 
   /**
@@ -53,18 +72,49 @@ public <T extends SoarEvent> void addListener(Class<T> klass, SoarEventListener
    * @param listener The listener to remove
    */
   public <T extends SoarEvent> void removeListener(Class<T> klass, SoarEventListener listener) {
-    if (klass == null) {
-      listenersForAny.remove(listener);
-      synchronized (listeners) {
-        for (List<SoarEventListener> list : listeners.values()) {
-          list.remove(listener);
+    synchronized (this) {
+      if (klass == null) {
+        listenersForAny = removed(listenersForAny, listener);
+        final Map<Class<? extends SoarEvent>, SoarEventListener[]> copy = new HashMap<>();
+        for (Map.Entry<Class<? extends SoarEvent>, SoarEventListener[]> e : listeners.entrySet()) {
+          final SoarEventListener[] remaining = removed(e.getValue(), listener);
+          if (remaining.length != 0) {
+            copy.put(e.getKey(), remaining);
+          }
+        }
+        listeners = copy;
+      } else if (isAnyEventType(klass)) {
+        listenersForAny = removed(listenersForAny, listener);
+      } else {
+        final SoarEventListener[] current = listeners.get(klass);
+        if (current != null) {
+          final Map<Class<? extends SoarEvent>, SoarEventListener[]> copy =
+              new HashMap<>(listeners);
+          final SoarEventListener[] remaining = removed(current, listener);
+          if (remaining.length != 0) {
+            copy.put(klass, remaining);
+          } else {
+            copy.remove(klass);
+          }
+          listeners = copy;
         }
       }
-    } else {
-      getListenersForEventType(klass).remove(listener);
     }
   }
 
+  /**
+   * Test whether firing an event of the given type would reach any listener. Use this to avoid
+   * creating event objects that nobody will see.
+   *
+   * <p>It is safe to call this method from any thread.
+   *
+   * @param eventType the event type
+   * @return true if there are listeners for the event type or for all events
+   */
+  public boolean hasListeners(Class<? extends SoarEvent> eventType) {
+    return listenersForAny.length != 0 || listeners.containsKey(eventType);
+  }
+
   /**
    * Fire the given event to all listeners.
    *
@@ -96,25 +146,41 @@ public <T extends SoarEvent> void fireEvent(T event, Class<? extends T> eventTyp
       throw new NullPointerException("event");
     }
 
-    for (SoarEventListener l : getListenersForEventType(eventType)) {
-      l.onEvent(event);
+    final SoarEventListener[] forType = listeners.get(eventType);
+    if (forType != null) {
+      for (SoarEventListener l : forType) {
+        l.onEvent(event);
+      }
     }
     for (SoarEventListener l : listenersForAny) {
       l.onEvent(event);
     }
   }
 
-  private <T extends SoarEvent> List<SoarEventListener> getListenersForEventType(Class<T> klass) {
-    if (klass == null || klass.equals(SoarEvent.class)) {
-      return listenersForAny;
-    }
-    synchronized (listeners) {
-      List<SoarEventListener> list = listeners.get(klass);
-      if (list == null) {
-        list = new CopyOnWriteArrayList<SoarEventListener>();
-        listeners.put(klass, list);
+  private static boolean isAnyEventType(Class<?> klass) {
+    return klass == null || klass.equals(SoarEvent.class);
+  }
+
+  private static SoarEventListener[] added(SoarEventListener[] array, SoarEventListener listener) {
+    final SoarEventListener[] result = Arrays.copyOf(array, array.length + 1);
+    result[array.length] = listener;
+    return result;
+  }
+
+  /** Remove the first occurrence of the listener, if any */
+  private static SoarEventListener[] removed(
+      SoarEventListener[] array, SoarEventListener listener) {
+    for (int i = 0; i < array.length; ++i) {
+      if (array[i].equals(listener)) {
+        if (array.length == 1) {
+          return NO_LISTENERS;
+        }
+        final SoarEventListener[] result = new SoarEventListener[array.length - 1];
+        System.arraycopy(array, 0, result, 0, i);
+        System.arraycopy(array, i + 1, result, i, array.length - i - 1);
+        return result;
       }
-      return list;
     }
+    return array;
   }
 }
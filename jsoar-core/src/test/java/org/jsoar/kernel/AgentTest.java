@@ -13,10 +13,14 @@
 import static org.mockito.Mockito.verify;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.io.Writer;
 import java.util.Arrays;
 import java.util.List;
+import org.jsoar.kernel.learning.rl.ReinforcementLearningParams;
+import org.jsoar.kernel.learning.rl.ReinforcementLearningParams.Learning;
 import org.jsoar.kernel.symbols.SymbolFactory;
+import org.jsoar.kernel.tracing.Printer;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -87,4 +91,97 @@ public void testPrintStackTrace() throws IOException {
 
     verify(outputWriter, atLeast(1)).write(any(char[].class), anyInt(), anyInt());
   }
+
+  @Test
+  public void testForkRunsLikeTheOriginal() throws Exception {
+    agent
+        .getInterpreter()
+        .source(FunctionalTests.class.getResource("FunctionalTests_testTowersOfHanoi.soar"));
+
+    final Agent fork = agent.fork();
+    try {
+      assertEquals(
+          agent.getProductions().getProductionCount(), fork.getProductions().getProductionCount());
+      for (Production p : agent.getProductions().getProductions(null)) {
+        assertNotNull(fork.getProductions().getProduction(p.getName()));
+      }
+
+      agent.runForever();
+      fork.runForever();
+      assertEquals(
+          agent.getProperties().get(SoarProperties.D_CYCLE_COUNT),
+          fork.getProperties().get(SoarProperties.D_CYCLE_COUNT));
+    } finally {
+      fork.dispose();
+    }
+  }
+
+  @Test
+  public void testForkHasProductionsAddedSinceTheLastFork() throws Exception {
+    agent.getProductions().loadProduction("first (state <s> ^superstate nil) --> (<s> ^a 1)");
+    final Agent before = agent.fork();
+    agent.getProductions().loadProduction("second (state <s> ^superstate nil) --> (<s> ^b 1)");
+    final Agent after = agent.fork();
+    try {
+      assertNotNull(before.getProductions().getProduction("first"));
+      assertNull(before.getProductions().getProduction("second"));
+      assertNotNull(after.getProductions().getProduction("first"));
+      assertNotNull(after.getProductions().getProduction("second"));
+    } finally {
+      before.dispose();
+      after.dispose();
+    }
+  }
+
+  private static String print(Production p) {
+    final StringWriter out = new StringWriter();
+    p.print(new Printer(out), false);
+    return out.toString();
+  }
+
+  @Test
+  public void testForkHasValuesLearnedByReinforcementLearning() throws Exception {
+    agent.getProperties().set(ReinforcementLearningParams.LEARNING, Learning.on);
+    agent
+        .getInterpreter()
+        .eval(
+            "sp {propose*init (state <s> ^superstate nil -^count) --> (<s> ^operator <o> + =) (<o> ^name init)}\n"
+                + "sp {apply*init (state <s> ^operator.name init) --> (<s> ^count 0)}\n"
+                + "sp {propose*go (state <s> ^count <c>) --> (<s> ^operator <o> +) (<o> ^name go ^count <c>)}\n"
+                + "sp {apply*go (state <s> ^operator <o>) (<o> ^name go ^count <c>)"
+                + " --> (<s> ^count <c> -) (<s> ^count (+ <c> 1))}\n"
+                + "sp {rl*go (state <s> ^operator <o> +) (<o> ^name go) --> (<s> ^operator <o> = 0)}\n"
+                + "sp {reward (state <s> ^reward-link <r>) --> (<r> ^reward.value 1)}");
+    final String initial = print(agent.getProductions().getProduction("rl*go"));
+    final Agent before = agent.fork();
+
+    agent.runFor(5, RunType.DECISIONS);
+    final String learned = print(agent.getProductions().getProduction("rl*go"));
+    assertNotEquals(initial, learned);
+
+    final Agent after = agent.fork();
+    try {
+      assertEquals(initial, print(before.getProductions().getProduction("rl*go")));
+      assertEquals(learned, print(after.getProductions().getProduction("rl*go")));
+    } finally {
+      before.dispose();
+      after.dispose();
+    }
+  }
+
+  @Test
+  public void testForkHasPropertiesChangedSinceTheLastFork() throws Exception {
+    agent.getProductions().loadProduction("first (state <s> ^superstate nil) --> (<s> ^a 1)");
+    agent.fork().dispose();
+    agent.getProperties().set(SoarProperties.MAX_ELABORATIONS, 17);
+    final List<Agent> forks = agent.fork(2);
+    try {
+      for (Agent fork : forks) {
+        assertEquals(17, fork.getProperties().get(SoarProperties.MAX_ELABORATIONS).intValue());
+        assertNotNull(fork.getProductions().getProduction("first"));
+      }
+    } finally {
+      forks.forEach(Agent::dispose);
+    }
+  }
 }
@@ -8,8 +8,14 @@
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.mock;
 
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import org.jsoar.JSoarTest;
 import org.jsoar.kernel.parser.ParserException;
+import org.jsoar.kernel.rete.PartialMatches;
 import org.jsoar.kernel.rhs.ReordererException;
 import org.junit.After;
 import org.junit.Before;
@@ -68,4 +74,92 @@ public void testAddProductionThrowsExceptionIfDuplicateProduction()
     // Then exception should be thrown
     pm.addProduction(p, false);
   }
+
+  private static List<String> matches(Agent a) {
+    final List<String> result = new ArrayList<>();
+    for (MatchSetEntry e : a.getMatchSet().getEntries()) {
+      result.add(e.getType() + " " + e.getProduction().getName());
+    }
+    return result;
+  }
+
+  @Test
+  public void testExciseProductionsMatchesExcisingOneAtATime() throws Exception {
+    final Agent single = new Agent();
+    try {
+      for (Agent a : new Agent[] {agent, single}) {
+        a.getInterpreter()
+            .source(
+                FunctionalTests.class.getResource("FunctionalTests_testWaterJugLookAhead.soar"));
+        a.runFor(5, RunType.DECISIONS);
+      }
+
+      // Excise every other production, some of which have matched by now
+      final List<Production> bulk = new ArrayList<>();
+      final List<Production> prods = pm.getProductions(null);
+      for (int i = 0; i < prods.size(); i += 2) {
+        bulk.add(prods.get(i));
+        final Production p = single.getProductions().getProduction(prods.get(i).getName());
+        single.getProductions().exciseProduction(p, false);
+      }
+      assertEquals(bulk.size(), pm.exciseProductions(bulk, false));
+
+      assertEquals(
+          single.getProductions().getProductionCount(),
+          agent.getProductions().getProductionCount());
+      assertEquals(matches(single), matches(agent));
+
+      single.runFor(20, RunType.DECISIONS);
+      agent.runFor(20, RunType.DECISIONS);
+      assertEquals(
+          single.getProperties().get(SoarProperties.D_CYCLE_COUNT),
+          agent.getProperties().get(SoarProperties.D_CYCLE_COUNT));
+    } finally {
+      single.dispose();
+    }
+  }
+
+  @Test
+  public void testExciseProductionsIgnoresProductionsThatAreNotLoaded() throws Exception {
+    final Production p = pm.loadProduction("kept (state <s> ^superstate nil) --> (<s> ^foo bar)");
+    final Production q = pm.loadProduction("gone (state <s> ^superstate nil) --> (<s> ^foo baz)");
+    pm.exciseProduction(q, false);
+
+    assertEquals(1, pm.exciseProductions(Arrays.asList(p, q, p), false));
+    assertEquals(0, pm.getProductionCount());
+  }
+
+  @Test
+  public void testExciseAllProductionsThenReload() throws Exception {
+    final URL url = FunctionalTests.class.getResource("FunctionalTests_testTowersOfHanoi.soar");
+    agent.getInterpreter().source(url);
+    agent.runFor(10, RunType.DECISIONS);
+
+    pm.exciseProductions(pm.getProductions(null), false);
+    assertEquals(0, pm.getProductionCount());
+
+    agent.initialize();
+    agent.getInterpreter().source(url);
+    agent.runForever();
+    assertTrue(agent.getProperties().get(SoarProperties.D_CYCLE_COUNT) > 10);
+  }
+
+  @Test
+  public void testGetMatchCounts() throws Exception {
+    pm.loadProduction("make (state <s> ^superstate nil) --> (<s> ^foo 1 ^foo 2 ^foo 3)");
+    final Production three = pm.loadProduction("three (state <s> ^foo <x>) --> (write <x>)");
+    final Production none = pm.loadProduction("none (state <s> ^bar <x>) --> (write <x>)");
+    agent.runFor(1, RunType.DECISIONS);
+
+    assertEquals(3, three.getMatchCount());
+    assertEquals(0, none.getMatchCount());
+
+    final List<PartialMatches.Entry> entries = three.getPartialMatches().getEntries();
+    assertEquals(3, entries.get(entries.size() - 1).matches);
+
+    final Map<Production, Integer> counts = pm.getMatchCounts();
+    assertEquals(3, counts.size());
+    assertEquals(Integer.valueOf(3), counts.get(three));
+    assertEquals(Integer.valueOf(0), counts.get(none));
+  }
 }
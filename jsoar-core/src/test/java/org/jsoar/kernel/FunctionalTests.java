@@ -8,6 +8,7 @@
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import org.jsoar.kernel.symbols.SymbolTableType;
 import org.junit.Test;
 
 /** @author ray */
@@ -32,6 +33,14 @@ public void testTowersOfHanoi() throws Exception {
     runTest("testTowersOfHanoi", 2048);
   }
 
+  @Test
+  public void testTowersOfHanoiCountedSymbols() throws Exception {
+    agent.dispose();
+    agent = new Agent(null, SymbolTableType.COUNTED, true);
+    installRHS(agent);
+    runTest("testTowersOfHanoi", 2048);
+  }
+
   @Test
   public void testTowersOfHanoiFast() throws Exception {
     runTest("testTowersOfHanoiFast", 2047);
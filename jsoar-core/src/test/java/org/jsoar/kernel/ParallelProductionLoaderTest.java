@@ -0,0 +1,181 @@
+package org.jsoar.kernel;
+
+import static org.junit.Assert.*;
+
+import java.io.StringWriter;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import org.jsoar.kernel.tracing.Printer;
+import org.jsoar.util.DefaultSourceLocation;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelProductionLoaderTest {
+  private Agent serial;
+  private Agent parallel;
+  private final StringWriter serialOutput = new StringWriter();
+  private final StringWriter parallelOutput = new StringWriter();
+
+  @Before
+  public void setUp() throws Exception {
+    serial = new Agent();
+    serial.getPrinter().addPersistentWriter(serialOutput);
+    parallel = new Agent();
+    parallel.getPrinter().addPersistentWriter(parallelOutput);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    serial.dispose();
+    parallel.dispose();
+  }
+
+  private URL resource(String testName) {
+    final URL url = getClass().getResource(getClass().getSimpleName() + "_" + testName + ".soar");
+    assertNotNull(url);
+    return url;
+  }
+
+  private void load(URL url) throws Exception {
+    serial.getInterpreter().eval("load file " + url.toExternalForm());
+    parallel.getInterpreter().eval("load file --parallel " + url.toExternalForm());
+  }
+
+  private static String print(Production p) {
+    final StringWriter out = new StringWriter();
+    p.print(new Printer(out), false);
+    return out.toString();
+  }
+
+  private void assertSameProductions() {
+    final List<Production> expected = serial.getProductions().getProductions(null);
+    final List<Production> actual = parallel.getProductions().getProductions(null);
+    assertEquals(names(expected), names(actual));
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).getType(), actual.get(i).getType());
+    }
+  }
+
+  private static List<String> names(List<Production> productions) {
+    final List<String> result = new ArrayList<>();
+    for (Production p : productions) {
+      result.add(p.getName());
+    }
+    return result;
+  }
+
+  @Test
+  public void testLoadsTheSameProductionsAsSerialLoading() throws Exception {
+    load(FunctionalTests.class.getResource("FunctionalTests_testTowersOfHanoi.soar"));
+
+    assertSameProductions();
+    assertEquals(serialOutput.toString(), parallelOutput.toString());
+
+    serial.runForever();
+    parallel.runForever();
+    assertEquals(
+        serial.getProperties().get(SoarProperties.D_CYCLE_COUNT),
+        parallel.getProperties().get(SoarProperties.D_CYCLE_COUNT));
+  }
+
+  @Test
+  public void testReordersTheSameWayEveryTime() throws Exception {
+    final URL url = FunctionalTests.class.getResource("FunctionalTests_testWaterJugLookAhead.soar");
+    final Agent again = new Agent();
+    try {
+      parallel.getInterpreter().eval("load file --parallel " + url.toExternalForm());
+      again.getInterpreter().eval("load file --parallel " + url.toExternalForm());
+
+      final List<Production> expected = parallel.getProductions().getProductions(null);
+      final List<Production> actual = again.getProductions().getProductions(null);
+      assertEquals(names(expected), names(actual));
+      for (int i = 0; i < expected.size(); i++) {
+        assertEquals(print(expected.get(i)), print(actual.get(i)));
+      }
+    } finally {
+      again.dispose();
+    }
+  }
+
+  @Test
+  public void testReordersConditionsLikeSerialLoading() throws Exception {
+    load(FunctionalTests.class.getResource("FunctionalTests_testWaterJugLookAhead.soar"));
+    load(FunctionalTests.class.getResource("FunctionalTests_testBlocksWorldLookAhead.soar"));
+
+    final List<Production> expected = serial.getProductions().getProductions(null);
+    final List<Production> actual = parallel.getProductions().getProductions(null);
+    assertEquals(names(expected), names(actual));
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(print(expected.get(i)), print(actual.get(i)));
+    }
+  }
+
+  @Test
+  public void testLoadsChunksAndJustifications() throws Exception {
+    load(FunctionalTests.class.getResource("ChunkingTests_testChunks.soar"));
+
+    assertSameProductions();
+    assertEquals(serialOutput.toString(), parallelOutput.toString());
+  }
+
+  @Test
+  public void testReportsErrorsLikeSerialLoading() throws Exception {
+    load(resource("testReportsErrorsLikeSerialLoading"));
+
+    assertSameProductions();
+    assertNull(parallel.getProductions().getProduction("broken"));
+    assertNotNull(parallel.getProductions().getProduction("last"));
+    assertEquals(serialOutput.toString(), parallelOutput.toString());
+    assertEquals(
+        serial.getInterpreter().getExceptionsManager().getExceptions().size(),
+        parallel.getInterpreter().getExceptionsManager().getExceptions().size());
+  }
+
+  @Test
+  public void testAddsProductionsBeforeTheNextCommand() throws Exception {
+    parallel
+        .getInterpreter()
+        .eval(
+            "load file --parallel "
+                + resource("testAddsProductionsBeforeTheNextCommand").toExternalForm());
+
+    assertNull(parallel.getProductions().getProduction("excised"));
+    assertNotNull(parallel.getProductions().getProduction("kept"));
+  }
+
+  @Test
+  public void testFlushAddsProductionsInSubmissionOrder() throws Exception {
+    final ParallelProductionLoader loader = new ParallelProductionLoader(parallel, 4);
+    final List<String> loaded = new ArrayList<>();
+    try {
+      for (int i = 0; i < 100; i++) {
+        loader.submit(
+            "p" + i + " (state <s> ^superstate nil) --> (<s> ^value " + i + ")",
+            DefaultSourceLocation.UNKNOWN,
+            new ParallelProductionLoader.Callback() {
+              @Override
+              public void loaded(Production p) {
+                loaded.add(p.getName());
+              }
+
+              @Override
+              public void failed(Exception e) {
+                fail(e.getMessage());
+              }
+            });
+      }
+      loader.flush();
+      assertEquals(0, loader.getPendingCount());
+    } finally {
+      loader.shutdown();
+    }
+
+    assertEquals(100, loaded.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals("p" + i, loaded.get(i));
+    }
+    assertEquals(names(parallel.getProductions().getProductions(null)), loaded);
+  }
+}
@@ -0,0 +1,181 @@
+package org.jsoar.kernel;
+
+import static org.junit.Assert.*;
+
+import com.github.cliftonlabs.json_simple.JsonArray;
+import com.github.cliftonlabs.json_simple.JsonObject;
+import com.github.cliftonlabs.json_simple.Jsoner;
+import java.io.StringWriter;
+import java.util.Comparator;
+import java.util.List;
+import org.jsoar.util.adaptables.Adaptables;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProductionProfilerTest {
+  private Agent agent;
+  private ProductionProfiler profiler;
+
+  @Before
+  public void setUp() throws Exception {
+    agent = new Agent();
+    agent
+        .getInterpreter()
+        .eval(
+            "load file "
+                + FunctionalTests.class
+                    .getResource("FunctionalTests_testTowersOfHanoi.soar")
+                    .toExternalForm());
+    profiler = Adaptables.adapt(agent, ProductionProfiler.class);
+    assertNotNull(profiler);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    agent.dispose();
+  }
+
+  private ProductionProfile profile(String name) {
+    for (ProductionProfile p : profiler.getProfiles()) {
+      if (p.getProduction().getName().equals(name)) {
+        return p;
+      }
+    }
+    fail("No profile for " + name);
+    return null;
+  }
+
+  @Test
+  public void testCollectsNothingWhenDisabled() throws Exception {
+    assertFalse(profiler.isEnabled());
+    agent.runFor(10, RunType.DECISIONS);
+
+    for (ProductionProfile p : profiler.getProfiles()) {
+      assertEquals(0, p.getMatchNanos());
+      assertEquals(0, p.getInstantiations());
+      assertEquals(0, p.getInstantiationNanos());
+    }
+  }
+
+  @Test
+  public void testAttributesCostToFiringProductions() throws Exception {
+    profiler.setEnabled(true);
+    agent.runFor(20, RunType.DECISIONS);
+
+    long fired = 0;
+    for (ProductionProfile p : profiler.getProfiles()) {
+      if (p.getInstantiations() > 0) {
+        assertTrue(p.toString(), p.getInstantiationNanos() > 0);
+        assertTrue(p.toString(), p.getMatchNanos() > 0);
+      }
+      assertEquals(p.getMatchNanos() + p.getInstantiationNanos(), p.getTotalNanos());
+      assertEquals(
+          (long) p.getTokens() * ProductionProfile.ESTIMATED_TOKEN_BYTES,
+          p.getEstimatedTokenBytes());
+      fired += p.getInstantiations();
+    }
+    assertTrue(fired > 0);
+    assertTrue(profile("towers-of-hanoi*propose*initialize").getInstantiations() > 0);
+  }
+
+  @Test
+  public void testSampledMatchTimeIsStillAttributed() throws Exception {
+    profiler.setSampleInterval(4);
+    profiler.setEnabled(true);
+    agent.runFor(20, RunType.DECISIONS);
+
+    long match = 0;
+    for (ProductionProfile p : profiler.getProfiles()) {
+      match += p.getMatchNanos();
+    }
+    assertTrue(match > 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSampleIntervalMustBePositive() {
+    profiler.setSampleInterval(0);
+  }
+
+  @Test
+  public void testResetForgetsCosts() throws Exception {
+    profiler.setEnabled(true);
+    agent.runFor(10, RunType.DECISIONS);
+    profiler.reset();
+
+    for (ProductionProfile p : profiler.getProfiles()) {
+      assertEquals(0, p.getMatchNanos());
+      assertEquals(0, p.getInstantiations());
+    }
+    assertTrue(profiler.isEnabled());
+  }
+
+  @Test
+  public void testExcisedProductionsAreDropped() throws Exception {
+    profiler.setEnabled(true);
+    agent.runFor(10, RunType.DECISIONS);
+    agent.getInterpreter().eval("production excise towers-of-hanoi*propose*initialize");
+
+    for (ProductionProfile p : profiler.getProfiles()) {
+      assertNotEquals("towers-of-hanoi*propose*initialize", p.getProduction().getName());
+    }
+  }
+
+  @Test
+  public void testTopProfilesAreSorted() throws Exception {
+    profiler.setEnabled(true);
+    agent.runFor(20, RunType.DECISIONS);
+
+    final List<ProductionProfile> top =
+        profiler.getTopProfiles(
+            3, Comparator.comparingLong(ProductionProfile::getTotalNanos).reversed());
+    assertEquals(3, top.size());
+    assertTrue(top.get(0).getTotalNanos() >= top.get(1).getTotalNanos());
+    assertTrue(top.get(1).getTotalNanos() >= top.get(2).getTotalNanos());
+  }
+
+  @Test
+  public void testWritesJson() throws Exception {
+    profiler.setEnabled(true);
+    agent.runFor(10, RunType.DECISIONS);
+
+    final StringWriter out = new StringWriter();
+    profiler.writeJson(out);
+    final JsonObject root = (JsonObject) Jsoner.deserialize(out.toString());
+    assertEquals(agent.getName(), root.get("agent"));
+    final JsonArray productions = (JsonArray) root.get("productions");
+    assertEquals(agent.getProductions().getProductionCount(), productions.size());
+  }
+
+  @Test
+  public void testWritesCollapsedStacks() throws Exception {
+    profiler.setEnabled(true);
+    agent.runFor(10, RunType.DECISIONS);
+
+    final StringWriter out = new StringWriter();
+    profiler.writeCollapsedStacks(out);
+    final String stacks = out.toString();
+    assertTrue(stacks, stacks.contains("fire;towers-of-hanoi*propose*initialize "));
+    for (String line : stacks.split("\n")) {
+      assertTrue(line, line.matches("(match|fire);\\S+ \\d+"));
+    }
+  }
+
+  @Test
+  public void testProductionProfileCommand() throws Exception {
+    final StringWriter out = new StringWriter();
+    agent.getPrinter().addPersistentWriter(out);
+
+    agent.getInterpreter().eval("production profile --enable --sample 2");
+    assertTrue(profiler.isEnabled());
+    assertEquals(2, profiler.getSampleInterval());
+
+    agent.runFor(10, RunType.DECISIONS);
+    agent.getInterpreter().eval("production profile --sort fire 100");
+    assertTrue(out.toString(), out.toString().contains("fire ms"));
+    assertTrue(out.toString(), out.toString().contains("towers-of-hanoi*apply*initialize-toh"));
+
+    agent.getInterpreter().eval("production profile --disable");
+    assertFalse(profiler.isEnabled());
+  }
+}
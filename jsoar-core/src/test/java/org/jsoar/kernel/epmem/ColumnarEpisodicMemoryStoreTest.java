@@ -0,0 +1,186 @@
+package org.jsoar.kernel.epmem;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.jsoar.kernel.symbols.Symbols;
+import org.jsoar.util.ByRef;
+import org.jsoar.util.JdbcTools;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Checks the columnar store against the SQL it replaces by running both side by side. */
+public class ColumnarEpisodicMemoryStoreTest {
+  private Connection connection;
+  private JdbcEpisodicMemoryStore jdbc;
+  private ColumnarEpisodicMemoryStore columnar;
+
+  @Before
+  public void setUp() throws Exception {
+    connection = JdbcTools.connect("org.sqlite.JDBC", "jdbc:sqlite::memory:");
+    final EpisodicMemoryDatabase db = new EpisodicMemoryDatabase("org.sqlite.JDBC", connection);
+    db.structure();
+    db.prepare();
+    jdbc = new JdbcEpisodicMemoryStore(db, false);
+    columnar = new ColumnarEpisodicMemoryStore();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    connection.close();
+  }
+
+  private static List<List<Long>> rows(EpisodicMemoryCursor cursor) throws SQLException {
+    final List<List<Long>> result = new ArrayList<>();
+    try (cursor) {
+      while (cursor.next()) {
+        final List<Long> row = new ArrayList<>();
+        for (int i = 1; i <= cursor.getColumnCount(); i++) {
+          row.add(cursor.getLong(i));
+        }
+        result.add(row);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Stores a few episodes of a small graph in both stores:
+   *
+   * <pre>
+   * root ^a 10 (episodes 1-3), ^a 11 (episode 2), ^b <n1> (episodes 1-2, still current)
+   * <n1> ^c 12 (episode 4 onwards)
+   * </pre>
+   */
+  private void store(EpisodicMemoryStore store) throws SQLException {
+    final long a = store.addSymbolType(Symbols.SYM_CONSTANT_SYMBOL_TYPE);
+    store.addStringSymbol(a, "a");
+    final long b = store.addSymbolType(Symbols.SYM_CONSTANT_SYMBOL_TYPE);
+    store.addStringSymbol(b, "b");
+    final long ten = store.addSymbolType(Symbols.INT_CONSTANT_SYMBOL_TYPE);
+    store.addIntegerSymbol(ten, 10);
+
+    final long w1 = store.addConstantWme(0, a, ten);
+    final long w2 = store.addConstantWme(0, a, ten + 1);
+    final long w3 = store.addConstantWme(1, b, ten + 2);
+    store.addNode(1);
+    final long e1 = store.addIdentifierWme(0, b, 1, Long.MAX_VALUE);
+
+    for (long t = 1; t <= 5; t++) {
+      store.addEpisode(t);
+    }
+    store.addConstantRange(2, 1, 3, w1);
+    store.addConstantPoint(w2, 2);
+    store.addConstantNow(w3, 4);
+    store.addIdentifierRange(2, 1, 2, e1);
+    store.addIdentifierNow(e1, 5);
+    store.updateIdentifierLastEpisode(e1, 2);
+    store.promoteId(1, 'L', 1, 2);
+  }
+
+  @Test
+  public void testLookupsMatchTheDatabase() throws Exception {
+    store(jdbc);
+    store(columnar);
+
+    for (EpisodicMemoryStore store : new EpisodicMemoryStore[] {jdbc, columnar}) {
+      assertEquals(2, store.findStringSymbol("a"));
+      assertEquals(0, store.findStringSymbol("missing"));
+      assertEquals("operator*", store.getStringSymbol(1));
+      assertEquals(Long.valueOf(10), store.getIntegerSymbol(4));
+      assertEquals(Symbols.INT_CONSTANT_SYMBOL_TYPE, store.getSymbolType(4));
+      assertEquals(-1, store.getSymbolType(99));
+      assertEquals(1, store.findLti('L', 1));
+      assertEquals(DefaultEpisodicMemory.EPMEM_NODEID_BAD, store.findLti('L', 2));
+      assertEquals(2, store.findLtiPromotionTime(1));
+      assertEquals(5, store.getMaxEpisode());
+      assertEquals(3, store.getMaxWmeId(false));
+      assertEquals(4, store.nextEpisode(3));
+      assertEquals(DefaultEpisodicMemory.EPMEM_MEMID_NONE, store.previousEpisode(1));
+      assertTrue(store.isValidEpisode(5));
+      assertFalse(store.isValidEpisode(6));
+
+      final ByRef<Long> value = ByRef.create(0L);
+      assertFalse(store.getVariable(3, value));
+      store.setVariable(3, 42);
+      assertTrue(store.getVariable(3, value));
+      assertEquals(Long.valueOf(42), value.value);
+    }
+  }
+
+  @Test
+  public void testGraphMatchQueriesMatchTheDatabase() throws Exception {
+    store(jdbc);
+    store(columnar);
+
+    assertEquals(
+        rows(jdbc.findEdges(false, 0, 2, DefaultEpisodicMemory.EPMEM_NODEID_BAD, 0)),
+        rows(columnar.findEdges(false, 0, 2, DefaultEpisodicMemory.EPMEM_NODEID_BAD, 0)));
+    assertEquals(
+        rows(jdbc.findEdges(false, 0, 2, 5, 0)), rows(columnar.findEdges(false, 0, 2, 5, 0)));
+    assertEquals(
+        rows(jdbc.findEdges(true, 0, 3, DefaultEpisodicMemory.EPMEM_NODEID_BAD, 1)),
+        rows(columnar.findEdges(true, 0, 3, DefaultEpisodicMemory.EPMEM_NODEID_BAD, 1)));
+
+    for (int intervalType = DefaultEpisodicMemory.EPMEM_RANGE_EP;
+        intervalType <= DefaultEpisodicMemory.EPMEM_RANGE_POINT;
+        intervalType++) {
+      for (int pointType = DefaultEpisodicMemory.EPMEM_RANGE_START;
+          pointType <= DefaultEpisodicMemory.EPMEM_RANGE_END;
+          pointType++) {
+        for (long id = 1; id <= 3; id++) {
+          assertEquals(
+              rows(jdbc.findIntervals(false, pointType, intervalType, id, 5)),
+              rows(columnar.findIntervals(false, pointType, intervalType, id, 5)));
+        }
+        assertEquals(
+            rows(jdbc.findIntervals(true, pointType, intervalType, 1, 5)),
+            rows(columnar.findIntervals(true, pointType, intervalType, 1, 5)));
+        assertEquals(
+            rows(jdbc.findLtiIntervals(pointType, intervalType, 1, 2, 5)),
+            rows(columnar.findLtiIntervals(pointType, intervalType, 1, 2, 5)));
+      }
+    }
+  }
+
+  @Test
+  public void testReconstructionMatchesTheDatabase() throws Exception {
+    store(jdbc);
+    store(columnar);
+
+    for (long t = 1; t <= 5; t++) {
+      for (EpisodicMemoryStore store : new EpisodicMemoryStore[] {jdbc, columnar}) {
+        store.addRitLeft(1, 2);
+        store.addRitRight(2);
+      }
+      assertEquals(rows(jdbc.getConstantWmes(t)), rows(columnar.getConstantWmes(t)));
+      assertEquals(rows(jdbc.getIdentifierWmes(t)), rows(columnar.getIdentifierWmes(t)));
+      jdbc.clearRitLeftRight();
+      columnar.clearRitLeftRight();
+    }
+  }
+
+  @Test
+  public void testNowIntervalsCanBeConvertedAndCleared() throws Exception {
+    store(jdbc);
+    store(columnar);
+
+    assertEquals(rows(jdbc.selectNow(false)), rows(columnar.selectNow(false)));
+    assertEquals(rows(jdbc.selectNow(true)), rows(columnar.selectNow(true)));
+    assertEquals(rows(jdbc.selectIdentifierWmes()), rows(columnar.selectIdentifierWmes()));
+
+    jdbc.deleteAllNow(false);
+    columnar.deleteAllNow(false);
+    jdbc.deleteIdentifierNow(1);
+    columnar.deleteIdentifierNow(1);
+    assertTrue(rows(columnar.selectNow(false)).isEmpty());
+    assertTrue(rows(columnar.selectNow(true)).isEmpty());
+    assertEquals(
+        rows(jdbc.findIntervals(false, DefaultEpisodicMemory.EPMEM_RANGE_END, 1, 3, 5)),
+        rows(columnar.findIntervals(false, DefaultEpisodicMemory.EPMEM_RANGE_END, 1, 3, 5)));
+  }
+}
@@ -169,6 +169,52 @@ public void testEpMemYRemoval() throws Exception {
     runTest("testYRemoval", 9);
   }
 
+  @Test
+  public void testOddEvenWriteBehind() throws Exception {
+    agent.getInterpreter().eval("epmem --set write-behind batch");
+    agent.getInterpreter().eval("epmem --set write-behind-episodes 3");
+    runTest("testOddEven", 12);
+  }
+
+  @Test
+  public void testBeforeAfterProhibitEpMemWriteBehindThread() throws Exception {
+    agent.getInterpreter().eval("epmem --set write-behind thread");
+    agent.getInterpreter().eval("epmem --set write-behind-episodes 2");
+    agent.getInterpreter().eval("epmem --set write-behind-queue 1");
+    runTest("testBeforeAfterProhibitEpMem", 12);
+  }
+
+  @Test
+  public void testCountEpMemWriteBehindThread() throws Exception {
+    agent.getInterpreter().eval("epmem --set write-behind thread");
+    agent.getInterpreter().eval("epmem --set lazy-commit off");
+    runTest("testCountEpMem", 1693);
+  }
+
+  @Test
+  public void testOddEvenColumnar() throws Exception {
+    agent.getInterpreter().eval("epmem --set backend columnar");
+    runTest("testOddEven", 12);
+  }
+
+  @Test
+  public void testBeforeAfterProhibitEpMemColumnar() throws Exception {
+    agent.getInterpreter().eval("epmem --set backend columnar");
+    runTest("testBeforeAfterProhibitEpMem", 12);
+  }
+
+  @Test
+  public void testCountEpMemColumnar() throws Exception {
+    agent.getInterpreter().eval("epmem --set backend columnar");
+    runTest("testCountEpMem", 1693);
+  }
+
+  @Test
+  public void testEpMemYRemovalColumnar() throws Exception {
+    agent.getInterpreter().eval("epmem --set backend columnar");
+    runTest("testYRemoval", 9);
+  }
+
   public void testEpMemSoarGroupTests() throws Exception {
     runTest("testEpMemSoarGroupTests", 140);
   }
@@ -0,0 +1,185 @@
+package org.jsoar.kernel.epmem;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import org.jsoar.util.JdbcTools;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EpisodicMemoryWriteBehindTest {
+  private Connection connection;
+  private EpisodicMemoryDatabase db;
+
+  @Before
+  public void setUp() throws Exception {
+    connection = JdbcTools.connect("org.sqlite.JDBC", "jdbc:sqlite::memory:");
+    db = new EpisodicMemoryDatabase("org.sqlite.JDBC", connection);
+    db.structure();
+    db.prepare();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    connection.close();
+  }
+
+  private long query(String sql) throws SQLException {
+    try (Statement s = connection.createStatement();
+        ResultSet rs = s.executeQuery(sql)) {
+      assertTrue(rs.next());
+      return rs.getLong(1);
+    }
+  }
+
+  private long count(String table) throws SQLException {
+    return query("SELECT COUNT(*) FROM " + EpisodicMemoryDatabase.EPMEM_SCHEMA + table);
+  }
+
+  @Test
+  public void testNothingIsWrittenUntilTheBatchIsFull() throws Exception {
+    final EpisodicMemoryWriteBehind wb = new EpisodicMemoryWriteBehind(db, true, 2, 0);
+    wb.addConstantNow(1, 1);
+    wb.addEpisode(1);
+    wb.submitIfFull();
+    assertEquals(0, count("episodes"));
+    assertEquals(1, wb.getBufferedEpisodes());
+
+    wb.addEpisode(2);
+    wb.submitIfFull();
+    assertEquals(2, count("episodes"));
+    assertEquals(1, count("wmes_constant_now"));
+    assertEquals(0, wb.getBufferedEpisodes());
+  }
+
+  @Test
+  public void testNowRowAddedAndRemovedWithinABatchNeverReachesTheDatabase() throws Exception {
+    final EpisodicMemoryWriteBehind wb = new EpisodicMemoryWriteBehind(db, true, 10, 0);
+    wb.addConstantNow(1, 1);
+    wb.addEpisode(1);
+    wb.deleteConstantNow(1);
+    wb.addConstantPoint(1, 1);
+    wb.addEpisode(2);
+    wb.flush();
+
+    assertEquals(0, count("wmes_constant_now"));
+    assertEquals(1, count("wmes_constant_point"));
+    assertEquals(2, count("episodes"));
+  }
+
+  @Test
+  public void testDeleteOfAWrittenNowRowIsWrittenBeforeItIsAddedAgain() throws Exception {
+    final EpisodicMemoryWriteBehind wb = new EpisodicMemoryWriteBehind(db, true, 10, 0);
+    wb.addIdentifierNow(7, 1);
+    wb.addEpisode(1);
+    wb.flush();
+
+    wb.deleteIdentifierNow(7);
+    wb.addIdentifierRange(0, 1, 3, 7);
+    wb.addIdentifierNow(7, 5);
+    wb.addEpisode(5);
+    wb.flush();
+
+    assertEquals(1, count("wmes_identifier_now"));
+    assertEquals(
+        5,
+        query(
+            "SELECT start_episode_id FROM "
+                + EpisodicMemoryDatabase.EPMEM_SCHEMA
+                + "wmes_identifier_now WHERE wi_id=7"));
+    assertEquals(1, count("wmes_identifier_range"));
+  }
+
+  @Test
+  public void testOnlyTheLastEpisodeOfAnIdentifierWmeIsWritten() throws Exception {
+    db.add_epmem_wmes_identifier.setLong(1, 1);
+    db.add_epmem_wmes_identifier.setLong(2, 2);
+    db.add_epmem_wmes_identifier.setLong(3, 3);
+    db.add_epmem_wmes_identifier.setLong(4, 0);
+    db.add_epmem_wmes_identifier.executeUpdate();
+    final long id =
+        query("SELECT MAX(wi_id) FROM " + EpisodicMemoryDatabase.EPMEM_SCHEMA + "wmes_identifier");
+
+    final EpisodicMemoryWriteBehind wb = new EpisodicMemoryWriteBehind(db, true, 10, 0);
+    wb.updateIdentifierLastEpisode(id, Long.MAX_VALUE);
+    wb.addEpisode(1);
+    wb.updateIdentifierLastEpisode(id, 1);
+    wb.addEpisode(2);
+    wb.flush();
+
+    assertEquals(
+        1,
+        query(
+            "SELECT last_episode_id FROM "
+                + EpisodicMemoryDatabase.EPMEM_SCHEMA
+                + "wmes_identifier WHERE wi_id="
+                + id));
+  }
+
+  @Test
+  public void testWriterThreadWritesEverythingBeforeFlushReturns() throws Exception {
+    final EpisodicMemoryWriteBehind wb = new EpisodicMemoryWriteBehind(db, true, 3, 1);
+    for (int i = 1; i <= 100; i++) {
+      wb.getLock().lock();
+      try {
+        wb.addConstantNow(i, i);
+        wb.addEpisode(i);
+      } finally {
+        wb.getLock().unlock();
+      }
+      wb.submitIfFull();
+    }
+    wb.flush();
+
+    assertEquals(100, count("episodes"));
+    assertEquals(100, count("wmes_constant_now"));
+    wb.close();
+  }
+
+  @Test
+  public void testReadingEveryEpisodeWritesOneEpisodePerBatch() throws Exception {
+    final EpisodicMemoryWriteBehind wb = new EpisodicMemoryWriteBehind(db, true, 64, 1);
+    for (int i = 1; i <= 20; i++) {
+      wb.addConstantNow(i, i);
+      wb.addEpisode(i);
+      wb.submitIfFull();
+      // a query or retrieval every cycle
+      wb.flush();
+      assertEquals(i, count("episodes"));
+    }
+    assertEquals(20, wb.getBatchesWritten());
+    assertEquals(20, wb.getEpisodesWritten());
+
+    // without reads in between, episodes are batched again
+    for (int i = 21; i <= 84; i++) {
+      wb.addEpisode(i);
+      wb.submitIfFull();
+    }
+    wb.flush();
+    assertEquals(21, wb.getBatchesWritten());
+    assertEquals(84, wb.getEpisodesWritten());
+    wb.close();
+  }
+
+  @Test
+  public void testWriteFailureIsReportedByFlush() throws Exception {
+    final EpisodicMemoryWriteBehind wb = new EpisodicMemoryWriteBehind(db, true, 1, 1);
+    wb.addEpisode(1);
+    wb.flush();
+
+    // duplicate episode ids violate the primary key
+    wb.addEpisode(1);
+    wb.submitIfFull();
+    try {
+      wb.flush();
+      fail("Expected the duplicate episode to fail");
+    } catch (SQLException e) {
+      assertNotNull(e.getCause());
+    }
+    assertEquals(1, count("episodes"));
+  }
+}
@@ -8,6 +8,7 @@
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -159,4 +160,26 @@ public void testSupportsLong() {
   public void testCreateThrowsExceptionIfIdIsNull() {
     DefaultQMemory.create(null);
   }
+
+  @Test
+  public void testJournalCoalescesChangesUntilDrained() {
+    DefaultQMemory q = (DefaultQMemory) DefaultQMemory.create();
+    ChangeJournal journal = q.openJournal();
+
+    q.setInteger("a.b", 1);
+    q.setString("c", "x");
+    q.setInteger("a.b", 2);
+    q.setInteger("a.b", 2); // no change, not recorded
+    q.subMemory("d").setDouble("e", 1.5);
+    assertEquals(Arrays.asList("a.b", "c", "d.e"), new ArrayList<String>(journal.drain()));
+    assertTrue(journal.drain().isEmpty());
+
+    q.remove("a");
+    q.setInteger("a.b", 3);
+    assertEquals(Arrays.asList("a", "a.b"), new ArrayList<String>(journal.drain()));
+
+    q.closeJournal(journal);
+    q.setInteger("a.b", 4);
+    assertTrue(journal.drain().isEmpty());
+  }
 }
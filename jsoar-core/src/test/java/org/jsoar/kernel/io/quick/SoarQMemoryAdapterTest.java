@@ -13,13 +13,17 @@
 import com.google.common.collect.Iterators;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
 import org.jsoar.JSoarTest;
 import org.jsoar.kernel.Agent;
 import org.jsoar.kernel.RunType;
 import org.jsoar.kernel.SoarException;
+import org.jsoar.kernel.memory.Wme;
 import org.jsoar.kernel.rhs.functions.RhsFunctionContext;
 import org.jsoar.kernel.rhs.functions.RhsFunctionException;
 import org.jsoar.kernel.rhs.functions.StandaloneRhsFunctionHandler;
+import org.jsoar.kernel.symbols.Identifier;
 import org.jsoar.kernel.symbols.Symbol;
 import org.jsoar.util.commands.SoarCommandInterpreter;
 import org.junit.After;
@@ -161,6 +165,77 @@ public void testDetach() throws Exception {
     assertEquals(0, Iterators.size(agent.getInputOutput().getInputLink().getWmes()));
   }
 
+  /** Describe the structure under an id, ignoring identifier names and wme order */
+  private static String describe(Identifier id, int depth) {
+    final TreeSet<String> result = new TreeSet<String>();
+    for (Wme w : (Iterable<Wme>) () -> id.getWmes()) {
+      final Identifier child = w.getValue().asIdentifier();
+      result.add(
+          w.getAttribute()
+              + " "
+              + (child != null && depth < 10
+                  ? "{" + describe(child, depth + 1) + "}"
+                  : w.getValue()));
+    }
+    return result.toString();
+  }
+
+  @Test
+  public void testChangeJournalModeMatchesFullSynchronization() throws Exception {
+    final Agent fullAgent = new Agent();
+    try {
+      final QMemory qmem = DefaultQMemory.create();
+      final SoarQMemoryAdapter journaled = SoarQMemoryAdapter.attach(agent, qmem);
+      journaled.setChangeJournalEnabled(true);
+      assertTrue(journaled.isChangeJournalEnabled());
+      final SoarQMemoryAdapter full = SoarQMemoryAdapter.attach(fullAgent, qmem);
+
+      final String[] paths = {
+        "a", "a.b", "a.b.c", "a.d", "a.b.c.e", "f", "f.g[0]", "f.g[1]", "f.g[1].h", "i"
+      };
+      final Random random = new Random(42);
+      for (int cycle = 0; cycle < 200; ++cycle) {
+        for (int change = random.nextInt(4); change >= 0; --change) {
+          final String path = paths[random.nextInt(paths.length)];
+          switch (random.nextInt(6)) {
+            case 0:
+              qmem.setInteger(path, random.nextInt(3));
+              break;
+            case 1:
+              qmem.setDouble(path, random.nextInt(3) + 0.5);
+              break;
+            case 2:
+              qmem.setString(path, "s" + random.nextInt(3));
+              break;
+            case 3:
+              qmem.clear(path);
+              break;
+            default:
+              qmem.remove(path);
+              break;
+          }
+        }
+        agent.runFor(1, RunType.DECISIONS);
+        fullAgent.runFor(1, RunType.DECISIONS);
+
+        assertEquals(
+            "cycle " + cycle,
+            describe(fullAgent.getInputOutput().getInputLink(), 0),
+            describe(agent.getInputOutput().getInputLink(), 0));
+        for (String path : paths) {
+          final Symbol expected = full.getValue(path);
+          final Symbol actual = journaled.getValue(path);
+          assertEquals(path, expected == null, actual == null);
+          if (expected != null && expected.asIdentifier() == null) {
+            assertEquals(path, expected.toString(), actual.toString());
+          }
+        }
+      }
+    } finally {
+      fullAgent.dispose();
+    }
+  }
+
   @Test
   public void testGetNameFromPath() {
     assertEquals("foo", SoarQMemoryAdapter.getNameFromPath("foo[1]"));
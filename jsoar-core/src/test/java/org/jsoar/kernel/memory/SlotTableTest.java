@@ -0,0 +1,79 @@
+package org.jsoar.kernel.memory;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.jsoar.kernel.symbols.IdentifierImpl;
+import org.jsoar.kernel.symbols.StringSymbolImpl;
+import org.jsoar.kernel.symbols.SymbolFactoryImpl;
+import org.junit.Test;
+
+public class SlotTableTest {
+  private final SymbolFactoryImpl syms = new SymbolFactoryImpl();
+
+  private StringSymbolImpl attr(int i) {
+    return syms.createString("attr" + i);
+  }
+
+  @Test
+  public void testSmallIdentifiersDontBuildATable() {
+    final IdentifierImpl id = syms.createIdentifier('S');
+    for (int i = 0; i < SlotTable.BUILD_THRESHOLD - 1; i++) {
+      Slot.make_slot(id, attr(i), null);
+    }
+    assertNull(id.getSlotTable());
+    assertEquals(SlotTable.BUILD_THRESHOLD - 1, id.getSlotCount());
+    assertSame(attr(3), Slot.find_slot(id, attr(3)).attr);
+  }
+
+  @Test
+  public void testTableIsBuiltAndDroppedAsSlotsComeAndGo() {
+    final IdentifierImpl id = syms.createIdentifier('S');
+    final List<Slot> slots = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      slots.add(Slot.make_slot(id, attr(i), null));
+    }
+    assertNotNull(id.getSlotTable());
+    assertEquals(100, id.getSlotTable().size());
+    for (int i = 0; i < 100; i++) {
+      assertSame(slots.get(i), Slot.find_slot(id, attr(i)));
+      assertSame(slots.get(i), Slot.make_slot(id, attr(i), null));
+    }
+    assertNull(Slot.find_slot(id, attr(1000)));
+    assertNull(Slot.find_slot(id, syms.createInteger(1)));
+
+    for (int i = 0; i < 100 - SlotTable.DROP_THRESHOLD; i++) {
+      id.removeSlot(slots.get(i));
+    }
+    assertNull(id.getSlotTable());
+    assertNull(Slot.find_slot(id, attr(0)));
+    assertSame(slots.get(99), Slot.find_slot(id, attr(99)));
+  }
+
+  @Test
+  public void testRandomAddAndRemoveMatchesTheSlotList() {
+    final IdentifierImpl id = syms.createIdentifier('S');
+    final Random random = new Random(42);
+    final Slot[] slots = new Slot[200];
+    for (int n = 0; n < 5000; n++) {
+      final int i = random.nextInt(slots.length);
+      if (slots[i] == null) {
+        slots[i] = Slot.make_slot(id, attr(i), null);
+      } else {
+        id.removeSlot(slots[i]);
+        slots[i] = null;
+      }
+      final int j = random.nextInt(slots.length);
+      assertSame(slots[j], Slot.find_slot(id, attr(j)));
+    }
+
+    int count = 0;
+    for (Slot s = id.slots; s != null; s = s.next) {
+      assertSame(s, Slot.find_slot(id, s.attr));
+      count++;
+    }
+    assertEquals(count, id.getSlotCount());
+  }
+}
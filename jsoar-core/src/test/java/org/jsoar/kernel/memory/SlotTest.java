@@ -1,16 +1,23 @@
 package org.jsoar.kernel.memory;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
+import java.util.Iterator;
 import org.jsoar.kernel.symbols.IdentifierImpl;
 import org.jsoar.kernel.symbols.Symbol;
+import org.jsoar.kernel.symbols.SymbolFactoryImpl;
 import org.jsoar.kernel.symbols.SymbolImpl;
 import org.junit.Test;
 
 public class SlotTest {
+  private final SymbolFactoryImpl syms = new SymbolFactoryImpl();
 
   @Test
   public void findSlotIdNull() {
@@ -74,4 +81,76 @@ public void findSlotIdMatchingSlot() {
     // Then found slot is null
     assertEquals(slot, foundSlot);
   }
+
+  private WmeImpl wme(Slot slot, int value, boolean acceptable) {
+    return new WmeImpl(slot.id, slot.attr, syms.createInteger(value), acceptable, value);
+  }
+
+  private Slot createSlot() {
+    return Slot.make_slot(syms.createIdentifier('S'), syms.createString("item"), null);
+  }
+
+  @Test
+  public void wmesAreListedMostRecentFirst() {
+    final Slot slot = createSlot();
+    final WmeImpl a = wme(slot, 1, false);
+    final WmeImpl b = wme(slot, 2, false);
+    final WmeImpl c = wme(slot, 3, false);
+    slot.addWme(a);
+    slot.addWme(b);
+    slot.addWme(c);
+
+    assertEquals(3, slot.getWmeCount());
+    assertSame(c, slot.getFirstWme());
+    assertEquals(Arrays.asList(c, b, a), slot.getWmes());
+  }
+
+  @Test
+  public void removeWmeUnlinksFromAnywhereInList() {
+    final Slot slot = createSlot();
+    final WmeImpl a = wme(slot, 1, false);
+    final WmeImpl b = wme(slot, 2, false);
+    final WmeImpl c = wme(slot, 3, false);
+    slot.addWme(a);
+    slot.addWme(b);
+    slot.addWme(c);
+
+    slot.removeWme(b);
+    assertEquals(Arrays.asList(c, a), slot.getWmes());
+    assertNull(b.next);
+    assertNull(b.prev);
+
+    slot.removeWme(b); // not in the slot, ignored
+    slot.removeWme(c);
+    assertEquals(1, slot.getWmeCount());
+    assertSame(a, slot.getFirstWme());
+
+    slot.removeAllWmes();
+    assertFalse(slot.hasWmes());
+    assertEquals(0, slot.getWmeCount());
+    assertNull(a.next);
+  }
+
+  @Test
+  public void wmeIteratorVisitsAcceptablePreferenceWmesFirstAndToleratesRemoval() {
+    final Slot slot = createSlot();
+    final WmeImpl a = wme(slot, 1, false);
+    final WmeImpl b = wme(slot, 2, false);
+    final WmeImpl ap = wme(slot, 3, true);
+    slot.addWme(a);
+    slot.addWme(b);
+    slot.addAcceptablePreferenceWme(ap);
+
+    final Iterator<Wme> it = slot.getWmeIterator();
+    assertSame(ap, it.next());
+    assertSame(b, it.next());
+    slot.removeWme(b);
+    assertSame(a, it.next());
+    assertFalse(it.hasNext());
+
+    assertEquals(Arrays.asList(ap), slot.getAcceptablePreferenceWmes());
+    slot.removeAcceptablePreferenceWme(ap);
+    assertNull(slot.getFirstAcceptablePreferenceWme());
+    assertTrue(slot.hasWmes());
+  }
 }
@@ -0,0 +1,144 @@
+package org.jsoar.kernel.memory;
+
+import static org.junit.Assert.*;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import org.jsoar.kernel.Agent;
+import org.jsoar.kernel.RunType;
+import org.jsoar.kernel.SoarProperties;
+import org.jsoar.kernel.rete.Rete;
+import org.jsoar.util.adaptables.Adaptables;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class WmeIndexTest {
+  private Agent agent;
+
+  @Before
+  public void setUp() throws Exception {
+    agent = new Agent();
+    // keeps adding and removing ^count and ^item wmes
+    agent
+        .getInterpreter()
+        .eval(
+            "sp {propose*tick (state <s> ^superstate nil) -->"
+                + " (<s> ^operator <o> + =) (<o> ^name tick)}\n"
+                + "sp {apply*init (state <s> ^operator.name tick -^count) -->"
+                + " (<s> ^count 0 ^items <i>)}\n"
+                + "sp {apply*tick (state <s> ^operator.name tick ^count <c> ^items <i>) -->"
+                + " (<s> ^count <c> - (+ <c> 1) +) (<i> ^item <c> ^name |5| ^other 5)}\n"
+                + "sp {apply*forget (state <s> ^operator.name tick ^count <c> ^items <i>)"
+                + " (<i> ^item { <x> < (- <c> 3) }) --> (<i> ^item <x> -)}");
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    agent.dispose();
+  }
+
+  private WmeIndex getIndex() {
+    return Adaptables.adapt(agent, Rete.class).getWmeIndex();
+  }
+
+  private void assertIndexMatchesScan() {
+    for (String[] globs :
+        new String[][] {
+          {"*", "item", "*"},
+          {"I*", "item", "*"},
+          {"s1", "*", "*"},
+          {"*", "*", "5"},
+          {"*", "name", "5"},
+          {"*", "count", "*"},
+          {"*", "*", "I2"},
+          {"*", "no-such-attr", "*"},
+          {"*", "ite?", "*"}
+        }) {
+      final List<Wme> expected = new ArrayList<>();
+      Wmes.search(agent.getAllWmesInRete().iterator(), globs[0], globs[1], globs[2])
+          .forEachRemaining(expected::add);
+      assertEquals(
+          String.join(" ", globs), expected, Wmes.search(agent, globs[0], globs[1], globs[2]));
+    }
+
+    final Wmes.MatcherBuilder m = Wmes.matcher(agent);
+    for (Object attr : new Object[] {null, "item", "name", "count", "operator"}) {
+      for (Object value : new Object[] {null, 5, "5", "tick"}) {
+        m.reset().id(agent.getSymbols().findIdentifier('I', 2)).attr(attr).value(value);
+        assertEquals(m.filter(agent.getAllWmesInRete()), m.filter(agent));
+        m.id(null);
+        assertEquals(m.filter(agent.getAllWmesInRete()), m.filter(agent));
+      }
+    }
+  }
+
+  @Test
+  public void testIndexIsDisabledByDefault() throws Exception {
+    assertNull(getIndex());
+    agent.runFor(3, RunType.DECISIONS);
+    assertIndexMatchesScan();
+  }
+
+  @Test
+  public void testIndexIsMaintainedAsWmesAreAddedAndRemoved() throws Exception {
+    agent.getProperties().set(SoarProperties.WME_INDEX, true);
+    assertNotNull(getIndex());
+    for (int i = 0; i < 10; ++i) {
+      agent.runFor(1, RunType.DECISIONS);
+      assertEquals(agent.getNumWmesInRete(), getIndex().size());
+      assertIndexMatchesScan();
+    }
+  }
+
+  @Test
+  public void testEnablingIndexesExistingWmesAndDisablingDropsIndex() throws Exception {
+    agent.runFor(6, RunType.DECISIONS);
+    agent.getProperties().set(SoarProperties.WME_INDEX, true);
+    assertEquals(agent.getNumWmesInRete(), getIndex().size());
+    assertIndexMatchesScan();
+
+    agent.getProperties().set(SoarProperties.WME_INDEX, false);
+    assertNull(getIndex());
+    agent.runFor(2, RunType.DECISIONS);
+    agent.getProperties().set(SoarProperties.WME_INDEX, true);
+    assertIndexMatchesScan();
+  }
+
+  @Test
+  public void testQueryReturnsWmesInReteOrder() throws Exception {
+    agent.getProperties().set(SoarProperties.WME_INDEX, true);
+    agent.runFor(8, RunType.DECISIONS);
+
+    final List<Wme> all = new ArrayList<>(agent.getAllWmesInRete());
+    assertEquals(all, getIndex().query(null, null, null));
+    final List<Wme> items = getIndex().query(null, agent.getSymbols().findString("item"), null);
+    assertFalse(items.isEmpty());
+    assertEquals(Wmes.matcher(agent).attr("item").filter(all), items);
+  }
+
+  private String print(String pattern) throws Exception {
+    agent.getPrinter().pushWriter(new StringWriter());
+    agent.getInterpreter().eval("print " + pattern);
+    return agent.getPrinter().popWriter().toString();
+  }
+
+  @Test
+  public void testPrintingAPatternGivesTheSameOutputWithTheIndex() throws Exception {
+    agent.runFor(6, RunType.DECISIONS);
+    final String[] patterns = {
+      "--exact (* ^item *)", "--exact (* ^other 5)", "--exact (S1 ^* *)", "(* ^count *)"
+    };
+    final List<String> expected = new ArrayList<>();
+    for (String pattern : patterns) {
+      expected.add(print(pattern));
+    }
+
+    agent.getProperties().set(SoarProperties.WME_INDEX, true);
+    for (int i = 0; i < patterns.length; ++i) {
+      assertFalse(expected.get(i).isEmpty());
+      assertEquals(patterns[i], expected.get(i), print(patterns[i]));
+    }
+  }
+}
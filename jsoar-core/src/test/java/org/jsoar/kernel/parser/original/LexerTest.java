@@ -125,4 +125,36 @@ public void testThatAnOutOfBoundsIntegerCausesALexerError() throws Exception {
     final Lexeme lexeme = lexer.getCurrentLexeme();
     assertEquals(0L, lexeme.int_val);
   }
+
+  @Test
+  public void testLexesInputLongerThanTheReadBuffer() throws Exception {
+    final StringBuilder input = new StringBuilder();
+    for (int i = 0; i < 2000; i++) {
+      input.append("(<s> ^value |a\\|b| \"q\") ");
+    }
+    Lexer lexer = createLexer(input.toString());
+
+    for (int i = 0; i < 2000; i++) {
+      lexer.getNextLexeme();
+      assertEquals(LexemeType.L_PAREN, lexer.getCurrentLexeme().type);
+      assertEquals("(", lexer.getCurrentLexeme().string);
+      lexer.getNextLexeme();
+      assertEquals(LexemeType.VARIABLE, lexer.getCurrentLexeme().type);
+      assertEquals("<s>", lexer.getCurrentLexeme().string);
+      lexer.getNextLexeme();
+      assertEquals(LexemeType.UP_ARROW, lexer.getCurrentLexeme().type);
+      lexer.getNextLexeme();
+      assertEquals("value", lexer.getCurrentLexeme().string);
+      lexer.getNextLexeme();
+      assertEquals(LexemeType.SYM_CONSTANT, lexer.getCurrentLexeme().type);
+      assertEquals("a|b", lexer.getCurrentLexeme().string);
+      lexer.getNextLexeme();
+      assertEquals(LexemeType.QUOTED_STRING, lexer.getCurrentLexeme().type);
+      assertEquals("q", lexer.getCurrentLexeme().string);
+      lexer.getNextLexeme();
+      assertEquals(LexemeType.R_PAREN, lexer.getCurrentLexeme().type);
+    }
+    lexer.getNextLexeme();
+    assertTrue(lexer.isEof());
+  }
 }
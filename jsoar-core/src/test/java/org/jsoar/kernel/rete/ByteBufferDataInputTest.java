@@ -0,0 +1,36 @@
+package org.jsoar.kernel.rete;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class ByteBufferDataInputTest {
+  @SuppressWarnings("deprecation")
+  @Test
+  public void testReadLineMatchesDataInputStream() throws Exception {
+    final byte[] bytes = "one\ntwo\r\nthree\rfour\n\nlast".getBytes(StandardCharsets.ISO_8859_1);
+    final ByteBufferDataInput input = new ByteBufferDataInput(ByteBuffer.wrap(bytes));
+    final DataInputStream expected = new DataInputStream(new ByteArrayInputStream(bytes));
+
+    String line;
+    do {
+      line = expected.readLine();
+      assertEquals(line, input.readLine());
+    } while (line != null);
+  }
+
+  @Test
+  public void testReadLineLeavesTheRestOfTheBuffer() throws Exception {
+    final ByteBuffer buffer = ByteBuffer.allocate(16);
+    buffer.put("ab\r\n".getBytes(StandardCharsets.ISO_8859_1)).putInt(42).flip();
+    final ByteBufferDataInput input = new ByteBufferDataInput(buffer);
+
+    assertEquals("ab", input.readLine());
+    assertEquals(42, input.readInt());
+    assertNull(input.readLine());
+  }
+}
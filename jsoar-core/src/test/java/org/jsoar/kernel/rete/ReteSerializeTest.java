@@ -1,11 +1,18 @@
 package org.jsoar.kernel.rete;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import org.jsoar.kernel.Agent;
@@ -205,6 +212,71 @@ public Symbol execute(RhsFunctionContext context, List<Symbol> arguments)
     newAgent.dispose();
   }
 
+  @Test
+  public void testCreatesAgentsFromAMappedFile() throws Exception {
+    agent
+        .getProductions()
+        .loadProduction(
+            "first (state <s> ^superstate nil -^done) --> (<s> ^done |yes| ^count 2 ^ratio 0.5)");
+    agent
+        .getProductions()
+        .loadProduction(
+            "second (state <s> ^done yes) -{(<s> ^blocked <b>) (<b> ^value << 1 2 >>)} -->"
+                + " (<s> ^result (+ 1 2)) (halt)");
+
+    final File file = File.createTempFile("ReteSerializeTest", ".jsoarrete");
+    file.deleteOnExit();
+    try (OutputStream os = new FileOutputStream(file)) {
+      ReteSerializer.saveRete(agent, os);
+    }
+
+    final ByteBuffer buffer = ReteSerializer.map(file.toPath());
+    for (int i = 0; i < 3; i++) {
+      final Agent copy = ReteSerializer.createAgent(buffer);
+      try {
+        assertEquals(0, buffer.position());
+        assertEquals(names(agent), names(copy));
+        copy.runForever();
+        assertNotNull(copy.getSymbols().findString("done"));
+        assertEquals(Long.valueOf(1), copy.getProperties().get(SoarProperties.D_CYCLE_COUNT));
+      } finally {
+        copy.dispose();
+      }
+    }
+  }
+
+  @Test
+  public void testReadsVersionOneReteNets() throws Exception {
+    final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    final DataOutputStream dos = new DataOutputStream(baos);
+    dos.writeUTF(ReteNetReader.MAGIC_STRING);
+    dos.writeInt(1);
+    for (int i = 0; i < 4; i++) {
+      dos.writeInt(0); // no strings, variables, integers or doubles
+    }
+    dos.writeInt(0); // no alpha memories
+    dos.writeInt(0); // no nodes
+    dos.writeInt(1); // one property
+    dos.writeUTF(SoarProperties.MAX_ELABORATIONS.getName());
+    dos.writeInt(42);
+    dos.close();
+
+    final Agent copy = ReteSerializer.createAgent(new ByteArrayInputStream(baos.toByteArray()));
+    try {
+      assertEquals(42, copy.getProperties().get(SoarProperties.MAX_ELABORATIONS).intValue());
+    } finally {
+      copy.dispose();
+    }
+  }
+
+  private static List<String> names(Agent agent) {
+    final List<String> result = new ArrayList<>();
+    for (Production p : agent.getProductions().getProductions(null)) {
+      result.add(p.getName());
+    }
+    return result;
+  }
+
   private Agent serialize(Agent agent) throws Exception {
     ByteArrayOutputStream baos = new ByteArrayOutputStream();
     ReteSerializer.saveRete(agent, baos);
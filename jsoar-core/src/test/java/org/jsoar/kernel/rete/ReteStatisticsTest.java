@@ -0,0 +1,131 @@
+package org.jsoar.kernel.rete;
+
+import static org.junit.Assert.*;
+
+import java.io.StringWriter;
+import org.jsoar.kernel.Agent;
+import org.jsoar.kernel.FunctionalTests;
+import org.jsoar.kernel.RunType;
+import org.jsoar.kernel.rete.ReteStatistics.NodeTypeStatistics;
+import org.jsoar.util.adaptables.Adaptables;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReteStatisticsTest {
+  private Agent agent;
+  private Rete rete;
+
+  @Before
+  public void setUp() throws Exception {
+    agent = new Agent();
+    rete = Adaptables.adapt(agent, Rete.class);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    agent.dispose();
+  }
+
+  private void loadTowersOfHanoi() throws Exception {
+    agent
+        .getInterpreter()
+        .eval(
+            "load file "
+                + FunctionalTests.class
+                    .getResource("FunctionalTests_testTowersOfHanoi.soar")
+                    .toExternalForm());
+  }
+
+  private void assertNodeCountsMatchNetwork() {
+    final ReteStatistics stats = rete.getStatistics();
+    for (ReteNodeType type : ReteNodeType.values()) {
+      final NodeTypeStatistics s = stats.getNodeTypes().get(type);
+      assertEquals(type.toString(), s != null ? s.getNodes() : 0, rete.getReteNodeCount(type));
+    }
+  }
+
+  @Test
+  public void testEmptyNetworkHasOnlyTheDummyTopNode() {
+    final ReteStatistics stats = rete.getStatistics();
+    assertEquals(1, stats.getNodes());
+    assertEquals(1, rete.getReteNodeCount(ReteNodeType.DUMMY_TOP_BNODE));
+    assertEquals(0, stats.getAlphaMemories());
+    assertEquals(0.0, stats.getSharingFactor(), 0.0);
+    assertNodeCountsMatchNetwork();
+  }
+
+  @Test
+  public void testNodeCountsAreKeptUpToDate() throws Exception {
+    loadTowersOfHanoi();
+    assertNodeCountsMatchNetwork();
+    assertEquals(
+        agent.getProductions().getProductionCount(), rete.getReteNodeCount(ReteNodeType.P_BNODE));
+
+    agent.runFor(20, RunType.DECISIONS);
+    assertNodeCountsMatchNetwork();
+
+    agent.getInterpreter().eval("production excise towers-of-hanoi*propose*initialize");
+    assertNodeCountsMatchNetwork();
+
+    agent.getInterpreter().eval("production excise --all");
+    assertNodeCountsMatchNetwork();
+    assertEquals(1, rete.getStatistics().getNodes());
+  }
+
+  @Test
+  public void testCountsSharedNodes() throws Exception {
+    agent
+        .getInterpreter()
+        .eval(
+            "sp {a (state <s> ^superstate nil ^foo <f>) (<f> ^bar 1) --> (<s> ^a 1)}\n"
+                + "sp {b (state <s> ^superstate nil ^foo <f>) (<f> ^bar 2) --> (<s> ^b 1)}\n"
+                + "sp {c (state <s> ^superstate nil ^foo <f>) "
+                + "-{(<f> ^baz <z>) (<z> ^qux 1)} --> (<s> ^c 1)}");
+    assertNodeCountsMatchNetwork();
+
+    final ReteStatistics stats = rete.getStatistics();
+    assertEquals(3, stats.getNodeTypes().get(ReteNodeType.P_BNODE).getNodes());
+    assertEquals(1, stats.getNodeTypes().get(ReteNodeType.CN_BNODE).getNodes());
+    assertEquals(1, stats.getNodeTypes().get(ReteNodeType.CN_PARTNER_BNODE).getNodes());
+    assertTrue(stats.getSharingFactor() > 1.0);
+    int shared = 0;
+    for (NodeTypeStatistics s : stats.getNodeTypes().values()) {
+      shared += s.getSharedNodes();
+    }
+    assertTrue(shared > 0);
+  }
+
+  @Test
+  public void testCountsTokensAndMemory() throws Exception {
+    loadTowersOfHanoi();
+    agent.runFor(5, RunType.DECISIONS);
+
+    final ReteStatistics stats = rete.getStatistics();
+    assertTrue(stats.getTokens() > 0);
+    assertTrue(stats.getAlphaMemories() > 0);
+    assertTrue(stats.getRightMemories() > 0);
+    assertEquals(1, stats.getNodeTypes().get(ReteNodeType.DUMMY_TOP_BNODE).getTokens());
+
+    long bytes =
+        stats.getAlphaMemories() * ReteStatistics.ESTIMATED_ALPHA_MEMORY_BYTES
+            + stats.getRightMemories() * ReteStatistics.ESTIMATED_RIGHT_MEMORY_BYTES;
+    for (NodeTypeStatistics s : stats.getNodeTypes().values()) {
+      assertTrue(s.getMaxTokens() <= s.getTokens());
+      bytes += s.getEstimatedBytes();
+    }
+    assertEquals(bytes, stats.getEstimatedBytes());
+  }
+
+  @Test
+  public void testStatsCommandPrintsNodeStatistics() throws Exception {
+    loadTowersOfHanoi();
+    final StringWriter out = new StringWriter();
+    agent.getPrinter().addPersistentWriter(out);
+
+    agent.getInterpreter().eval("stats --rete");
+    agent.getPrinter().flush();
+    assertTrue(out.toString(), out.toString().contains("Beta network:"));
+    assertTrue(out.toString(), out.toString().contains("P_BNODE"));
+  }
+}
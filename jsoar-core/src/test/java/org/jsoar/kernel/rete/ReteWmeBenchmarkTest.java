@@ -0,0 +1,65 @@
+package org.jsoar.kernel.rete;
+
+import java.util.concurrent.TimeUnit;
+import org.jsoar.kernel.Agent;
+import org.jsoar.kernel.memory.WmeImpl;
+import org.jsoar.kernel.symbols.SymbolFactoryImpl;
+import org.jsoar.util.adaptables.Adaptables;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.uniknow.utils.junit.AbstractBenchmark;
+
+public class ReteWmeBenchmarkTest extends AbstractBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class BenchmarkState {
+
+    Rete rete;
+    WmeImpl wme;
+
+    @Setup(Level.Trial)
+    public void initialize() throws Exception {
+      final Agent agent = new Agent();
+      agent
+          .getProductions()
+          .loadProduction(
+              "test (state <s> ^superstate nil ^sensor <x>) (<x> ^value <v>) --> (write <v>)");
+      rete = Adaptables.adapt(agent, Rete.class);
+
+      // The wme fills the (* ^value *) alpha memory but its id isn't linked to the state, so no
+      // tokens are created and only the add/remove path itself is measured.
+      final SymbolFactoryImpl syms = rete.getSymbols();
+      wme =
+          new WmeImpl(
+              syms.createIdentifier('X'),
+              syms.createString("value"),
+              syms.createInteger(1),
+              false,
+              0);
+    }
+  }
+
+  @Test
+  public void launchBenchmarkAddRemoveWme() throws Exception {
+    launchAllocationBenchmark(this.getClass().getName() + ".addRemoveWme", 1.0);
+  }
+
+  /** Adds and removes a wme that matches an alpha memory. This should not allocate. */
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Fork(value = 1)
+  @Warmup(time = 2, iterations = 2)
+  @Measurement(time = 2, iterations = 3)
+  public void addRemoveWme(BenchmarkState state) {
+    state.rete.add_wme_to_rete(state.wme);
+    state.rete.remove_wme_from_rete(state.wme);
+  }
+}
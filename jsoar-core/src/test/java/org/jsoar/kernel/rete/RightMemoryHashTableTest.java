@@ -0,0 +1,107 @@
+package org.jsoar.kernel.rete;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class RightMemoryHashTableTest {
+  private static final int LOG2_SIZE = 4;
+
+  private static List<RightMemory> bucketContents(RightMemoryHashTable ht, int hv) {
+    final List<RightMemory> result = new ArrayList<>();
+    for (RightMemory rm = ht.right_ht_bucket(hv); rm != null; rm = rm.next_in_bucket) {
+      if (rm.hv == hv) {
+        result.add(rm);
+      }
+    }
+    return result;
+  }
+
+  private static RightMemory[] fill(RightMemoryHashTable ht, int count) {
+    final RightMemory[] rms = new RightMemory[count];
+    for (int i = 0; i < count; ++i) {
+      rms[i] = new RightMemory(null, null);
+      ht.insertAtHeadOfBucket(i % 37, rms[i]);
+    }
+    return rms;
+  }
+
+  @Test
+  public void testTableGrowsIncrementallyAndKeepsAllEntriesReachable() {
+    final RightMemoryHashTable ht = new RightMemoryHashTable(LOG2_SIZE);
+    final RightMemory[] rms = fill(ht, 100);
+
+    assertTrue(ht.isResizing() || ht.getLog2Size() > LOG2_SIZE);
+
+    // Entries must be reachable at every step of the migration
+    do {
+      for (int hv = 0; hv < 37; ++hv) {
+        final List<RightMemory> bucket = bucketContents(ht, hv);
+        for (int i = hv; i < rms.length; i += 37) {
+          assertTrue(bucket.contains(rms[i]));
+        }
+      }
+    } while (ht.rehash(1));
+
+    assertFalse(ht.isResizing());
+    assertEquals(7, ht.getLog2Size());
+    assertEquals(100, ht.getStatistics().getSize());
+  }
+
+  @Test
+  public void testRehashPreservesBucketOrder() {
+    final RightMemoryHashTable ht = new RightMemoryHashTable(LOG2_SIZE);
+    fill(ht, 100);
+    final List<RightMemory> before = bucketContents(ht, 5);
+
+    ht.rehashAll();
+
+    assertEquals(before, bucketContents(ht, 5));
+  }
+
+  @Test
+  public void testTableShrinksWhenEnabled() {
+    final RightMemoryHashTable ht = new RightMemoryHashTable(LOG2_SIZE);
+    ht.setShrinkEnabled(true);
+    final RightMemory[] rms = fill(ht, 100);
+    ht.rehashAll();
+    assertEquals(7, ht.getLog2Size());
+
+    for (int i = 0; i < rms.length - 1; ++i) {
+      ht.removeFromBucket(i % 37, rms[i]);
+      ht.rehashAll();
+    }
+
+    assertEquals(LOG2_SIZE, ht.getLog2Size());
+    assertEquals(List.of(rms[99]), bucketContents(ht, 99 % 37));
+  }
+
+  @Test
+  public void testTableDoesNotShrinkByDefault() {
+    final RightMemoryHashTable ht = new RightMemoryHashTable(LOG2_SIZE);
+    final RightMemory[] rms = fill(ht, 100);
+    ht.rehashAll();
+
+    for (int i = 0; i < rms.length; ++i) {
+      ht.removeFromBucket(i % 37, rms[i]);
+    }
+
+    assertFalse(ht.isResizing());
+    assertEquals(7, ht.getLog2Size());
+  }
+
+  @Test
+  public void testStatisticsReportOccupancy() {
+    final RightMemoryHashTable ht = new RightMemoryHashTable(LOG2_SIZE);
+    fill(ht, 10);
+
+    final HashTableStatistics stats = ht.getStatistics();
+    assertEquals(10, stats.getSize());
+    assertEquals(16, stats.getBuckets());
+    assertEquals(10, stats.getOccupiedBuckets());
+    assertEquals(1, stats.getMaxChainLength());
+    assertFalse(stats.isResizing());
+  }
+}
@@ -7,7 +7,9 @@
 
 import static org.junit.Assert.*;
 
+import java.util.List;
 import org.jsoar.JSoarTest;
+import org.jsoar.kernel.symbols.Symbol;
 import org.jsoar.kernel.symbols.Symbols;
 import org.junit.Test;
 
@@ -91,4 +93,23 @@ public void testFloatArgs() throws Exception {
             .getValue(),
         0.0001);
   }
+
+  @Test
+  public void testOneAndTwoArgsMatchArgumentList() throws Exception {
+    Minus minus = new Minus();
+
+    assertEquals(
+        minus.execute(rhsFuncContext, Symbols.asList(syms, 2.5)),
+        minus.execute(rhsFuncContext, syms.createDouble(2.5)));
+    for (List<Symbol> args :
+        List.of(
+            Symbols.asList(syms, 2, 3),
+            Symbols.asList(syms, 2, 3.5),
+            Symbols.asList(syms, 2.5, 3),
+            Symbols.asList(syms, 2.5, 3.5))) {
+      assertEquals(
+          minus.execute(rhsFuncContext, args),
+          minus.execute(rhsFuncContext, args.get(0), args.get(1)));
+    }
+  }
 }
@@ -7,7 +7,9 @@
 
 import static org.junit.Assert.*;
 
+import java.util.List;
 import org.jsoar.JSoarTest;
+import org.jsoar.kernel.symbols.Symbol;
 import org.jsoar.kernel.symbols.Symbols;
 import org.junit.Test;
 
@@ -67,4 +69,26 @@ public void testFloatArgs() throws Exception {
             .getValue(),
         0.0001);
   }
+
+  @Test
+  public void testTwoArgsMatchesArgumentList() throws Exception {
+    Plus plus = new Plus();
+
+    for (List<Symbol> args :
+        List.of(
+            Symbols.asList(syms, 2, 3),
+            Symbols.asList(syms, 2, 3.5),
+            Symbols.asList(syms, 2.5, 3),
+            Symbols.asList(syms, 2.5, 3.5))) {
+      assertEquals(
+          plus.execute(rhsFuncContext, args),
+          plus.execute(rhsFuncContext, args.get(0), args.get(1)));
+    }
+  }
+
+  @Test(expected = RhsFunctionException.class)
+  public void testTwoArgsThrowsExceptionIfNonNumeric() throws Exception {
+    Plus plus = new Plus();
+    plus.execute(rhsFuncContext, syms.createInteger(1), syms.createString("a"));
+  }
 }
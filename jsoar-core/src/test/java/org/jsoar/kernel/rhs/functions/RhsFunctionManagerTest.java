@@ -5,14 +5,19 @@
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.List;
+import org.jsoar.kernel.rhs.RhsFunctionCall;
 import org.jsoar.kernel.symbols.Symbol;
+import org.jsoar.kernel.symbols.SymbolFactoryImpl;
 import org.junit.Test;
 
 public class RhsFunctionManagerTest {
@@ -281,4 +286,124 @@ public void testGetNonExistingHandler() {
     // Then returned handler matches enabled handler
     assertNull(foundHandler);
   }
+
+  @Test
+  public void testExecuteRhsFunctionCallRebindsWhenHandlerIsReplaced() throws RhsFunctionException {
+    // Given a RHS function manager
+    RhsFunctionContext context = mock(RhsFunctionContext.class);
+    RhsFunctionManager manager = new RhsFunctionManager(context);
+    // And a call to a registered RHS function which has been executed
+    RhsFunctionHandler first = mock(RhsFunctionHandler.class);
+    when(first.getName()).thenReturn("TEST-HANDLER");
+    manager.registerHandler(first);
+    RhsFunctionCall call =
+        new RhsFunctionCall(new SymbolFactoryImpl().createString("TEST-HANDLER"), false);
+    List<Symbol> arguments = List.of(mock(Symbol.class));
+    manager.execute(call, arguments);
+
+    // When another handler is registered with the same name and the call is executed again
+    RhsFunctionHandler second = mock(RhsFunctionHandler.class);
+    when(second.getName()).thenReturn("TEST-HANDLER");
+    manager.registerHandler(second);
+    manager.execute(call, arguments);
+
+    // Then each handler is invoked once
+    verify(first).execute(context, arguments);
+    verify(second).execute(context, arguments);
+  }
+
+  @Test
+  public void testExecuteRhsFunctionCallHonorsDisableAndUnregister() throws RhsFunctionException {
+    Symbol expectedResultExecution = mock(Symbol.class);
+
+    // Given a RHS function manager
+    RhsFunctionManager manager = new RhsFunctionManager(mock(RhsFunctionContext.class));
+    // And a call to a registered RHS function which has been executed
+    RhsFunctionHandler handler = mock(RhsFunctionHandler.class);
+    when(handler.execute(any(), any())).thenReturn(expectedResultExecution);
+    when(handler.getName()).thenReturn("TEST-HANDLER");
+    manager.registerHandler(handler);
+    RhsFunctionCall call =
+        new RhsFunctionCall(new SymbolFactoryImpl().createString("TEST-HANDLER"), false);
+    List<Symbol> arguments = List.of(mock(Symbol.class));
+    assertEquals(expectedResultExecution, manager.execute(call, arguments));
+
+    // When the handler is disabled, then the call does nothing
+    manager.disableHandler(handler.getName());
+    assertNull(manager.execute(call, arguments));
+
+    // When the handler is enabled again, then the call invokes it again
+    manager.enableHandler(handler.getName());
+    assertEquals(expectedResultExecution, manager.execute(call, arguments));
+
+    // When the handler is unregistered, then the call fails
+    manager.unregisterHandler(handler.getName());
+    try {
+      manager.execute(call, arguments);
+      fail("Expected RhsFunctionException");
+    } catch (RhsFunctionException e) {
+      assertTrue(e.getMessage().contains("TEST-HANDLER"));
+    }
+  }
+
+  @Test
+  public void testExecuteRhsFunctionCallUsesNumericHandlerWithoutArgumentList()
+      throws RhsFunctionException {
+    Symbol expectedResultExecution = mock(Symbol.class);
+
+    // Given a RHS function manager
+    RhsFunctionContext context = mock(RhsFunctionContext.class);
+    RhsFunctionManager manager = new RhsFunctionManager(context);
+    // And a registered numeric RHS function handler
+    NumericRhsFunctionHandler handler = mock(NumericRhsFunctionHandler.class);
+    when(handler.getName()).thenReturn("TEST-HANDLER");
+    Symbol a = mock(Symbol.class);
+    Symbol b = mock(Symbol.class);
+    when(handler.execute(context, a, b)).thenReturn(expectedResultExecution);
+    manager.registerHandler(handler);
+
+    // When executing a call with two arguments
+    RhsFunctionCall call =
+        new RhsFunctionCall(new SymbolFactoryImpl().createString("TEST-HANDLER"), false);
+    Symbol resultExecution = manager.execute(call, List.of(a, b));
+
+    // Then the two argument overload is invoked instead of the list one
+    assertEquals(expectedResultExecution, resultExecution);
+    verify(handler, never()).execute(any(), any(List.class));
+  }
+
+  @Test
+  public void testExecuteRhsFunctionCallCopiesArgumentsUnlessHandlerOptsIn()
+      throws RhsFunctionException {
+    // Given a RHS function manager
+    RhsFunctionContext context = mock(RhsFunctionContext.class);
+    RhsFunctionManager manager = new RhsFunctionManager(context);
+    // And a handler that keeps its arguments, and one that opts in to reused arguments
+    List<List<Symbol>> kept = new ArrayList<>();
+    RhsFunctionHandler keeping =
+        new StandaloneRhsFunctionHandler("keeping") {
+          @Override
+          public Symbol execute(RhsFunctionContext context, List<Symbol> arguments) {
+            kept.add(arguments);
+            return null;
+          }
+        };
+    ReusableArgumentsRhsFunctionHandler reusing = mock(ReusableArgumentsRhsFunctionHandler.class);
+    when(reusing.getName()).thenReturn("reusing");
+    manager.registerHandler(keeping);
+    manager.registerHandler(reusing);
+    SymbolFactoryImpl syms = new SymbolFactoryImpl();
+    Symbol arg = syms.createInteger(1);
+    List<Symbol> buffer = new ArrayList<>(List.of(arg));
+
+    // When both are executed with the same buffer, which is cleared afterwards
+    manager.execute(new RhsFunctionCall(syms.createString("keeping"), true), buffer);
+    manager.execute(new RhsFunctionCall(syms.createString("reusing"), true), buffer);
+    buffer.clear();
+
+    // Then the handler that didn't opt in still has its arguments
+    assertEquals(List.of(arg), kept.get(0));
+    // And the one that opted in was given the buffer itself
+    verify(reusing).execute(same(context), same(buffer));
+  }
 }
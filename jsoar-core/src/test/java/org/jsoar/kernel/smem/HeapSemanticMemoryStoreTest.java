@@ -0,0 +1,224 @@
+package org.jsoar.kernel.smem;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.jsoar.kernel.symbols.Symbols;
+import org.jsoar.util.ByRef;
+import org.jsoar.util.JdbcTools;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Checks the heap store against the SQL it replaces by running both side by side. */
+public class HeapSemanticMemoryStoreTest {
+  private static final long NULL = DefaultSemanticMemory.SMEM_AUGMENTATIONS_NULL;
+
+  private Connection connection;
+  private JdbcSemanticMemoryStore jdbc;
+  private HeapSemanticMemoryStore heap;
+
+  @Before
+  public void setUp() throws Exception {
+    connection = JdbcTools.connect("org.sqlite.JDBC", "jdbc:sqlite::memory:");
+    final SemanticMemoryDatabase db = new SemanticMemoryDatabase("org.sqlite.JDBC", connection);
+    db.structure();
+    db.prepare();
+    jdbc = new JdbcSemanticMemoryStore(db);
+    heap = new HeapSemanticMemoryStore();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    connection.close();
+  }
+
+  private static List<List<Long>> rows(SemanticMemoryCursor cursor, int columns)
+      throws SQLException {
+    final List<List<Long>> result = new ArrayList<>();
+    try (cursor) {
+      while (cursor.next()) {
+        final List<Long> row = new ArrayList<>();
+        for (int i = 1; i <= columns; i++) {
+          row.add(cursor.getLong(i));
+        }
+        result.add(row);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Stores a small graph in both stores:
+   *
+   * <pre>
+   * (@A1 ^name foo ^next @A2)
+   * (@A2 ^name foo ^next @A3)
+   * (@A3 ^name bar)
+   * </pre>
+   *
+   * @A1 and @A2 end up with the same activation so that crawls have to break the tie.
+   */
+  private void store(SemanticMemoryStore store) throws SQLException {
+    final long name = store.addSymbolType(Symbols.SYM_CONSTANT_SYMBOL_TYPE);
+    store.addStringSymbol(name, "name");
+    final long next = store.addSymbolType(Symbols.SYM_CONSTANT_SYMBOL_TYPE);
+    store.addStringSymbol(next, "next");
+    final long foo = store.addSymbolType(Symbols.SYM_CONSTANT_SYMBOL_TYPE);
+    store.addStringSymbol(foo, "foo");
+    final long bar = store.addSymbolType(Symbols.SYM_CONSTANT_SYMBOL_TYPE);
+    store.addStringSymbol(bar, "bar");
+    final long seven = store.addSymbolType(Symbols.INT_CONSTANT_SYMBOL_TYPE);
+    store.addIntegerSymbol(seven, 7);
+
+    final long a1 = store.addLti('A', 1);
+    final long a2 = store.addLti('A', 2);
+    final long a3 = store.addLti('A', 3);
+
+    store.addAugmentation(a1, name, foo, NULL, 1.0);
+    store.addAugmentation(a1, next, NULL, a2, 1.0);
+    store.addAugmentation(a2, name, foo, NULL, 2.0);
+    store.addAugmentation(a2, next, NULL, a3, 2.0);
+    store.addAugmentation(a3, name, bar, NULL, 3.0);
+    store.setLtiChildCount(a1, 2);
+    store.setLtiChildCount(a2, 2);
+    store.setLtiChildCount(a3, 1);
+
+    store.addAttributeFrequency(name);
+    store.updateAttributeFrequency(name, 2);
+    store.addAttributeFrequency(next);
+    store.updateAttributeFrequency(next, 1);
+    store.addConstantFrequency(name, foo);
+    store.updateConstantFrequency(name, foo, 1);
+    store.addConstantFrequency(name, bar);
+    store.addLtiFrequency(next, a2);
+    store.addLtiFrequency(next, a3);
+
+    // tie @A2 with @A1
+    store.setAugmentationActivation(a2, 1.0);
+    store.setLtiActivation(a1, 1.0);
+    store.setLtiActivation(a2, 1.0);
+    store.setLtiActivation(a3, 3.0);
+    store.setLtiAccess(a1, 1, 4, 1);
+    store.setLtiAccess(a3, 2, 4, 3);
+  }
+
+  @Test
+  public void testLookupsMatchTheDatabase() throws Exception {
+    store(jdbc);
+    store(heap);
+
+    for (SemanticMemoryStore store : new SemanticMemoryStore[] {jdbc, heap}) {
+      assertEquals(3, store.findStringSymbol("foo"));
+      assertEquals(0, store.findStringSymbol("missing"));
+      assertEquals(5, store.findIntegerSymbol(7));
+      assertEquals(0, store.findFloatSymbol(7.0));
+      assertEquals("bar", store.getStringSymbol(4));
+      assertEquals(Long.valueOf(7), store.getIntegerSymbol(5));
+      assertEquals(Symbols.INT_CONSTANT_SYMBOL_TYPE, store.getSymbolType(5));
+      assertEquals(-1, store.getSymbolType(99));
+
+      assertEquals(2, store.findLti('A', 2));
+      assertEquals(0, store.findLti('B', 1));
+      assertArrayEquals(new long[] {'A', 3}, store.getLtiName(3));
+      assertNull(store.getLtiName(99));
+      assertEquals(2, store.getLtiChildCount(1));
+      assertEquals(Double.valueOf(3.0), store.getLtiActivation(3));
+      assertArrayEquals(new long[] {2, 4, 3}, store.getLtiAccess(3));
+
+      assertEquals(Long.valueOf(3), store.getAttributeFrequency(1));
+      assertEquals(Long.valueOf(2), store.getConstantFrequency(1, 3));
+      assertEquals(Long.valueOf(1), store.getLtiFrequency(2, 3));
+      assertNull(store.getLtiFrequency(2, 1));
+      store.updateLtiFrequency(2, 1, 1);
+      assertNull(store.getLtiFrequency(2, 1));
+
+      final ByRef<Long> value = ByRef.create(0L);
+      assertFalse(store.getVariable(3, value));
+      store.setVariable(3, 42);
+      assertFalse(store.getVariable(3, value));
+      store.createVariable(3, 42);
+      assertTrue(store.getVariable(3, value));
+      assertEquals(Long.valueOf(42), value.value);
+    }
+
+    assertEquals(rows(jdbc.getLtiMaxNumbers(), 2), rows(heap.getLtiMaxNumbers(), 2));
+    assertEquals(
+        rows(jdbc.findLtisLastActivatedAt(4), 1), rows(heap.findLtisLastActivatedAt(4), 1));
+    assertEquals(rows(jdbc.selectLtis(), 4), rows(heap.selectLtis(), 4));
+  }
+
+  @Test
+  public void testCrawlsMatchTheDatabase() throws Exception {
+    store(jdbc);
+    store(heap);
+
+    assertEquals(rows(jdbc.findByAttribute(1), 2), rows(heap.findByAttribute(1), 2));
+    assertEquals(rows(jdbc.findByAttribute(2), 2), rows(heap.findByAttribute(2), 2));
+    assertEquals(rows(jdbc.findByConstant(1, 3), 2), rows(heap.findByConstant(1, 3), 2));
+    assertEquals(rows(jdbc.findByLti(2, 3), 2), rows(heap.findByLti(2, 3), 2));
+    assertTrue(rows(heap.findByConstant(1, 5), 2).isEmpty());
+
+    // the tied @A1 and @A2 come back latest first
+    final List<List<Long>> byName = rows(heap.findByConstant(1, 3), 2);
+    assertEquals(2, byName.size());
+    assertEquals(Long.valueOf(2), byName.get(0).get(0));
+    assertEquals(Long.valueOf(1), byName.get(1).get(0));
+
+    assertEquals(rows(jdbc.findChildren(1, 1), 2), rows(heap.findChildren(1, 1), 2));
+    assertEquals(
+        rows(jdbc.findConstantChildren(2, 1, 3), 2), rows(heap.findConstantChildren(2, 1, 3), 2));
+    assertEquals(rows(jdbc.findLtiChildren(1, 2, 2), 2), rows(heap.findLtiChildren(1, 2, 2), 2));
+    assertTrue(rows(heap.findLtiChildren(1, 2, 3), 2).isEmpty());
+  }
+
+  @Test
+  public void testActivationChangesReorderCrawls() throws Exception {
+    store(jdbc);
+    store(heap);
+
+    for (SemanticMemoryStore store : new SemanticMemoryStore[] {jdbc, heap}) {
+      store.setAugmentationActivation(1, 5.0);
+    }
+    assertEquals(rows(jdbc.findByAttribute(1), 2), rows(heap.findByAttribute(1), 2));
+    assertEquals(Long.valueOf(1), rows(heap.findByAttribute(1), 2).get(0).get(0));
+
+    for (SemanticMemoryStore store : new SemanticMemoryStore[] {jdbc, heap}) {
+      store.deleteAugmentations(1);
+    }
+    assertEquals(rows(jdbc.findByAttribute(1), 2), rows(heap.findByAttribute(1), 2));
+    assertTrue(rows(heap.getAugmentations(1), 3).isEmpty());
+  }
+
+  @Test
+  public void testExpansionMatchesTheDatabase() throws Exception {
+    store(jdbc);
+    store(heap);
+
+    for (long lti = 1; lti <= 3; lti++) {
+      assertEquals(rows(jdbc.getAugmentations(lti), 3), rows(heap.getAugmentations(lti), 3));
+      assertEquals(rows(jdbc.expandAugmentations(lti), 7), rows(heap.expandAugmentations(lti), 7));
+    }
+    assertEquals(
+        rows(jdbc.selectConstantAugmentations(), 5), rows(heap.selectConstantAugmentations(), 5));
+    assertEquals(rows(jdbc.selectLtiAugmentations(), 4), rows(heap.selectLtiAugmentations(), 4));
+  }
+
+  @Test
+  public void testHistoryMatchesTheDatabase() throws Exception {
+    for (SemanticMemoryStore store : new SemanticMemoryStore[] {jdbc, heap}) {
+      final long lti = store.addLti('A', 1);
+      assertNull(store.getHistory(lti));
+      store.addHistory(lti, 3);
+      for (long t = 4; t <= 15; t++) {
+        store.pushHistory(lti, t);
+      }
+    }
+    assertArrayEquals(jdbc.getHistory(1), heap.getHistory(1));
+    assertEquals(15, heap.getHistory(1)[0]);
+    assertEquals(DefaultSemanticMemory.SMEM_ACT_HISTORY_ENTRIES, heap.getHistory(1).length);
+  }
+}
@@ -196,6 +196,40 @@ public void testCueSelection() throws Exception {
             && bwc.weight == 4);
   }
 
+  @Test
+  public void testSimpleCueBasedRetrievalHeap() throws Exception {
+    agent.getInterpreter().eval("smem --set backend heap");
+    agent.setStopPhase(Phase.OUTPUT);
+    runTest("testSimpleCueBasedRetrieval", 1);
+  }
+
+  @Test
+  public void testSimpleStoreHeap() throws Exception {
+    agent.getInterpreter().eval("smem --set backend heap");
+    agent.setStopPhase(Phase.OUTPUT);
+    runTest("testSimpleStore", 2);
+  }
+
+  @Test
+  public void testMirroringHeap() throws Exception {
+    agent.getInterpreter().eval("smem --set backend heap");
+    agent.setStopPhase(Phase.OUTPUT);
+    runTest("testMirroring", 4);
+  }
+
+  @Test
+  public void testMaxMultivaluedHeap() throws Exception {
+    agent.getInterpreter().eval("smem --set backend heap");
+    agent.setStopPhase(Phase.OUTPUT);
+    runTest("testMaxMultivalued", 1);
+  }
+
+  @Test
+  public void testNegQueryHeap() throws Exception {
+    agent.getInterpreter().eval("smem --set backend heap");
+    runTest("testNegQuery", 248);
+  }
+
   private boolean halted = false;
 
   @Test
@@ -0,0 +1,94 @@
+package org.jsoar.kernel.symbols;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.jsoar.kernel.memory.WmeImpl;
+import org.jsoar.kernel.rete.Rete;
+import org.jsoar.kernel.tracing.Trace;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Runs the symbol factory tests against {@link SymbolTableType#COUNTED} */
+public class CountedSymbolFactoryImplTest extends SymbolFactoryImplTest {
+
+  private SymbolFactoryImpl syms;
+
+  @Before
+  @Override
+  public void setUp() throws Exception {
+    syms = new SymbolFactoryImpl(SymbolTableType.COUNTED);
+    setSyms(syms);
+  }
+
+  @Test
+  @Override
+  public void testGarbageCollectedSymbolsAreRemovedFromCache() {
+    for (int i = 0; i < 1000; ++i) {
+      assertNotNull(syms.createInteger(i));
+      assertNotNull(syms.createString(Integer.toString(i)));
+    }
+    // New symbols are held until working memory changes are processed
+    syms.releaseUnreferencedSymbols();
+    System.gc();
+    for (int i = 0; i < 1000; ++i) {
+      assertNull(syms.findInteger(i));
+      assertNull(syms.findString(Integer.toString(i)));
+    }
+  }
+
+  @Test
+  public void testSymbolsReferencedByWorkingMemoryAreNotReleased() {
+    final IdentifierImpl id = syms.createIdentifier('S');
+    final WmeImpl w =
+        new WmeImpl(id, syms.createString("count"), syms.createInteger(12345), false, 1);
+    syms.wmeAdded(w);
+    syms.releaseUnreferencedSymbols();
+    assertEquals(1, w.value.wmeReferences);
+
+    syms.wmeRemoved(w);
+    syms.releaseUnreferencedSymbols();
+    assertEquals(0, w.value.wmeReferences);
+
+    // Still referenced here, so the same symbol must be returned
+    assertSame(w.value, syms.findInteger(12345));
+    assertSame(w.value, syms.createInteger(12345));
+    assertSame(id, syms.findIdentifier('S', id.getNameNumber()));
+  }
+
+  @Test
+  public void testReferencesAreCountedForWmesAddedAndRemovedDirectlyInTheRete() {
+    // e.g. SimpleMatcher, which never goes through WorkingMemory's buffered changes
+    final Rete rete = new Rete(Trace.createStdOutTrace(), syms);
+    final IdentifierImpl id = syms.createIdentifier('S');
+    final WmeImpl w =
+        new WmeImpl(id, syms.createString("count"), syms.createInteger(12345), false, 1);
+
+    rete.add_wme_to_rete(w);
+    assertEquals(1, w.id.wmeReferences);
+    assertEquals(1, w.value.wmeReferences);
+
+    rete.remove_wme_from_rete(w);
+    assertEquals(0, w.id.wmeReferences);
+    assertEquals(0, w.attr.wmeReferences);
+    assertEquals(0, w.value.wmeReferences);
+  }
+
+  @Test
+  public void testSymbolsAreMovedWhenTableTypeChanges() {
+    final SymbolFactoryImpl syms = new SymbolFactoryImpl();
+    final StringSymbolImpl s = syms.createString("hello");
+    final DoubleSymbolImpl d = syms.createDouble(-0.0);
+    final IdentifierImpl id = syms.createIdentifier('Z');
+
+    syms.setSymbolTableType(SymbolTableType.COUNTED);
+
+    assertEquals(SymbolTableType.COUNTED, syms.getSymbolTableType());
+    assertSame(s, syms.findString("hello"));
+    assertSame(d, syms.findDouble(-0.0));
+    assertNull(syms.findDouble(0.0));
+    assertSame(id, syms.findIdentifier('Z', id.getNameNumber()));
+  }
+}
@@ -0,0 +1,52 @@
+package org.jsoar.kernel.symbols;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+public class LongSymbolMapTest {
+
+  @Test
+  public void testPutGetAndRemove() {
+    final LongSymbolMap<String> map = new LongSymbolMap<>();
+    map.put(Long.MIN_VALUE, "min");
+    map.put(0, "zero");
+    map.put(Long.MAX_VALUE, "max");
+
+    assertEquals(3, map.size());
+    assertEquals("min", map.get(Long.MIN_VALUE));
+    assertEquals("zero", map.get(0));
+    assertEquals("max", map.get(Long.MAX_VALUE));
+    assertNull(map.get(1));
+
+    assertEquals("zero", map.remove(0));
+    assertNull(map.remove(0));
+    assertNull(map.get(0));
+    assertEquals(2, map.size());
+  }
+
+  @Test
+  public void testMatchesHashMapUnderRandomOperations() {
+    final LongSymbolMap<Long> map = new LongSymbolMap<>();
+    final Map<Long, Long> expected = new HashMap<>();
+    final Random random = new Random(42);
+    for (int i = 0; i < 100000; ++i) {
+      // Small key range so removals and collisions are common
+      final long key = random.nextInt(2000);
+      if (random.nextInt(3) == 0) {
+        assertEquals(expected.remove(key), map.remove(key));
+      } else {
+        expected.put(key, (long) i);
+        map.put(key, (long) i);
+      }
+    }
+    assertEquals(expected.size(), map.size());
+    for (long key = 0; key < 2000; ++key) {
+      assertEquals(expected.get(key), map.get(key));
+    }
+  }
+}
@@ -14,7 +14,12 @@
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.jsoar.kernel.SoarConstants;
 import org.jsoar.util.ByRef;
 import org.junit.After;
@@ -31,6 +36,10 @@ public void setUp() throws Exception {
     syms = new SymbolFactoryImpl();
   }
 
+  void setSyms(SymbolFactoryImpl syms) {
+    this.syms = syms;
+  }
+
   @After
   public void tearDown() throws Exception {
     syms = null;
@@ -446,4 +455,35 @@ public void testCanImportJavaSymbolsAcrossFactories() {
     assertNotSame(i, s);
     assertSame(i.getValue(), s.asJava().getValue());
   }
+
+  @Test
+  public void testConcurrentlyCreatedConstantsAreTheSameSymbol() throws Exception {
+    final SymbolFactoryImpl weak = new SymbolFactoryImpl(SymbolTableType.WEAK);
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Callable<List<Symbol>>> tasks = new ArrayList<>();
+      for (int t = 0; t < 4; ++t) {
+        tasks.add(
+            () -> {
+              final List<Symbol> result = new ArrayList<>();
+              for (int i = 0; i < 2000; ++i) {
+                result.add(weak.createString("s" + i));
+                result.add(weak.createInteger(i));
+                result.add(weak.createDouble(i + 0.5));
+              }
+              return result;
+            });
+      }
+      final List<Future<List<Symbol>>> results = executor.invokeAll(tasks);
+      final List<Symbol> first = results.get(0).get();
+      for (Future<List<Symbol>> result : results) {
+        final List<Symbol> other = result.get();
+        for (int i = 0; i < first.size(); ++i) {
+          assertSame(first.get(i), other.get(i));
+        }
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
 }
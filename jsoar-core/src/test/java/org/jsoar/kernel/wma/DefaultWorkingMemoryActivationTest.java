@@ -0,0 +1,151 @@
+package org.jsoar.kernel.wma;
+
+import static org.junit.Assert.*;
+
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.jsoar.kernel.Agent;
+import org.jsoar.kernel.RunType;
+import org.jsoar.kernel.memory.WmeImpl;
+import org.jsoar.kernel.rete.Rete;
+import org.jsoar.util.adaptables.Adaptables;
+import org.junit.After;
+import org.junit.Test;
+
+public class DefaultWorkingMemoryActivationTest {
+  private final List<Agent> agents = new ArrayList<>();
+
+  @After
+  public void tearDown() throws Exception {
+    for (Agent agent : agents) {
+      agent.dispose();
+    }
+  }
+
+  /** Creates an agent whose ^data wmes are referenced every decision */
+  private Agent createAgent(String... settings) throws Exception {
+    final Agent agent = new Agent();
+    agents.add(agent);
+    for (String setting : settings) {
+      agent.getInterpreter().eval("wm activation --set " + setting);
+    }
+    agent.getInterpreter().eval("wm activation --set activation on");
+    agent
+        .getInterpreter()
+        .eval(
+            "sp {propose*init (state <s> ^superstate nil -^count) -->"
+                + " (<s> ^operator <o> + =) (<o> ^name init)}\n"
+                + "sp {apply*init (state <s> ^operator.name init) -->"
+                + " (<s> ^count 0 ^data <d>) (<d> ^value 1 ^other 2)}\n"
+                + "sp {propose*tick (state <s> ^count <c> ^data <d>) (<d> ^value 1) -->"
+                + " (<s> ^operator <o> + =) (<o> ^name tick)}\n"
+                + "sp {apply*tick (state <s> ^operator.name tick ^count <c>) -->"
+                + " (<s> ^count <c> - (+ <c> 1) +)}\n"
+                + "sp {elaborate*other (state <s> ^data <d> ^count <c>) (<d> ^other <x>)"
+                + " (<c> > 20) (<c> < 40) --> (<s> ^seen <x>)}");
+    return agent;
+  }
+
+  private static List<WmeImpl> getWmes(Agent agent) {
+    final List<WmeImpl> wmes = new ArrayList<>(Adaptables.adapt(agent, Rete.class).getAllWmes());
+    wmes.sort(Comparator.comparingInt(WmeImpl::getTimetag));
+    return wmes;
+  }
+
+  private static DefaultWorkingMemoryActivation getWma(Agent agent) {
+    return Adaptables.adapt(agent, DefaultWorkingMemoryActivation.class);
+  }
+
+  @Test
+  public void testApproximateActivationIsWithinReportedErrorBound() throws Exception {
+    final Agent exact = createAgent();
+    final Agent approx = createAgent("activation-approx on", "approx-history 2");
+    exact.runFor(100, RunType.DECISIONS);
+    approx.runFor(100, RunType.DECISIONS);
+
+    final double bound = getWma(approx).getStats().getApproxErrorBound();
+    assertTrue(bound > 0.0);
+    assertTrue(bound < 1.0);
+    assertEquals(0.0, getWma(exact).getStats().getApproxErrorBound(), 0.0);
+
+    final List<WmeImpl> exactWmes = getWmes(exact);
+    final List<WmeImpl> approxWmes = getWmes(approx);
+    assertEquals(exactWmes.size(), approxWmes.size());
+    int compared = 0;
+    for (int i = 0; i < exactWmes.size(); i++) {
+      final double e = getWma(exact).wma_get_wme_activation(exactWmes.get(i), false);
+      final double a = getWma(approx).wma_get_wme_activation(approxWmes.get(i), false);
+      assertEquals(exactWmes.get(i).toString(), e, a, e * bound + 1e-12);
+      compared++;
+    }
+    assertTrue(compared > 0);
+  }
+
+  @Test
+  public void testErrorBoundIgnoresForgettingForecasts() throws Exception {
+    final Agent plain = createAgent("activation-approx on", "approx-history 1", "petrov-approx on");
+    // nothing decays below this threshold during the run, but every new reference makes
+    // forgetting forecast the element's activation at future cycles
+    final Agent forecasting =
+        createAgent(
+            "activation-approx on",
+            "approx-history 1",
+            "petrov-approx on",
+            "forgetting bsearch",
+            "decay-thresh 8");
+    plain.runFor(300, RunType.DECISIONS);
+    forecasting.runFor(300, RunType.DECISIONS);
+
+    assertEquals(getWmes(plain).size(), getWmes(forecasting).size());
+    assertEquals(
+        getWma(plain).getStats().getApproxErrorBound(),
+        getWma(forecasting).getStats().getApproxErrorBound(),
+        0.0);
+  }
+
+  @Test
+  public void testErrorBoundIsReportedAgainAfterInitSoar() throws Exception {
+    final Agent agent = createAgent("activation-approx on", "approx-history 2");
+    agent.runFor(100, RunType.DECISIONS);
+    assertTrue(getWma(agent).getStats().getApproxErrorBound() > 0.0);
+
+    agent.initialize();
+    assertEquals(0.0, getWma(agent).getStats().getApproxErrorBound(), 0.0);
+
+    agent.runFor(100, RunType.DECISIONS);
+    assertTrue(getWma(agent).getStats().getApproxErrorBound() > 0.0);
+  }
+
+  @Test
+  public void testApproximateActivationIsCachedForTheCycle() throws Exception {
+    final Agent agent = createAgent("activation-approx on");
+    agent.runFor(30, RunType.DECISIONS);
+
+    final DefaultWorkingMemoryActivation wma = getWma(agent);
+    for (WmeImpl w : getWmes(agent)) {
+      assertEquals(wma.wma_get_wme_activation(w, true), wma.wma_get_wme_activation(w, true), 0.0);
+    }
+  }
+
+  @Test
+  public void testApproximationParametersAreProtected() throws Exception {
+    final Agent agent = createAgent();
+    final StringWriter out = new StringWriter();
+    agent.getPrinter().addPersistentWriter(out);
+
+    agent.getInterpreter().eval("wm activation --set activation-approx on");
+    agent.getPrinter().flush();
+    assertTrue(out.toString(), out.toString().contains("protected"));
+
+    agent.getInterpreter().eval("wm activation --set activation off");
+    agent.getInterpreter().eval("wm activation --set approx-history 0");
+    agent.getPrinter().flush();
+    assertTrue(out.toString(), out.toString().contains("Invalid value."));
+    assertEquals(3, getWma(agent).getParams().approx_history.get().intValue());
+
+    agent.getInterpreter().eval("wm activation --set approx-history 5");
+    assertEquals(5, getWma(agent).getParams().approx_history.get().intValue());
+  }
+}
@@ -0,0 +1,102 @@
+package org.jsoar.kernel.wma;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+public class ForgettingQueueTest {
+  @Test
+  public void testRemoveDueOnlyReturnsElementsForThatCycle() {
+    final ForgettingQueue pq = new ForgettingQueue(4);
+    final wma_decay_element a = new wma_decay_element();
+    final wma_decay_element b = new wma_decay_element();
+    final wma_decay_element c = new wma_decay_element();
+    pq.add(a, 5);
+    pq.add(b, 9); // same bucket as a, one lap later
+    pq.add(c, 5);
+    assertEquals(3, pq.size());
+
+    final List<wma_decay_element> due = new ArrayList<>();
+    pq.removeDue(5, due);
+    assertEquals(2, due.size());
+    assertTrue(due.containsAll(Arrays.asList(a, c)));
+    assertFalse(a.in_forget_queue);
+    assertEquals(1, pq.size());
+
+    due.clear();
+    pq.removeDue(9, due);
+    assertEquals(Arrays.asList(b), due);
+    assertTrue(pq.isEmpty());
+  }
+
+  @Test
+  public void testAddForProcessedCycleMovesToNextCycle() {
+    final ForgettingQueue pq = new ForgettingQueue(4);
+    final wma_decay_element a = new wma_decay_element();
+    final wma_decay_element b = new wma_decay_element();
+    final List<wma_decay_element> due = new ArrayList<>();
+    pq.removeDue(5, due);
+    pq.add(a, 5); // cycle 5 is already done
+    pq.add(b, 3);
+    assertEquals(6, a.forget_cycle);
+    assertEquals(6, b.forget_cycle);
+
+    pq.removeDue(6, due);
+    assertEquals(2, due.size());
+    assertTrue(due.containsAll(Arrays.asList(a, b)));
+    assertTrue(pq.isEmpty());
+  }
+
+  @Test
+  public void testRemoveDueReturnsElementsLeftFromSkippedCycles() {
+    final ForgettingQueue pq = new ForgettingQueue(4);
+    final wma_decay_element a = new wma_decay_element();
+    pq.add(a, 5);
+
+    // cycle 5 never processed, a comes out the next time its bucket is visited
+    final List<wma_decay_element> due = new ArrayList<>();
+    pq.removeDue(6, due);
+    assertTrue(due.isEmpty());
+    pq.removeDue(9, due);
+    assertEquals(Arrays.asList(a), due);
+    assertTrue(pq.isEmpty());
+  }
+
+  @Test
+  public void testRemoveUnlinksElement() {
+    final ForgettingQueue pq = new ForgettingQueue(4);
+    final wma_decay_element a = new wma_decay_element();
+    final wma_decay_element b = new wma_decay_element();
+    pq.add(a, 2);
+    pq.add(b, 2);
+    pq.remove(b);
+    pq.remove(b); // not queued, no-op
+    assertEquals(1, pq.size());
+
+    final List<wma_decay_element> due = new ArrayList<>();
+    pq.removeDue(2, due);
+    assertEquals(Arrays.asList(a), due);
+  }
+
+  @Test
+  public void testClearEmptiesQueue() {
+    final ForgettingQueue pq = new ForgettingQueue();
+    final wma_decay_element a = new wma_decay_element();
+    pq.add(a, 100);
+    pq.clear();
+    assertTrue(pq.isEmpty());
+    assertFalse(a.in_forget_queue);
+
+    final List<wma_decay_element> due = new ArrayList<>();
+    pq.removeDue(100, due);
+    assertTrue(due.isEmpty());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testBucketCountMustBePowerOfTwo() {
+    new ForgettingQueue(100);
+  }
+}
@@ -0,0 +1,130 @@
+package org.jsoar.runtime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.jsoar.kernel.Agent;
+import org.jsoar.kernel.RunType;
+import org.jsoar.kernel.SoarProperties;
+import org.jsoar.kernel.events.StopEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AgentSchedulerTest {
+  private AgentScheduler scheduler;
+  private final List<ThreadedAgent> agents = new ArrayList<>();
+
+  @Before
+  public void setUp() throws Exception {
+    scheduler = new AgentScheduler(2, 10);
+    ThreadedAgent.setScheduler(scheduler);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    ThreadedAgent.setScheduler(null);
+    for (ThreadedAgent agent : agents) {
+      agent.dispose();
+    }
+    scheduler.shutdown();
+  }
+
+  private ThreadedAgent createAgent() {
+    final ThreadedAgent agent = ThreadedAgent.create();
+    agent.getTrace().setWatchLevel(0);
+    agents.add(agent);
+    return agent;
+  }
+
+  private static CountDownLatch stopLatch(ThreadedAgent agent) {
+    final CountDownLatch latch = new CountDownLatch(1);
+    agent.getEvents().addListener(StopEvent.class, event -> latch.countDown());
+    return latch;
+  }
+
+  private static long decisions(ThreadedAgent agent) {
+    return agent.getProperties().get(SoarProperties.DECISION_PHASES_COUNT).longValue();
+  }
+
+  @Test(timeout = 30000)
+  public void testManyAgentsRunExactDecisionCountOnFewCarriers() throws Exception {
+    final Agent reference = new Agent();
+    reference.getTrace().setWatchLevel(0);
+    reference.runFor(95, RunType.DECISIONS);
+    final long expected = reference.getProperties().get(SoarProperties.DECISION_PHASES_COUNT);
+    reference.dispose();
+
+    final List<CountDownLatch> latches = new ArrayList<>();
+    for (int i = 0; i < 20; ++i) {
+      final ThreadedAgent agent = createAgent();
+      latches.add(stopLatch(agent));
+      agent.runFor(95, RunType.DECISIONS);
+    }
+    for (CountDownLatch latch : latches) {
+      assertTrue(latch.await(20, TimeUnit.SECONDS));
+    }
+    for (ThreadedAgent agent : agents) {
+      assertFalse(agent.isRunning());
+      assertEquals(expected, decisions(agent));
+      assertTrue(agent.getCpuTime() != 0);
+    }
+  }
+
+  @Test(timeout = 30000)
+  public void testStopAgentRunningForever() throws Exception {
+    final ThreadedAgent agent = createAgent();
+    final CountDownLatch stopped = stopLatch(agent);
+    agent.runForever();
+    while (decisions(agent) < 50) {
+      Thread.sleep(10);
+    }
+    agent.stop();
+    assertTrue(stopped.await(10, TimeUnit.SECONDS));
+    assertFalse(agent.isRunning());
+  }
+
+  @Test(timeout = 30000)
+  public void testWaitingAgentDoesNotHoldCarrierThread() throws Exception {
+    scheduler.shutdown();
+    scheduler = new AgentScheduler(1, 10);
+    ThreadedAgent.setScheduler(scheduler);
+
+    final ThreadedAgent waiter = createAgent();
+    waiter.getProductions().loadProduction("wait (state <s> ^superstate nil) --> (wait)");
+    final CountDownLatch waiterStopped = stopLatch(waiter);
+    waiter.runFor(20, RunType.DECISIONS);
+    while (!waiter.getProperties().get(SoarProperties.WAIT_INFO).waiting) {
+      Thread.sleep(10);
+    }
+
+    // The only carrier thread is free, so another agent can run to completion
+    final ThreadedAgent other = createAgent();
+    final CountDownLatch otherStopped = stopLatch(other);
+    other.runFor(50, RunType.DECISIONS);
+    assertTrue(otherStopped.await(10, TimeUnit.SECONDS));
+    assertTrue(waiter.isRunning());
+    assertTrue(waiter.getProperties().get(SoarProperties.WAIT_INFO).waiting);
+
+    // New input ends the wait and the run completes
+    ((WaitManager) waiter.getAdapter(WaitManager.class)).requestResume();
+    assertTrue(waiterStopped.await(10, TimeUnit.SECONDS));
+    assertFalse(waiter.getProperties().get(SoarProperties.WAIT_INFO).waiting);
+    assertEquals(20, decisions(waiter));
+  }
+
+  @Test(timeout = 30000)
+  public void testWaitTimeoutResumesParkedAgent() throws Exception {
+    final ThreadedAgent agent = createAgent();
+    agent.getProductions().loadProduction("wait (state <s> ^superstate nil) --> (wait 100)");
+    final CountDownLatch stopped = stopLatch(agent);
+    agent.runFor(20, RunType.DECISIONS);
+    assertTrue(stopped.await(10, TimeUnit.SECONDS));
+    assertEquals(20, decisions(agent));
+  }
+}
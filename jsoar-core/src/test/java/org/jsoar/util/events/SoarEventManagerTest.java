@@ -0,0 +1,111 @@
+package org.jsoar.util.events;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+
+public class SoarEventManagerTest {
+  private static class TestEvent implements SoarEvent {}
+
+  private static class SubTestEvent extends TestEvent {}
+
+  private static class OtherEvent implements SoarEvent {}
+
+  private final SoarEventManager manager = new SoarEventManager();
+  private final List<String> calls = new ArrayList<>();
+
+  private SoarEventListener recorder(String name) {
+    return event -> calls.add(name);
+  }
+
+  @Test
+  public void testHasListenersReflectsRegistrations() {
+    final SoarEventListener listener = recorder("a");
+    assertFalse(manager.hasListeners(TestEvent.class));
+
+    manager.addListener(TestEvent.class, listener);
+    assertTrue(manager.hasListeners(TestEvent.class));
+    assertFalse(manager.hasListeners(OtherEvent.class));
+
+    manager.removeListener(TestEvent.class, listener);
+    assertFalse(manager.hasListeners(TestEvent.class));
+
+    manager.addListener(null, listener);
+    assertTrue(manager.hasListeners(OtherEvent.class));
+  }
+
+  @Test
+  public void testTypeListenersAreCalledBeforeListenersForAnyEvent() {
+    manager.addListener(SoarEvent.class, recorder("any"));
+    manager.addListener(TestEvent.class, recorder("first"));
+    manager.addListener(TestEvent.class, recorder("second"));
+    manager.addListener(OtherEvent.class, recorder("other"));
+
+    manager.fireEvent(new TestEvent());
+
+    assertEquals(List.of("first", "second", "any"), calls);
+  }
+
+  @Test
+  public void testEventCanBeRoutedToParentType() {
+    manager.addListener(TestEvent.class, recorder("parent"));
+
+    manager.fireEvent(new SubTestEvent());
+    assertTrue(calls.isEmpty());
+
+    manager.fireEvent(new SubTestEvent(), TestEvent.class);
+    assertEquals(List.of("parent"), calls);
+  }
+
+  @Test
+  public void testRemoveOnlyRemovesOneRegistration() {
+    final SoarEventListener listener = recorder("a");
+    manager.addListener(TestEvent.class, listener);
+    manager.addListener(TestEvent.class, listener);
+
+    manager.removeListener(TestEvent.class, listener);
+    manager.fireEvent(new TestEvent());
+
+    assertEquals(List.of("a"), calls);
+  }
+
+  @Test
+  public void testRemoveWithNullClassRemovesListenerFromAllTypes() {
+    final SoarEventListener listener = recorder("a");
+    manager.addListener(TestEvent.class, listener);
+    manager.addListener(OtherEvent.class, listener);
+    manager.addListener(null, listener);
+
+    manager.removeListener(null, listener);
+    manager.fireEvent(new TestEvent());
+    manager.fireEvent(new OtherEvent());
+
+    assertTrue(calls.isEmpty());
+    assertFalse(manager.hasListeners(TestEvent.class));
+  }
+
+  @Test
+  public void testListenersChangedDuringDispatchTakeEffectOnNextEvent() {
+    final SoarEventListener late = recorder("late");
+    manager.addListener(
+        TestEvent.class,
+        new SoarEventListener() {
+          @Override
+          public void onEvent(SoarEvent event) {
+            calls.add("self");
+            manager.removeListener(TestEvent.class, this);
+            manager.addListener(TestEvent.class, late);
+          }
+        });
+
+    manager.fireEvent(new TestEvent());
+    assertEquals(List.of("self"), calls);
+
+    manager.fireEvent(new TestEvent());
+    assertEquals(List.of("self", "late"), calls);
+  }
+}
@@ -2,10 +2,14 @@
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import java.text.DecimalFormat;
 import java.util.Collection;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
 import org.openjdk.jmh.results.RunResult;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.options.Options;
@@ -22,7 +26,7 @@ protected void launchBenchmark(String benchmarkMethod, double referenceScore, do
         new OptionsBuilder()
             // Specify which benchmarks to run.
             // You can be more specific if you'd like to run only one benchmark per test.
-            .include(this.getClass().getName() + ".logMessage")
+            .include(benchmarkMethod)
             // Set the following options as needed
             .mode(Mode.AverageTime)
             // .timeUnit(TimeUnit.MICROSECONDS)
@@ -38,6 +42,38 @@ protected void launchBenchmark(String benchmarkMethod, double referenceScore, do
     assertResultBenchmark(results.iterator().next(), referenceScore, maxDeviation);
   }
 
+  /**
+   * Run a benchmark with the GC profiler and check that the normalized allocation rate, i.e. the
+   * number of bytes allocated per benchmark operation, doesn't exceed the given maximum.
+   */
+  protected void launchAllocationBenchmark(String benchmarkMethod, double maxBytesPerOperation)
+      throws Exception {
+
+    Options opt =
+        new OptionsBuilder()
+            .include(benchmarkMethod)
+            .mode(Mode.AverageTime)
+            .shouldFailOnError(true)
+            .shouldDoGC(true)
+            .addProfiler(GCProfiler.class)
+            .build();
+
+    Collection<RunResult> results = new Runner(opt).run();
+
+    assertEquals("Benchmark didn't produce any results", 1, results.size());
+    final RunResult result = results.iterator().next();
+    final Result<?> allocated = result.getSecondaryResults().get("\u00b7gc.alloc.rate.norm");
+    assertNotNull("GC profiler didn't report an allocation rate", allocated);
+    assertTrue(
+        "Benchmark method "
+            + result.getPrimaryResult().getLabel()
+            + " allocated "
+            + df.format(allocated.getScore())
+            + " bytes per operation, expected at most "
+            + df.format(maxBytesPerOperation),
+        allocated.getScore() <= maxBytesPerOperation);
+  }
+
   private void assertResultBenchmark(RunResult result, double referenceScore, double maxDeviation) {
     double score = result.getPrimaryResult().getScore();
     double deviation = score / referenceScore - 1;
@@ -53,9 +53,7 @@ public void actionPerformed(ActionEvent arg0) {
 
           @Override
           public Void call() throws Exception {
-            for (Production p : prods) {
-              proxy.getProductions().exciseProduction(p, true);
-            }
+            proxy.getProductions().exciseProductions(prods, true);
             proxy.getTrace().flush();
             return null;
           }
@@ -5,6 +5,7 @@
  */
 package org.jsoar.soarunit.jsoar;
 
+import java.util.ArrayList;
 import java.util.List;
 import org.jsoar.kernel.rhs.functions.RhsFunctionContext;
 import org.jsoar.kernel.rhs.functions.RhsFunctionException;
@@ -48,7 +49,8 @@ public List<Symbol> getArguments() {
   public Symbol execute(RhsFunctionContext context, List<Symbol> arguments)
       throws RhsFunctionException {
     called = true;
-    this.arguments = arguments;
+    // The argument list may be reused once this call returns, so keep a copy
+    this.arguments = new ArrayList<>(arguments);
     return agent.getRhsFunctions().getHandler("halt").execute(context, arguments);
   }
 }
@@ -0,0 +1,38 @@
+package org.jsoar.soarunit.jsoar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.jsoar.kernel.RunType;
+import org.jsoar.runtime.ThreadedAgent;
+import org.jsoar.util.StringTools;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestRhsFunctionTest {
+  private ThreadedAgent agent;
+
+  @Before
+  public void setUp() throws Exception {
+    agent = ThreadedAgent.create();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    agent.dispose();
+  }
+
+  @Test
+  public void testKeepsArgumentsAfterTheCallReturns() throws Exception {
+    final TestRhsFunction pass = TestRhsFunction.addTestFunction(agent, "pass");
+    agent
+        .getProductions()
+        .loadProduction("test (state <s> ^superstate nil) --> (pass |all done| (+ 1 2))");
+
+    agent.getAgent().runFor(1, RunType.DECISIONS);
+
+    assertTrue(pass.isCalled());
+    assertEquals("all done, 3", StringTools.join(pass.getArguments(), ", "));
+  }
+}